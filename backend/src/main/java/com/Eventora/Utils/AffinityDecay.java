@@ -0,0 +1,46 @@
+package com.Eventora.Utils;
+
+/**
+ * Forward exponential decay for affinity scores that are only ever written with $inc.
+ *
+ * Instead of decaying every stored score over time, increments are scaled up by
+ * 2^((now - EPOCH) / HALF_LIFE) when written, and stored scores are scaled down by the
+ * same factor when read. Relative order between keys is the same as with true decay,
+ * and a fresh increment of 1 reads back as 1. Scores written before the landmark
+ * (plain integer counts) read back as their count at the landmark.
+ */
+public final class AffinityDecay {
+
+    public static final long HALF_LIFE_SECONDS = 30L * 86_400L;
+
+    // Landmark time; scores grow 2^12 per year past it, which stays far inside double range
+    private static final long EPOCH_SECOND = 1_790_812_800L; // 2026-10-01T00:00:00Z
+
+    private AffinityDecay() {
+    }
+
+    /**
+     * Amount to $inc now for an interaction worth the given points.
+     */
+    public static double boost(double points) {
+        return points * weightAt(System.currentTimeMillis() / 1000);
+    }
+
+    /**
+     * Amount to $inc for an interaction worth the given points that happened at the given time.
+     */
+    public static double boostAt(double points, long epochSecond) {
+        return points * weightAt(epochSecond);
+    }
+
+    /**
+     * Factor turning stored scores into current scores; compute once per read.
+     */
+    public static double readScale() {
+        return 1.0 / weightAt(System.currentTimeMillis() / 1000);
+    }
+
+    static double weightAt(long epochSecond) {
+        return Math.pow(2.0, (double) (epochSecond - EPOCH_SECOND) / HALF_LIFE_SECONDS);
+    }
+}
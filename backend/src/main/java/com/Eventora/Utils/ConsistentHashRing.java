@@ -0,0 +1,78 @@
+package com.Eventora.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring over node ids, with virtual nodes for an even spread.
+ *
+ * Adding or removing one node of n only moves about 1/n of the keys, which keeps the
+ * hand-off on membership changes small.
+ */
+public final class ConsistentHashRing {
+
+    private final long[] points;   // sorted hash positions
+    private final String[] owners; // node id at each position
+    private final TreeSet<String> nodes;
+
+    public ConsistentHashRing(Collection<String> nodeIds, int virtualNodes) {
+        this.nodes = new TreeSet<>(nodeIds);
+        int n = nodes.size() * virtualNodes;
+        long[] hashes = new long[n];
+        String[] ids = new String[n];
+        int i = 0;
+        for (String node : nodes) {
+            for (int v = 0; v < virtualNodes; v++) {
+                hashes[i] = hash(node + "#" + v);
+                ids[i++] = node;
+            }
+        }
+        // Sort positions, carrying the owner along
+        Integer[] order = new Integer[n];
+        for (int k = 0; k < n; k++) order[k] = k;
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+        this.points = new long[n];
+        this.owners = new String[n];
+        for (int k = 0; k < n; k++) {
+            points[k] = hashes[order[k]];
+            owners[k] = ids[order[k]];
+        }
+    }
+
+    /**
+     * Node owning the key, or null if the ring is empty.
+     */
+    public String ownerOf(long key) {
+        if (points.length == 0) return null;
+        int i = Arrays.binarySearch(points, mix(key));
+        if (i < 0) i = -i - 1;
+        return owners[i == points.length ? 0 : i];
+    }
+
+    public TreeSet<String> nodes() {
+        return new TreeSet<>(nodes);
+    }
+
+    public boolean hasSameNodes(Collection<String> nodeIds) {
+        return nodes.equals(new TreeSet<>(nodeIds));
+    }
+
+    // FNV-1a followed by a finalizer, so similar node ids land far apart
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
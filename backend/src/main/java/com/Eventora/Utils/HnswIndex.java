@@ -0,0 +1,319 @@
+package com.Eventora.Utils;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Hierarchical navigable small world graph over unit-length float vectors (cosine
+ * similarity), for approximate nearest-neighbor search in sub-linear time.
+ *
+ * Built by a single thread with {@link #add}; once published it is only read, so any number
+ * of threads may {@link #search} without locking. Nodes are numbered 0..size-1 in insertion
+ * order. Distances are 1 - dot, kept non-negative so (distance, node) pairs pack into one
+ * long whose natural order is the distance order.
+ */
+public final class HnswIndex {
+
+    private final int dim;
+    private final int m;
+    private final int m0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+
+    private float[] vectors;
+    // links[node][level] = {count, neighbor, neighbor, ...}
+    private int[][][] links;
+    private int size = 0;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    private final ThreadLocal<Visited> visited = ThreadLocal.withInitial(Visited::new);
+
+    public HnswIndex(int dim, int m, int efConstruction, int expectedSize, long seed) {
+        this.dim = dim;
+        this.m = m;
+        this.m0 = 2 * m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1.0 / Math.log(Math.max(2, m));
+        this.random = new SplittableRandom(seed);
+        int capacity = Math.max(16, expectedSize);
+        this.vectors = new float[capacity * dim];
+        this.links = new int[capacity][][];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Inserts a unit-length vector and returns its node number.
+     */
+    public int add(float[] vector) {
+        int node = size;
+        if (node == links.length) {
+            links = Arrays.copyOf(links, node * 2);
+            vectors = Arrays.copyOf(vectors, node * 2 * dim);
+        }
+        System.arraycopy(vector, 0, vectors, node * dim, dim);
+
+        int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) links[node][l] = new int[(l == 0 ? m0 : m) + 1];
+        size++;
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return node;
+        }
+
+        int ep = entryPoint;
+        for (int l = maxLevel; l > level; l--) ep = greedy(vector, ep, l);
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            long[] candidates = searchLayer(vector, ep, efConstruction, l);
+            int cap = l == 0 ? m0 : m;
+            int[] chosen = selectNeighbors(candidates, cap);
+            int[] list = links[node][l];
+            list[0] = chosen.length;
+            System.arraycopy(chosen, 0, list, 1, chosen.length);
+            for (int neighbor : chosen) connect(neighbor, node, l, cap);
+            ep = node(candidates[0]);
+        }
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+        return node;
+    }
+
+    /**
+     * Up to k nodes nearest to the unit-length query, nearest first.
+     *
+     * @param ef search breadth; larger is slower and more accurate, at least k
+     */
+    public int[] search(float[] query, int k, int ef) {
+        if (entryPoint < 0 || k <= 0) return new int[0];
+        int ep = entryPoint;
+        for (int l = maxLevel; l > 0; l--) ep = greedy(query, ep, l);
+        long[] found = searchLayer(query, ep, Math.max(ef, k), 0);
+        int n = Math.min(k, found.length);
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) result[i] = node(found[i]);
+        return result;
+    }
+
+    /**
+     * Cosine similarity between the query and a node.
+     */
+    public float similarity(float[] query, int node) {
+        return 1f - distance(query, node);
+    }
+
+    /* =====================
+       GRAPH
+       ===================== */
+
+    private int greedy(float[] query, int ep, int level) {
+        float best = distance(query, ep);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] list = links[ep][level];
+            for (int i = 1; i <= list[0]; i++) {
+                float d = distance(query, list[i]);
+                if (d < best) {
+                    best = d;
+                    ep = list[i];
+                    improved = true;
+                }
+            }
+        }
+        return ep;
+    }
+
+    // Best-first search of one layer; returns packed (distance, node) pairs, nearest first
+    private long[] searchLayer(float[] query, int ep, int ef, int level) {
+        Visited seen = visited.get();
+        seen.reset(size);
+        LongHeap candidates = new LongHeap(ef * 2);
+        LongHeap results = new LongHeap(ef + 1); // holds negated pairs, so the root is the farthest
+
+        long start = pack(distance(query, ep), ep);
+        seen.mark(ep);
+        candidates.push(start);
+        results.push(-start);
+
+        while (candidates.size() > 0) {
+            long current = candidates.pop();
+            if (results.size() >= ef && distanceOf(current) > distanceOf(-results.peek())) break;
+
+            int[] list = links[node(current)][level];
+            for (int i = 1; i <= list[0]; i++) {
+                int neighbor = list[i];
+                if (!seen.mark(neighbor)) continue;
+                float d = distance(query, neighbor);
+                if (results.size() < ef || d < distanceOf(-results.peek())) {
+                    long packed = pack(d, neighbor);
+                    candidates.push(packed);
+                    results.push(-packed);
+                    if (results.size() > ef) results.pop();
+                }
+            }
+        }
+
+        long[] found = new long[results.size()];
+        for (int i = found.length - 1; i >= 0; i--) found[i] = -results.pop();
+        return found;
+    }
+
+    /**
+     * Neighbor selection heuristic: keep a candidate only if it is closer to the base than to
+     * every neighbor kept so far (spreads links across directions), then fill up with the rest.
+     */
+    private int[] selectNeighbors(long[] candidates, int cap) {
+        int[] kept = new int[Math.min(cap, candidates.length)];
+        boolean[] used = new boolean[candidates.length];
+        int n = 0;
+        for (int i = 0; i < candidates.length && n < kept.length; i++) {
+            int c = node(candidates[i]);
+            float toBase = distanceOf(candidates[i]);
+            boolean good = true;
+            for (int j = 0; j < n && good; j++) {
+                if (distance(c, kept[j]) < toBase) good = false;
+            }
+            if (good) {
+                kept[n++] = c;
+                used[i] = true;
+            }
+        }
+        for (int i = 0; i < candidates.length && n < kept.length; i++) {
+            if (!used[i]) kept[n++] = node(candidates[i]);
+        }
+        return n == kept.length ? kept : Arrays.copyOf(kept, n);
+    }
+
+    // Back-link; a full list drops its farthest entry if the new neighbor is closer
+    private void connect(int node, int neighbor, int level, int cap) {
+        int[] list = links[node][level];
+        if (list[0] < cap) {
+            list[++list[0]] = neighbor;
+            return;
+        }
+        int farthest = 1;
+        float farthestDistance = distance(node, list[1]);
+        for (int i = 2; i <= cap; i++) {
+            float d = distance(node, list[i]);
+            if (d > farthestDistance) {
+                farthest = i;
+                farthestDistance = d;
+            }
+        }
+        if (distance(node, neighbor) < farthestDistance) list[farthest] = neighbor;
+    }
+
+    /* =====================
+       DISTANCES
+       ===================== */
+
+    private float distance(float[] query, int node) {
+        int base = node * dim;
+        float dot = 0f;
+        for (int i = 0; i < dim; i++) dot += query[i] * vectors[base + i];
+        return Math.max(0f, 1f - dot);
+    }
+
+    private float distance(int a, int b) {
+        int baseA = a * dim;
+        int baseB = b * dim;
+        float dot = 0f;
+        for (int i = 0; i < dim; i++) dot += vectors[baseA + i] * vectors[baseB + i];
+        return Math.max(0f, 1f - dot);
+    }
+
+    private static long pack(float distance, int node) {
+        return ((long) Float.floatToRawIntBits(distance) << 32) | (node & 0xffffffffL);
+    }
+
+    private static float distanceOf(long packed) {
+        return Float.intBitsToFloat((int) (packed >>> 32));
+    }
+
+    private static int node(long packed) {
+        return (int) packed;
+    }
+
+    /* =====================
+       SCRATCH
+       ===================== */
+
+    // Per-thread visited marks, cleared by bumping the epoch instead of zeroing the array
+    private static final class Visited {
+        int[] marks = new int[0];
+        int epoch = 0;
+
+        void reset(int size) {
+            if (marks.length < size) {
+                marks = new int[Math.max(size, marks.length * 2)];
+                epoch = 0;
+            }
+            if (++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                epoch = 1;
+            }
+        }
+
+        // True if the node was not marked yet
+        boolean mark(int node) {
+            if (marks[node] == epoch) return false;
+            marks[node] = epoch;
+            return true;
+        }
+    }
+
+    // Binary min-heap of longs
+    private static final class LongHeap {
+        long[] items;
+        int size = 0;
+
+        LongHeap(int capacity) {
+            items = new long[Math.max(4, capacity)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        long peek() {
+            return items[0];
+        }
+
+        void push(long value) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (items[parent] <= value) break;
+                items[i] = items[parent];
+                i = parent;
+            }
+            items[i] = value;
+        }
+
+        long pop() {
+            long top = items[0];
+            long last = items[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && items[child + 1] < items[child]) child++;
+                if (last <= items[child]) break;
+                items[i] = items[child];
+                i = child;
+            }
+            if (size > 0) items[i] = last;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.Eventora.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Keyset position (startDate, id), plus the relevance score for ranked search results.
+ * Handed to clients as an opaque URL-safe token.
+ */
+public record PageCursor(LocalDateTime startDate, long id, double score) {
+
+    // Upper bound for the size of one page of any paged endpoint
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public static PageCursor of(LocalDateTime startDate, long id) {
+        return new PageCursor(startDate, id, 0.0);
+    }
+
+    /**
+     * Clamps a requested page size to MAX_PAGE_SIZE.
+     *
+     * @throws IllegalArgumentException if size is below 1
+     */
+    public static int pageSize(int size) {
+        if (size < 1) throw new IllegalArgumentException("Page size must be at least 1");
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    public String encode() {
+        long epochSecond = startDate == null ? Long.MAX_VALUE : startDate.toEpochSecond(ZoneOffset.UTC);
+        int nano = startDate == null ? 0 : startDate.getNano();
+        String raw = epochSecond + ":" + nano + ":" + id + ":" + Long.toHexString(Double.doubleToLongBits(score));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a blank token (first page).
+     *
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            long epochSecond = Long.parseLong(parts[0]);
+            LocalDateTime startDate = epochSecond == Long.MAX_VALUE
+                    ? null
+                    : LocalDateTime.ofEpochSecond(epochSecond, Integer.parseInt(parts[1]), ZoneOffset.UTC);
+            return new PageCursor(
+                    startDate,
+                    Long.parseLong(parts[2]),
+                    Double.longBitsToDouble(Long.parseUnsignedLong(parts[3], 16))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.Eventora.Utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate "seen recently" set over long keys with bounded memory.
+ *
+ * Two Bloom filter generations: keys are added to the current one and looked up in both.
+ * The generations rotate every window, or earlier once the current one holds its expected
+ * number of keys, and a key is never remembered for more than two windows.
+ * False positives (a new key reported as seen) happen at roughly the configured rate.
+ * While fewer than the expected number of keys arrive per window, a key is remembered for
+ * at least one window; beyond that load the early rotations can forget a key sooner, so
+ * callers must tolerate a repeat being reported as new.
+ */
+public final class RotatingBloomFilter {
+
+    private final int bits;
+    private final int hashes;
+    private final int expectedKeys;
+    private final long windowMs;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    private static final class Generation {
+        final AtomicLongArray words;
+        final AtomicInteger added = new AtomicInteger();
+        final long startedAt;
+
+        Generation(int bits, long startedAt) {
+            this.words = new AtomicLongArray(bits >>> 6);
+            this.startedAt = startedAt;
+        }
+    }
+
+    public RotatingBloomFilter(int expectedKeys, double falsePositiveRate, long windowMs) {
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (ln2 * ln2));
+        // Power of two so the index is a mask; at least one word
+        this.bits = (int) Math.min(1L << 30, Math.max(64, Long.highestOneBit(m - 1) << 1));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedKeys * ln2));
+        this.expectedKeys = expectedKeys;
+        this.windowMs = windowMs;
+        long now = System.currentTimeMillis();
+        this.current = new Generation(bits, now);
+        this.previous = new Generation(bits, now);
+    }
+
+    /**
+     * Records the key; returns true if it was (probably) already seen within the window.
+     */
+    public boolean checkAndAdd(long key) {
+        rotateIfDue();
+        long h1 = mix(key);
+        long h2 = mix(h1) | 1;
+        Generation gen = current;
+        boolean inCurrent = true;
+        boolean inPrevious = true;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (int) ((h1 + i * h2) & (bits - 1));
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            if (inPrevious && (previous.words.get(word) & mask) == 0) inPrevious = false;
+            if ((gen.words.getAndUpdate(word, w -> w | mask) & mask) == 0) inCurrent = false;
+        }
+        if (!inCurrent) gen.added.incrementAndGet();
+        return inCurrent || inPrevious;
+    }
+
+    private void rotateIfDue() {
+        Generation gen = current;
+        long now = System.currentTimeMillis();
+        if (now - gen.startedAt < windowMs && gen.added.get() < expectedKeys) return;
+        synchronized (this) {
+            if (current != gen) return;
+            previous = gen;
+            current = new Generation(bits, now);
+        }
+    }
+
+    public int bitsPerGeneration() {
+        return bits;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,81 @@
+package com.Eventora.Utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one execution.
+ *
+ * The first caller for a key runs the loader; callers arriving while it is in flight
+ * wait for and share its result (or its exception). Nothing is cached once the load
+ * completes, so this only dedupes work that overlaps in time.
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public record Stats(String name, long calls, long executions) {
+        public long collapsed() {
+            return calls - executions;
+        }
+
+        /** Share of calls that were served by another caller's load. */
+        public double collapseRatio() {
+            return calls == 0 ? 0.0 : (double) collapsed() / calls;
+        }
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        calls.increment();
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            return await(leader);
+        }
+
+        executions.increment();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    public Stats stats() {
+        return new Stats(name, calls.sum(), executions.sum());
+    }
+
+    private static <V> V await(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            // Rethrow what the leader saw so followers fail the same way
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.Eventora.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Case-insensitive string interner handing out dense int ids (0, 1, 2, ...).
+ * Ids are never reused, so they are safe to keep in primitive columns.
+ * {@link #exact()} gives a variant that keeps values byte-for-byte.
+ */
+public class StringDictionary {
+
+    public static final int MISSING = -1;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> values = new ArrayList<>();
+    private final boolean caseInsensitive;
+
+    public StringDictionary() {
+        this(true);
+    }
+
+    private StringDictionary(boolean caseInsensitive) {
+        this.caseInsensitive = caseInsensitive;
+    }
+
+    /**
+     * Dictionary that neither trims nor lower-cases, for values used verbatim as keys elsewhere.
+     */
+    public static StringDictionary exact() {
+        return new StringDictionary(false);
+    }
+
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the id of the value, assigning the next free id if it is new.
+     */
+    public int intern(String value) {
+        String key = keyOf(value);
+        if (key == null || key.isEmpty()) return MISSING;
+
+        Integer id = ids.get(key);
+        if (id != null) return id;
+
+        synchronized (values) {
+            return ids.computeIfAbsent(key, k -> {
+                values.add(k);
+                return values.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * Returns the id of the value, or {@link #MISSING} if it was never interned.
+     */
+    public int idOf(String value) {
+        String key = keyOf(value);
+        if (key == null || key.isEmpty()) return MISSING;
+        return ids.getOrDefault(key, MISSING);
+    }
+
+    private String keyOf(String value) {
+        return caseInsensitive ? normalize(value) : value;
+    }
+
+    public String valueOf(int id) {
+        synchronized (values) {
+            return id >= 0 && id < values.size() ? values.get(id) : null;
+        }
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
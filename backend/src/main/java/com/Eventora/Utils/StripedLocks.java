@@ -0,0 +1,25 @@
+package com.Eventora.Utils;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks shared by key hash. Memory stays bounded no matter how many keys
+ * are seen, at the cost of unrelated keys occasionally sharing a stripe.
+ */
+public final class StripedLocks {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) locks[i] = new ReentrantLock();
+        this.mask = size - 1;
+    }
+
+    public ReentrantLock forKey(long key) {
+        long h = key * 0x9e3779b97f4a7c15L;
+        return locks[(int) (h ^ (h >>> 32)) & mask];
+    }
+}
@@ -0,0 +1,77 @@
+package com.Eventora.Utils;
+
+import java.util.Arrays;
+
+/**
+ * Set operations over tag-id sets stored as sorted, duplicate-free int arrays.
+ *
+ * Events carry only a handful of tags, so a merge over two short arrays beats hashing;
+ * query-side tag lists are turned into a bitset so membership is a single bit test.
+ */
+public final class TagSets {
+
+    public static final int[] EMPTY = new int[0];
+
+    private TagSets() {
+    }
+
+    /**
+     * Sorts the first n ids, drops duplicates and {@link StringDictionary#MISSING}.
+     */
+    public static int[] normalize(int[] ids, int n) {
+        if (n == 0) return EMPTY;
+        int[] sorted = Arrays.copyOf(ids, n);
+        Arrays.sort(sorted);
+        int out = 0;
+        for (int i = 0; i < n; i++) {
+            int id = sorted[i];
+            if (id < 0 || (out > 0 && sorted[out - 1] == id)) continue;
+            sorted[out++] = id;
+        }
+        return out == n ? sorted : Arrays.copyOf(sorted, out);
+    }
+
+    public static int intersectionSize(int[] a, int[] b) {
+        int i = 0, j = 0, common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                common++;
+                i++;
+                j++;
+            }
+        }
+        return common;
+    }
+
+    /** |a ∩ b| / |a ∪ b|, 0 when both are empty. */
+    public static double jaccard(int[] a, int[] b) {
+        int common = intersectionSize(a, b);
+        int union = a.length + b.length - common;
+        return union == 0 ? 0.0 : (double) common / union;
+    }
+
+    /** |a ∩ b| / sqrt(|a| * |b|), 0 when either is empty. */
+    public static double cosine(int[] a, int[] b) {
+        if (a.length == 0 || b.length == 0) return 0.0;
+        return intersectionSize(a, b) / Math.sqrt((double) a.length * b.length);
+    }
+
+    public static long[] toBits(int[] ids) {
+        int max = ids.length == 0 ? -1 : ids[ids.length - 1];
+        long[] bits = new long[(max >> 6) + 1];
+        for (int id : ids) bits[id >> 6] |= 1L << id;
+        return bits;
+    }
+
+    /** True when any id of the set is present in the bitset. */
+    public static boolean intersects(int[] set, long[] bits) {
+        for (int id : set) {
+            int word = id >> 6;
+            if (word >= bits.length) break; // set is sorted, nothing further can match
+            if ((bits[word] & (1L << id)) != 0) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,103 @@
+package com.Eventora.Utils;
+
+import java.util.Arrays;
+
+/**
+ * Bounded min-heap of (score, row) pairs keeping the k highest scores.
+ * Primitive arrays only, so scoring loops do not box or allocate per candidate.
+ */
+public final class TopK {
+
+    private final int k;
+    private final double[] scores;
+    private final int[] rows;
+    private int size;
+
+    public TopK(int k) {
+        this.k = Math.max(0, k);
+        this.scores = new double[this.k];
+        this.rows = new int[this.k];
+    }
+
+    public void offer(double score, int row) {
+        if (size < k) {
+            scores[size] = score;
+            rows[size] = row;
+            siftUp(size++);
+        } else if (k > 0 && score > scores[0]) {
+            scores[0] = score;
+            rows[0] = row;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Folds the other heap into this one (for combining per-chunk results).
+     */
+    public TopK merge(TopK other) {
+        for (int i = 0; i < other.size; i++) offer(other.scores[i], other.rows[i]);
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rows ordered by descending score; ties by ascending row.
+     */
+    public int[] rowsDescending() {
+        Integer[] order = order();
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) result[i] = rows[order[i]];
+        return result;
+    }
+
+    /**
+     * Scores in the same order as {@link #rowsDescending()}.
+     */
+    public double[] scoresDescending() {
+        Integer[] order = order();
+        double[] result = new double[size];
+        for (int i = 0; i < size; i++) result[i] = scores[order[i]];
+        return result;
+    }
+
+    private Integer[] order() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> scores[a] != scores[b]
+                ? Double.compare(scores[b], scores[a])
+                : Integer.compare(rows[a], rows[b]));
+        return order;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[parent] <= scores[i]) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) return;
+            int smallest = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+            if (scores[i] <= scores[smallest]) return;
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        double s = scores[a];
+        scores[a] = scores[b];
+        scores[b] = s;
+        int r = rows[a];
+        rows[a] = rows[b];
+        rows[b] = r;
+    }
+}
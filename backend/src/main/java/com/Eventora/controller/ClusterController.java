@@ -0,0 +1,39 @@
+package com.Eventora.controller;
+
+import com.Eventora.dto.UserInteractionEvent;
+import com.Eventora.service.InteractionForwarder;
+import com.Eventora.service.InteractionPipeline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+// Node-to-node endpoints; authenticated by the shared cluster token instead of a user JWT
+@RestController
+@RequestMapping("/internal")
+public class ClusterController {
+
+    private final InteractionPipeline pipeline;
+    private final byte[] token;
+
+    public ClusterController(InteractionPipeline pipeline, @Value("${eventora.cluster.token:}") String token) {
+        this.pipeline = pipeline;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PostMapping("/interactions")
+    public ResponseEntity<?> acceptForwarded(@RequestHeader(value = InteractionForwarder.TOKEN_HEADER, required = false) String presented,
+                                             @RequestBody List<UserInteractionEvent> events) {
+        if (token.length == 0 || presented == null
+                || !MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8))) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        // The sender routed these here because this node owns the users; process without re-routing
+        events.forEach(pipeline::submit);
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -3,14 +3,21 @@ import com.Eventora.dto.CreateEventDto;
 import com.Eventora.dto.EventDetailDto;
 import com.Eventora.dto.EventFilterRequest;
 import com.Eventora.dto.EventTemplate;
+import com.Eventora.Utils.PageCursor;
+import com.Eventora.entity.enums.EventCategory;
 import com.Eventora.service.EventService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+@Slf4j
 @RestController
 ///api/v1/organizer/events
 
@@ -31,29 +38,127 @@ public class EventController {
     {
         try {
             Page<EventTemplate> events = eventService.findEventByNameAndOrganizer(
-                    eventName,organizerName,isMyEventList,page,size
+                    eventName,organizerName,isMyEventList,page,PageCursor.pageSize(size)
             );
             return ResponseEntity.ok(events);
+        } catch (IllegalArgumentException exception) {
+            return ResponseEntity.badRequest().body(exception.getMessage());
         } catch (RuntimeException exception) {
-            exception.printStackTrace();
+            log.warn("Event search failed: {}", exception.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(exception.getMessage());
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Event search failed", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An error occurred while searching events");
         }
     }
 
 
+    // Keyset (cursor) variant: no total count, pass nextCursor back to get the following slice
+    @GetMapping("/getByNameAndOrganizer/scroll")
+    public ResponseEntity<?> scrollByNameAndOrganizer(
+            @RequestParam(name = "eventName", required = false) String eventName,
+            @RequestParam(name = "organizerName", required = false) String organizerName,
+            @RequestParam(name = "isMyEventList", required = false, defaultValue = "false") Boolean isMyEventList,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10") int size)
+    {
+        try {
+            return ResponseEntity.ok(eventService.scrollEventByNameAndOrganizer(
+                    eventName, organizerName, isMyEventList, cursor, PageCursor.pageSize(size)
+            ));
+        } catch (IllegalArgumentException exception) {
+            return ResponseEntity.badRequest().body(exception.getMessage());
+        } catch (RuntimeException exception) {
+            log.warn("Event search failed: {}", exception.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(exception.getMessage());
+        }
+    }
+
     @PostMapping("/getByFilter")
     public ResponseEntity<?> filterEvents(@RequestBody EventFilterRequest filterRequest) {
        try{
         return new ResponseEntity<>(eventService.getFilteredEvents(filterRequest), HttpStatus.FOUND) ;
+       } catch (IllegalArgumentException e) {
+           return ResponseEntity.badRequest().body(e.getMessage());
        } catch (RuntimeException e) {
-           e.printStackTrace();
-           return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+           log.error("Event filter failed", e);
+           return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
        }
     }
 
+    @PostMapping("/getByFilter/scroll")
+    public ResponseEntity<?> scrollFilterEvents(@RequestBody EventFilterRequest filterRequest) {
+        try {
+            return ResponseEntity.ok(eventService.scrollFilteredEvents(filterRequest));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Event filter failed", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PostMapping("/getByFilter/facets")
+    public ResponseEntity<?> filterFacets(@RequestBody EventFilterRequest filterRequest) {
+        try {
+            return ResponseEntity.ok(eventService.getFilterFacets(filterRequest));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Event facets failed", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<?> autocomplete(
+            @RequestParam("q") String prefix,
+            @RequestParam(name = "limit", defaultValue = "8") int limit)
+    {
+        try {
+            return ResponseEntity.ok(eventService.autocomplete(prefix, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Autocomplete failed", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/calendar")
+    public ResponseEntity<?> getCalendar(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "category", required = false) EventCategory category,
+            @RequestParam(name = "city", required = false) String city,
+            @RequestParam(name = "perDayLimit", defaultValue = "20") int perDayLimit)
+    {
+        try {
+            return ResponseEntity.ok(eventService.getCalendar(from, to, category, city, perDayLimit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Event calendar failed", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getNearbyEvents(
+            @RequestParam("latitude") double latitude,
+            @RequestParam("longitude") double longitude,
+            @RequestParam(name = "limit", defaultValue = "20") int limit)
+    {
+        try {
+            return ResponseEntity.ok(eventService.getNearbyEvents(latitude, longitude, PageCursor.pageSize(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Nearby events failed", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @GetMapping("/getById")
     public ResponseEntity<?> getEventById(@RequestParam("eventId") Long eventId)
     {
@@ -120,9 +225,11 @@ public class EventController {
     ) {
         try {
             Page<EventTemplate> events = eventService.getEventByNameOrganiserByMe(
-                    eventName,page,size
+                    eventName,page,PageCursor.pageSize(size)
             ) ;
             return ResponseEntity.ok(events);
+        } catch (IllegalArgumentException exception) {
+            return ResponseEntity.badRequest().body(exception.getMessage());
         } catch (ResponseStatusException exception) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exception.getReason());
         } catch (Exception e) {
@@ -130,4 +237,23 @@ public class EventController {
         }
     }
 
+    @GetMapping("/getByNameOrganiserByMe/scroll")
+    public ResponseEntity<?> scrollEventByNameOrganiserByMe(
+            @RequestParam(name = "eventName", required = false) String eventName,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        try {
+            return ResponseEntity.ok(eventService.scrollEventByNameOrganiserByMe(eventName, cursor, PageCursor.pageSize(size)));
+        } catch (IllegalArgumentException exception) {
+            return ResponseEntity.badRequest().body(exception.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Fetching organizer events failed", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error fetching events");
+        } catch (Exception e) {
+            // No logged-in organizer
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
 }
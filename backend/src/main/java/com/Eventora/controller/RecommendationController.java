@@ -1,11 +1,14 @@
 package com.Eventora.controller;
 
+import com.Eventora.entity.enums.EventCategory;
 import com.Eventora.service.RecommendationService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/recommendations")
 @RequiredArgsConstructor
@@ -18,12 +21,33 @@ public class RecommendationController {
     {
         try{
             return new ResponseEntity<>(recommendationService.recommend(limit),HttpStatus.OK);
+        }catch(IllegalArgumentException ex)
+        {
+            return ResponseEntity.badRequest().body(ex.getMessage());
         }catch(Exception ex)
         {
             return new ResponseEntity<>(HttpStatus.CONTINUE);
         }
     }
 
+    // Also served to anonymous visitors
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrending(@RequestParam(defaultValue = "10") int limit,
+                                         @RequestParam(required = false) String city,
+                                         @RequestParam(required = false) EventCategory category)
+    {
+        try{
+            return new ResponseEntity<>(recommendationService.trending(limit, city, category),HttpStatus.OK);
+        }catch(IllegalArgumentException ex)
+        {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }catch(Exception ex)
+        {
+            log.error("Trending events failed", ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An error occurred while loading trending events");
+        }
+    }
+
     @GetMapping("/{eventId}")
     public ResponseEntity<?> getSimilarRecommendations(@PathVariable Long eventId)
     {
@@ -1,4 +1,5 @@
 package com.Eventora.controller;
+import com.Eventora.Utils.PageCursor;
 import com.Eventora.dto.EventTemplate;
 import com.Eventora.service.EventService;
 import com.Eventora.service.RegistrationService;
@@ -40,6 +41,19 @@ public class RegistrationController {
         }
     }
 
+    @GetMapping("/getMyEvents/scroll")
+    public ResponseEntity<?> scrollRegisteredEvents(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10") int size) {
+        try {
+            return ResponseEntity.ok(registrationService.getRegisteredEvents(cursor, PageCursor.pageSize(size)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.noContent().build();
+        }
+    }
+
     @DeleteMapping("/unregister-event/{eventId}")
     public ResponseEntity<String> cancelRegistration(@PathVariable Long eventId)  {
         try{
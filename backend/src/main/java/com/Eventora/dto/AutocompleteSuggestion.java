@@ -0,0 +1,20 @@
+package com.Eventora.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutocompleteSuggestion {
+    private String text;
+    private Kind kind;
+    private long weight; // summed popularity of the listed events carrying this value
+
+    public enum Kind {
+        TITLE,
+        ORGANIZER,
+        CITY,
+        TAG
+    }
+}
@@ -0,0 +1,17 @@
+package com.Eventora.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// One day of the calendar view; multi-day events appear on every day they run
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarDay {
+    private LocalDate date;
+    private int total; // events on this day, events may be truncated to the per-day limit
+    private List<EventTemplate> events;
+}
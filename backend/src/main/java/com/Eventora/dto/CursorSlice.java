@@ -0,0 +1,17 @@
+package com.Eventora.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// Slice-style page for keyset pagination: no total count, just a token for the next page
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorSlice<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,33 @@
+package com.Eventora.dto;
+
+import com.Eventora.entity.Event;
+import com.Eventora.entity.enums.EventStatus;
+
+/**
+ * Published after an event write so the in-memory indexes can follow it.
+ */
+public record EventChangedEvent(
+        Long eventId,
+        ChangeType type,
+        Event event,            // UPSERT only
+        EventStatus status,     // STATUS only
+        int participantDelta    // PARTICIPANTS only
+) {
+    public enum ChangeType {
+        UPSERT,
+        STATUS,
+        PARTICIPANTS
+    }
+
+    public static EventChangedEvent upserted(Event event) {
+        return new EventChangedEvent(event.getId(), ChangeType.UPSERT, event, event.getEventStatus(), 0);
+    }
+
+    public static EventChangedEvent statusChanged(Long eventId, EventStatus status) {
+        return new EventChangedEvent(eventId, ChangeType.STATUS, null, status, 0);
+    }
+
+    public static EventChangedEvent participantsChanged(Long eventId, int delta) {
+        return new EventChangedEvent(eventId, ChangeType.PARTICIPANTS, null, null, delta);
+    }
+}
@@ -0,0 +1,33 @@
+package com.Eventora.dto;
+
+import com.Eventora.entity.enums.EventCategory;
+import com.Eventora.entity.enums.EventStatus;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// Facet counts for a browse filter. Each facet ignores its own filter field,
+// so the UI can show how many results picking another value would give.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventFacets {
+    private long total;
+    private Map<EventCategory, Long> categories;
+    private Map<String, Long> cities;
+    private Map<EventStatus, Long> statuses;
+    private List<PriceBucket> priceBuckets;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBucket {
+        private BigDecimal min; // inclusive, null = open
+        private BigDecimal max; // inclusive, null = open
+        private long count;
+    }
+}
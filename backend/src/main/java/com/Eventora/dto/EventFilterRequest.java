@@ -2,8 +2,10 @@ package com.Eventora.dto;
 
 import com.Eventora.entity.enums.EventCategory;
 import lombok.Data;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Data
 public class EventFilterRequest {
@@ -16,4 +18,12 @@ public class EventFilterRequest {
     private Double latitude;
     private Double longitude;
     private Double radiusInKm; // optional if you want nearby events
+    private List<String> tags; // matches events carrying any of these tags (case-insensitive)
+
+    // Paging & sort
+    private Integer page = 0;
+    private Integer size = 50;
+    private String sortBy = "startDate"; // startDate, price, popularity, distance (needs radius)
+    private Sort.Direction sortDirection = Sort.Direction.ASC;
+    private String cursor; // keyset token from a previous /getByFilter/scroll response
 }
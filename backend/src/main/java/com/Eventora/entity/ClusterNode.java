@@ -0,0 +1,23 @@
+package com.Eventora.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Heartbeat of a backend node taking part in interaction ownership.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "cluster_nodes")
+public class ClusterNode {
+
+    @Id
+    private String id; // the node's base URL, which other nodes forward to
+
+    private LocalDateTime heartbeatAt;
+}
@@ -7,6 +7,7 @@ import jakarta.validation.constraints.Min;
 import lombok.*;
 import org.hibernate.annotations.Check;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -20,6 +21,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+// Only changed columns are written, so entity saves don't clobber the batched counter columns
+@DynamicUpdate
 @Table(
         name = "events",
         uniqueConstraints = {
@@ -121,13 +124,15 @@ public class Event {
     @Column(nullable = true, length = 20)
     private String cityCategory; // small, medium, large
 
-    @Column(nullable = false)
+    // Counter columns below are written only by EventCounterService's batched flush (and
+    // revenue by EventRepository.refreshRevenue); entity updates would write stale values
+    @Column(nullable = false, updatable = false)
     private Integer impressions = 0;
 
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Integer clicks = 0;
 
-    @Column(nullable = true, columnDefinition = "double precision")
+    @Column(nullable = true, updatable = false, columnDefinition = "double precision")
     private Double ctr = 0.0;
 
     @Column(nullable = true)
@@ -136,10 +141,10 @@ public class Event {
     @Column(nullable = true)
     private Integer tagsCount = 0;
 
-    @Column(nullable = true)
+    @Column(nullable = true, updatable = false)
     private Integer checkedInCount = 0;
 
-    @Column(precision = 12, scale = 2)
+    @Column(precision = 12, scale = 2, updatable = false)
     private BigDecimal revenue = BigDecimal.valueOf(0.00d); // checkedInCount * price
 
     @Enumerated(EnumType.STRING)
@@ -160,15 +165,8 @@ public class Event {
     private LocalDateTime updatedAt;
 
     @PrePersist
-    @PreUpdate
-    public void beforeSaveOrUpdate() {
-        // recalculate postedDaysBeforeEvent
-        if (startDate != null && postedAt != null) {
-            this.postedDaysBeforeEvent = (int) ChronoUnit.DAYS.between(postedAt, startDate);
-        }
-
-        // update tags count
-        this.tagsCount = (tags == null) ? 0 : tags.size();
+    public void beforeSave() {
+        beforeUpdate();
 
         // update CTR
         if (impressions != null && impressions > 0) {
@@ -183,6 +181,18 @@ public class Event {
         } else {
             this.revenue = BigDecimal.ZERO;
         }
+    }
+
+    // Counter-derived ctr / revenue are left to the SQL that owns those columns
+    @PreUpdate
+    public void beforeUpdate() {
+        // recalculate postedDaysBeforeEvent
+        if (startDate != null && postedAt != null) {
+            this.postedDaysBeforeEvent = (int) ChronoUnit.DAYS.between(postedAt, startDate);
+        }
+
+        // update tags count
+        this.tagsCount = (tags == null) ? 0 : tags.size();
 
         if(organizer.getDisplayName() != null){
             this.organizerDisplayName = organizer.getDisplayName();
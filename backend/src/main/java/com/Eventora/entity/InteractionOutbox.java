@@ -0,0 +1,52 @@
+package com.Eventora.entity;
+
+import com.Eventora.entity.enums.InteractionType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interaction waiting to be applied to the user's MongoDB profile. Written in the same
+ * transaction as the registration / like it describes and deleted by the relay once applied.
+ */
+@Entity
+@Table(
+        name = "interaction_outbox",
+        indexes = {
+                @Index(name = "idx_outbox_user", columnList = "user_id, id"),
+                @Index(name = "idx_outbox_bucket", columnList = "bucket, id")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InteractionOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // InteractionOwnership.bucketOf(userId), so a relay claims only the rows of users it owns;
+    // null on rows written before the column existed
+    private Integer bucket;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private InteractionType type;
+
+    // When the interaction happened; for UNREGISTER_EVENT, when the undone registration was made.
+    // The relay scales points by this time, so a removal takes back exactly what was added.
+    private LocalDateTime occurredAt;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
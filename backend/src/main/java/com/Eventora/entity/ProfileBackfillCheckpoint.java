@@ -0,0 +1,29 @@
+package com.Eventora.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a user_interactions rebuild; a resumed run continues after lastUserId.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "profile_backfill_checkpoints")
+public class ProfileBackfillCheckpoint {
+
+    @Id
+    private String id;
+
+    private String state; // RUNNING, COMPLETED, FAILED
+    private Long lastUserId;
+    private long usersWritten;
+    private long rowsRead;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private String error;
+}
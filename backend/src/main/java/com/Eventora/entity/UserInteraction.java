@@ -22,36 +22,51 @@ public class UserInteraction {
     @Indexed(unique = true)
     private Long userId;
 
+    // Affinity scores are stored forward-decayed (see AffinityDecay); multiply by
+    // AffinityDecay.readScale() to get the current score.
+
     // Category -> weighted score
     @Builder.Default
-    private Map<EventCategory, Integer> categoryAffinity = new EnumMap<>(EventCategory.class);
+    private Map<EventCategory, Double> categoryAffinity = new EnumMap<>(EventCategory.class);
 
-    // City -> weighted score
+    // City -> weighted score, trimmed to the top MAX_CITY_AFFINITIES by UserProfileCompactor
     @Builder.Default
-    private Map<String, Integer> cityAffinity = new HashMap<>();
+    private Map<String, Double> cityAffinity = new HashMap<>();
 
-    // Tag -> weighted score
+    // Tag -> weighted score, trimmed to the top MAX_TAG_AFFINITIES by UserProfileCompactor
     @Builder.Default
-    private Map<String, Integer> tagAffinity = new HashMap<>();
+    private Map<String, Double> tagAffinity = new HashMap<>();
 
     /* =====================
        USER ACTION HISTORY
        ===================== */
 
+    // The history arrays are capped rings, oldest first: the update layer pulls an id
+    // and pushes it back with $slice, so re-touching an event moves it to the end
+    // and the oldest entries fall off once the cap is reached.
+    public static final int MAX_LIKED_EVENTS = 500;
+    public static final int MAX_REGISTERED_EVENTS = 500;
+    public static final int MAX_VIEWED_EVENTS = 200;
+    public static final int MAX_SHOWN_EVENTS = 100;
+    public static final int MAX_LISTED_EVENTS = 200;
+
+    public static final int MAX_TAG_AFFINITIES = 64;
+    public static final int MAX_CITY_AFFINITIES = 16;
+
+    @Builder.Default
+    private Set<Long> likedEvents = new LinkedHashSet<>();
+
     @Builder.Default
-    private Set<Long> likedEvents = new HashSet<>();
+    private Set<Long> registeredEvents = new LinkedHashSet<>();
 
     @Builder.Default
-    private Set<Long> registeredEvents = new HashSet<>();
+    private Set<Long> viewedEvents = new LinkedHashSet<>();
 
-    // Stored as a plain set of event IDs in MongoDB.
-    // The update layer uses $addToSet, which produces an array.
-    // A Map<Long, LocalDateTime> is incompatible with that —
-    // Spring Data cannot convert an array back into a Map.
+    // Events seen in listings (impressions); not part of the scoring profile, and kept
+    // apart from shownEvents, which holds recommender output for the shown-penalty
     @Builder.Default
-    private Set<Long> viewedEvents = new HashSet<>();
+    private Set<Long> listedEvents = new LinkedHashSet<>();
 
-    private static final int MAX_SHOWN_EVENTS = 100;
     /* =====================
        PRICE PREFERENCE
        ===================== */
@@ -63,45 +78,47 @@ public class UserInteraction {
        META
        ===================== */
 
+    // Indexed for the active-user scan of the feed precompute job
+    @Indexed
     private LocalDateTime lastActive;
 
     /* =====================
        HELPER METHODS
        ===================== */
     @Builder.Default
-    private Set<Long> shownEvents = new HashSet<>();
+    private Set<Long> shownEvents = new LinkedHashSet<>();
 
     public void addShownEvents(Collection<Long> eventIds) {
 
         for (Long eventId : eventIds) {
+            // Re-insert so a re-shown event becomes the newest
+            shownEvents.remove(eventId);
             shownEvents.add(eventId);
 
             if (shownEvents.size() > MAX_SHOWN_EVENTS) {
-                // Remove oldest
+                // Remove oldest (insertion order)
                 Iterator<Long> it = shownEvents.iterator();
-                if (it.hasNext()) {
-                    it.next();
-                    it.remove();
-                }
+                it.next();
+                it.remove();
             }
         }
     }
 
 
 
-    public void incrementCategory(EventCategory category, int weight) {
+    public void incrementCategory(EventCategory category, double weight) {
         if (category == null) return;
-        categoryAffinity.merge(category, weight, Integer::sum);
+        categoryAffinity.merge(category, weight, Double::sum);
     }
 
-    public void incrementCity(String city, int weight) {
+    public void incrementCity(String city, double weight) {
         if (city == null) return;
-        cityAffinity.merge(city, weight, Integer::sum);
+        cityAffinity.merge(city, weight, Double::sum);
     }
 
-    public void incrementTags(List<String> tags, int weight) {
+    public void incrementTags(List<String> tags, double weight) {
         if (tags == null) return;
-        tags.forEach(tag -> tagAffinity.merge(tag, weight, Integer::sum));
+        tags.forEach(tag -> tagAffinity.merge(tag, weight, Double::sum));
     }
 
     public void addLikedEvent(Long eventId) {
@@ -124,18 +141,19 @@ public class UserInteraction {
         return likedEvents.contains(eventId);
     }
 
-    public int getCategoryScore(EventCategory category) {
-        return categoryAffinity.getOrDefault(category, 0);
+    // Stored (forward-decayed) scores; negative leftovers of removals count as 0
+    public double getCategoryScore(EventCategory category) {
+        return Math.max(0.0, categoryAffinity.getOrDefault(category, 0.0));
     }
 
-    public int getCityScore(String city) {
-        return cityAffinity.getOrDefault(city, 0);
+    public double getCityScore(String city) {
+        return Math.max(0.0, cityAffinity.getOrDefault(city, 0.0));
     }
 
-    public int getTagScore(List<String> tags) {
+    public double getTagScore(List<String> tags) {
         if (tags == null) return 0;
         return tags.stream()
-                .mapToInt(tag -> tagAffinity.getOrDefault(tag, 0))
+                .mapToDouble(tag -> Math.max(0.0, tagAffinity.getOrDefault(tag, 0.0)))
                 .sum();
     }
 
@@ -5,6 +5,14 @@ public enum InteractionType {
     LIKE_EVENT,
     REGISTER_EVENT,
     UNREGISTER_EVENT,
-    CHECK_IN
-}
+    CHECK_IN,
+    // Event appeared in a listing the user was shown; never touches affinities
+    IMPRESSION;
 
+    /**
+     * High-volume signals that may be dropped under load or suppressed as repeats.
+     */
+    public boolean isSheddable() {
+        return this == VIEW_EVENT || this == IMPRESSION;
+    }
+}
@@ -0,0 +1,22 @@
+package com.Eventora.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface EventCatalogProjection {
+    Long getId();
+    String getTitle();
+    String getOrganizerName();
+    String getEventCategory();
+    String getEventStatus();
+    String getCity();
+    String getState();
+    String getCountry();
+    Double getLatitude();
+    Double getLongitude();
+    LocalDateTime getStartDate();
+    LocalDateTime getEndDate();
+    BigDecimal getPrice();
+    Integer getCurrentParticipants();
+    Integer getMaxParticipants();
+}
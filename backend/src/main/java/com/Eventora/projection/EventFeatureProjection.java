@@ -0,0 +1,7 @@
+package com.Eventora.projection;
+
+public interface EventFeatureProjection {
+        Long getId();
+        String getEventCategory();
+        String getCity();
+}
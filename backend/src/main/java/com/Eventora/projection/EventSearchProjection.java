@@ -0,0 +1,5 @@
+package com.Eventora.projection;
+
+public interface EventSearchProjection extends EventTemplateProjection {
+        Long getOrganizerId();
+}
@@ -0,0 +1,6 @@
+package com.Eventora.projection;
+
+public interface EventTagProjection {
+        Long getEventId();
+        String getTag();
+}
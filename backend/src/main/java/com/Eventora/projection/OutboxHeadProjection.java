@@ -0,0 +1,6 @@
+package com.Eventora.projection;
+
+public interface OutboxHeadProjection {
+        Long getUserId();
+        Long getFirstId();
+}
@@ -0,0 +1,12 @@
+package com.Eventora.projection;
+
+import java.time.LocalDateTime;
+
+public interface ProfileSourceProjection {
+        Long getUserId();
+        Long getEventId();
+        // Registration status name, or LIKED for watchlist rows
+        String getKind();
+        LocalDateTime getOccurredAt();
+        LocalDateTime getCheckedInAt();
+}
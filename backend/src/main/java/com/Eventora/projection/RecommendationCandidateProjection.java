@@ -0,0 +1,21 @@
+package com.Eventora.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface RecommendationCandidateProjection {
+    Long getId();
+    String getTitle();
+    String getOrganizerName();
+    String getEventCategory();
+    String getEventStatus();
+    String getCity();
+    LocalDateTime getStartDate();
+    BigDecimal getPrice();
+    Double getCtr();
+    Integer getCurrentParticipants();
+    Integer getMaxParticipants();
+    Double getOrganizerReputation();
+    Double getAvgPastAttendanceRate();
+    Long getPromotionSpend();
+}
@@ -0,0 +1,10 @@
+package com.Eventora.projection;
+
+import java.time.LocalDateTime;
+
+public interface TrendingSignalProjection {
+        Long getEventId();
+        // Registration status name, or LIKED for watchlist rows
+        String getKind();
+        LocalDateTime getOccurredAt();
+}
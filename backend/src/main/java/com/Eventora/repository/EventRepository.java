@@ -1,17 +1,17 @@
 package com.Eventora.repository;
 
-import com.Eventora.dto.EventDetailDto;
 import com.Eventora.dto.EventTemplate;
 import com.Eventora.entity.AppUser;
 import com.Eventora.entity.Event;
 import com.Eventora.entity.enums.EventCategory;
 import com.Eventora.entity.enums.EventStatus;
-import com.Eventora.entity.enums.RegistrationStatus;
+import com.Eventora.projection.EventCatalogProjection;
 import com.Eventora.projection.EventDetailProjection;
-import com.Eventora.projection.EventTemplateProjection;
+import com.Eventora.projection.EventFeatureProjection;
+import com.Eventora.projection.EventSearchProjection;
+import com.Eventora.projection.EventTagProjection;
+import com.Eventora.projection.RecommendationCandidateProjection;
 import jakarta.transaction.Transactional;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -51,19 +51,6 @@ public interface EventRepository extends JpaRepository<Event, Long> , JpaSpecifi
     List<Event> findByCityIgnoreCaseAndEventCategoryAndEventStatus(
             String city, EventCategory category, EventStatus status);
 
-    @Query("""
-    SELECT e FROM Event e
-    WHERE 
-      (:eventName IS NULL OR :eventName = '' 
-          OR LOWER(e.title) LIKE LOWER(CONCAT('%', :eventName, '%')))
-    AND 
-      (:organizerName IS NULL OR :organizerName = '' 
-          OR LOWER(e.organizerDisplayName) LIKE LOWER(CONCAT('%', :organizerName, '%')))
-    """)
-    List<Event> searchEvents(@Param("eventName") String eventName,
-                             @Param("organizerName") String organizerName);
-
-
     @Query("""
     SELECT new com.Eventora.dto.EventTemplate(
         e.id,
@@ -130,30 +117,21 @@ public interface EventRepository extends JpaRepository<Event, Long> , JpaSpecifi
     @Transactional
     @Query("""
     UPDATE Event e
-    SET e.clicks = e.clicks + 1
-    WHERE e.id = :eventId
-    """)
-    void updateClicks(@Param("eventId") Long eventId);
-
-    @Modifying
-    @Transactional
-    @Query("""
-    UPDATE Event e
-    SET e.checkedInCount = e.checkedInCount + 1
+    SET e.eventStatus = :status
     WHERE e.id = :eventId
     """)
-    void increaseCheckedInCnt(@Param("eventId") Long eventId);
+    void setEventStatus(@Param("eventId") Long eventId, @Param("status") EventStatus status);
 
 
+    // revenue is not written by entity updates (see Event); re-derive it after a price change
     @Modifying
     @Transactional
-    @Query("""
-    UPDATE Event e
-    SET e.eventStatus = :status
-    WHERE e.id = :eventId
-    """)
-    void setEventStatus(@Param("eventId") Long eventId, @Param("status") EventStatus status);
-
+    @Query(value = """
+    UPDATE events
+    SET revenue = COALESCE(price, 0) * COALESCE(checked_in_count, 0)
+    WHERE id = :eventId
+    """, nativeQuery = true)
+    void refreshRevenue(@Param("eventId") Long eventId);
 
     @Query("SELECT e.id FROM Event e WHERE e.id = :eventId AND e.organizer = :appUser")
     Optional<Long> checkByIdAndOrganizer(Long eventId,AppUser appUser);
@@ -172,107 +150,137 @@ public interface EventRepository extends JpaRepository<Event, Long> , JpaSpecifi
     @Query("SELECT e.id FROM Event e WHERE e.id = :eventId")
     Optional<Long> isEventPresent(Long eventId);
 
-
-    // Search all events with projection (no full entity fetch)
+    // Primitive columns for the in-memory EventCatalog (no entity / tag / description fetch)
     @Query(value = """
-    SELECT 
+    SELECT
         e.id,
         e.title,
-        e.organizer_display_name as organizerName,
-        e.event_category as eventCategory,
+        e.organizer_display_name AS organizerName,
+        e.event_category AS eventCategory,
+        e.event_status AS eventStatus,
         e.city,
-        e.event_status as eventStatus,
-        e.start_date as startDate,
-        e.current_participants as participantCount
+        e.state,
+        e.country,
+        e.latitude,
+        e.longitude,
+        e.start_date AS startDate,
+        e.end_date AS endDate,
+        e.price,
+        e.current_participants AS currentParticipants,
+        e.max_participants AS maxParticipants
     FROM events e
-    WHERE 
-        (:eventTitle IS NULL OR :eventTitle = '' OR LOWER(e.title) LIKE LOWER(CONCAT('%', :eventTitle, '%')))
-        AND (:organizerName IS NULL OR :organizerName = '' OR LOWER(e.organizer_display_name) LIKE LOWER(CONCAT('%', :organizerName, '%')))
-    ORDER BY e.start_date DESC
-    """,
-            countQuery = """
-    SELECT COUNT(*)
+    WHERE e.event_status IN (:statuses)
+    """, nativeQuery = true)
+    List<EventCatalogProjection> findCatalogRowsByStatusIn(@Param("statuses") List<String> statuses);
+
+    @Query(value = """
+    SELECT
+        e.id,
+        e.title,
+        e.organizer_display_name AS organizerName,
+        e.event_category AS eventCategory,
+        e.event_status AS eventStatus,
+        e.city,
+        e.state,
+        e.country,
+        e.latitude,
+        e.longitude,
+        e.start_date AS startDate,
+        e.end_date AS endDate,
+        e.price,
+        e.current_participants AS currentParticipants,
+        e.max_participants AS maxParticipants
     FROM events e
-    WHERE 
-        (:eventTitle IS NULL OR :eventTitle = '' OR LOWER(e.title) LIKE LOWER(CONCAT('%', :eventTitle, '%')))
-        AND (:organizerName IS NULL OR :organizerName = '' OR LOWER(e.organizer_display_name) LIKE LOWER(CONCAT('%', :organizerName, '%')))
-    """,
-            nativeQuery = true)
-    Page<EventTemplateProjection> searchEvents(
-            @Param("eventTitle") String eventTitle,
-            @Param("organizerName") String organizerName,
-            Pageable pageable
-    );
+    WHERE e.id = :eventId
+    """, nativeQuery = true)
+    Optional<EventCatalogProjection> findCatalogRowById(@Param("eventId") Long eventId);
 
-    // Search user's registered events
+    // Scoring columns of every upcoming event for the recommendation candidate matrix
     @Query(value = """
-    SELECT 
+    SELECT
         e.id,
         e.title,
-        e.organizer_display_name as organizerName,
-        e.event_category as eventCategory,
+        e.organizer_display_name AS organizerName,
+        e.event_category AS eventCategory,
+        e.event_status AS eventStatus,
         e.city,
-        e.event_status as eventStatus,
-        e.start_date as startDate,
-        e.current_participants as participantCount,
-            false
+        e.start_date AS startDate,
+        e.price,
+        e.ctr,
+        e.current_participants AS currentParticipants,
+        e.max_participants AS maxParticipants,
+        e.organizer_reputation AS organizerReputation,
+        e.avg_past_attendance_rate AS avgPastAttendanceRate,
+        e.promotion_spend AS promotionSpend
     FROM events e
-    INNER JOIN event_registrations er ON er.event_id = e.id
-    WHERE 
-        er.user_id = :userId
-        AND er.status != 'CANCELLED'
-        AND (:eventTitle IS NULL OR :eventTitle = '' OR LOWER(e.title) LIKE LOWER(CONCAT('%', :eventTitle, '%')))
-        AND (:organizerName IS NULL OR :organizerName = '' OR LOWER(e.organizer_display_name) LIKE LOWER(CONCAT('%', :organizerName, '%')))
-    ORDER BY e.start_date DESC
-    """,
-            countQuery = """
-    SELECT COUNT(*)
+    WHERE e.start_date > CURRENT_TIMESTAMP
+    """, nativeQuery = true)
+    List<RecommendationCandidateProjection> findRecommendationCandidateRows();
+
+    @Query(value = """
+    SELECT
+        e.id,
+        e.title,
+        e.organizer_display_name AS organizerName,
+        e.event_category AS eventCategory,
+        e.event_status AS eventStatus,
+        e.city,
+        e.start_date AS startDate,
+        e.price,
+        e.ctr,
+        e.current_participants AS currentParticipants,
+        e.max_participants AS maxParticipants,
+        e.organizer_reputation AS organizerReputation,
+        e.avg_past_attendance_rate AS avgPastAttendanceRate,
+        e.promotion_spend AS promotionSpend
     FROM events e
-    INNER JOIN event_registrations er ON er.event_id = e.id
-    WHERE 
-        er.user_id = :userId
-        AND er.status != 'CANCELLED'
-        AND (:eventTitle IS NULL OR :eventTitle = '' OR LOWER(e.title) LIKE LOWER(CONCAT('%', :eventTitle, '%')))
-        AND (:organizerName IS NULL OR :organizerName = '' OR LOWER(e.organizer_display_name) LIKE LOWER(CONCAT('%', :organizerName, '%')))
-    """,
-            nativeQuery = true)
-    Page<EventTemplate> searchMyRegisteredEvents(
-            @Param("userId") Long userId,
-            @Param("eventTitle") String eventTitle,
-            @Param("organizerName") String organizerName,
-            Pageable pageable
-    );
+    WHERE e.id = :eventId AND e.start_date > CURRENT_TIMESTAMP
+    """, nativeQuery = true)
+    Optional<RecommendationCandidateProjection> findRecommendationCandidateRowById(@Param("eventId") Long eventId);
 
+
+    // Rows for the in-memory EventSearchIndex (all statuses, no description / tag join)
     @Query(value = """
-    SELECT 
+    SELECT
         e.id,
         e.title,
         e.organizer_display_name AS organizerName,
+        e.organizer_id AS organizerId,
         e.event_category AS eventCategory,
         e.city,
         e.event_status AS eventStatus,
         e.start_date AS startDate,
         e.current_participants AS participantCount
     FROM events e
-    WHERE 
-        (:eventTitle IS NULL OR :eventTitle = '' OR LOWER(e.title) LIKE LOWER(CONCAT('%', :eventTitle, '%')))
-        AND e.organizer_id = :organizerId
-    ORDER BY e.start_date DESC
-    """,
-            countQuery = """
-    SELECT COUNT(*)
+    """, nativeQuery = true)
+    List<EventSearchProjection> findAllSearchRows();
+
+    @Query(value = """
+    SELECT
+        e.id,
+        e.title,
+        e.organizer_display_name AS organizerName,
+        e.organizer_id AS organizerId,
+        e.event_category AS eventCategory,
+        e.city,
+        e.event_status AS eventStatus,
+        e.start_date AS startDate,
+        e.current_participants AS participantCount
     FROM events e
-    WHERE 
-        (:eventTitle IS NULL OR :eventTitle = '' OR LOWER(e.title) LIKE LOWER(CONCAT('%', :eventTitle, '%')))
-        AND e.organizer_id = :organizerId
-    """,
-            nativeQuery = true)
-    Page<EventTemplateProjection> searchEventsOrganizeByMe(
-            @Param("eventTitle") String eventTitle,
-            @Param("organizerId") Long organizerId,
-            Pageable pageable
-    );
-}
+    WHERE e.id = :eventId
+    """, nativeQuery = true)
+    Optional<EventSearchProjection> findSearchRowById(@Param("eventId") Long eventId);
 
+    @Query(value = "SELECT et.event_id AS eventId, et.tag FROM event_tags et", nativeQuery = true)
+    List<EventTagProjection> findAllTags();
 
+    @Query(value = "SELECT et.event_id AS eventId, et.tag FROM event_tags et WHERE et.event_id = :eventId", nativeQuery = true)
+    List<EventTagProjection> findTagsByEventId(@Param("eventId") Long eventId);
 
+    // Columns the interaction listener needs for affinity updates (see EventFeatureCache)
+    @Query(value = "SELECT e.id, e.event_category AS eventCategory, e.city FROM events e", nativeQuery = true)
+    List<EventFeatureProjection> findAllFeatureRows();
+
+    @Query(value = "SELECT e.id, e.event_category AS eventCategory, e.city FROM events e WHERE e.id = :eventId", nativeQuery = true)
+    Optional<EventFeatureProjection> findFeatureRowById(@Param("eventId") Long eventId);
+}
@@ -0,0 +1,48 @@
+package com.Eventora.repository;
+
+import com.Eventora.entity.InteractionOutbox;
+import com.Eventora.projection.OutboxHeadProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InteractionOutboxRepository extends JpaRepository<InteractionOutbox, Long> {
+
+    // Oldest unclaimed rows; rows locked by another relay are skipped instead of waited on
+    @Query(value = """
+    SELECT * FROM interaction_outbox
+    ORDER BY id
+    LIMIT :limit
+    FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<InteractionOutbox> claimBatch(@Param("limit") int limit);
+
+    // Same, restricted to the given user buckets (rows without a bucket are claimable by any relay)
+    @Query(value = """
+    SELECT * FROM interaction_outbox
+    WHERE bucket IN (:buckets) OR bucket IS NULL
+    ORDER BY id
+    LIMIT :limit
+    FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<InteractionOutbox> claimBatchInBuckets(@Param("buckets") Collection<Integer> buckets, @Param("limit") int limit);
+
+    // Oldest outstanding row per user, including rows currently claimed by other relays
+    @Query(value = """
+    SELECT o.user_id AS userId, MIN(o.id) AS firstId
+    FROM interaction_outbox o
+    WHERE o.user_id IN (:userIds)
+    GROUP BY o.user_id
+    """, nativeQuery = true)
+    List<OutboxHeadProjection> findHeads(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("DELETE FROM InteractionOutbox o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
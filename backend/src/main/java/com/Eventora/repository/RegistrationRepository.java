@@ -5,14 +5,23 @@ import com.Eventora.entity.AppUser;
 import com.Eventora.entity.Event;
 import com.Eventora.entity.Registration;
 import com.Eventora.entity.enums.RegistrationStatus;
+import com.Eventora.projection.ProfileSourceProjection;
+import com.Eventora.projection.TrendingSignalProjection;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface RegistrationRepository extends JpaRepository<Registration,Long> {
@@ -32,6 +41,10 @@ public interface RegistrationRepository extends JpaRepository<Registration,Long>
     Optional<RegistrationStatus> findStatusByEventIdAndUser(@Param("eventId") Long eventId, @Param("user") AppUser user);
 
 
+    // When the user's live (not cancelled) registration for the event was made
+    @Query("SELECT MAX(r.registeredAt) FROM Registration r WHERE r.event.id = :eventId AND r.user = :user AND r.status <> com.Eventora.entity.enums.RegistrationStatus.CANCELLED")
+    Optional<LocalDateTime> findActiveRegisteredAt(@Param("eventId") Long eventId, @Param("user") AppUser user);
+
     @Modifying
     @Query("UPDATE Registration r SET r.status = :status WHERE r.event.id = :eventId AND r.user = :user AND r.status = :currentStatus")
     int updateRegistrationStatus(@Param("eventId") Long eventId,
@@ -39,6 +52,9 @@ public interface RegistrationRepository extends JpaRepository<Registration,Long>
                                  @Param("currentStatus") RegistrationStatus currentStatus,
                                  @Param("status") RegistrationStatus newStatus);
 
+    @Query("SELECT r.event.id FROM Registration r WHERE r.user.id = :userId AND r.status <> com.Eventora.entity.enums.RegistrationStatus.CANCELLED")
+    List<Long> findActiveEventIdsByUserId(@Param("userId") Long userId);
+
     @Query("""
     SELECT new com.Eventora.dto.EventTemplate(
         e.id,
@@ -60,5 +76,81 @@ public interface RegistrationRepository extends JpaRepository<Registration,Long>
                                                      @Param("status") RegistrationStatus status);
 
 
+    // Keyset pages ordered by (startDate, id); fetch size + 1 rows to detect a next page
+    @Query("""
+    SELECT new com.Eventora.dto.EventTemplate(
+        e.id,
+        e.title,
+        e.organizerDisplayName,
+        e.eventCategory,
+        e.city,
+        e.eventStatus,
+        e.startDate,
+        e.currentParticipants,
+        false
+    )
+    FROM Registration r
+    JOIN r.event e
+    WHERE r.user = :user
+      AND r.status = :status
+    ORDER BY e.startDate ASC, e.id ASC
+""")
+    List<EventTemplate> findRegisteredEventTemplatesFirst(@Param("user") AppUser user,
+                                                          @Param("status") RegistrationStatus status,
+                                                          Limit limit);
+
+    @Query("""
+    SELECT new com.Eventora.dto.EventTemplate(
+        e.id,
+        e.title,
+        e.organizerDisplayName,
+        e.eventCategory,
+        e.city,
+        e.eventStatus,
+        e.startDate,
+        e.currentParticipants,
+        false
+    )
+    FROM Registration r
+    JOIN r.event e
+    WHERE r.user = :user
+      AND r.status = :status
+      AND (e.startDate > :afterStart OR (e.startDate = :afterStart AND e.id > :afterId))
+    ORDER BY e.startDate ASC, e.id ASC
+""")
+    List<EventTemplate> findRegisteredEventTemplatesAfter(@Param("user") AppUser user,
+                                                          @Param("status") RegistrationStatus status,
+                                                          @Param("afterStart") LocalDateTime afterStart,
+                                                          @Param("afterId") Long afterId,
+                                                          Limit limit);
+
+    // Durable interaction sources for the profile backfill, merged in user-id order
+    // (both sides are index scans on user_id, so Postgres can merge instead of sort)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query(value = """
+    SELECT r.user_id AS userId, r.event_id AS eventId, r.status AS kind,
+           r.registered_at AS occurredAt, r.attendance_marked_at AS checkedInAt
+    FROM event_registrations r
+    WHERE r.user_id > :afterUserId
+    UNION ALL
+    SELECT w.user_id AS userId, w.event_id AS eventId, 'LIKED' AS kind,
+           w.liked_at AS occurredAt, NULL AS checkedInAt
+    FROM event_watchlist w
+    WHERE w.user_id > :afterUserId
+    ORDER BY userId
+    """, nativeQuery = true)
+    Stream<ProfileSourceProjection> streamProfileSourcesAfter(@Param("afterUserId") long afterUserId);
 
+    // Recent registrations and likes, to seed the trending leaderboard after a restart
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query(value = """
+    SELECT r.event_id AS eventId, r.status AS kind, r.registered_at AS occurredAt
+    FROM event_registrations r
+    WHERE r.registered_at > :since AND r.status <> 'CANCELLED'
+    UNION ALL
+    SELECT w.event_id AS eventId, 'LIKED' AS kind, w.liked_at AS occurredAt
+    FROM event_watchlist w
+    WHERE w.liked_at > :since
+    """, nativeQuery = true)
+    Stream<TrendingSignalProjection> streamTrendingSignalsSince(@Param("since") LocalDateTime since);
 }
@@ -2,10 +2,18 @@ package com.Eventora.repository;
 
 import com.Eventora.entity.UserInteraction;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import java.util.Optional;
 
 public interface UserInteractionRepository extends MongoRepository<UserInteraction, String> {
 
     Optional<UserInteraction> findByUserId(Long userId);
+
+    // Only the fields the recommendation scorer reads (no viewedEvents / lastActive)
+    @Query(value = "{ 'userId': ?0 }", fields = """
+            { 'userId': 1, 'categoryAffinity': 1, 'cityAffinity': 1, 'tagAffinity': 1,
+              'likedEvents': 1, 'registeredEvents': 1, 'shownEvents': 1,
+              'minPreferredPrice': 1, 'maxPreferredPrice': 1 }""")
+    Optional<UserInteraction> findScoringProfileByUserId(Long userId);
 }
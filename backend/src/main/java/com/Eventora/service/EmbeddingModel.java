@@ -0,0 +1,101 @@
+package com.Eventora.service;
+
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Trained embeddings of event feature tokens (category, city, tag) in one space with users.
+ *
+ * An event's vector is the normalized sum of its token vectors, so events nobody has
+ * interacted with yet still get a position. A user's query vector is built at request time
+ * from the cached profile: affinity-weighted token vectors plus the vectors of the events
+ * they liked or registered for. Immutable once trained.
+ */
+public final class EmbeddingModel {
+
+    private final int dim;
+    private final Map<Long, Integer> tokenIndex;
+    private final float[] vectors;
+
+    EmbeddingModel(int dim, Map<Long, Integer> tokenIndex, float[] vectors) {
+        this.dim = dim;
+        this.tokenIndex = tokenIndex;
+        this.vectors = vectors;
+    }
+
+    // Token key of an affinity kind (UserProfileCache.CATEGORY / CITY / TAG) and id
+    static long key(int kind, int id) {
+        return ((long) kind << 32) | (id & 0xffffffffL);
+    }
+
+    public int dimensions() {
+        return dim;
+    }
+
+    public int tokens() {
+        return tokenIndex.size();
+    }
+
+    /**
+     * Unit vector of an event from its category, city and tags [from, to); null if none of
+     * them has a trained embedding.
+     */
+    public float[] eventVector(byte category, int cityId, int[] tagIds, int from, int to) {
+        float[] v = new float[dim];
+        boolean any = category != EventFeatureCache.NO_CATEGORY && add(v, key(UserProfileCache.CATEGORY, category), 1.0);
+        any |= add(v, key(UserProfileCache.CITY, cityId), 1.0);
+        for (int i = from; i < to; i++) any |= add(v, key(UserProfileCache.TAG, tagIds[i]), 1.0);
+        return any ? normalize(v) : null;
+    }
+
+    public float[] eventVector(EventFeatureCache.EventFeatures f) {
+        return eventVector(f.category(), f.cityId(), f.tagIds(), 0, f.tagIds().length);
+    }
+
+    /**
+     * Unit query vector of a user; null if nothing in the profile has an embedding.
+     *
+     * @param decay AffinityDecay.readScale() of this request
+     */
+    public float[] userVector(UserProfileCache.Profile profile,
+                              LongFunction<EventFeatureCache.EventFeatures> features,
+                              double decay) {
+        float[] v = new float[dim];
+        boolean[] any = {false};
+        profile.forEachAffinity((kind, id, score) -> any[0] |= add(v, key(kind, id), Math.log1p(score * decay)));
+        any[0] |= addEvents(v, profile.likedIds(), features, Math.log1p(5));
+        any[0] |= addEvents(v, profile.registeredIds(), features, Math.log1p(8));
+        return any[0] ? normalize(v) : null;
+    }
+
+    private boolean addEvents(float[] v, long[] eventIds, LongFunction<EventFeatureCache.EventFeatures> features,
+                              double weight) {
+        boolean any = false;
+        for (long eventId : eventIds) {
+            EventFeatureCache.EventFeatures f = features.apply(eventId);
+            if (f == null) continue;
+            float[] e = eventVector(f);
+            if (e == null) continue;
+            for (int i = 0; i < dim; i++) v[i] += (float) (weight * e[i]);
+            any = true;
+        }
+        return any;
+    }
+
+    private boolean add(float[] v, long key, double weight) {
+        Integer token = tokenIndex.get(key);
+        if (token == null || weight <= 0.0) return false;
+        int base = token * dim;
+        for (int i = 0; i < dim; i++) v[i] += (float) (weight * vectors[base + i]);
+        return true;
+    }
+
+    static float[] normalize(float[] v) {
+        double norm = 0.0;
+        for (float x : v) norm += x * x;
+        if (norm == 0.0) return null;
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < v.length; i++) v[i] *= inv;
+        return v;
+    }
+}
@@ -0,0 +1,314 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.AffinityDecay;
+import com.Eventora.entity.UserInteraction;
+import com.Eventora.projection.ProfileSourceProjection;
+import com.Eventora.repository.RegistrationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Trains the {@link EmbeddingModel} in-JVM from implicit feedback.
+ *
+ * Positives are (user, event) pairs from event_registrations / event_watchlist, weighted
+ * like the profile points (like 5, registration 8, check-in 12), and (user, token) pairs
+ * from the category / city / tag affinities in user_interactions. Events are represented
+ * by the sum of their token vectors, so what is learned transfers to new events.
+ * Optimized with BPR (a positive against a random negative of the same kind) by lock-free
+ * parallel SGD; workers race on shared vectors, which is harmless for sparse updates.
+ */
+@Slf4j
+@Component
+public class EmbeddingTrainer {
+
+    private static final double LEARNING_RATE = 0.05;
+    private static final double REGULARIZATION = 0.002;
+    private static final double MAX_WEIGHT = 3.0;
+
+    private final RegistrationRepository registrationRepository;
+    private final MongoTemplate mongoTemplate;
+    private final EventFeatureCache eventFeatures;
+    private final TransactionTemplate readTransaction;
+    private final int dim;
+    private final int epochs;
+    private final int parallelism;
+
+    public EmbeddingTrainer(RegistrationRepository registrationRepository,
+                            MongoTemplate mongoTemplate,
+                            EventFeatureCache eventFeatures,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${eventora.embeddings.dimensions:32}") int dim,
+                            @Value("${eventora.embeddings.epochs:20}") int epochs,
+                            @Value("${eventora.embeddings.parallelism:0}") int parallelism) {
+        this.registrationRepository = registrationRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.eventFeatures = eventFeatures;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.dim = dim;
+        this.epochs = epochs;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Reads the training data and trains a model; null if there is nothing to learn from.
+     */
+    public EmbeddingModel train() throws Exception {
+        long started = System.nanoTime();
+        Data data = new Data();
+        readTransaction.executeWithoutResult(status -> readRegistrations(data));
+        readAffinities(data);
+        int pairs = data.eventPairUser.size + data.tokenPairUser.size;
+        if (pairs == 0 || data.events.size() < 2) return null;
+
+        float[] users = randomVectors(data.users.size(), 1);
+        float[] tokens = randomVectors(data.tokens.size(), 2);
+        long steps = (long) epochs * pairs;
+        int[] tokenKinds = data.tokenKinds();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, parallelism).parallel().forEach(worker ->
+                    runWorker(data, tokenKinds, users, tokens, steps / parallelism, new SplittableRandom(31L * worker + 7)))).get();
+        } finally {
+            pool.shutdown();
+        }
+
+        log.info("Embeddings trained: {} users, {} events, {} tokens, {} pairs, {} epochs in {} s",
+                data.users.size(), data.events.size(), data.tokens.size(), pairs, epochs,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+        return new EmbeddingModel(dim, Collections.unmodifiableMap(data.tokens), tokens);
+    }
+
+    /* =====================
+       DATA
+       ===================== */
+
+    private void readRegistrations(Data data) {
+        try (Stream<ProfileSourceProjection> rows = registrationRepository.streamProfileSourcesAfter(0L)) {
+            rows.forEach(row -> {
+                double weight = switch (row.getKind()) {
+                    case "LIKED" -> 5;
+                    case "REGISTERED" -> 8;
+                    case "CHECKED_IN" -> 12;
+                    default -> 0;
+                };
+                if (weight == 0) return;
+                int event = data.event(row.getEventId(), eventFeatures);
+                if (event < 0) return;
+                data.eventPairUser.add(data.user(row.getUserId()));
+                data.eventPairEvent.add(event);
+                data.eventPairWeight.add(weight(weight));
+            });
+        }
+    }
+
+    private void readAffinities(Data data) {
+        Query query = new Query();
+        query.fields().include("userId", "categoryAffinity", "cityAffinity", "tagAffinity");
+        double scale = AffinityDecay.readScale();
+        try (Stream<UserInteraction> profiles = mongoTemplate.stream(query, UserInteraction.class)) {
+            profiles.forEach(ui -> {
+                if (ui.getUserId() == null) return;
+                int user = data.user(ui.getUserId());
+                if (ui.getCategoryAffinity() != null) ui.getCategoryAffinity().forEach((category, score) -> {
+                    if (category != null) data.tokenPair(user, UserProfileCache.CATEGORY, category.ordinal(), score, scale);
+                });
+                if (ui.getCityAffinity() != null) ui.getCityAffinity().forEach((city, score) ->
+                        data.tokenPair(user, UserProfileCache.CITY, eventFeatures.cityId(city), score, scale));
+                if (ui.getTagAffinity() != null) ui.getTagAffinity().forEach((tag, score) ->
+                        data.tokenPair(user, UserProfileCache.TAG, eventFeatures.tagId(tag), score, scale));
+            });
+        }
+    }
+
+    // Log-damped so heavy users / tags do not dominate the gradient
+    private static float weight(double score) {
+        return (float) Math.min(MAX_WEIGHT, Math.log1p(score));
+    }
+
+    /**
+     * Training pairs and the dense user / event / token numbering.
+     */
+    private static final class Data {
+        final Map<Long, Integer> users = new HashMap<>();
+        final Map<Long, Integer> events = new HashMap<>();
+        final List<int[]> eventTokens = new ArrayList<>();
+        final Map<Long, Integer> tokens = new HashMap<>();
+        final IntList[] tokensOfKind = {new IntList(), new IntList(), new IntList()};
+
+        final IntList eventPairUser = new IntList();
+        final IntList eventPairEvent = new IntList();
+        final FloatList eventPairWeight = new FloatList();
+        final IntList tokenPairUser = new IntList();
+        final IntList tokenPairToken = new IntList();
+        final FloatList tokenPairWeight = new FloatList();
+
+        int user(long userId) {
+            return users.computeIfAbsent(userId, k -> users.size());
+        }
+
+        int token(int kind, int id) {
+            return tokens.computeIfAbsent(EmbeddingModel.key(kind, id), k -> {
+                tokensOfKind[kind].add(tokens.size());
+                return tokens.size();
+            });
+        }
+
+        // Dense event number, or -1 if the event has no features
+        int event(long eventId, EventFeatureCache features) {
+            Integer known = events.get(eventId);
+            if (known != null) return known;
+            EventFeatureCache.EventFeatures f = features.get(eventId);
+            if (f == null) return -1;
+            IntList ids = new IntList();
+            if (f.category() != EventFeatureCache.NO_CATEGORY) ids.add(token(UserProfileCache.CATEGORY, f.category()));
+            if (f.cityId() >= 0) ids.add(token(UserProfileCache.CITY, f.cityId()));
+            for (int tagId : f.tagIds()) ids.add(token(UserProfileCache.TAG, tagId));
+            if (ids.size == 0) return -1;
+            eventTokens.add(ids.toArray());
+            events.put(eventId, eventTokens.size() - 1);
+            return eventTokens.size() - 1;
+        }
+
+        void tokenPair(int user, int kind, int id, Double score, double scale) {
+            if (id < 0 || score == null || score <= 0.0) return;
+            tokenPairUser.add(user);
+            tokenPairToken.add(token(kind, id));
+            tokenPairWeight.add(weight(score * scale));
+        }
+
+        int[] tokenKinds() {
+            int[] kinds = new int[tokens.size()];
+            for (int kind = 0; kind < tokensOfKind.length; kind++) {
+                IntList list = tokensOfKind[kind];
+                for (int i = 0; i < list.size; i++) kinds[list.items[i]] = kind;
+            }
+            return kinds;
+        }
+    }
+
+    /* =====================
+       SGD
+       ===================== */
+
+    private void runWorker(Data data, int[] tokenKinds, float[] users, float[] tokens, long steps,
+                           SplittableRandom random) {
+        int eventPairs = data.eventPairUser.size;
+        int total = eventPairs + data.tokenPairUser.size;
+        int[] positiveToken = new int[1];
+        int[] negativeToken = new int[1];
+        float[] positive = new float[dim];
+        float[] negative = new float[dim];
+        float[] user = new float[dim];
+
+        for (long step = 0; step < steps; step++) {
+            int pair = random.nextInt(total);
+            if (pair < eventPairs) {
+                int u = data.eventPairUser.items[pair];
+                int i = data.eventPairEvent.items[pair];
+                int j = random.nextInt(data.eventTokens.size());
+                if (j == i) continue;
+                update(users, tokens, u, data.eventTokens.get(i), data.eventTokens.get(j),
+                        data.eventPairWeight.items[pair], positive, negative, user);
+            } else {
+                pair -= eventPairs;
+                int u = data.tokenPairUser.items[pair];
+                int t = data.tokenPairToken.items[pair];
+                IntList sameKind = data.tokensOfKind[tokenKinds[t]];
+                if (sameKind.size < 2) continue;
+                positiveToken[0] = t;
+                negativeToken[0] = sameKind.items[random.nextInt(sameKind.size)];
+                if (negativeToken[0] == t) continue;
+                update(users, tokens, u, positiveToken, negativeToken,
+                        data.tokenPairWeight.items[pair], positive, negative, user);
+            }
+        }
+    }
+
+    // One BPR step: pull the user towards the positive token set, away from the negative one
+    private void update(float[] users, float[] tokens, int u, int[] pos, int[] neg, float weight,
+                        float[] positive, float[] negative, float[] user) {
+        sum(tokens, pos, positive);
+        sum(tokens, neg, negative);
+        int ub = u * dim;
+        double x = 0.0;
+        for (int k = 0; k < dim; k++) {
+            user[k] = users[ub + k];
+            x += user[k] * (positive[k] - negative[k]);
+        }
+        double g = LEARNING_RATE * weight / (1.0 + Math.exp(x)); // lr * w * sigmoid(-x)
+        double decay = LEARNING_RATE * REGULARIZATION;
+
+        for (int k = 0; k < dim; k++) {
+            users[ub + k] += (float) (g * (positive[k] - negative[k]) - decay * user[k]);
+        }
+        double posScale = g / Math.sqrt(pos.length);
+        for (int t : pos) {
+            int tb = t * dim;
+            for (int k = 0; k < dim; k++) tokens[tb + k] += (float) (posScale * user[k] - decay * tokens[tb + k]);
+        }
+        double negScale = g / Math.sqrt(neg.length);
+        for (int t : neg) {
+            int tb = t * dim;
+            for (int k = 0; k < dim; k++) tokens[tb + k] -= (float) (negScale * user[k] + decay * tokens[tb + k]);
+        }
+    }
+
+    // Event representation: token vectors summed and scaled by 1 / sqrt(count)
+    private void sum(float[] tokens, int[] ids, float[] out) {
+        Arrays.fill(out, 0f);
+        for (int t : ids) {
+            int tb = t * dim;
+            for (int k = 0; k < dim; k++) out[k] += tokens[tb + k];
+        }
+        float scale = (float) (1.0 / Math.sqrt(ids.length));
+        for (int k = 0; k < dim; k++) out[k] *= scale;
+    }
+
+    private float[] randomVectors(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        float[] v = new float[count * dim];
+        double scale = 1.0 / Math.sqrt(dim);
+        for (int i = 0; i < v.length; i++) v[i] = (float) ((random.nextDouble() - 0.5) * scale);
+        return v;
+    }
+
+    /* =====================
+       PRIMITIVE LISTS
+       ===================== */
+
+    private static final class IntList {
+        int[] items = new int[16];
+        int size = 0;
+
+        void add(int value) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+
+    private static final class FloatList {
+        float[] items = new float[16];
+        int size = 0;
+
+        void add(float value) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,522 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.StringDictionary;
+import com.Eventora.dto.AutocompleteSuggestion;
+import com.Eventora.dto.AutocompleteSuggestion.Kind;
+import com.Eventora.dto.EventChangedEvent;
+import com.Eventora.entity.Event;
+import com.Eventora.entity.enums.EventStatus;
+import com.Eventora.projection.EventCatalogProjection;
+import com.Eventora.projection.EventTagProjection;
+import com.Eventora.repository.EventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix index for typeahead over titles, organizer names, cities and tags of listed events.
+ *
+ * Every distinct (kind, value) is one suggestion weighted by the popularity of the events
+ * carrying it. Values are inserted into a character trie under the whole value and under
+ * each later word start, and every trie node caches its top suggestions, so a lookup is a
+ * walk down the prefix plus a copy. Indexing and withdrawing an event refresh the cached
+ * lists along the affected paths only; participant changes just adjust weights and leave
+ * the re-rank of those paths to the periodic pass.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventAutocompleteIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    // Keys are truncated so a long title cannot make the trie arbitrarily deep
+    private static final int MAX_KEY_LENGTH = 48;
+    private static final int MAX_WORD_STARTS = 4;
+    // Re-reads of events written during a rebuild before it settles for the in-memory writes
+    private static final int MAX_RELOAD_PASSES = 3;
+
+    private final EventRepository eventRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock. Suggestions whose refCount drops to 0 stay allocated until the next rebuild.
+    private Node root = new Node();
+    private final List<Suggestion> suggestions = new ArrayList<>();
+    private final Map<String, Integer> suggestionIds = new HashMap<>();
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    // Suggestions whose weight changed since their paths were last re-ranked
+    private final BitSet stale = new BitSet();
+    private volatile boolean loaded = false;
+
+    // Serializes rebuilds; never taken while holding lock
+    private final Object loadLock = new Object();
+    // Ids written while a rebuild is in flight, re-read once its suggestions are in; guarded by lock
+    private boolean loading = false;
+    private Set<Long> changedDuringLoad = new HashSet<>();
+
+    private static final class Suggestion {
+        final Kind kind;
+        final String text;
+        final List<String> keys;
+        long weight;
+        int refCount;
+
+        Suggestion(Kind kind, String text, List<String> keys) {
+            this.kind = kind;
+            this.text = text;
+            this.keys = keys;
+        }
+    }
+
+    // What one event added to the index, so it can be taken back out
+    private record Contribution(int[] suggestionIds, long weight) {}
+
+    private static final class Node {
+        char[] labels = new char[0];
+        Node[] children = new Node[0];
+        // Suggestions whose key ends here
+        int[] terminals = new int[0];
+        // Best suggestions in this subtree, heaviest first
+        int[] top = new int[0];
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            if (i >= 0) return children[i];
+            int at = -i - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newLabels[at] = c;
+            newChildren[at] = new Node();
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[at];
+        }
+    }
+
+    /* =====================
+       LOADING
+       ===================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Initial autocomplete index build failed: {}", e.getMessage());
+        }
+    }
+
+    // Also drops suggestions no longer carried by any listed event
+    @Scheduled(
+            fixedDelayString = "${eventora.search.rebuild-interval-ms:900000}",
+            initialDelayString = "${eventora.search.rebuild-interval-ms:900000}"
+    )
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Autocomplete index rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the index with the listed events currently in Postgres.
+     *
+     * Writes applied while the queries run may or may not be in their result, so their events
+     * are re-read afterwards: a save is not lost and a participant delta is not counted twice.
+     */
+    public void rebuild() {
+        synchronized (loadLock) {
+            lock.writeLock().lock();
+            try {
+                loading = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                List<String> statuses = EventCatalog.LISTED_STATUSES.stream().map(Enum::name).toList();
+                List<EventCatalogProjection> rows = eventRepository.findCatalogRowsByStatusIn(statuses);
+                Map<Long, List<String>> tagsByEvent = new HashMap<>();
+                for (EventTagProjection t : eventRepository.findAllTags()) {
+                    tagsByEvent.computeIfAbsent(t.getEventId(), k -> new ArrayList<>()).add(t.getTag());
+                }
+
+                Set<Long> changed;
+                lock.writeLock().lock();
+                try {
+                    root = new Node();
+                    suggestions.clear();
+                    suggestionIds.clear();
+                    contributions.clear();
+                    stale.clear();
+                    for (EventCatalogProjection r : rows) {
+                        contributions.put(r.getId(), contribute(r, tagsByEvent.getOrDefault(r.getId(), List.of()), false));
+                    }
+                    refreshAll(root);
+                    loaded = true;
+                    changed = drainChangedDuringLoad();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+
+                // Each pass re-reads what changed during the previous one; the last pass's own
+                // writes were applied to the new trie already
+                for (int pass = 0; pass < MAX_RELOAD_PASSES && !changed.isEmpty(); pass++) {
+                    Map<Long, EventCatalogProjection> fetched = new HashMap<>();
+                    Map<Long, List<String>> fetchedTags = new HashMap<>();
+                    for (Long eventId : changed) {
+                        EventCatalogProjection row = eventRepository.findCatalogRowById(eventId).orElse(null);
+                        fetched.put(eventId, row);
+                        if (row != null) {
+                            fetchedTags.put(eventId, eventRepository.findTagsByEventId(eventId).stream()
+                                    .map(EventTagProjection::getTag).toList());
+                        }
+                    }
+                    lock.writeLock().lock();
+                    try {
+                        fetched.forEach((eventId, row) -> {
+                            withdraw(eventId);
+                            if (row != null && EventCatalog.LISTED_STATUSES.contains(EventStatus.valueOf(row.getEventStatus().toUpperCase()))) {
+                                contributions.put(eventId, contribute(row, fetchedTags.get(eventId), true));
+                            }
+                        });
+                        changed = drainChangedDuringLoad();
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+                log.info("Autocomplete index built with {} suggestions from {} events", suggestionIds.size(), rows.size());
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    loading = false;
+                    changedDuringLoad = new HashSet<>();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    // Caller holds the write lock
+    private Set<Long> drainChangedDuringLoad() {
+        Set<Long> changed = changedDuringLoad;
+        changedDuringLoad = new HashSet<>();
+        return changed;
+    }
+
+    // Caller holds the write lock
+    private void noteChange(Long eventId) {
+        if (loading) changedDuringLoad.add(eventId);
+    }
+
+    @Scheduled(fixedDelayString = "${eventora.search.autocomplete-rerank-interval-ms:5000}")
+    public void scheduledRerank() {
+        if (!loaded) return;
+        lock.writeLock().lock();
+        try {
+            for (int id = stale.nextSetBit(0); id >= 0; id = stale.nextSetBit(id + 1)) {
+                refreshPaths(suggestions.get(id));
+            }
+            stale.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (loadLock) {
+                if (!loaded) rebuild();
+            }
+        }
+    }
+
+    /* =====================
+       WRITE PATHS
+       ===================== */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        switch (change.type()) {
+            case UPSERT -> index(change.event());
+            case STATUS -> updateStatus(change.eventId(), change.status());
+            case PARTICIPANTS -> adjustWeight(change.eventId(), change.participantDelta());
+        }
+    }
+
+    public void index(Event event) {
+        if (event == null) return;
+        index(event, event.getEventStatus());
+    }
+
+    private void index(Event event, EventStatus status) {
+        if (event.getId() == null) return;
+        lock.writeLock().lock();
+        try {
+            noteChange(event.getId());
+            withdraw(event.getId());
+            if (!EventCatalog.LISTED_STATUSES.contains(status)) return;
+            int participants = event.getCurrentParticipants() != null ? event.getCurrentParticipants() : 0;
+            contributions.put(event.getId(), contribute(event.getTitle(), event.getOrganizerDisplayName(),
+                    event.getCity(), event.getTags(), weightOf(participants), true));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void updateStatus(Long eventId, EventStatus status) {
+        if (!EventCatalog.LISTED_STATUSES.contains(status)) {
+            lock.writeLock().lock();
+            try {
+                noteChange(eventId);
+                withdraw(eventId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        boolean known;
+        lock.readLock().lock();
+        try {
+            known = contributions.containsKey(eventId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (known) return;
+
+        // Newly listed (e.g. DRAFT -> SCHEDULED): its text was never indexed
+        EventCatalogProjection row = eventRepository.findCatalogRowById(eventId).orElse(null);
+        if (row == null) return;
+        List<String> tags = eventRepository.findTagsByEventId(eventId).stream().map(EventTagProjection::getTag).toList();
+        lock.writeLock().lock();
+        try {
+            noteChange(eventId);
+            if (contributions.containsKey(eventId)) return;
+            contributions.put(eventId, contribute(row, tags, true));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void adjustWeight(Long eventId, int participantDelta) {
+        lock.writeLock().lock();
+        try {
+            noteChange(eventId);
+            Contribution current = contributions.get(eventId);
+            if (current == null) return;
+            long weight = Math.max(1, current.weight() + participantDelta);
+            long delta = weight - current.weight();
+            contributions.put(eventId, new Contribution(current.suggestionIds(), weight));
+            for (int id : current.suggestionIds()) {
+                suggestions.get(id).weight += delta;
+                stale.set(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Contribution contribute(EventCatalogProjection row, List<String> tags, boolean refresh) {
+        int participants = row.getCurrentParticipants() != null ? row.getCurrentParticipants() : 0;
+        return contribute(row.getTitle(), row.getOrganizerName(), row.getCity(), tags, weightOf(participants), refresh);
+    }
+
+    private Contribution contribute(String title, String organizer, String city, List<String> tags,
+                                    long weight, boolean refresh) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        addSuggestion(Kind.TITLE, title, ids);
+        addSuggestion(Kind.ORGANIZER, organizer, ids);
+        addSuggestion(Kind.CITY, city, ids);
+        if (tags != null) {
+            for (String tag : tags) addSuggestion(Kind.TAG, tag, ids);
+        }
+
+        int[] result = new int[ids.size()];
+        int i = 0;
+        for (int id : ids) {
+            Suggestion s = suggestions.get(id);
+            s.weight += weight;
+            if (s.refCount++ == 0) {
+                for (String key : s.keys) insertTerminal(key, id);
+            }
+            if (refresh) refreshPaths(s);
+            result[i++] = id;
+        }
+        return new Contribution(result, weight);
+    }
+
+    private void withdraw(Long eventId) {
+        Contribution previous = contributions.remove(eventId);
+        if (previous == null) return;
+        for (int id : previous.suggestionIds()) {
+            Suggestion s = suggestions.get(id);
+            s.weight -= previous.weight();
+            if (--s.refCount == 0) {
+                for (String key : s.keys) removeTerminal(key, id);
+            }
+            refreshPaths(s);
+        }
+    }
+
+    private void addSuggestion(Kind kind, String text, Set<Integer> ids) {
+        String key = StringDictionary.normalize(text);
+        if (key == null || key.isEmpty()) return;
+        Integer id = suggestionIds.get(kind + ":" + key);
+        if (id == null) {
+            id = suggestions.size();
+            suggestions.add(new Suggestion(kind, text.trim(), keysOf(key)));
+            suggestionIds.put(kind + ":" + key, id);
+        }
+        ids.add(id);
+    }
+
+    // The whole value plus a few later word starts, so "jazz" also finds "Evening Jazz Night"
+    private static List<String> keysOf(String key) {
+        List<String> keys = new ArrayList<>();
+        keys.add(truncate(key));
+        int starts = 0;
+        for (int i = 1; i < key.length() && starts < MAX_WORD_STARTS; i++) {
+            if (!Character.isLetterOrDigit(key.charAt(i - 1)) && Character.isLetterOrDigit(key.charAt(i))) {
+                keys.add(truncate(key.substring(i)));
+                starts++;
+            }
+        }
+        return keys;
+    }
+
+    private static String truncate(String key) {
+        return key.length() <= MAX_KEY_LENGTH ? key : key.substring(0, MAX_KEY_LENGTH);
+    }
+
+    private static long weightOf(int participants) {
+        // +1 so events nobody joined yet still surface
+        return Math.max(0, participants) + 1L;
+    }
+
+    /* =====================
+       TRIE MAINTENANCE
+       ===================== */
+
+    private void insertTerminal(String key, int id) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) node = node.childOrCreate(key.charAt(i));
+        for (int existing : node.terminals) {
+            if (existing == id) return;
+        }
+        node.terminals = Arrays.copyOf(node.terminals, node.terminals.length + 1);
+        node.terminals[node.terminals.length - 1] = id;
+    }
+
+    private void removeTerminal(String key, int id) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) node = node.child(key.charAt(i));
+        if (node == null) return;
+        node.terminals = Arrays.stream(node.terminals).filter(t -> t != id).toArray();
+    }
+
+    // Recomputes the cached top lists from the key's end node back up to the root
+    private void refreshPaths(Suggestion s) {
+        for (String key : s.keys) {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            int depth = 0;
+            while (depth < key.length()) {
+                Node next = path[depth].child(key.charAt(depth));
+                if (next == null) break;
+                path[++depth] = next;
+            }
+            for (int d = depth; d >= 0; d--) refreshTop(path[d]);
+        }
+    }
+
+    private void refreshAll(Node node) {
+        for (Node child : node.children) refreshAll(child);
+        refreshTop(node);
+    }
+
+    // Bounded insertion of the terminals and the children's lists into a fresh top list
+    private void refreshTop(Node node) {
+        int[] top = new int[MAX_SUGGESTIONS];
+        int n = 0;
+        for (int id : node.terminals) n = insertTop(top, n, id);
+        for (Node child : node.children) {
+            for (int id : child.top) n = insertTop(top, n, id);
+        }
+        node.top = n == top.length ? top : Arrays.copyOf(top, n);
+    }
+
+    private int insertTop(int[] top, int n, int id) {
+        // The same suggestion can reach a node through several of its keys
+        for (int i = 0; i < n; i++) {
+            if (top[i] == id) return n;
+        }
+        if (n == top.length && heavierFirst(id, top[n - 1]) >= 0) return n;
+        int at = n == top.length ? n - 1 : n++;
+        while (at > 0 && heavierFirst(id, top[at - 1]) < 0) {
+            top[at] = top[at - 1];
+            at--;
+        }
+        top[at] = id;
+        return n;
+    }
+
+    private int heavierFirst(int a, int b) {
+        Suggestion x = suggestions.get(a);
+        Suggestion y = suggestions.get(b);
+        int cmp = Long.compare(y.weight, x.weight);
+        return cmp != 0 ? cmp : x.text.compareToIgnoreCase(y.text);
+    }
+
+    /* =====================
+       LOOKUP
+       ===================== */
+
+    /**
+     * Up to limit suggestions whose value (or one of its later words) starts with the prefix.
+     */
+    public List<AutocompleteSuggestion> complete(String prefix, int limit) {
+        String key = StringDictionary.normalize(prefix);
+        if (key == null || key.isEmpty()) return List.of();
+        key = truncate(key);
+        int max = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) node = node.child(key.charAt(i));
+            if (node == null) return List.of();
+
+            List<AutocompleteSuggestion> result = new ArrayList<>(Math.min(max, node.top.length));
+            for (int i = 0; i < node.top.length && result.size() < max; i++) {
+                Suggestion s = suggestions.get(node.top[i]);
+                result.add(AutocompleteSuggestion.builder()
+                        .text(s.text)
+                        .kind(s.kind)
+                        .weight(s.weight)
+                        .build());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
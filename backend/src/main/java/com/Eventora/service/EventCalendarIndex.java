@@ -0,0 +1,135 @@
+package com.Eventora.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Immutable day-bucket index over the [start, end] intervals of an {@link EventCatalog} snapshot.
+ *
+ * Each row is listed under every UTC day it overlaps, so an overlap query only reads the
+ * buckets of the requested days. Rows spanning more than {@link #MAX_BUCKET_SPAN_DAYS} days
+ * are kept in a separate list that every query checks, which bounds the index size.
+ */
+final class EventCalendarIndex {
+
+    static final long SECONDS_PER_DAY = 86_400L;
+
+    private static final int MAX_BUCKET_SPAN_DAYS = 31;
+
+    private final long[] startEpoch;
+    private final long[] endEpoch;
+    private final int size;
+
+    // Rows of day (firstDay + d) are rows[dayStart[d] .. dayStart[d + 1]), in ascending row order
+    private final long firstDay;
+    private final int[] dayStart;
+    private final int[] rows;
+    private final int[] longRows;
+
+    private EventCalendarIndex(long[] startEpoch, long[] endEpoch, int size,
+                               long firstDay, int[] dayStart, int[] rows, int[] longRows) {
+        this.startEpoch = startEpoch;
+        this.endEpoch = endEpoch;
+        this.size = size;
+        this.firstDay = firstDay;
+        this.dayStart = dayStart;
+        this.rows = rows;
+        this.longRows = longRows;
+    }
+
+    static EventCalendarIndex build(long[] startEpoch, long[] endEpoch, int size) {
+        long minDay = Long.MAX_VALUE, maxDay = Long.MIN_VALUE;
+        int longCount = 0;
+        for (int row = 0; row < size; row++) {
+            if (startEpoch[row] == Long.MAX_VALUE) continue;
+            long first = dayOf(startEpoch[row]);
+            long last = dayOf(end(startEpoch[row], endEpoch[row]));
+            if (last - first >= MAX_BUCKET_SPAN_DAYS) {
+                longCount++;
+                continue;
+            }
+            minDay = Math.min(minDay, first);
+            maxDay = Math.max(maxDay, last);
+        }
+
+        int[] longRows = new int[longCount];
+        if (minDay > maxDay) {
+            int l = 0;
+            for (int row = 0; row < size; row++) {
+                if (startEpoch[row] != Long.MAX_VALUE) longRows[l++] = row;
+            }
+            return new EventCalendarIndex(startEpoch, endEpoch, size, 0, new int[1], new int[0], longRows);
+        }
+
+        // Two passes: count per day, then fill (rows arrive in ascending order, so buckets stay sorted)
+        int days = Math.toIntExact(maxDay - minDay + 1);
+        int[] dayStart = new int[days + 1];
+        for (int row = 0; row < size; row++) {
+            if (startEpoch[row] == Long.MAX_VALUE) continue;
+            long first = dayOf(startEpoch[row]);
+            long last = dayOf(end(startEpoch[row], endEpoch[row]));
+            if (last - first >= MAX_BUCKET_SPAN_DAYS) continue;
+            for (long day = first; day <= last; day++) dayStart[(int) (day - minDay) + 1]++;
+        }
+        for (int d = 0; d < days; d++) dayStart[d + 1] += dayStart[d];
+
+        int[] rows = new int[dayStart[days]];
+        int[] fill = Arrays.copyOf(dayStart, days);
+        int l = 0;
+        for (int row = 0; row < size; row++) {
+            if (startEpoch[row] == Long.MAX_VALUE) continue;
+            long first = dayOf(startEpoch[row]);
+            long last = dayOf(end(startEpoch[row], endEpoch[row]));
+            if (last - first >= MAX_BUCKET_SPAN_DAYS) {
+                longRows[l++] = row;
+                continue;
+            }
+            for (long day = first; day <= last; day++) rows[fill[(int) (day - minDay)]++] = row;
+        }
+        return new EventCalendarIndex(startEpoch, endEpoch, size, minDay, dayStart, rows, longRows);
+    }
+
+    /**
+     * Rows whose [start, end] overlaps [fromEpoch, toEpoch), in ascending row order.
+     */
+    int[] overlapping(long fromEpoch, long toEpoch) {
+        if (toEpoch <= fromEpoch) return new int[0];
+        BitSet hits = new BitSet(size);
+
+        long lastDay = firstDay + dayStart.length - 2;
+        long from = Math.max(dayOf(fromEpoch), firstDay);
+        long to = Math.min(dayOf(toEpoch - 1), lastDay);
+        for (long day = from; day <= to; day++) {
+            int d = (int) (day - firstDay);
+            for (int p = dayStart[d]; p < dayStart[d + 1]; p++) {
+                int row = rows[p];
+                if (overlaps(row, fromEpoch, toEpoch)) hits.set(row);
+            }
+        }
+        for (int row : longRows) {
+            if (overlaps(row, fromEpoch, toEpoch)) hits.set(row);
+        }
+        return hits.stream().toArray();
+    }
+
+    long start(int row) {
+        return startEpoch[row];
+    }
+
+    long end(int row) {
+        return end(startEpoch[row], endEpoch[row]);
+    }
+
+    private boolean overlaps(int row, long fromEpoch, long toEpoch) {
+        return startEpoch[row] < toEpoch && end(row) >= fromEpoch;
+    }
+
+    // Missing or inverted end dates are treated as a point event
+    private static long end(long start, long end) {
+        return end == Long.MAX_VALUE || end < start ? start : end;
+    }
+
+    static long dayOf(long epochSecond) {
+        return Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+    }
+}
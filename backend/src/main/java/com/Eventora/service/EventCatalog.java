@@ -0,0 +1,979 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.PageCursor;
+import com.Eventora.Utils.StringDictionary;
+import com.Eventora.Utils.TagSets;
+import com.Eventora.dto.CalendarDay;
+import com.Eventora.dto.CursorSlice;
+import com.Eventora.dto.EventChangedEvent;
+import com.Eventora.dto.EventFacets;
+import com.Eventora.dto.EventFilterRequest;
+import com.Eventora.dto.EventTemplate;
+import com.Eventora.entity.Event;
+import com.Eventora.entity.enums.EventCategory;
+import com.Eventora.entity.enums.EventStatus;
+import com.Eventora.projection.EventCatalogProjection;
+import com.Eventora.repository.EventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntToLongFunction;
+
+/**
+ * In-memory, column-oriented copy of every listed (UPCOMING / SCHEDULED) event.
+ * Serves getFilteredEvents without touching Postgres or hydrating Event entities.
+ *
+ * Writers mutate the master row map under the instance lock; a fresh immutable
+ * {@link Snapshot} is published shortly after, one rebuild per burst of writes.
+ * Readers only ever see a complete snapshot. Participant counts are patched into the
+ * current snapshot in place.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventCatalog {
+
+    public static final Set<EventStatus> LISTED_STATUSES = EnumSet.of(EventStatus.UPCOMING, EventStatus.SCHEDULED);
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    // Low bits of a packed sort key hold the row index, high bits the key (price in cents fits in 34 bits)
+    private static final int ROW_BITS = 28;
+    private static final long ROW_MASK = (1L << ROW_BITS) - 1;
+
+    // Inclusive upper bounds (cents) of the price facet buckets; the last bucket is open-ended
+    private static final long[] PRICE_BUCKET_MAX_CENTS = {0L, 50_000L, 100_000L, 250_000L};
+    private static final int CITY_FACET_LIMIT = 50;
+    private static final int FACET_CACHE_SIZE = 256;
+
+    public static final int MAX_CALENDAR_DAYS = 62;
+    private static final int MAX_EVENTS_PER_DAY = 100;
+
+    // Writes arriving within this window share one snapshot rebuild
+    private static final long PUBLISH_DELAY_MS = 100;
+    // Re-reads of events written during a reload before it settles for the in-memory writes
+    private static final int MAX_RELOAD_PASSES = 3;
+
+    private final EventRepository eventRepository;
+    private final EventTagIndex eventTagIndex;
+
+    // Shared id space for city / state / country, compared case-insensitively
+    private final StringDictionary places = new StringDictionary();
+
+    // Master copy, guarded by "this"
+    private final Map<Long, Row> rows = new HashMap<>();
+    private volatile Snapshot snapshot = Snapshot.build(List.of(), places);
+    private volatile boolean loaded = false;
+    // A snapshot rebuild is scheduled; guarded by "this"
+    private boolean publishPending = false;
+
+    // Serializes reloads; taken before "this", never while holding it
+    private final Object loadLock = new Object();
+    // Ids written while a reload is in flight, re-read once its rows are in; guarded by "this"
+    private boolean loading = false;
+    private Set<Long> changedDuringLoad = new HashSet<>();
+
+    private final ScheduledExecutorService publisher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "event-catalog-publish");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Facets of recent filters, valid for facetCacheSnapshot only; guarded by facetCache
+    private final Map<FacetKey, EventFacets> facetCache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<FacetKey, EventFacets> eldest) {
+            return size() > FACET_CACHE_SIZE;
+        }
+    };
+    private Snapshot facetCacheSnapshot;
+
+    /* =====================
+       LOADING
+       ===================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Initial event catalog load failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${eventora.catalog.refresh-interval-ms:300000}",
+            initialDelayString = "${eventora.catalog.refresh-interval-ms:300000}"
+    )
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Event catalog refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the catalog with the listed events currently in Postgres.
+     * Also picks up changes made by other nodes.
+     *
+     * Writes applied while the query runs may or may not be in its result, so their events
+     * are re-read afterwards: an upsert is not lost and a participant delta is not counted twice.
+     */
+    public void reload() {
+        synchronized (loadLock) {
+            List<String> statuses = LISTED_STATUSES.stream().map(Enum::name).toList();
+            synchronized (this) {
+                loading = true;
+            }
+            try {
+                List<EventCatalogProjection> projections = eventRepository.findCatalogRowsByStatusIn(statuses);
+
+                Set<Long> changed;
+                synchronized (this) {
+                    rows.clear();
+                    for (EventCatalogProjection p : projections) {
+                        Row row = Row.from(p);
+                        rows.put(row.id(), row);
+                    }
+                    publish();
+                    loaded = true;
+                    changed = drainChangedDuringLoad();
+                }
+
+                // Each pass re-reads what changed during the previous one; the last pass's own
+                // writes were applied to the new rows already
+                for (int pass = 0; pass < MAX_RELOAD_PASSES && !changed.isEmpty(); pass++) {
+                    Map<Long, Optional<EventCatalogProjection>> fetched = new HashMap<>();
+                    for (Long eventId : changed) fetched.put(eventId, eventRepository.findCatalogRowById(eventId));
+                    synchronized (this) {
+                        fetched.forEach((eventId, p) -> {
+                            Row row = p.map(Row::from).orElse(null);
+                            if (row != null && LISTED_STATUSES.contains(row.status())) rows.put(eventId, row);
+                            else rows.remove(eventId);
+                        });
+                        schedulePublish();
+                        changed = drainChangedDuringLoad();
+                    }
+                }
+                log.info("Event catalog loaded with {} events", projections.size());
+            } finally {
+                synchronized (this) {
+                    loading = false;
+                    changedDuringLoad = new HashSet<>();
+                }
+            }
+        }
+    }
+
+    // Caller holds "this"
+    private Set<Long> drainChangedDuringLoad() {
+        Set<Long> changed = changedDuringLoad;
+        changedDuringLoad = new HashSet<>();
+        return changed;
+    }
+
+    // Caller holds "this"
+    private void noteChange(Long eventId) {
+        if (loading) changedDuringLoad.add(eventId);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (loadLock) {
+                if (!loaded) reload();
+            }
+        }
+    }
+
+    /* =====================
+       WRITE PATHS
+       ===================== */
+
+    // After commit, so a rolled-back registration or status change never reaches the catalog
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        switch (change.type()) {
+            case UPSERT -> upsert(change.event());
+            case STATUS -> updateStatus(change.eventId(), change.status());
+            case PARTICIPANTS -> adjustParticipants(change.eventId(), change.participantDelta());
+        }
+    }
+
+    /**
+     * Inserts or replaces the event; drops it if its status is no longer listed.
+     */
+    public synchronized void upsert(Event event) {
+        if (event == null || event.getId() == null) return;
+        noteChange(event.getId());
+
+        if (!LISTED_STATUSES.contains(event.getEventStatus())) {
+            if (rows.remove(event.getId()) != null) schedulePublish();
+            return;
+        }
+        rows.put(event.getId(), Row.from(event));
+        schedulePublish();
+    }
+
+    public void updateStatus(Long eventId, EventStatus status) {
+        synchronized (this) {
+            noteChange(eventId);
+            if (!LISTED_STATUSES.contains(status)) {
+                if (rows.remove(eventId) != null) schedulePublish();
+                return;
+            }
+
+            Row current = rows.get(eventId);
+            if (current != null) {
+                rows.put(eventId, current.withStatus(status));
+                schedulePublish();
+                return;
+            }
+        }
+
+        // Event was not listed before (e.g. DRAFT -> SCHEDULED): fetch its columns without holding the lock
+        Optional<EventCatalogProjection> fetched = eventRepository.findCatalogRowById(eventId);
+        if (fetched.isEmpty()) return;
+        synchronized (this) {
+            // An upsert that landed meanwhile carries newer columns
+            if (rows.putIfAbsent(eventId, Row.from(fetched.get()).withStatus(status)) == null) schedulePublish();
+        }
+    }
+
+    public synchronized void remove(Long eventId) {
+        noteChange(eventId);
+        if (rows.remove(eventId) != null) schedulePublish();
+    }
+
+    /**
+     * Applies a participant delta in place, without rebuilding the snapshot.
+     */
+    public synchronized void adjustParticipants(Long eventId, int delta) {
+        noteChange(eventId);
+        Row current = rows.get(eventId);
+        if (current == null) return;
+
+        rows.put(eventId, current.withParticipants(current.participants() + delta));
+        int index = snapshot.indexOf(eventId);
+        if (index >= 0) snapshot.participants.addAndGet(index, delta);
+    }
+
+    // Caller holds "this"
+    private void publish() {
+        publishPending = false;
+        snapshot = Snapshot.build(rows.values(), places);
+    }
+
+    /**
+     * Rebuilding sorts the rows and rebuilds the geo and calendar indexes, so a burst of
+     * writes is coalesced into one rebuild PUBLISH_DELAY_MS after the first of them.
+     * Caller holds "this".
+     */
+    private void schedulePublish() {
+        if (publishPending) return;
+        publishPending = true;
+        publisher.schedule(this::publishPending, PUBLISH_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void publishPending() {
+        if (!publishPending) return; // a reload published already
+        try {
+            publish();
+        } catch (Exception e) {
+            log.error("Event catalog publish failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Publishes pending writes now (tests, shutdown hooks).
+     */
+    public synchronized void flush() {
+        if (publishPending) publish();
+    }
+
+    @PreDestroy
+    public void stop() {
+        publisher.shutdownNow();
+    }
+
+    /* =====================
+       READ PATHS
+       ===================== */
+
+    public boolean contains(Long eventId) {
+        ensureLoaded();
+        return snapshot.indexOf(eventId) >= 0;
+    }
+
+    public int size() {
+        ensureLoaded();
+        return snapshot.size;
+    }
+
+    /**
+     * Live participant count of a listed event; empty when the event is not in the catalog.
+     */
+    public OptionalInt participantsOf(Long eventId) {
+        Snapshot s = snapshot;
+        int row = s.indexOf(eventId);
+        return row >= 0 ? OptionalInt.of(s.participants.get(row)) : OptionalInt.empty();
+    }
+
+    /**
+     * Evaluates the filter against the catalog and returns the requested page.
+     */
+    public List<EventTemplate> filter(EventFilterRequest filter, Collection<Long> likedEventIds) {
+        ensureLoaded();
+        Snapshot s = snapshot;
+        Criteria criteria = Criteria.compile(filter, places, eventTagIndex);
+        if (criteria.impossible) return List.of();
+
+        int size = pageSize(filter);
+        if (filter.getPage() != null && filter.getPage() < 0) throw new IllegalArgumentException("Page must not be negative");
+        int page = filter.getPage() == null ? 0 : filter.getPage();
+        long from = (long) page * size;
+        boolean descending = filter.getSortDirection() == Sort.Direction.DESC;
+
+        // A radius filter narrows the scan to the grid cells around the point
+        int[] candidates = criteria.hasRadius
+                ? s.geo.withinRadius(criteria.latitude, criteria.longitude, criteria.radiusKm)
+                : null;
+
+        SortKey sortKey = sortKey(filter.getSortBy());
+        if (sortKey == SortKey.DISTANCE && !criteria.hasRadius) sortKey = SortKey.START_DATE;
+
+        int[] selected = switch (sortKey) {
+            case PRICE -> sortedPage(s, criteria, candidates, from, size, descending, row -> s.priceCents[row]);
+            case POPULARITY -> sortedPage(s, criteria, candidates, from, size, descending, s.participants::get);
+            case DISTANCE -> sortedPage(s, criteria, candidates, from, size, descending,
+                    row -> Math.round(1000 * EventGeoIndex.distanceKm(criteria.latitude, criteria.longitude,
+                            s.latitude[row], s.longitude[row])));
+            default -> startDatePage(s, criteria, candidates, from, size, descending);
+        };
+        return toTemplates(s, selected, likedEventIds);
+    }
+
+    /**
+     * Keyset variant of {@link #filter} ordered by (startDate, id) in the requested direction.
+     * Other sort keys are ignored; page is replaced by the cursor.
+     */
+    public CursorSlice<EventTemplate> filterAfter(EventFilterRequest filter, PageCursor after, Collection<Long> likedEventIds) {
+        ensureLoaded();
+        Snapshot s = snapshot;
+        int size = pageSize(filter);
+
+        Criteria criteria = Criteria.compile(filter, places, eventTagIndex);
+        if (criteria.impossible) {
+            return CursorSlice.<EventTemplate>builder().content(List.of()).size(0).hasNext(false).build();
+        }
+        boolean descending = filter.getSortDirection() == Sort.Direction.DESC;
+        int[] candidates = criteria.hasRadius
+                ? s.geo.withinRadius(criteria.latitude, criteria.longitude, criteria.radiusKm)
+                : null;
+        int n = candidates != null ? candidates.length : s.size;
+
+        // Jump straight to the cursor position instead of skipping page * size matches
+        int first = 0;
+        if (after != null) {
+            long epoch = toEpochSecond(after.startDate());
+            int ascending = firstAtOrAfter(s, candidates, n, epoch, after.id(), descending);
+            first = descending ? n - ascending : ascending;
+        }
+
+        int[] page = new int[size + 1];
+        int filled = 0;
+        for (int i = first; i < n && filled <= size; i++) {
+            int pos = descending ? n - 1 - i : i;
+            int row = candidates != null ? candidates[pos] : pos;
+            if (criteria.matches(s, row)) page[filled++] = row;
+        }
+
+        boolean hasNext = filled > size;
+        int[] selected = Arrays.copyOf(page, Math.min(filled, size));
+        String next = null;
+        if (hasNext) {
+            int last = selected[selected.length - 1];
+            next = PageCursor.of(s.startDate[last], s.ids[last]).encode();
+        }
+        return CursorSlice.<EventTemplate>builder()
+                .content(toTemplates(s, selected, likedEventIds))
+                .size(selected.length)
+                .hasNext(hasNext)
+                .nextCursor(next)
+                .build();
+    }
+
+    // Same bound as every other paged endpoint; an explicit size below 1 is rejected
+    private static int pageSize(EventFilterRequest filter) {
+        return filter.getSize() == null ? DEFAULT_PAGE_SIZE : PageCursor.pageSize(filter.getSize());
+    }
+
+    // First ascending position whose (startEpoch, id) is > the key, or >= it when `inclusive`
+    private static int firstAtOrAfter(Snapshot s, int[] candidates, int n, long epoch, long id, boolean inclusive) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int row = candidates != null ? candidates[mid] : mid;
+            int cmp = Long.compare(s.startEpoch[row], epoch);
+            if (cmp == 0) cmp = Long.compare(s.ids[row], id);
+            if (cmp < 0 || (cmp == 0 && !inclusive)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * The k listed events closest to the point that have not started yet, nearest first.
+     */
+    public List<EventTemplate> nearest(double latitude, double longitude, int k, Collection<Long> likedEventIds) {
+        ensureLoaded();
+        Snapshot s = snapshot;
+        long now = toEpochSecond(LocalDateTime.now());
+        int[] selected = s.geo.nearest(latitude, longitude, PageCursor.pageSize(k), row -> s.startEpoch[row] > now);
+        return toTemplates(s, selected, likedEventIds);
+    }
+
+    /**
+     * Listed events running on each day of [from, to] (inclusive) that match the filter.
+     * Page, sort and cursor fields of the filter are ignored.
+     */
+    public List<CalendarDay> calendar(LocalDate from, LocalDate to, EventFilterRequest filter,
+                                      int perDayLimit, Collection<Long> likedEventIds) {
+        long days = to.toEpochDay() - from.toEpochDay() + 1;
+        if (days <= 0 || days > MAX_CALENDAR_DAYS) {
+            throw new IllegalArgumentException("Calendar range must cover 1 to " + MAX_CALENDAR_DAYS + " days");
+        }
+        int limit = Math.max(1, Math.min(perDayLimit, MAX_EVENTS_PER_DAY));
+
+        ensureLoaded();
+        Snapshot s = snapshot;
+        Criteria criteria = Criteria.compile(filter, places, eventTagIndex);
+        int[][] perDay = new int[(int) days][limit];
+        int[] totals = new int[(int) days];
+
+        if (!criteria.impossible) {
+            long fromDay = from.toEpochDay();
+            long fromEpoch = fromDay * EventCalendarIndex.SECONDS_PER_DAY;
+            long toEpoch = (to.toEpochDay() + 1) * EventCalendarIndex.SECONDS_PER_DAY;
+            int[] rows = s.calendar.overlapping(fromEpoch, toEpoch);
+            int[] inRadius = criteria.hasRadius
+                    ? s.geo.withinRadius(criteria.latitude, criteria.longitude, criteria.radiusKm)
+                    : null;
+
+            // Rows come back in start order, so each day's list is already sorted by start
+            for (int row : rows) {
+                if (inRadius != null && Arrays.binarySearch(inRadius, row) < 0) continue;
+                if (!criteria.matches(s, row)) continue;
+                int first = (int) Math.max(0, EventCalendarIndex.dayOf(s.calendar.start(row)) - fromDay);
+                int last = (int) Math.min(days - 1, EventCalendarIndex.dayOf(s.calendar.end(row)) - fromDay);
+                for (int d = first; d <= last; d++) {
+                    if (totals[d] < limit) perDay[d][totals[d]] = row;
+                    totals[d]++;
+                }
+            }
+        }
+
+        Set<Long> liked = likedEventIds == null ? Set.of() : new HashSet<>(likedEventIds);
+        List<CalendarDay> result = new ArrayList<>((int) days);
+        for (int d = 0; d < days; d++) {
+            int shown = Math.min(totals[d], limit);
+            List<EventTemplate> events = new ArrayList<>(shown);
+            for (int i = 0; i < shown; i++) {
+                int row = perDay[d][i];
+                events.add(s.toTemplate(row, liked.contains(s.ids[row])));
+            }
+            result.add(CalendarDay.builder()
+                    .date(from.plusDays(d))
+                    .total(totals[d])
+                    .events(events)
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Category / city / status / price-bucket counts for the filter, computed in one pass.
+     * Participant changes do not affect facets, so results stay cached until the next snapshot.
+     */
+    public EventFacets facets(EventFilterRequest filter) {
+        ensureLoaded();
+        Snapshot s = snapshot;
+        FacetKey key = FacetKey.of(filter);
+        synchronized (facetCache) {
+            if (facetCacheSnapshot != s) {
+                facetCache.clear();
+                facetCacheSnapshot = s;
+            }
+            EventFacets cached = facetCache.get(key);
+            if (cached != null) return cached;
+        }
+
+        EventFacets computed = computeFacets(s, Criteria.compile(filter, places, eventTagIndex));
+        synchronized (facetCache) {
+            if (facetCacheSnapshot == s) facetCache.put(key, computed);
+        }
+        return computed;
+    }
+
+    // A row counts towards a facet when it passes every criterion except (possibly) that facet's own
+    private EventFacets computeFacets(Snapshot s, Criteria c) {
+        int[] candidates = c.hasRadius ? s.geo.withinRadius(c.latitude, c.longitude, c.radiusKm) : null;
+        int n = candidates != null ? candidates.length : s.size;
+
+        long total = 0;
+        long[] categories = new long[EventCategory.values().length];
+        long[] statuses = new long[EventStatus.values().length];
+        long[] prices = new long[PRICE_BUCKET_MAX_CENTS.length + 1];
+        Map<Integer, long[]> cities = new HashMap<>();
+        Map<Integer, String> cityNames = new HashMap<>();
+
+        for (int i = 0; i < n; i++) {
+            int row = candidates != null ? candidates[i] : i;
+            int failed = c.failedFacets(s, row);
+            if (failed == 0) {
+                total++;
+                statuses[s.status[row]]++;
+            }
+            if ((failed & ~Criteria.FACET_CATEGORY) == 0) categories[s.category[row]]++;
+            if ((failed & ~Criteria.FACET_PRICE) == 0) prices[priceBucket(s.priceCents[row])]++;
+            if ((failed & ~Criteria.FACET_CITY) == 0 && s.cityId[row] != StringDictionary.MISSING) {
+                cities.computeIfAbsent(s.cityId[row], k -> new long[1])[0]++;
+                cityNames.putIfAbsent(s.cityId[row], s.city[row]);
+            }
+        }
+
+        Map<EventCategory, Long> categoryCounts = new LinkedHashMap<>();
+        for (EventCategory category : EventCategory.values()) {
+            if (categories[category.ordinal()] > 0) categoryCounts.put(category, categories[category.ordinal()]);
+        }
+        Map<EventStatus, Long> statusCounts = new LinkedHashMap<>();
+        for (EventStatus status : EventStatus.values()) {
+            if (statuses[status.ordinal()] > 0) statusCounts.put(status, statuses[status.ordinal()]);
+        }
+        Map<String, Long> cityCounts = new LinkedHashMap<>();
+        cities.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                .limit(CITY_FACET_LIMIT)
+                .forEach(e -> cityCounts.put(cityNames.get(e.getKey()), e.getValue()[0]));
+
+        List<EventFacets.PriceBucket> priceBuckets = new ArrayList<>(prices.length);
+        for (int b = 0; b < prices.length; b++) {
+            long minCents = b == 0 ? 0L : PRICE_BUCKET_MAX_CENTS[b - 1] + 1;
+            priceBuckets.add(EventFacets.PriceBucket.builder()
+                    .min(BigDecimal.valueOf(minCents, 2))
+                    .max(b < PRICE_BUCKET_MAX_CENTS.length ? BigDecimal.valueOf(PRICE_BUCKET_MAX_CENTS[b], 2) : null)
+                    .count(prices[b])
+                    .build());
+        }
+
+        return EventFacets.builder()
+                .total(total)
+                .categories(Collections.unmodifiableMap(categoryCounts))
+                .cities(Collections.unmodifiableMap(cityCounts))
+                .statuses(Collections.unmodifiableMap(statusCounts))
+                .priceBuckets(List.copyOf(priceBuckets))
+                .build();
+    }
+
+    private static int priceBucket(long cents) {
+        for (int b = 0; b < PRICE_BUCKET_MAX_CENTS.length; b++) {
+            if (cents <= PRICE_BUCKET_MAX_CENTS[b]) return b;
+        }
+        return PRICE_BUCKET_MAX_CENTS.length;
+    }
+
+    private List<EventTemplate> toTemplates(Snapshot s, int[] selected, Collection<Long> likedEventIds) {
+        Set<Long> liked = likedEventIds == null ? Set.of() : new HashSet<>(likedEventIds);
+        List<EventTemplate> result = new ArrayList<>(selected.length);
+        for (int row : selected) {
+            result.add(s.toTemplate(row, liked.contains(s.ids[row])));
+        }
+        return result;
+    }
+
+    // Rows are stored in (startDate, id) order, so this stops as soon as the page is full
+    private int[] startDatePage(Snapshot s, Criteria c, int[] candidates, long from, int size, boolean descending) {
+        int n = candidates != null ? candidates.length : s.size;
+        int[] page = new int[size];
+        int filled = 0;
+        long matched = 0;
+        for (int i = 0; i < n && filled < size; i++) {
+            int pos = descending ? n - 1 - i : i;
+            int row = candidates != null ? candidates[pos] : pos;
+            if (!c.matches(s, row)) continue;
+            if (matched++ >= from) page[filled++] = row;
+        }
+        return Arrays.copyOf(page, filled);
+    }
+
+    // Packs (key, row) into one long so a primitive sort orders by key, then by start date
+    private int[] sortedPage(Snapshot s, Criteria c, int[] candidates, long from, int size, boolean descending,
+                             IntToLongFunction keys) {
+        int n = candidates != null ? candidates.length : s.size;
+        long[] packed = new long[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int row = candidates != null ? candidates[i] : i;
+            if (!c.matches(s, row)) continue;
+            packed[count++] = (Math.max(0, keys.applyAsLong(row)) << ROW_BITS) | row;
+        }
+        Arrays.sort(packed, 0, count);
+
+        if (from >= count) return new int[0];
+        int pageSize = (int) Math.min(size, count - from);
+        int[] page = new int[pageSize];
+        for (int i = 0; i < pageSize; i++) {
+            int pos = descending ? count - 1 - (int) from - i : (int) from + i;
+            page[i] = (int) (packed[pos] & ROW_MASK);
+        }
+        return page;
+    }
+
+    private enum SortKey { START_DATE, PRICE, POPULARITY, DISTANCE }
+
+    private static SortKey sortKey(String sortBy) {
+        if (sortBy == null) return SortKey.START_DATE;
+        return switch (sortBy.trim().toLowerCase(Locale.ROOT)) {
+            case "price" -> SortKey.PRICE;
+            case "popularity", "participants", "participantcount" -> SortKey.POPULARITY;
+            case "distance" -> SortKey.DISTANCE;
+            default -> SortKey.START_DATE;
+        };
+    }
+
+    static long toCents(BigDecimal price, RoundingMode mode) {
+        if (price == null) return 0L;
+        return price.movePointRight(2).setScale(0, mode).longValueExact();
+    }
+
+    static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime == null ? Long.MAX_VALUE : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /* =====================
+       STORAGE
+       ===================== */
+
+    record Row(
+            long id,
+            String title,
+            String organizerName,
+            EventCategory category,
+            EventStatus status,
+            String city,
+            String state,
+            String country,
+            double latitude,
+            double longitude,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            long priceCents,
+            int participants,
+            int maxParticipants
+    ) {
+        static Row from(EventCatalogProjection p) {
+            return new Row(
+                    p.getId(),
+                    p.getTitle(),
+                    p.getOrganizerName(),
+                    EventCategory.valueOf(p.getEventCategory().toUpperCase()),
+                    EventStatus.valueOf(p.getEventStatus().toUpperCase()),
+                    p.getCity(),
+                    p.getState(),
+                    p.getCountry(),
+                    p.getLatitude() != null ? p.getLatitude() : Double.NaN,
+                    p.getLongitude() != null ? p.getLongitude() : Double.NaN,
+                    p.getStartDate(),
+                    p.getEndDate(),
+                    toCents(p.getPrice(), RoundingMode.HALF_UP),
+                    p.getCurrentParticipants() != null ? p.getCurrentParticipants() : 0,
+                    p.getMaxParticipants() != null ? p.getMaxParticipants() : 0
+            );
+        }
+
+        static Row from(Event e) {
+            return new Row(
+                    e.getId(),
+                    e.getTitle(),
+                    e.getOrganizerDisplayName(),
+                    e.getEventCategory(),
+                    e.getEventStatus(),
+                    e.getCity(),
+                    e.getState(),
+                    e.getCountry(),
+                    e.getLatitude() != null ? e.getLatitude() : Double.NaN,
+                    e.getLongitude() != null ? e.getLongitude() : Double.NaN,
+                    e.getStartDate(),
+                    e.getEndDate(),
+                    toCents(e.getPrice(), RoundingMode.HALF_UP),
+                    e.getCurrentParticipants() != null ? e.getCurrentParticipants() : 0,
+                    e.getMaxParticipants() != null ? e.getMaxParticipants() : 0
+            );
+        }
+
+        Row withStatus(EventStatus newStatus) {
+            return new Row(id, title, organizerName, category, newStatus, city, state, country,
+                    latitude, longitude, startDate, endDate, priceCents, participants, maxParticipants);
+        }
+
+        Row withParticipants(int newParticipants) {
+            return new Row(id, title, organizerName, category, status, city, state, country,
+                    latitude, longitude, startDate, endDate, priceCents, newParticipants, maxParticipants);
+        }
+    }
+
+    /**
+     * Immutable columnar view. Row i of every array describes the same event;
+     * rows are ordered by (startDate, id).
+     */
+    static final class Snapshot {
+        final int size;
+        final long[] ids;
+        final long[] priceCents;
+        final byte[] category;
+        final byte[] status;
+        final int[] cityId;
+        final int[] stateId;
+        final int[] countryId;
+        final double[] latitude;
+        final double[] longitude;
+        final long[] startEpoch;
+        final long[] endEpoch;
+        final AtomicIntegerArray participants;
+        final int[] maxParticipants;
+
+        // Display values for EventTemplate
+        final String[] title;
+        final String[] organizerName;
+        final String[] city;
+        final LocalDateTime[] startDate;
+
+        // id -> row lookup via binary search
+        private final long[] sortedIds;
+        private final int[] rowOfSortedId;
+
+        EventGeoIndex geo;
+        EventCalendarIndex calendar;
+
+        private Snapshot(int n) {
+            size = n;
+            ids = new long[n];
+            priceCents = new long[n];
+            category = new byte[n];
+            status = new byte[n];
+            cityId = new int[n];
+            stateId = new int[n];
+            countryId = new int[n];
+            latitude = new double[n];
+            longitude = new double[n];
+            startEpoch = new long[n];
+            endEpoch = new long[n];
+            participants = new AtomicIntegerArray(n);
+            maxParticipants = new int[n];
+            title = new String[n];
+            organizerName = new String[n];
+            city = new String[n];
+            startDate = new LocalDateTime[n];
+            sortedIds = new long[n];
+            rowOfSortedId = new int[n];
+        }
+
+        static Snapshot build(Collection<Row> source, StringDictionary places) {
+            List<Row> ordered = new ArrayList<>(source);
+            ordered.sort(Comparator.comparingLong((Row r) -> toEpochSecond(r.startDate())).thenComparingLong(Row::id));
+
+            Snapshot s = new Snapshot(ordered.size());
+            for (int i = 0; i < s.size; i++) {
+                Row r = ordered.get(i);
+                s.ids[i] = r.id();
+                s.priceCents[i] = r.priceCents();
+                s.category[i] = (byte) r.category().ordinal();
+                s.status[i] = (byte) r.status().ordinal();
+                s.cityId[i] = places.intern(r.city());
+                s.stateId[i] = places.intern(r.state());
+                s.countryId[i] = places.intern(r.country());
+                s.latitude[i] = r.latitude();
+                s.longitude[i] = r.longitude();
+                s.startEpoch[i] = toEpochSecond(r.startDate());
+                s.endEpoch[i] = toEpochSecond(r.endDate());
+                s.participants.set(i, r.participants());
+                s.maxParticipants[i] = r.maxParticipants();
+                s.title[i] = r.title();
+                s.organizerName[i] = r.organizerName();
+                s.city[i] = r.city();
+                s.startDate[i] = r.startDate();
+            }
+
+            System.arraycopy(s.ids, 0, s.sortedIds, 0, s.size);
+            Arrays.sort(s.sortedIds);
+            for (int i = 0; i < s.size; i++) {
+                s.rowOfSortedId[Arrays.binarySearch(s.sortedIds, s.ids[i])] = i;
+            }
+            s.geo = EventGeoIndex.build(s.latitude, s.longitude, s.size);
+            s.calendar = EventCalendarIndex.build(s.startEpoch, s.endEpoch, s.size);
+            return s;
+        }
+
+        int indexOf(long eventId) {
+            int pos = Arrays.binarySearch(sortedIds, eventId);
+            return pos >= 0 ? rowOfSortedId[pos] : -1;
+        }
+
+        EventTemplate toTemplate(int row, boolean isLiked) {
+            return EventTemplate.builder()
+                    .id(ids[row])
+                    .title(title[row])
+                    .organizerName(organizerName[row])
+                    .eventCategory(EventCategory.values()[category[row]])
+                    .city(city[row])
+                    .eventStatus(EventStatus.values()[status[row]])
+                    .startDate(startDate[row])
+                    .participantCount(participants.get(row))
+                    .isLiked(isLiked)
+                    .build();
+        }
+    }
+
+    /**
+     * Facet-relevant part of an EventFilterRequest, normalized so equivalent filters share a cache entry.
+     */
+    private record FacetKey(BigDecimal minPrice, BigDecimal maxPrice, String city, String state, String country,
+                            EventCategory category, Double latitude, Double longitude, Double radiusKm,
+                            List<String> tags) {
+        static FacetKey of(EventFilterRequest f) {
+            List<String> tags = f.getTags() == null ? List.of() : f.getTags().stream()
+                    .map(StringDictionary::normalize)
+                    .filter(t -> t != null && !t.isEmpty())
+                    .distinct()
+                    .sorted()
+                    .toList();
+            boolean radius = f.getLatitude() != null && f.getLongitude() != null && f.getRadiusInKm() != null;
+            return new FacetKey(
+                    f.getMinPrice() != null ? f.getMinPrice().stripTrailingZeros() : null,
+                    f.getMaxPrice() != null ? f.getMaxPrice().stripTrailingZeros() : null,
+                    StringDictionary.normalize(f.getCity()),
+                    StringDictionary.normalize(f.getState()),
+                    StringDictionary.normalize(f.getCountry()),
+                    f.getEventCategory(),
+                    radius ? f.getLatitude() : null,
+                    radius ? f.getLongitude() : null,
+                    radius ? f.getRadiusInKm() : null,
+                    tags);
+        }
+    }
+
+    /**
+     * EventFilterRequest compiled down to primitive comparisons.
+     */
+    static final class Criteria {
+        private static final int ANY = Integer.MIN_VALUE;
+
+        // Bits returned by failedFacets
+        static final int FACET_PRICE = 1;
+        static final int FACET_CATEGORY = 2;
+        static final int FACET_CITY = 4;
+        static final int NON_FACET = 8;
+
+        boolean impossible;
+        long minCents = Long.MIN_VALUE;
+        long maxCents = Long.MAX_VALUE;
+        int category = ANY;
+        int cityId = ANY;
+        int stateId = ANY;
+        int countryId = ANY;
+        boolean hasRadius;
+        double latitude, longitude, radiusKm;
+        // Requested tag ids as a bitset; null when the filter has no tags
+        long[] tagBits;
+        EventTagIndex tagIndex;
+
+        static Criteria compile(EventFilterRequest f, StringDictionary places, EventTagIndex tagIndex) {
+            Criteria c = new Criteria();
+
+            if (f.getMinPrice() != null) c.minCents = toCents(f.getMinPrice(), RoundingMode.CEILING);
+            if (f.getMaxPrice() != null) c.maxCents = toCents(f.getMaxPrice(), RoundingMode.FLOOR);
+            if (f.getEventCategory() != null) c.category = f.getEventCategory().ordinal();
+
+            c.cityId = placeId(f.getCity(), places);
+            c.stateId = placeId(f.getState(), places);
+            c.countryId = placeId(f.getCountry(), places);
+            if (c.cityId == StringDictionary.MISSING
+                    || c.stateId == StringDictionary.MISSING
+                    || c.countryId == StringDictionary.MISSING) {
+                c.impossible = true;
+            }
+
+            if (f.getLatitude() != null && f.getLongitude() != null && f.getRadiusInKm() != null) {
+                c.hasRadius = true;
+                c.latitude = f.getLatitude();
+                c.longitude = f.getLongitude();
+                c.radiusKm = f.getRadiusInKm();
+            }
+
+            if (f.getTags() != null && !f.getTags().isEmpty()) {
+                int[] tagIds = tagIndex.lookup(f.getTags());
+                if (tagIds.length == 0) c.impossible = true;
+                c.tagBits = TagSets.toBits(tagIds);
+                c.tagIndex = tagIndex;
+            }
+            return c;
+        }
+
+        private static int placeId(String value, StringDictionary places) {
+            if (value == null || value.isEmpty()) return ANY;
+            return places.idOf(value);
+        }
+
+        boolean matches(Snapshot s, int row) {
+            long price = s.priceCents[row];
+            if (price < minCents || price > maxCents) return false;
+            if (category != ANY && s.category[row] != category) return false;
+            if (cityId != ANY && s.cityId[row] != cityId) return false;
+            if (stateId != ANY && s.stateId[row] != stateId) return false;
+            if (countryId != ANY && s.countryId[row] != countryId) return false;
+            if (tagBits != null && !TagSets.intersects(tagIndex.tagIdsOf(s.ids[row]), tagBits)) return false;
+            // Radius is already enforced (exact haversine) by the geo index candidates
+            return true;
+        }
+
+        /**
+         * Bitmask of the criteria the row fails. Unknown place / tag values fail every row,
+         * which {@link #impossible} otherwise short-circuits.
+         */
+        int failedFacets(Snapshot s, int row) {
+            int failed = 0;
+            if (failsPlace(stateId, s.stateId[row]) || failsPlace(countryId, s.countryId[row])) failed |= NON_FACET;
+            long price = s.priceCents[row];
+            if (price < minCents || price > maxCents) failed |= FACET_PRICE;
+            if (category != ANY && s.category[row] != category) failed |= FACET_CATEGORY;
+            if (failsPlace(cityId, s.cityId[row])) failed |= FACET_CITY;
+            // Tag lookup is the costly check; skip it once the row cannot count towards any facet
+            if (tagBits != null && (failed & NON_FACET) == 0 && Integer.bitCount(failed) < 2
+                    && !TagSets.intersects(tagIndex.tagIdsOf(s.ids[row]), tagBits)) {
+                failed |= NON_FACET;
+            }
+            return failed;
+        }
+
+        private static boolean failsPlace(int wanted, int actual) {
+            return wanted != ANY && (wanted == StringDictionary.MISSING || actual != wanted);
+        }
+    }
+}
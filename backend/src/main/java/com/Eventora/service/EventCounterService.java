@@ -0,0 +1,219 @@
+package com.Eventora.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind aggregator for the hot event counters (impressions, clicks, check-ins).
+ *
+ * Request threads only bump LongAdders; a scheduled flush turns the accumulated deltas
+ * into one batched UPDATE ... FROM (VALUES ...) and recomputes ctr / revenue in SQL,
+ * the same way Event.beforeSave does on insert; entity updates never write these columns.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventCounterService {
+
+    private static final int FLUSH_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentHashMap<Long, Counters> counters = new ConcurrentHashMap<>();
+
+    private static final int RETIRED = Integer.MIN_VALUE;
+
+    private static final class Counters {
+        final LongAdder impressions = new LongAdder();
+        final LongAdder clicks = new LongAdder();
+        final LongAdder checkIns = new LongAdder();
+
+        // Writers currently incrementing, or RETIRED once the drain has removed this instance
+        private final AtomicInteger writers = new AtomicInteger();
+
+        boolean isZero() {
+            return impressions.sum() == 0 && clicks.sum() == 0 && checkIns.sum() == 0;
+        }
+
+        // False once retired: the caller must look the event up again
+        boolean enter() {
+            while (true) {
+                int n = writers.get();
+                if (n == RETIRED) return false;
+                if (writers.compareAndSet(n, n + 1)) return true;
+            }
+        }
+
+        void exit() {
+            writers.decrementAndGet();
+        }
+
+        // Only succeeds while no writer is inside; afterwards the sums can no longer change
+        boolean retire() {
+            return writers.compareAndSet(0, RETIRED);
+        }
+    }
+
+    private record Delta(long eventId, long impressions, long clicks, long checkIns) {}
+
+    /* =====================
+       RECORDING
+       ===================== */
+
+    public void recordImpressions(Collection<Long> eventIds) {
+        for (Long eventId : eventIds) {
+            add(eventId, 1, 0, 0);
+        }
+    }
+
+    public void recordClick(Long eventId) {
+        add(eventId, 0, 1, 0);
+    }
+
+    /**
+     * Counted only once the surrounding transaction (if any) commits.
+     */
+    public void recordCheckIn(Long eventId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(eventId, 0, 0, 1);
+                }
+            });
+        } else {
+            add(eventId, 0, 0, 1);
+        }
+    }
+
+    private void add(Long eventId, long impressions, long clicks, long checkIns) {
+        while (true) {
+            Counters c = counters.computeIfAbsent(eventId, k -> new Counters());
+            if (!c.enter()) continue; // retired by a drain and already unmapped; the next lookup gets a fresh one
+            try {
+                if (impressions != 0) c.impressions.add(impressions);
+                if (clicks != 0) c.clicks.add(clicks);
+                if (checkIns != 0) c.checkIns.add(checkIns);
+                return;
+            } finally {
+                c.exit();
+            }
+        }
+    }
+
+    // Events with a live counter instance (idle ones are dropped by the second flush that sees them)
+    int trackedEvents() {
+        return counters.size();
+    }
+
+    /* =====================
+       FLUSHING
+       ===================== */
+
+    @Scheduled(fixedDelayString = "${eventora.counters.flush-interval-ms:2000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Event counter flush failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        scheduledFlush();
+    }
+
+    /**
+     * Drains all pending deltas into Postgres. Deltas of a failed batch are put back.
+     */
+    public synchronized int flush() {
+        List<Delta> deltas = drain();
+        if (deltas.isEmpty()) return 0;
+
+        for (int from = 0; from < deltas.size(); from += FLUSH_BATCH_SIZE) {
+            List<Delta> batch = deltas.subList(from, Math.min(from + FLUSH_BATCH_SIZE, deltas.size()));
+            try {
+                writeBatch(batch);
+            } catch (RuntimeException e) {
+                deltas.subList(from, deltas.size()).forEach(this::restore);
+                throw e;
+            }
+        }
+        log.debug("Flushed counters for {} events", deltas.size());
+        return deltas.size();
+    }
+
+    // Subtracting exactly what was read keeps increments that race with the drain
+    private List<Delta> drain() {
+        List<Delta> deltas = new ArrayList<>();
+        for (Map.Entry<Long, Counters> entry : counters.entrySet()) {
+            Counters c = entry.getValue();
+            long impressions = c.impressions.sum();
+            long clicks = c.clicks.sum();
+            long checkIns = c.checkIns.sum();
+            c.impressions.add(-impressions);
+            c.clicks.add(-clicks);
+            c.checkIns.add(-checkIns);
+
+            if (impressions != 0 || clicks != 0 || checkIns != 0) {
+                deltas.add(new Delta(entry.getKey(), impressions, clicks, checkIns));
+            } else if (counters.compute(entry.getKey(), (k, current) -> current == c && c.retire() ? null : current) == null) {
+                // Idle since the last flush: retired and unmapped so the map stays bounded. No writer
+                // can reach it any more, so anything that landed after the sums above is final here.
+                if (!c.isZero()) restore(new Delta(entry.getKey(), c.impressions.sum(), c.clicks.sum(), c.checkIns.sum()));
+            }
+        }
+        return deltas;
+    }
+
+    private void restore(Delta delta) {
+        add(delta.eventId(), delta.impressions(), delta.clicks(), delta.checkIns());
+    }
+
+    private void writeBatch(List<Delta> batch) {
+        StringBuilder values = new StringBuilder();
+        Object[] args = new Object[batch.size() * 4];
+        int i = 0;
+        for (Delta d : batch) {
+            if (!values.isEmpty()) values.append(", ");
+            values.append("(CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))");
+            args[i++] = d.eventId();
+            args[i++] = d.impressions();
+            args[i++] = d.clicks();
+            args[i++] = d.checkIns();
+        }
+
+        // SET expressions see the pre-update row, so ctr / revenue use the new totals explicitly
+        String sql = """
+                UPDATE events e
+                SET impressions = e.impressions + v.impressions,
+                    clicks = e.clicks + v.clicks,
+                    checked_in_count = COALESCE(e.checked_in_count, 0) + v.check_ins,
+                    ctr = CASE
+                            WHEN e.impressions + v.impressions > 0
+                            THEN CAST(e.clicks + v.clicks AS DOUBLE PRECISION) / (e.impressions + v.impressions)
+                            ELSE 0.0
+                          END,
+                    revenue = COALESCE(e.price, 0) * (COALESCE(e.checked_in_count, 0) + v.check_ins)
+                FROM (VALUES %s) AS v(id, impressions, clicks, check_ins)
+                WHERE e.id = v.id
+                """.formatted(values);
+
+        jdbcTemplate.update(sql, args);
+    }
+}
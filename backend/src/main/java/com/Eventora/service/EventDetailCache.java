@@ -0,0 +1,166 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.SingleFlight;
+import com.Eventora.dto.EventChangedEvent;
+import com.Eventora.dto.EventDetailDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of event detail base data (everything except the
+ * per-user registration status).
+ *
+ * Entries are weighed by their approximate heap size and evicted least-recently-used
+ * once the byte budget is exceeded. Writes on this node invalidate through
+ * {@link EventChangedEvent}; the TTL bounds staleness for writes made on other nodes.
+ * Concurrent misses for the same event share a single load.
+ */
+@Component
+public class EventDetailCache {
+
+    // Rough per-entry overhead: dto, boxed fields, enums, dates, map node
+    private static final int BASE_ENTRY_BYTES = 512;
+
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final SingleFlight<Long, EventDetailDto> loads;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes = 0;
+
+    // Events with a load in flight (one per event, see SingleFlight), mapped to whether a write
+    // to that event raced it; such a load is not cached
+    private final Map<Long, Boolean> inFlightLoads = new HashMap<>();
+    // Bumped by clear() so no load in flight at that point is cached
+    private long generation = 0;
+
+    private record Entry(EventDetailDto detail, int weight, long loadedAt) {}
+
+    public EventDetailCache(@Value("${eventora.detail-cache.max-bytes:33554432}") long maxBytes,
+                            @Value("${eventora.detail-cache.ttl-ms:600000}") long ttlMs,
+                            SingleFlightRegistry singleFlights) {
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.loads = singleFlights.create("event-detail");
+    }
+
+    /**
+     * Returns the cached detail, loading it on a miss. The returned instance is a copy
+     * the caller may modify freely.
+     */
+    public EventDetailDto get(Long eventId, Supplier<EventDetailDto> loader) {
+        synchronized (this) {
+            Entry entry = entries.get(eventId);
+            if (entry != null && System.nanoTime() - entry.loadedAt() < ttlNanos) {
+                return copy(entry.detail());
+            }
+            if (entry != null) remove(eventId);
+        }
+        return copy(loads.execute(eventId, () -> load(eventId, loader)));
+    }
+
+    private EventDetailDto load(Long eventId, Supplier<EventDetailDto> loader) {
+        long observedGeneration;
+        synchronized (this) {
+            observedGeneration = generation;
+            inFlightLoads.put(eventId, false);
+        }
+
+        EventDetailDto base = null;
+        try {
+            base = copy(loader.get());
+            base.setUserRegistrationStatus(null);
+        } finally {
+            synchronized (this) {
+                Boolean raced = inFlightLoads.remove(eventId);
+                if (base != null && generation == observedGeneration && Boolean.FALSE.equals(raced)) put(eventId, base);
+            }
+        }
+        return base;
+    }
+
+    public synchronized void invalidate(Long eventId) {
+        inFlightLoads.replace(eventId, true);
+        remove(eventId);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // After commit, so a reader cannot re-cache the pre-write row between invalidation and commit
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        switch (change.type()) {
+            case UPSERT, STATUS -> invalidate(change.eventId());
+            case PARTICIPANTS -> adjustParticipants(change.eventId(), change.participantDelta());
+        }
+    }
+
+    // Participant counts move on every registration; patch the entry instead of dropping it
+    private synchronized void adjustParticipants(Long eventId, int delta) {
+        inFlightLoads.replace(eventId, true);
+        Entry entry = entries.get(eventId);
+        if (entry == null) return;
+        // Cached instances are shared with in-flight readers, so replace rather than mutate
+        EventDetailDto detail = copy(entry.detail());
+        int current = detail.getCurrentParticipants() == null ? 0 : detail.getCurrentParticipants();
+        detail.setCurrentParticipants(current + delta);
+        entries.put(eventId, new Entry(detail, entry.weight(), entry.loadedAt()));
+    }
+
+    private void put(Long eventId, EventDetailDto detail) {
+        int weight = weigh(detail);
+        if (weight > maxBytes) return;
+
+        remove(eventId);
+        entries.put(eventId, new Entry(detail, weight, System.nanoTime()));
+        usedBytes += weight;
+
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            usedBytes -= eldest.next().getValue().weight();
+            eldest.remove();
+        }
+    }
+
+    private void remove(Long eventId) {
+        Entry removed = entries.remove(eventId);
+        if (removed != null) usedBytes -= removed.weight();
+    }
+
+    private static int weigh(EventDetailDto d) {
+        long chars = length(d.getTitle()) + length(d.getOrganizerDisplayName()) + length(d.getDescription())
+                + length(d.getLocationName()) + length(d.getCity()) + length(d.getState())
+                + length(d.getCountry()) + length(d.getImageUrl());
+        long bytes = BASE_ENTRY_BYTES + 2 * chars;
+        if (d.getTags() != null) {
+            for (String tag : d.getTags()) bytes += 48 + 2L * length(tag);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+
+    private static EventDetailDto copy(EventDetailDto d) {
+        return d.toBuilder()
+                .tags(d.getTags() == null ? null : List.copyOf(d.getTags()))
+                .build();
+    }
+}
@@ -0,0 +1,266 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.StringDictionary;
+import com.Eventora.dto.EventChangedEvent;
+import com.Eventora.entity.Event;
+import com.Eventora.entity.enums.EventCategory;
+import com.Eventora.projection.EventFeatureProjection;
+import com.Eventora.projection.EventTagProjection;
+import com.Eventora.repository.EventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact per-event features the interaction listener needs for affinity updates:
+ * category ordinal, interned city id and interned tag ids.
+ *
+ * City and tag values are interned exactly (no trimming / lower-casing) because they are
+ * used verbatim as the affinity map keys in MongoDB. Loaded in bulk from two narrow
+ * queries; entries are replaced whenever the event is saved. Reads are lock-free; writes
+ * take the instance lock so a reload can tell which entries changed under it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventFeatureCache {
+
+    public static final byte NO_CATEGORY = -1;
+
+    private static final EventCategory[] CATEGORIES = EventCategory.values();
+    // Re-reads of events written during a reload before it settles for the in-memory writes
+    private static final int MAX_RELOAD_PASSES = 3;
+
+    private final EventRepository eventRepository;
+
+    private final StringDictionary cities = StringDictionary.exact();
+    private final StringDictionary tags = StringDictionary.exact();
+    private volatile Map<Long, EventFeatures> features = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    // Serializes reloads; never taken while holding "this"
+    private final Object loadLock = new Object();
+    // Ids written while a reload is in flight, re-read once its entries are in; guarded by "this"
+    private boolean loading = false;
+    private Set<Long> changedDuringLoad = new HashSet<>();
+
+    public record EventFeatures(long eventId, byte category, int cityId, int[] tagIds) {}
+
+    /* =====================
+       LOADING
+       ===================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Initial event feature load failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${eventora.catalog.refresh-interval-ms:300000}",
+            initialDelayString = "${eventora.catalog.refresh-interval-ms:300000}"
+    )
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Event feature refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the cache with the features of every event currently in Postgres.
+     *
+     * Saves indexed while the queries run may or may not be in their result, so their events
+     * are re-read afterwards instead of being overwritten by the older rows.
+     */
+    public void reload() {
+        synchronized (loadLock) {
+            synchronized (this) {
+                loading = true;
+            }
+            try {
+                Map<Long, int[]> tagIds = new HashMap<>();
+                Map<Long, Integer> counts = new HashMap<>();
+                for (EventTagProjection t : eventRepository.findAllTags()) {
+                    int id = tags.intern(t.getTag());
+                    if (id == StringDictionary.MISSING) continue;
+                    int n = counts.merge(t.getEventId(), 1, Integer::sum);
+                    int[] ids = tagIds.computeIfAbsent(t.getEventId(), k -> new int[4]);
+                    if (n > ids.length) tagIds.put(t.getEventId(), ids = Arrays.copyOf(ids, ids.length * 2));
+                    ids[n - 1] = id;
+                }
+
+                List<EventFeatureProjection> rows = eventRepository.findAllFeatureRows();
+                ConcurrentHashMap<Long, EventFeatures> rebuilt = new ConcurrentHashMap<>(rows.size() * 2);
+                for (EventFeatureProjection row : rows) {
+                    int[] ids = tagIds.get(row.getId());
+                    int[] trimmed = ids != null ? Arrays.copyOf(ids, counts.get(row.getId())) : new int[0];
+                    rebuilt.put(row.getId(), toFeatures(row, trimmed));
+                }
+
+                Set<Long> changed;
+                synchronized (this) {
+                    features = rebuilt;
+                    loaded = true;
+                    changed = drainChangedDuringLoad();
+                }
+
+                // Each pass re-reads what changed during the previous one; the last pass's own
+                // writes were applied to the new map already
+                for (int pass = 0; pass < MAX_RELOAD_PASSES && !changed.isEmpty(); pass++) {
+                    Map<Long, EventFeatures> fetched = new HashMap<>();
+                    for (Long eventId : changed) fetched.put(eventId, fetch(eventId));
+                    synchronized (this) {
+                        fetched.forEach((eventId, f) -> {
+                            if (f != null) features.put(eventId, f);
+                            else features.remove(eventId);
+                        });
+                        changed = drainChangedDuringLoad();
+                    }
+                }
+                log.info("Event features loaded for {} events ({} cities, {} tags)", rebuilt.size(), cities.size(), tags.size());
+            } finally {
+                synchronized (this) {
+                    loading = false;
+                    changedDuringLoad = new HashSet<>();
+                }
+            }
+        }
+    }
+
+    // Caller holds "this"
+    private Set<Long> drainChangedDuringLoad() {
+        Set<Long> changed = changedDuringLoad;
+        changedDuringLoad = new HashSet<>();
+        return changed;
+    }
+
+    private synchronized void put(Long eventId, EventFeatures f) {
+        if (loading) changedDuringLoad.add(eventId);
+        features.put(eventId, f);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (loadLock) {
+                if (!loaded) reload();
+            }
+        }
+    }
+
+    // After commit, so features of a rolled-back event save are never cached
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        if (change.type() == EventChangedEvent.ChangeType.UPSERT) index(change.event());
+    }
+
+    public void index(Event event) {
+        if (event == null || event.getId() == null) return;
+        put(event.getId(), toFeatures(event));
+    }
+
+    /* =====================
+       READ PATHS
+       ===================== */
+
+    /**
+     * Cached features of the event, or null if this node has not seen it yet.
+     */
+    public EventFeatures get(Long eventId) {
+        ensureLoaded();
+        return features.get(eventId);
+    }
+
+    /**
+     * Reads one event's features from the database and caches them; null if it does not exist.
+     */
+    public EventFeatures load(Long eventId) {
+        EventFeatures loadedFeatures = fetch(eventId);
+        if (loadedFeatures != null) put(eventId, loadedFeatures);
+        return loadedFeatures;
+    }
+
+    private EventFeatures fetch(Long eventId) {
+        EventFeatureProjection row = eventRepository.findFeatureRowById(eventId).orElse(null);
+        if (row == null) return null;
+        int[] ids = eventRepository.findTagsByEventId(eventId).stream()
+                .mapToInt(t -> tags.intern(t.getTag()))
+                .filter(id -> id != StringDictionary.MISSING)
+                .toArray();
+        return toFeatures(row, ids);
+    }
+
+    /**
+     * Features of an entity the caller already holds, from the cache when possible.
+     */
+    public EventFeatures featuresOf(Event event) {
+        EventFeatures cached = get(event.getId());
+        return cached != null ? cached : toFeatures(event);
+    }
+
+    public int cityId(String city) {
+        return cities.intern(city);
+    }
+
+    // Lookup only: request input must not grow the dictionary
+    public int findCityId(String city) {
+        return cities.idOf(city);
+    }
+
+    public int tagId(String tag) {
+        return tags.intern(tag);
+    }
+
+    public EventCategory category(EventFeatures f) {
+        return f.category() == NO_CATEGORY ? null : CATEGORIES[f.category()];
+    }
+
+    public String city(EventFeatures f) {
+        return cities.valueOf(f.cityId());
+    }
+
+    public String tag(int tagId) {
+        return tags.valueOf(tagId);
+    }
+
+    /* =====================
+       ENCODING
+       ===================== */
+
+    private EventFeatures toFeatures(EventFeatureProjection row, int[] tagIds) {
+        byte category = NO_CATEGORY;
+        if (row.getEventCategory() != null) {
+            try {
+                category = (byte) EventCategory.valueOf(row.getEventCategory()).ordinal();
+            } catch (IllegalArgumentException ignored) {
+                // unknown category in the table; leave it out of the affinities
+            }
+        }
+        return new EventFeatures(row.getId(), category, cities.intern(row.getCity()), tagIds);
+    }
+
+    private EventFeatures toFeatures(Event event) {
+        byte category = event.getEventCategory() == null ? NO_CATEGORY : (byte) event.getEventCategory().ordinal();
+        int[] ids = event.getTags() == null ? new int[0] : event.getTags().stream()
+                .mapToInt(tags::intern)
+                .filter(id -> id != StringDictionary.MISSING)
+                .toArray();
+        return new EventFeatures(event.getId(), category, cities.intern(event.getCity()), ids);
+    }
+}
@@ -0,0 +1,190 @@
+package com.Eventora.service;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable fixed-size lat/lon cell grid over the rows of an {@link EventCatalog} snapshot.
+ *
+ * Radius queries visit only the cells overlapping the search circle and then apply an exact
+ * haversine check; nearest-neighbour queries expand ring by ring around the origin cell until
+ * no unvisited cell can hold anything closer than the current k-th hit.
+ */
+final class EventGeoIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    // ~11 km per cell in latitude; small enough for city-level radius queries
+    private static final double CELL_DEG = 0.1;
+    private static final int LAT_CELLS = (int) Math.round(180 / CELL_DEG);
+    private static final int LON_CELLS = (int) Math.round(360 / CELL_DEG);
+    private static final double KM_PER_DEG = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    // Beyond this many rings a linear scan is cheaper than walking empty cells
+    private static final int MAX_RINGS = 150;
+
+    private final double[] latitude;
+    private final double[] longitude;
+
+    // Cells with at least one row, sorted; rows of cellKeys[i] are rows[cellStart[i] .. cellStart[i + 1])
+    private final long[] cellKeys;
+    private final int[] cellStart;
+    private final int[] rows;
+
+    private EventGeoIndex(double[] latitude, double[] longitude, long[] cellKeys, int[] cellStart, int[] rows) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.cellKeys = cellKeys;
+        this.cellStart = cellStart;
+        this.rows = rows;
+    }
+
+    static EventGeoIndex build(double[] latitude, double[] longitude, int size) {
+        // Pack (cell key, row) so one primitive sort groups rows by cell and keeps row order inside a cell
+        long[] packed = new long[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (Double.isNaN(latitude[row]) || Double.isNaN(longitude[row])) continue;
+            long cell = cellKey(latCell(latitude[row]), lonCell(longitude[row]));
+            packed[count++] = (cell << 28) | row;
+        }
+        Arrays.sort(packed, 0, count);
+
+        long[] keys = new long[count];
+        int[] starts = new int[count + 1];
+        int[] ordered = new int[count];
+        int cells = 0;
+        for (int i = 0; i < count; i++) {
+            long cell = packed[i] >>> 28;
+            ordered[i] = (int) (packed[i] & ((1L << 28) - 1));
+            if (cells == 0 || keys[cells - 1] != cell) {
+                keys[cells] = cell;
+                starts[cells] = i;
+                cells++;
+            }
+        }
+        starts[cells] = count;
+        return new EventGeoIndex(latitude, longitude,
+                Arrays.copyOf(keys, cells), Arrays.copyOf(starts, cells + 1), ordered);
+    }
+
+    /**
+     * Rows within radiusKm (haversine) of the point, in ascending row order.
+     */
+    int[] withinRadius(double lat, double lon, double radiusKm) {
+        double latSpan = radiusKm / KM_PER_DEG;
+        int latLo = latCell(Math.max(-90.0, lat - latSpan));
+        int latHi = latCell(Math.min(90.0, lat + latSpan));
+
+        // Widest longitude span occurs at the circle's edge closest to a pole
+        double maxAbsLat = Math.min(89.999, Math.abs(lat) + latSpan);
+        double lonSpan = radiusKm / (KM_PER_DEG * Math.cos(Math.toRadians(maxAbsLat)));
+        boolean allLon = lonSpan >= 180.0 || latHi == LAT_CELLS - 1 || latLo == 0;
+        int lonLo = lonCell(lon - lonSpan);
+        int lonCount = allLon ? LON_CELLS : Math.min(LON_CELLS, (int) Math.ceil(2 * lonSpan / CELL_DEG) + 2);
+
+        int[] out = new int[16];
+        int n = 0;
+        for (int latCell = latLo; latCell <= latHi; latCell++) {
+            for (int i = 0; i < lonCount; i++) {
+                int lonCell = Math.floorMod(lonLo + i, LON_CELLS);
+                int c = Arrays.binarySearch(cellKeys, cellKey(latCell, lonCell));
+                if (c < 0) continue;
+                for (int p = cellStart[c]; p < cellStart[c + 1]; p++) {
+                    int row = rows[p];
+                    if (distanceKm(lat, lon, latitude[row], longitude[row]) <= radiusKm) {
+                        if (n == out.length) out = Arrays.copyOf(out, n * 2);
+                        out[n++] = row;
+                    }
+                }
+            }
+        }
+        int[] result = Arrays.copyOf(out, n);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Up to k rows accepted by the filter, closest first.
+     */
+    int[] nearest(double lat, double lon, int k, IntPredicate accept) {
+        if (k <= 0 || rows.length == 0) return new int[0];
+
+        // Max-heap on distance holding the best k so far
+        PriorityQueue<double[]> best = new PriorityQueue<>(k + 1, (a, b) -> Double.compare(b[0], a[0]));
+        int originLat = latCell(lat);
+        int originLon = lonCell(lon);
+
+        int ring = 0;
+        for (; ring <= MAX_RINGS; ring++) {
+            // Rows in rings >= ring are at least (ring - 1) whole cells away from the origin
+            if (best.size() == k && best.peek()[0] <= ringLowerBoundKm(lat, ring - 1)) break;
+
+            for (int dLat = -ring; dLat <= ring; dLat++) {
+                int latCell = originLat + dLat;
+                if (latCell < 0 || latCell >= LAT_CELLS) continue;
+                boolean edgeRow = Math.abs(dLat) == ring;
+                for (int dLon = -ring; dLon <= ring; dLon += edgeRow ? 1 : Math.max(1, 2 * ring)) {
+                    int lonCell = Math.floorMod(originLon + dLon, LON_CELLS);
+                    int c = Arrays.binarySearch(cellKeys, cellKey(latCell, lonCell));
+                    if (c < 0) continue;
+                    for (int p = cellStart[c]; p < cellStart[c + 1]; p++) {
+                        offer(best, k, rows[p], lat, lon, accept);
+                    }
+                }
+            }
+        }
+
+        if (ring > MAX_RINGS) {
+            // Sparse data far away from the origin: finish with a plain scan
+            best.clear();
+            for (int row : rows) offer(best, k, row, lat, lon, accept);
+        }
+
+        int[] result = new int[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) result[i] = (int) best.poll()[1];
+        return result;
+    }
+
+    private void offer(PriorityQueue<double[]> best, int k, int row, double lat, double lon, IntPredicate accept) {
+        if (!accept.test(row)) return;
+        double d = distanceKm(lat, lon, latitude[row], longitude[row]);
+        if (best.size() < k) {
+            best.add(new double[]{d, row});
+        } else if (d < best.peek()[0]) {
+            best.poll();
+            best.add(new double[]{d, row});
+        }
+    }
+
+    // Minimum distance covered by `cells` whole cells along either axis
+    private static double ringLowerBoundKm(double lat, int cells) {
+        if (cells <= 0) return 0.0;
+        double latKm = cells * CELL_DEG * KM_PER_DEG;
+        double farLat = Math.min(89.999, Math.abs(lat) + (cells + 2) * CELL_DEG);
+        double lonKm = cells * CELL_DEG * KM_PER_DEG * Math.cos(Math.toRadians(farLat));
+        return Math.min(latKm, lonKm);
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static int latCell(double lat) {
+        return Math.min(LAT_CELLS - 1, Math.max(0, (int) Math.floor((lat + 90.0) / CELL_DEG)));
+    }
+
+    private static int lonCell(double lon) {
+        return Math.floorMod((int) Math.floor((lon + 180.0) / CELL_DEG), LON_CELLS);
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return (long) latCell * LON_CELLS + lonCell;
+    }
+}
@@ -0,0 +1,417 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.MinHash;
+import com.Eventora.Utils.StringDictionary;
+import com.Eventora.Utils.TagSets;
+import com.Eventora.Utils.TopK;
+import com.Eventora.dto.EventChangedEvent;
+import com.Eventora.entity.Event;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Precomputed "similar events" lists: the top-N upcoming events by similarity for every
+ * upcoming event, so the event page widget is a map lookup.
+ *
+ * Rebuilt in parallel from the recommendation candidate matrix on the catalog interval.
+ * Up to lsh-threshold events every pair is scored; above it, candidate pairs come from
+ * MinHash / LSH buckets over the event's tags plus its category and city, and events that
+ * share too few buckets fall back to a full scan. A saved event gets a fresh list and is
+ * re-scored into the lists of its candidates; the next rebuild settles anything else.
+ */
+@Slf4j
+@Component
+public class EventNeighborIndex {
+
+    // Token ranges for the MinHash sets; tag ids are dense from 0 and stay far below these
+    private static final int CATEGORY_TOKEN = 0x7000_0000;
+    private static final int CITY_TOKEN = 0x6000_0000;
+
+    private static final int CHUNK_SIZE = 256;
+
+    private final RecommendationCandidates candidates;
+    private final EventTagIndex eventTagIndex;
+    private final EventFeatureCache eventFeatures;
+    private final int size;
+    private final int lshThreshold;
+    private final int maxCandidates;
+
+    private volatile Columns columns = Columns.build(List.of(), false);
+    private volatile Map<Long, Neighbors> neighbors = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    /**
+     * Neighbor ids ordered by descending similarity.
+     */
+    public record Neighbors(long[] ids, double[] scores) {
+        static final Neighbors EMPTY = new Neighbors(new long[0], new double[0]);
+    }
+
+    // Similarity inputs of one event
+    record Probe(long id, byte category, int cityId, int[] tags, double price, long startEpoch, int participants) {}
+
+    public EventNeighborIndex(RecommendationCandidates candidates,
+                              EventTagIndex eventTagIndex,
+                              EventFeatureCache eventFeatures,
+                              @Value("${eventora.neighbors.size:32}") int size,
+                              @Value("${eventora.neighbors.lsh-threshold:5000}") int lshThreshold,
+                              @Value("${eventora.neighbors.max-candidates:4096}") int maxCandidates) {
+        this.candidates = candidates;
+        this.eventTagIndex = eventTagIndex;
+        this.eventFeatures = eventFeatures;
+        this.size = size;
+        this.lshThreshold = lshThreshold;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /* =====================
+       LOADING
+       ===================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Initial neighbor index build failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${eventora.catalog.refresh-interval-ms:300000}",
+            initialDelayString = "${eventora.catalog.refresh-interval-ms:300000}"
+    )
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Neighbor index rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    public void rebuild() {
+        long started = System.nanoTime();
+        RecommendationCandidates.Matrix m = candidates.matrix();
+        List<Probe> probes = new ArrayList<>(m.size);
+        for (int row = 0; row < m.size; row++) {
+            probes.add(new Probe(m.ids[row], m.category[row], m.cityId[row], eventTagIndex.tagIdsOf(m.ids[row]),
+                    m.price[row], m.startEpoch[row], m.participants.get(row)));
+        }
+        Columns built = Columns.build(probes, probes.size() > lshThreshold);
+
+        int chunks = (built.size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        ConcurrentHashMap<Long, Neighbors> rebuilt = new ConcurrentHashMap<>(built.size * 2);
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] stamps = new int[built.size];
+            for (int row = c * CHUNK_SIZE; row < Math.min(built.size, (c + 1) * CHUNK_SIZE); row++) {
+                rebuilt.put(built.ids[row], topNeighbors(built, built.probe(row), built.signatures[row], stamps, row + 1));
+            }
+        });
+
+        columns = built;
+        neighbors = rebuilt;
+        loaded = true;
+        log.info("Neighbor index built for {} events ({}) in {} ms", built.size,
+                built.bands != null ? "lsh" : "all pairs", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) rebuild();
+            }
+        }
+    }
+
+    /* =====================
+       WRITE PATH
+       ===================== */
+
+    // After commit, so neighbor lists are never rebuilt around a rolled-back save
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        if (change.type() == EventChangedEvent.ChangeType.UPSERT) update(change.event());
+    }
+
+    public void update(Event event) {
+        if (event == null || event.getId() == null || !loaded) return;
+
+        if (event.getStartDate() == null || !event.getStartDate().isAfter(LocalDateTime.now())) {
+            neighbors.remove(event.getId());
+            return;
+        }
+
+        Probe probe = probeOf(event);
+        Columns c = columns;
+        int[] signature = signatureOf(probe);
+        int[] stamps = new int[c.size];
+        int self = c.indexOf(probe.id());
+        if (self >= 0) stamps[self] = 1; // never its own neighbor, even via the old row
+        Neighbors own = topNeighbors(c, probe, signature, stamps, 1);
+        neighbors.put(probe.id(), own);
+
+        // Re-score this event into the lists of its candidates
+        Map<Long, Neighbors> current = neighbors;
+        for (int row = 0; row < c.size; row++) {
+            if (stamps[row] != 1 || row == self) continue;
+            double score = similarity(probe, c, row);
+            current.computeIfPresent(c.ids[row], (id, list) -> withNeighbor(list, probe.id(), score));
+        }
+    }
+
+    private Neighbors withNeighbor(Neighbors list, long id, double score) {
+        int n = 0;
+        long[] ids = new long[list.ids().length + 1];
+        double[] scores = new double[ids.length];
+        boolean placed = false;
+        for (int i = 0; i < list.ids().length; i++) {
+            if (list.ids()[i] == id) continue;
+            if (!placed && score > list.scores()[i]) {
+                ids[n] = id;
+                scores[n++] = score;
+                placed = true;
+            }
+            ids[n] = list.ids()[i];
+            scores[n++] = list.scores()[i];
+        }
+        if (!placed) {
+            ids[n] = id;
+            scores[n++] = score;
+        }
+        n = Math.min(n, size);
+        return new Neighbors(Arrays.copyOf(ids, n), Arrays.copyOf(scores, n));
+    }
+
+    /* =====================
+       READ PATHS
+       ===================== */
+
+    /**
+     * Precomputed neighbors of an upcoming event, or null if the event is not indexed.
+     */
+    public Neighbors neighborsOf(Long eventId) {
+        ensureLoaded();
+        return neighbors.get(eventId);
+    }
+
+    /**
+     * Neighbors of an event that is not indexed (e.g. already past), computed on demand.
+     */
+    public Neighbors compute(Event event) {
+        ensureLoaded();
+        Probe probe = probeOf(event);
+        Columns c = columns;
+        int[] stamps = new int[c.size];
+        int self = c.indexOf(probe.id());
+        if (self >= 0) stamps[self] = 1;
+        return topNeighbors(c, probe, signatureOf(probe), stamps, 1);
+    }
+
+    private Probe probeOf(Event event) {
+        // Index first so the ids reflect this save regardless of listener order
+        eventFeatures.index(event);
+        eventTagIndex.index(event);
+        EventFeatureCache.EventFeatures f = eventFeatures.get(event.getId());
+        return new Probe(
+                event.getId(),
+                f.category(),
+                f.cityId(),
+                eventTagIndex.tagIdsOf(event),
+                event.getPrice() != null ? event.getPrice().doubleValue() : Double.NaN,
+                event.getStartDate().toEpochSecond(ZoneOffset.UTC),
+                event.getCurrentParticipants() != null ? event.getCurrentParticipants() : 0
+        );
+    }
+
+    /* =====================
+       SCORING
+       ===================== */
+
+    /**
+     * Best neighbors of the probe among the candidate rows. Rows already marked with
+     * stamp are skipped; every scored row is marked, so callers can reuse the marks.
+     */
+    private Neighbors topNeighbors(Columns c, Probe probe, int[] signature, int[] stamps, int stamp) {
+        TopK top = new TopK(size);
+        int scored = 0;
+        if (c.bands != null && !MinHash.isEmpty(signature)) {
+            for (int band = 0; band < MinHash.BANDS && scored < maxCandidates; band++) {
+                int[] bucket = c.bands.get(band).get(MinHash.bandKey(signature, band));
+                if (bucket == null) continue;
+                for (int i = 0; i < bucket.length && scored < maxCandidates; i++) {
+                    int row = bucket[i];
+                    if (stamps[row] == stamp || c.ids[row] == probe.id()) continue;
+                    stamps[row] = stamp;
+                    top.offer(similarity(probe, c, row), row);
+                    scored++;
+                }
+            }
+        }
+        if (c.bands == null || scored < size) {
+            // All pairs below the threshold; too few LSH candidates otherwise
+            for (int row = 0; row < c.size; row++) {
+                if (stamps[row] == stamp || c.ids[row] == probe.id()) continue;
+                stamps[row] = stamp;
+                top.offer(similarity(probe, c, row), row);
+            }
+        }
+
+        int[] rows = top.rowsDescending();
+        long[] ids = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) ids[i] = c.ids[rows[i]];
+        return rows.length == 0 ? Neighbors.EMPTY : new Neighbors(ids, top.scoresDescending());
+    }
+
+    private double similarity(Probe a, Columns c, int row) {
+
+        double score = 0.0;
+
+        score += (a.category() == c.category[row] ? 1.0 : 0.0) * 0.30;
+        score += (a.cityId() == c.cityId[row] ? 1.0 : 0.0) * 0.15;
+        score += TagSets.jaccard(a.tags(), c.tags[row]) * 0.25;
+        score += priceSimilarity(a.price(), c.price[row]) * 0.10;
+        score += dateSimilarity(a.startEpoch(), c.startEpoch[row]) * 0.10;
+        score += popularitySimilarity(a.participants(), c.participants[row]) * 0.10;
+
+        return score;
+    }
+
+    // NaN price means the event has none
+    private double priceSimilarity(double a, double b) {
+
+        if (Double.isNaN(a) || Double.isNaN(b)) return 0.5;
+
+        double max = Math.max(a, b);
+        if (max <= 0) return 1.0;
+
+        return clamp(1 - (Math.abs(a - b) / max));
+    }
+
+    private double dateSimilarity(long a, long b) {
+
+        // Whole days, truncated like ChronoUnit.DAYS.between
+        long days = Math.abs(a - b) / 86_400L;
+
+        if (days <= 1) return 1.0;
+        if (days <= 3) return 0.8;
+        if (days <= 7) return 0.6;
+        if (days <= 30) return 0.3;
+
+        return 0.1;
+    }
+
+    private double popularitySimilarity(int a, int b) {
+
+        int max = Math.max(a, b);
+
+        if (max == 0) return 0.5;
+
+        return clamp(1 - ((double) Math.abs(a - b) / max));
+    }
+
+    private double clamp(double val) {
+        return Math.max(0.0, Math.min(1.0, val));
+    }
+
+    private static int[] signatureOf(Probe p) {
+        int[] tokens = Arrays.copyOf(p.tags(), p.tags().length + 2);
+        int n = p.tags().length;
+        if (p.category() != EventFeatureCache.NO_CATEGORY) tokens[n++] = CATEGORY_TOKEN + p.category();
+        if (p.cityId() != StringDictionary.MISSING) tokens[n++] = CITY_TOKEN + p.cityId();
+        return MinHash.signature(tokens, n);
+    }
+
+    /* =====================
+       STORAGE
+       ===================== */
+
+    /**
+     * Similarity inputs of the indexed events at build time, plus the LSH band tables
+     * (band -> key -> rows) when the index is above the all-pairs threshold.
+     */
+    static final class Columns {
+        final int size;
+        final long[] ids;
+        final byte[] category;
+        final int[] cityId;
+        final int[][] tags;
+        final double[] price;
+        final long[] startEpoch;
+        final int[] participants;
+        final int[][] signatures;
+        final List<Map<Long, int[]>> bands;
+
+        private final long[] sortedIds;
+        private final int[] rowOfSortedId;
+
+        private Columns(int n, boolean lsh) {
+            size = n;
+            ids = new long[n];
+            category = new byte[n];
+            cityId = new int[n];
+            tags = new int[n][];
+            price = new double[n];
+            startEpoch = new long[n];
+            participants = new int[n];
+            signatures = new int[n][];
+            bands = lsh ? new ArrayList<>(MinHash.BANDS) : null;
+            sortedIds = new long[n];
+            rowOfSortedId = new int[n];
+        }
+
+        static Columns build(List<Probe> probes, boolean lsh) {
+            Columns c = new Columns(probes.size(), lsh);
+            for (int row = 0; row < c.size; row++) {
+                Probe p = probes.get(row);
+                c.ids[row] = p.id();
+                c.category[row] = p.category();
+                c.cityId[row] = p.cityId();
+                c.tags[row] = p.tags();
+                c.price[row] = p.price();
+                c.startEpoch[row] = p.startEpoch();
+                c.participants[row] = p.participants();
+                c.signatures[row] = signatureOf(p);
+            }
+
+            if (lsh) {
+                for (int band = 0; band < MinHash.BANDS; band++) {
+                    Map<Long, List<Integer>> buckets = new HashMap<>();
+                    for (int row = 0; row < c.size; row++) {
+                        if (MinHash.isEmpty(c.signatures[row])) continue;
+                        buckets.computeIfAbsent(MinHash.bandKey(c.signatures[row], band), k -> new ArrayList<>(2)).add(row);
+                    }
+                    Map<Long, int[]> table = new HashMap<>(buckets.size() * 2);
+                    buckets.forEach((key, rows) -> table.put(key, rows.stream().mapToInt(Integer::intValue).toArray()));
+                    c.bands.add(table);
+                }
+            }
+
+            System.arraycopy(c.ids, 0, c.sortedIds, 0, c.size);
+            Arrays.sort(c.sortedIds);
+            for (int row = 0; row < c.size; row++) {
+                c.rowOfSortedId[Arrays.binarySearch(c.sortedIds, c.ids[row])] = row;
+            }
+            return c;
+        }
+
+        Probe probe(int row) {
+            return new Probe(ids[row], category[row], cityId[row], tags[row], price[row], startEpoch[row], participants[row]);
+        }
+
+        int indexOf(long eventId) {
+            int pos = Arrays.binarySearch(sortedIds, eventId);
+            return pos >= 0 ? rowOfSortedId[pos] : -1;
+        }
+    }
+}
@@ -0,0 +1,666 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.PageCursor;
+import com.Eventora.Utils.StringDictionary;
+import com.Eventora.dto.CursorSlice;
+import com.Eventora.dto.EventChangedEvent;
+import com.Eventora.dto.EventTemplate;
+import com.Eventora.entity.Event;
+import com.Eventora.entity.enums.EventCategory;
+import com.Eventora.entity.enums.EventStatus;
+import com.Eventora.projection.EventSearchProjection;
+import com.Eventora.projection.EventTagProjection;
+import com.Eventora.repository.EventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-JVM inverted trigram index over event title (+ tags) and organizer name.
+ *
+ * Replaces the LOWER(col) LIKE '%term%' scans: a query is split into padded trigrams,
+ * candidates are collected from the posting lists and ranked by the share of query
+ * trigrams they contain, so small typos still match. Exact substring / prefix hits rank first.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventSearchIndex {
+
+    // Share of query trigrams a field must contain to count as a (fuzzy) match
+    private static final double MIN_MATCH_RATIO = 0.5;
+    private static final double SUBSTRING_BONUS = 1.0;
+    private static final double PREFIX_BONUS = 0.5;
+    private static final double TAG_HIT_BONUS = 0.25;
+    // Re-reads of events written during a rebuild before it settles for the in-memory writes
+    private static final int MAX_RELOAD_PASSES = 3;
+
+    private final EventRepository eventRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock. Superseded docs are left as null until the next rebuild.
+    private final List<Doc> docs = new ArrayList<>();
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private final Map<Long, Postings> titlePostings = new HashMap<>();
+    private final Map<Long, Postings> organizerPostings = new HashMap<>();
+    // Organizer id -> doc ordinals, for text-less "my events" queries
+    private final Map<Long, Postings> organizerOrdinals = new HashMap<>();
+    // Live doc ordinals in blank-query order (start date desc, id desc), so listing everything
+    // needs no sort; kept in order by index(), re-sorted by rebuild()
+    private int[] byStart = new int[0];
+    private int byStartSize;
+    private volatile boolean loaded = false;
+
+    // Serializes rebuilds; never taken while holding lock
+    private final Object loadLock = new Object();
+    // Ids written while a rebuild is in flight, re-read once its docs are in; guarded by lock
+    private boolean loading = false;
+    private Set<Long> changedDuringLoad = new HashSet<>();
+
+    record Doc(
+            long id,
+            Long organizerId,
+            String title,
+            String organizerName,
+            String titleKey,
+            String organizerKey,
+            List<String> tagKeys,
+            EventCategory category,
+            String city,
+            EventStatus status,
+            LocalDateTime startDate,
+            int participants
+    ) {
+        Doc withStatus(EventStatus newStatus) {
+            return new Doc(id, organizerId, title, organizerName, titleKey, organizerKey, tagKeys,
+                    category, city, newStatus, startDate, participants);
+        }
+
+        Doc withParticipants(int newParticipants) {
+            return new Doc(id, organizerId, title, organizerName, titleKey, organizerKey, tagKeys,
+                    category, city, status, startDate, newParticipants);
+        }
+    }
+
+    // Growable list of doc ordinals, appended in increasing order
+    private static final class Postings {
+        int[] ordinals = new int[4];
+        int size;
+
+        void add(int ordinal) {
+            if (size == ordinals.length) ordinals = Arrays.copyOf(ordinals, size * 2);
+            ordinals[size++] = ordinal;
+        }
+    }
+
+    /* =====================
+       LOADING
+       ===================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Initial search index build failed: {}", e.getMessage());
+        }
+    }
+
+    // Also compacts away superseded docs
+    @Scheduled(
+            fixedDelayString = "${eventora.search.rebuild-interval-ms:900000}",
+            initialDelayString = "${eventora.search.rebuild-interval-ms:900000}"
+    )
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Search index rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the index with the events currently in Postgres, dropping superseded docs.
+     *
+     * Writes applied while the queries run may or may not be in their result, so their events
+     * are re-read afterwards: an index or participant change is not lost or counted twice.
+     */
+    public void rebuild() {
+        synchronized (loadLock) {
+            lock.writeLock().lock();
+            try {
+                loading = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                List<EventSearchProjection> rows = eventRepository.findAllSearchRows();
+                Map<Long, List<String>> tagsByEvent = new HashMap<>();
+                for (EventTagProjection t : eventRepository.findAllTags()) {
+                    tagsByEvent.computeIfAbsent(t.getEventId(), k -> new ArrayList<>()).add(t.getTag());
+                }
+
+                Set<Long> changed;
+                lock.writeLock().lock();
+                try {
+                    docs.clear();
+                    ordinalById.clear();
+                    titlePostings.clear();
+                    organizerPostings.clear();
+                    organizerOrdinals.clear();
+                    for (EventSearchProjection r : rows) add(docOf(r, tagsByEvent.get(r.getId())));
+                    sortByStart();
+                    loaded = true;
+                    changed = drainChangedDuringLoad();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+
+                // Each pass re-reads what changed during the previous one; the last pass's own
+                // writes were applied to the new docs already
+                for (int pass = 0; pass < MAX_RELOAD_PASSES && !changed.isEmpty(); pass++) {
+                    Map<Long, Doc> fetched = new HashMap<>();
+                    for (Long eventId : changed) {
+                        fetched.put(eventId, eventRepository.findSearchRowById(eventId)
+                                .map(r -> docOf(r, eventRepository.findTagsByEventId(eventId).stream()
+                                        .map(EventTagProjection::getTag).toList()))
+                                .orElse(null));
+                    }
+                    lock.writeLock().lock();
+                    try {
+                        fetched.forEach((eventId, doc) -> {
+                            Integer previous = ordinalById.remove(eventId);
+                            if (previous != null) supersede(previous);
+                            if (doc != null) listByStart(add(doc));
+                        });
+                        changed = drainChangedDuringLoad();
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+                log.info("Search index built with {} events", rows.size());
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    loading = false;
+                    changedDuringLoad = new HashSet<>();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    private static Doc docOf(EventSearchProjection r, List<String> tags) {
+        return new Doc(
+                r.getId(),
+                r.getOrganizerId(),
+                r.getTitle(),
+                r.getOrganizerName(),
+                StringDictionary.normalize(r.getTitle()),
+                StringDictionary.normalize(r.getOrganizerName()),
+                normalizeAll(tags),
+                EventCategory.valueOf(r.getEventCategory().toUpperCase()),
+                r.getCity(),
+                EventStatus.valueOf(r.getEventStatus().toUpperCase()),
+                r.getStartDate(),
+                r.getParticipantCount() != null ? r.getParticipantCount() : 0
+        );
+    }
+
+    // Caller holds the write lock
+    private Set<Long> drainChangedDuringLoad() {
+        Set<Long> changed = changedDuringLoad;
+        changedDuringLoad = new HashSet<>();
+        return changed;
+    }
+
+    // Caller holds the write lock
+    private void noteChange(Long eventId) {
+        if (loading) changedDuringLoad.add(eventId);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (loadLock) {
+                if (!loaded) rebuild();
+            }
+        }
+    }
+
+    /* =====================
+       WRITE PATHS
+       ===================== */
+
+    // After commit, so rolled-back writes never reach the index
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        switch (change.type()) {
+            case UPSERT -> index(change.event());
+            case STATUS -> replace(change.eventId(), doc -> doc.withStatus(change.status()));
+            case PARTICIPANTS -> replace(change.eventId(),
+                    doc -> doc.withParticipants(doc.participants() + change.participantDelta()));
+        }
+    }
+
+    public void index(Event event) {
+        if (event == null || event.getId() == null) return;
+
+        Doc doc = new Doc(
+                event.getId(),
+                event.getOrganizer() != null ? event.getOrganizer().getId() : null,
+                event.getTitle(),
+                event.getOrganizerDisplayName(),
+                StringDictionary.normalize(event.getTitle()),
+                StringDictionary.normalize(event.getOrganizerDisplayName()),
+                normalizeAll(event.getTags()),
+                event.getEventCategory(),
+                event.getCity(),
+                event.getEventStatus(),
+                event.getStartDate(),
+                event.getCurrentParticipants() != null ? event.getCurrentParticipants() : 0
+        );
+
+        lock.writeLock().lock();
+        try {
+            noteChange(doc.id());
+            Integer previous = ordinalById.get(doc.id());
+            if (previous != null) supersede(previous);
+            listByStart(add(doc));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // For changes that don't touch indexed text the doc is swapped in place
+    private void replace(Long eventId, UnaryOperator<Doc> change) {
+        lock.writeLock().lock();
+        try {
+            noteChange(eventId);
+            Integer ordinal = ordinalById.get(eventId);
+            if (ordinal == null || docs.get(ordinal) == null) return;
+            docs.set(ordinal, change.apply(docs.get(ordinal)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns the new doc's ordinal
+    private int add(Doc doc) {
+        int ordinal = docs.size();
+        docs.add(doc);
+        ordinalById.put(doc.id(), ordinal);
+
+        Set<Long> titleGrams = new HashSet<>();
+        addGrams(doc.titleKey(), titleGrams);
+        for (String tag : doc.tagKeys()) addGrams(tag, titleGrams);
+        for (long gram : titleGrams) titlePostings.computeIfAbsent(gram, k -> new Postings()).add(ordinal);
+
+        Set<Long> organizerGrams = new HashSet<>();
+        addGrams(doc.organizerKey(), organizerGrams);
+        for (long gram : organizerGrams) organizerPostings.computeIfAbsent(gram, k -> new Postings()).add(ordinal);
+        if (doc.organizerId() != null) organizerOrdinals.computeIfAbsent(doc.organizerId(), k -> new Postings()).add(ordinal);
+        return ordinal;
+    }
+
+    private void supersede(int ordinal) {
+        int at = byStartPosition(docs.get(ordinal));
+        // Ids are unique, so only the doc itself compares equal to it
+        if (at < byStartSize && byStart[at] == ordinal) {
+            System.arraycopy(byStart, at + 1, byStart, at, byStartSize - at - 1);
+            byStartSize--;
+        }
+        docs.set(ordinal, null);
+    }
+
+    private void listByStart(int ordinal) {
+        int at = byStartPosition(docs.get(ordinal));
+        if (byStartSize == byStart.length) byStart = Arrays.copyOf(byStart, Math.max(16, byStartSize * 2));
+        System.arraycopy(byStart, at, byStart, at + 1, byStartSize - at);
+        byStart[at] = ordinal;
+        byStartSize++;
+    }
+
+    // First position in byStart not ordered before the doc
+    private int byStartPosition(Doc doc) {
+        int lo = 0, hi = byStartSize;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(0, docs.get(byStart[mid]), 0, doc) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // Once per rebuild; index() keeps the order after that
+    private void sortByStart() {
+        Integer[] order = new Integer[docs.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> compare(0, docs.get(a), 0, docs.get(b)));
+        byStart = new int[order.length];
+        for (int i = 0; i < order.length; i++) byStart[i] = order[i];
+        byStartSize = order.length;
+    }
+
+    /* =====================
+       SEARCH
+       ===================== */
+
+    /**
+     * Ranked, paged search. Blank terms match everything; ties are ordered by start date, newest first.
+     *
+     * @param organizerId only events of this organizer, or null
+     * @param restrictTo  only these event ids, or null
+     */
+    public Page<EventTemplate> search(String eventName,
+                                      String organizerName,
+                                      Long organizerId,
+                                      Collection<Long> restrictTo,
+                                      int page,
+                                      int size,
+                                      Collection<Long> likedEventIds) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Ranked ranked = rank(eventName, organizerName, organizerId, restrictTo);
+            int from = (int) Math.min((long) page * size, ranked.count);
+            int to = Math.min(from + size, ranked.count);
+            List<EventTemplate> content = ranked.templates(from, to, likedEventIds);
+            return new PageImpl<>(content, PageRequest.of(page, size), ranked.count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keyset variant of {@link #search}: returns the results ranked after the cursor, without a total.
+     *
+     * @throws IllegalArgumentException if size is below 1
+     */
+    public CursorSlice<EventTemplate> searchAfter(String eventName,
+                                                  String organizerName,
+                                                  Long organizerId,
+                                                  Collection<Long> restrictTo,
+                                                  PageCursor after,
+                                                  int size,
+                                                  Collection<Long> likedEventIds) {
+        size = PageCursor.pageSize(size);
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Ranked ranked = rank(eventName, organizerName, organizerId, restrictTo);
+            int from = after == null ? 0 : ranked.firstAfter(after);
+            int to = Math.min(from + size, ranked.count);
+            List<EventTemplate> content = ranked.templates(from, to, likedEventIds);
+
+            boolean hasNext = to < ranked.count;
+            String next = null;
+            if (hasNext && to > from) {
+                int last = to - 1;
+                Doc doc = docs.get(ranked.ordinals[last]);
+                next = new PageCursor(doc.startDate(), doc.id(), ranked.score(last)).encode();
+            }
+            return CursorSlice.<EventTemplate>builder()
+                    .content(content)
+                    .size(content.size())
+                    .hasNext(hasNext)
+                    .nextCursor(next)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // All matches in result order: score desc, start date desc, id desc. Caller holds the read lock.
+    private Ranked rank(String eventName, String organizerName, Long organizerId, Collection<Long> restrictTo) {
+        String titleQuery = blankToNull(StringDictionary.normalize(eventName));
+        String organizerQuery = blankToNull(StringDictionary.normalize(organizerName));
+        // Listing everything is already in result order
+        if (titleQuery == null && organizerQuery == null && organizerId == null && restrictTo == null) {
+            return new Ranked(byStart, null, byStartSize);
+        }
+
+        // Only docs sharing a trigram with the query are looked at; blank terms fall back to the filters
+        Hits candidates;
+        if (titleQuery == null && organizerQuery == null) {
+            candidates = unscored(organizerId, restrictTo);
+        } else {
+            candidates = titleQuery != null ? fieldHits(titleQuery, titlePostings, true) : null;
+            if (organizerQuery != null) {
+                Hits organizerHits = fieldHits(organizerQuery, organizerPostings, false);
+                candidates = candidates == null ? organizerHits : candidates.intersect(organizerHits);
+            }
+        }
+
+        Set<Long> scope = restrictTo == null ? null : new HashSet<>(restrictTo);
+        int[] hits = new int[candidates.size];
+        double[] scores = new double[candidates.size];
+        int count = 0;
+        for (int i = 0; i < candidates.size; i++) {
+            Doc doc = docs.get(candidates.ordinals[i]);
+            if (doc == null) continue;
+            if (organizerId != null && !organizerId.equals(doc.organizerId())) continue;
+            if (scope != null && !scope.contains(doc.id())) continue;
+            hits[count] = candidates.ordinals[i];
+            scores[count] = candidates.scores[i];
+            count++;
+        }
+
+        Doc[] hitDocs = new Doc[count];
+        for (int i = 0; i < count; i++) hitDocs[i] = docs.get(hits[i]);
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> compare(scores[a], hitDocs[a], scores[b], hitDocs[b]));
+
+        int[] ordinals = new int[count];
+        double[] sortedScores = new double[count];
+        for (int i = 0; i < count; i++) {
+            ordinals[i] = hits[order[i]];
+            sortedScores[i] = scores[order[i]];
+        }
+        return new Ranked(ordinals, sortedScores, count);
+    }
+
+    // Candidates of a query without text: the scope or the organizer's events
+    private Hits unscored(Long organizerId, Collection<Long> restrictTo) {
+        int[] ordinals;
+        if (restrictTo != null) {
+            ordinals = restrictTo.stream().map(ordinalById::get).filter(Objects::nonNull)
+                    .mapToInt(Integer::intValue).distinct().toArray();
+        } else {
+            Postings p = organizerOrdinals.get(organizerId);
+            ordinals = p == null ? new int[0] : Arrays.copyOf(p.ordinals, p.size);
+        }
+        return new Hits(ordinals, new double[ordinals.length], ordinals.length);
+    }
+
+    private final class Ranked {
+        final int[] ordinals;
+        final double[] scores; // null when every score is 0
+        final int count;
+
+        Ranked(int[] ordinals, double[] scores, int count) {
+            this.ordinals = ordinals;
+            this.scores = scores;
+            this.count = count;
+        }
+
+        // Index of the first result ordered strictly after the cursor
+        int firstAfter(PageCursor cursor) {
+            int lo = 0, hi = count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                Doc doc = docs.get(ordinals[mid]);
+                int cmp = compare(score(mid), doc.startDate(), doc.id(), cursor.score(), cursor.startDate(), cursor.id());
+                if (cmp <= 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        double score(int i) {
+            return scores == null ? 0 : scores[i];
+        }
+
+        List<EventTemplate> templates(int from, int to, Collection<Long> likedEventIds) {
+            Set<Long> liked = likedEventIds == null ? Set.of() : new HashSet<>(likedEventIds);
+            List<EventTemplate> content = new ArrayList<>(Math.max(0, to - from));
+            for (int i = from; i < to; i++) {
+                Doc doc = docs.get(ordinals[i]);
+                content.add(toTemplate(doc, liked.contains(doc.id())));
+            }
+            return content;
+        }
+    }
+
+    private static int compare(double scoreA, Doc a, double scoreB, Doc b) {
+        return compare(scoreA, a.startDate(), a.id(), scoreB, b.startDate(), b.id());
+    }
+
+    private static int compare(double scoreA, LocalDateTime startA, long idA,
+                               double scoreB, LocalDateTime startB, long idB) {
+        int byScore = Double.compare(scoreB, scoreA);
+        if (byScore != 0) return byScore;
+        int byStart = compareStartDesc(startA, startB);
+        if (byStart != 0) return byStart;
+        return Long.compare(idB, idA);
+    }
+
+    /**
+     * Docs matching the field, ordinals ascending. The posting lists of the query's trigrams
+     * are concatenated and sorted, so each run of equal ordinals is one doc and its length
+     * the number of shared trigrams; cost follows the posting lengths, not the catalog size.
+     */
+    private Hits fieldHits(String query, Map<Long, Postings> postings, boolean includeTags) {
+        Set<Long> queryGrams = new HashSet<>();
+        addGrams(query, queryGrams);
+
+        int total = 0;
+        List<Postings> lists = new ArrayList<>(queryGrams.size());
+        for (long gram : queryGrams) {
+            Postings p = postings.get(gram);
+            if (p == null) continue;
+            lists.add(p);
+            total += p.size;
+        }
+        int[] all = new int[total];
+        int at = 0;
+        for (Postings p : lists) {
+            System.arraycopy(p.ordinals, 0, all, at, p.size);
+            at += p.size;
+        }
+        Arrays.sort(all);
+
+        Hits hits = new Hits(new int[total], new double[total], 0);
+        for (int start = 0; start < total; ) {
+            int ordinal = all[start];
+            int end = start + 1;
+            while (end < total && all[end] == ordinal) end++;
+            int common = end - start;
+            start = end;
+
+            Doc doc = docs.get(ordinal);
+            if (doc == null) continue;
+
+            String text = includeTags ? doc.titleKey() : doc.organizerKey();
+            double ratio = (double) common / queryGrams.size();
+            boolean substring = text != null && text.contains(query);
+            boolean tagHit = includeTags && doc.tagKeys().stream().anyMatch(t -> t.contains(query));
+            if (ratio < MIN_MATCH_RATIO && !substring && !tagHit) continue;
+
+            double score = Math.min(ratio, 1.0);
+            if (substring) score += SUBSTRING_BONUS;
+            if (substring && text.startsWith(query)) score += PREFIX_BONUS;
+            if (tagHit) score += TAG_HIT_BONUS;
+            hits.ordinals[hits.size] = ordinal;
+            hits.scores[hits.size++] = score;
+        }
+        return hits;
+    }
+
+    // Sparse (ordinal, score) pairs, ordinals ascending
+    private static final class Hits {
+        final int[] ordinals;
+        final double[] scores;
+        int size;
+
+        Hits(int[] ordinals, double[] scores, int size) {
+            this.ordinals = ordinals;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        // Docs matching both fields, scores summed
+        Hits intersect(Hits other) {
+            Hits both = new Hits(new int[Math.min(size, other.size)], new double[Math.min(size, other.size)], 0);
+            int i = 0, j = 0;
+            while (i < size && j < other.size) {
+                if (ordinals[i] < other.ordinals[j]) i++;
+                else if (ordinals[i] > other.ordinals[j]) j++;
+                else {
+                    both.ordinals[both.size] = ordinals[i];
+                    both.scores[both.size++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return both;
+        }
+    }
+
+    private static int compareStartDesc(LocalDateTime a, LocalDateTime b) {
+        if (a == null) return b == null ? 0 : 1;
+        if (b == null) return -1;
+        return b.compareTo(a);
+    }
+
+    private static EventTemplate toTemplate(Doc doc, boolean isLiked) {
+        return EventTemplate.builder()
+                .id(doc.id())
+                .title(doc.title())
+                .organizerName(doc.organizerName())
+                .eventCategory(doc.category())
+                .city(doc.city())
+                .eventStatus(doc.status())
+                .startDate(doc.startDate())
+                .participantCount(doc.participants())
+                .isLiked(isLiked)
+                .build();
+    }
+
+    /* =====================
+       TRIGRAMS
+       ===================== */
+
+    // pg_trgm style: every word is padded with two leading blanks and one trailing blank
+    static void addGrams(String text, Set<Long> out) {
+        if (text == null) return;
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) continue;
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                out.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+            }
+        }
+    }
+
+    private static List<String> normalizeAll(List<String> values) {
+        if (values == null || values.isEmpty()) return List.of();
+        return values.stream().map(StringDictionary::normalize).filter(Objects::nonNull).toList();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
@@ -1,6 +1,7 @@
 package com.Eventora.service;
 import com.Eventora.Utils.ApplicationContextUtils;
 import com.Eventora.Utils.EventUtils;
+import com.Eventora.Utils.PageCursor;
 import com.Eventora.dto.*;
 import com.Eventora.entity.AppUser;
 import com.Eventora.entity.Event;
@@ -8,23 +9,19 @@ import com.Eventora.entity.enums.EventCategory;
 import com.Eventora.entity.enums.EventStatus;
 import com.Eventora.entity.enums.InteractionType;
 import com.Eventora.entity.enums.RegistrationStatus;
-import com.Eventora.projection.EventDetailProjection;
-import com.Eventora.projection.EventTemplateProjection;
 import com.Eventora.repository.AppUserRepository;
 import com.Eventora.repository.EventRepository;
+import com.Eventora.repository.RegistrationRepository;
 import com.Eventora.security.CustomUserDetails;
-import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -40,6 +37,12 @@ public class EventService {
     private final ApplicationContextUtils applicationContextUtils;
     private final UserInteractionService userInteractionService;
     private final ApplicationEventPublisher publisher;
+    private final EventCatalog eventCatalog;
+    private final EventCounterService eventCounterService;
+    private final EventSearchIndex eventSearchIndex;
+    private final EventDetailCache eventDetailCache;
+    private final EventAutocompleteIndex eventAutocompleteIndex;
+    private final RegistrationRepository registrationRepository;
 
     //Done
     public EventDetailDto createEvent(CreateEventDto createEventDto, MultipartFile file) throws Exception {
@@ -81,6 +84,7 @@ public class EventService {
 
         // Save to repository
         eventRepository.save(event);
+        publisher.publishEvent(EventChangedEvent.upserted(event));
         return eventUtils.mapToEventDetailDto(event, RegistrationStatus.NONE);
     }
 
@@ -120,119 +124,143 @@ public class EventService {
 
     public List<EventTemplate> getFilteredEvents(EventFilterRequest filter) {
 
-        List<Event> events = eventRepository.findAll((root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-
-            // Price Range (BigDecimal)
-            if (filter.getMinPrice() != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
-            }
-            if (filter.getMaxPrice() != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
-            }
+        // Convert to EventTemplate DTOs
+        List<Long> likedEventIds = new ArrayList<>();
+        if(applicationContextUtils.getLoggedUser() != null){
 
-            // City, State, Country (String)
-            if (filter.getCity() != null && !filter.getCity().isEmpty()) {
-                predicates.add(cb.equal(cb.lower(root.get("city")), filter.getCity().toLowerCase()));
-            }
-            if (filter.getState() != null && !filter.getState().isEmpty()) {
-                predicates.add(cb.equal(cb.lower(root.get("state")), filter.getState().toLowerCase()));
-            }
-            if (filter.getCountry() != null && !filter.getCountry().isEmpty()) {
-                predicates.add(cb.equal(cb.lower(root.get("country")), filter.getCountry().toLowerCase()));
-            }
+            likedEventIds = userInteractionService.getLikedEventIds();
+        }
+        // Served from the in-memory catalog, no entity hydration
+        List<EventTemplate> events = eventCatalog.filter(filter, likedEventIds);
+        recordListing(events);
+        return events;
+    }
 
-            // Event Category (Enum)
-            if (filter.getEventCategory() != null) {
-                predicates.add(cb.equal(root.get("eventCategory"), filter.getEventCategory()));
-            }
+    public CursorSlice<EventTemplate> scrollFilteredEvents(EventFilterRequest filter) {
+        List<Long> likedEventIds = new ArrayList<>();
+        if(applicationContextUtils.getLoggedUser() != null){
+            likedEventIds = userInteractionService.getLikedEventIds();
+        }
+        CursorSlice<EventTemplate> slice = eventCatalog.filterAfter(filter, PageCursor.decode(filter.getCursor()), likedEventIds);
+        recordListing(slice.getContent());
+        return slice;
+    }
 
-            // Nearby radius filter (latitude & longitude)
-            if (filter.getLatitude() != null && filter.getLongitude() != null && filter.getRadiusInKm() != null) {
-                double lat = filter.getLatitude();
-                double lon = filter.getLongitude();
-                double radius = filter.getRadiusInKm();
+    /**
+     * Day-by-day calendar of listed events between from and to (inclusive).
+     */
+    public List<CalendarDay> getCalendar(LocalDate from, LocalDate to, EventCategory category,
+                                         String city, int perDayLimit) {
+        List<Long> likedEventIds = new ArrayList<>();
+        if(applicationContextUtils.getLoggedUser() != null){
+            likedEventIds = userInteractionService.getLikedEventIds();
+        }
+        EventFilterRequest filter = new EventFilterRequest();
+        filter.setEventCategory(category);
+        filter.setCity(city);
+        return eventCatalog.calendar(from, to, filter, perDayLimit, likedEventIds);
+    }
 
-                // Approximate latitude/longitude bounds
-                double latMin = lat - radius / 111.0;
-                double latMax = lat + radius / 111.0;
-                double lonMin = lon - radius / (111.0 * Math.cos(Math.toRadians(lat)));
-                double lonMax = lon + radius / (111.0 * Math.cos(Math.toRadians(lat)));
+    public List<AutocompleteSuggestion> autocomplete(String prefix, int limit) {
+        return eventAutocompleteIndex.complete(prefix, limit);
+    }
 
-                predicates.add(cb.between(root.get("latitude"), latMin, latMax));
-                predicates.add(cb.between(root.get("longitude"), lonMin, lonMax));
-            }
+    public EventFacets getFilterFacets(EventFilterRequest filter) {
+        return eventCatalog.facets(filter);
+    }
 
-            return cb.and(predicates.toArray(new Predicate[0]));
-        });
+    public List<EventTemplate> getNearbyEvents(double latitude, double longitude, int limit) {
+        List<Long> likedEventIds = new ArrayList<>();
+        if(applicationContextUtils.getLoggedUser() != null){
+            likedEventIds = userInteractionService.getLikedEventIds();
+        }
+        List<EventTemplate> events = eventCatalog.nearest(latitude, longitude, limit, likedEventIds);
+        recordListing(events);
+        return events;
+    }
 
-        for(Event event: events) {
-            event.setImpressions(event.getImpressions()+1);
+    // Impression counters + per-user impression signals for every event shown in a listing.
+    // Being listed is not interest, so these only feed the shown-penalty, never the affinities.
+    private void recordListing(List<EventTemplate> events) {
+        if (events.isEmpty()) return;
 
-            if(applicationContextUtils.getLoggedUser() != null){
+        List<Long> eventIds = events.stream().map(EventTemplate::getId).toList();
+        eventCounterService.recordImpressions(eventIds);
 
-            publisher.publishEvent(new UserInteractionEvent(
-                    applicationContextUtils.getLoggedUser().getId(),
-                    event.getId(),
-                    InteractionType.VIEW_EVENT,
-                    Map.of()
-            ));
-            }
-        }
-        eventRepository.saveAll(events);
-        // Convert to EventTemplate DTOs
-        List<Long> likedEventIds = new ArrayList<>();
         if(applicationContextUtils.getLoggedUser() != null){
-
-            likedEventIds = userInteractionService.getLikedEventIds();
+            Long userId = applicationContextUtils.getLoggedUser().getId();
+            for(Long eventId: eventIds) {
+                publisher.publishEvent(new UserInteractionEvent(
+                        userId,
+                        eventId,
+                        InteractionType.IMPRESSION,
+                        Map.of()
+                ));
+            }
         }
-        return eventUtils.extractEventTemplates(events,likedEventIds);
     }
 
     //Done
-    @Transactional
     public Page<EventTemplate> findEventByNameAndOrganizer
     (String eventName,String organizerName,Boolean isMyList,int page,int size) {
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("startDate").descending());
-
         // Normalize empty strings to null
         eventName = (eventName != null && eventName.trim().isEmpty()) ? null : eventName;
         organizerName = (organizerName != null && organizerName.trim().isEmpty()) ? null : organizerName;
 
         boolean fetchMyList = Boolean.TRUE.equals(isMyList);
 
+        // Ranked trigram search served from memory instead of LIKE '%term%' scans
         if (fetchMyList) {
             Long userId = applicationContextUtils.getLoggedUser().getId();
-            return eventRepository.searchMyRegisteredEvents(userId, eventName, organizerName, pageable);
+            List<Long> registeredEventIds = registrationRepository.findActiveEventIdsByUserId(userId);
+            return eventSearchIndex.search(eventName, organizerName, null, registeredEventIds, page, size, List.of());
         } else {
             List<Long> likedEventIds = userInteractionService.getLikedEventIds();
-            return eventUtils.mapToEventTemplate(eventRepository.searchEvents(eventName, organizerName, pageable),likedEventIds);
+            return eventSearchIndex.search(eventName, organizerName, null, null, page, size, likedEventIds);
+        }
+    }
+
+    public CursorSlice<EventTemplate> scrollEventByNameAndOrganizer
+    (String eventName,String organizerName,Boolean isMyList,String cursor,int size) {
+        PageCursor after = PageCursor.decode(cursor);
+
+        if (Boolean.TRUE.equals(isMyList)) {
+            Long userId = applicationContextUtils.getLoggedUser().getId();
+            List<Long> registeredEventIds = registrationRepository.findActiveEventIdsByUserId(userId);
+            return eventSearchIndex.searchAfter(eventName, organizerName, null, registeredEventIds, after, size, List.of());
         }
+        List<Long> likedEventIds = userInteractionService.getLikedEventIds();
+        return eventSearchIndex.searchAfter(eventName, organizerName, null, null, after, size, likedEventIds);
     }
 
     //done
     @Transactional
     public EventDetailDto getEventById(Long eventId) {
-        eventRepository.updateClicks(eventId);
+        eventCounterService.recordClick(eventId);
         RegistrationStatus userRegistrationStatus = RegistrationStatus.NONE;
-        if (applicationContextUtils.getLoggedUser() != null) {
-            AppUser appUser = applicationContextUtils.getLoggedUser();
+        AppUser appUser = applicationContextUtils.getLoggedUser();
+        if (appUser != null) {
             userRegistrationStatus = registrationService.checkIsUserRegisteredForEvent(eventId, appUser);
         }
-        EventDetailProjection projection = eventRepository.findEventDetailById(
-                eventId,
-                userRegistrationStatus.name()
-        ).orElseThrow(() -> new RuntimeException("Event not found"));
-
-        publisher.publishEvent(new UserInteractionEvent(
-                applicationContextUtils.getLoggedUser().getId(),
-                eventId,
-                InteractionType.VIEW_EVENT,
-                Map.of()
-        ));
-
-        return eventUtils.mapToDto(projection);
+
+        EventDetailDto detail = eventDetailCache.get(eventId, () -> eventUtils.mapToDto(
+                eventRepository.findEventDetailById(eventId, RegistrationStatus.NONE.name())
+                        .orElseThrow(() -> new RuntimeException("Event not found"))));
+        detail.setUserRegistrationStatus(userRegistrationStatus);
+        // Listed events carry a live participant count in the catalog
+        eventCatalog.participantsOf(eventId).ifPresent(detail::setCurrentParticipants);
+
+        if (appUser != null) {
+            publisher.publishEvent(new UserInteractionEvent(
+                    appUser.getId(),
+                    eventId,
+                    InteractionType.VIEW_EVENT,
+                    Map.of()
+            ));
+        }
+
+        return detail;
     }
 
     //done
@@ -248,6 +276,7 @@ public class EventService {
             throw new Exception("Event not found or you are not the organizer");
         }
         eventRepository.setEventStatus(eventId,EventStatus.CANCELLED);
+        publisher.publishEvent(EventChangedEvent.statusChanged(eventId, EventStatus.CANCELLED));
     }
 
     //done
@@ -263,6 +292,7 @@ public class EventService {
         }
 
         eventRepository.setEventStatus(eventId,EventStatus.SCHEDULED);
+        publisher.publishEvent(EventChangedEvent.statusChanged(eventId, EventStatus.SCHEDULED));
     }
 
     //done
@@ -303,6 +333,8 @@ public class EventService {
 
         // Save to repository
         eventRepository.save(event);
+        eventRepository.refreshRevenue(eventId);
+        publisher.publishEvent(EventChangedEvent.upserted(event));
         return eventUtils.mapToEventDetailDto(event, RegistrationStatus.NONE);
     }
     //Done
@@ -311,12 +343,20 @@ public class EventService {
         if (organizer == null) {
             throw new Exception("Organizer not found");
         }
-        Pageable pageable = PageRequest.of(page, size, Sort.by("startDate").descending());
         List<Long> likedEventIds = userInteractionService.getLikedEventIds();
-        return eventUtils.mapToEventTemplate(eventRepository.searchEventsOrganizeByMe(eventTitle, organizer.getId(), pageable),likedEventIds);
+        return eventSearchIndex.search(eventTitle, null, organizer.getId(), null, page, size, likedEventIds);
     }
 
 
+    public CursorSlice<EventTemplate> scrollEventByNameOrganiserByMe(String eventTitle, String cursor, int size) throws Exception {
+        AppUser organizer = applicationContextUtils.getLoggedUser();
+        if (organizer == null) {
+            throw new Exception("Organizer not found");
+        }
+        List<Long> likedEventIds = userInteractionService.getLikedEventIds();
+        return eventSearchIndex.searchAfter(eventTitle, null, organizer.getId(), null, PageCursor.decode(cursor), size, likedEventIds);
+    }
+
     //no need to reatrive the user,event forcefully when retriving registration - done
     //
     //apply pagination findEventByNameAndOrganizer,getFilteredEvents,getEventByNameOrganiserByMe
@@ -0,0 +1,203 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.StringDictionary;
+import com.Eventora.Utils.TagSets;
+import com.Eventora.dto.EventChangedEvent;
+import com.Eventora.entity.Event;
+import com.Eventora.projection.EventTagProjection;
+import com.Eventora.repository.EventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Normalized tag dictionary plus the tag set of every event as a sorted int array.
+ *
+ * Tags are compared case-insensitively by dense id, so similarity and tag filters
+ * are array merges / bit tests instead of HashSet&lt;String&gt; building. Reads are lock-free;
+ * writes take the instance lock so a reload can tell which events changed under it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventTagIndex {
+
+    // Re-reads of events written during a reload before it settles for the in-memory writes
+    private static final int MAX_RELOAD_PASSES = 3;
+
+    private final EventRepository eventRepository;
+
+    private final StringDictionary tags = new StringDictionary();
+    private volatile Map<Long, int[]> tagsByEvent = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    // Serializes reloads; never taken while holding "this"
+    private final Object loadLock = new Object();
+    // Ids written while a reload is in flight, re-read once its sets are in; guarded by "this"
+    private boolean loading = false;
+    private Set<Long> changedDuringLoad = new HashSet<>();
+
+    /* =====================
+       LOADING
+       ===================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Initial tag index load failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${eventora.catalog.refresh-interval-ms:300000}",
+            initialDelayString = "${eventora.catalog.refresh-interval-ms:300000}"
+    )
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Tag index refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the index with the tags currently in Postgres.
+     *
+     * Saves indexed while the query runs may or may not be in its result, so their events
+     * are re-read afterwards instead of being overwritten by the older rows.
+     */
+    public void reload() {
+        synchronized (loadLock) {
+            synchronized (this) {
+                loading = true;
+            }
+            try {
+                Map<Long, int[]> raw = new HashMap<>();
+                Map<Long, Integer> counts = new HashMap<>();
+                for (EventTagProjection t : eventRepository.findAllTags()) {
+                    int id = tags.intern(t.getTag());
+                    int n = counts.merge(t.getEventId(), 1, Integer::sum);
+                    int[] ids = raw.computeIfAbsent(t.getEventId(), k -> new int[4]);
+                    if (n > ids.length) raw.put(t.getEventId(), ids = Arrays.copyOf(ids, ids.length * 2));
+                    ids[n - 1] = id;
+                }
+
+                ConcurrentHashMap<Long, int[]> rebuilt = new ConcurrentHashMap<>(raw.size() * 2);
+                raw.forEach((eventId, ids) -> rebuilt.put(eventId, TagSets.normalize(ids, counts.get(eventId))));
+
+                Set<Long> changed;
+                synchronized (this) {
+                    tagsByEvent = rebuilt;
+                    loaded = true;
+                    changed = drainChangedDuringLoad();
+                }
+
+                // Each pass re-reads what changed during the previous one; the last pass's own
+                // writes were applied to the new map already
+                for (int pass = 0; pass < MAX_RELOAD_PASSES && !changed.isEmpty(); pass++) {
+                    Map<Long, int[]> fetched = new HashMap<>();
+                    for (Long eventId : changed) {
+                        fetched.put(eventId, encode(eventRepository.findTagsByEventId(eventId).stream()
+                                .map(EventTagProjection::getTag).toList()));
+                    }
+                    synchronized (this) {
+                        fetched.forEach((eventId, ids) -> {
+                            if (ids.length > 0) tagsByEvent.put(eventId, ids);
+                            else tagsByEvent.remove(eventId);
+                        });
+                        changed = drainChangedDuringLoad();
+                    }
+                }
+                log.info("Tag index loaded with {} tags over {} events", tags.size(), rebuilt.size());
+            } finally {
+                synchronized (this) {
+                    loading = false;
+                    changedDuringLoad = new HashSet<>();
+                }
+            }
+        }
+    }
+
+    // Caller holds "this"
+    private Set<Long> drainChangedDuringLoad() {
+        Set<Long> changed = changedDuringLoad;
+        changedDuringLoad = new HashSet<>();
+        return changed;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (loadLock) {
+                if (!loaded) reload();
+            }
+        }
+    }
+
+    // After commit, so tags of a rolled-back event save never reach the index
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        if (change.type() == EventChangedEvent.ChangeType.UPSERT) index(change.event());
+    }
+
+    public void index(Event event) {
+        if (event == null || event.getId() == null) return;
+        int[] ids = encode(event.getTags());
+        synchronized (this) {
+            if (loading) changedDuringLoad.add(event.getId());
+            tagsByEvent.put(event.getId(), ids);
+        }
+    }
+
+    /* =====================
+       READ PATHS
+       ===================== */
+
+    /**
+     * Tag ids of a loaded event, or of the entity's own tags if the index has not seen it.
+     */
+    public int[] tagIdsOf(Event event) {
+        ensureLoaded();
+        int[] ids = tagsByEvent.get(event.getId());
+        return ids != null ? ids : encode(event.getTags());
+    }
+
+    public int[] tagIdsOf(Long eventId) {
+        ensureLoaded();
+        return tagsByEvent.getOrDefault(eventId, TagSets.EMPTY);
+    }
+
+    /**
+     * Ids of the given tags that exist in the dictionary; unknown tags are dropped.
+     */
+    public int[] lookup(Collection<String> values) {
+        ensureLoaded();
+        if (values == null || values.isEmpty()) return TagSets.EMPTY;
+        int[] ids = new int[values.size()];
+        int n = 0;
+        for (String value : values) ids[n++] = tags.idOf(value);
+        return TagSets.normalize(ids, n);
+    }
+
+    private int[] encode(List<String> values) {
+        if (values == null || values.isEmpty()) return TagSets.EMPTY;
+        int[] ids = new int[values.size()];
+        int n = 0;
+        for (String value : values) ids[n++] = tags.intern(value);
+        return TagSets.normalize(ids, n);
+    }
+}
@@ -0,0 +1,237 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.AffinityDecay;
+import com.Eventora.Utils.HnswIndex;
+import com.Eventora.dto.EventChangedEvent;
+import com.Eventora.entity.Event;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Approximate nearest-neighbor retrieval of upcoming events for a user's embedding.
+ *
+ * Training and graph builds run on one background thread (never on the shared scheduler):
+ * the model is retrained on train-interval-ms, and the HNSW graph over the recommendation
+ * candidate matrix is rebuilt after every training and on the catalog interval. Events
+ * saved after a build are kept in a small delta that is scanned exactly, and their stale
+ * graph nodes are skipped, so retrieval stays current between rebuilds. The delta belongs to
+ * its graph and is encoded with that graph's model; a newly trained model is only published
+ * together with the graph built from it.
+ */
+@Slf4j
+@Component
+public class EventVectorIndex {
+
+    private final EmbeddingTrainer trainer;
+    private final RecommendationCandidates candidates;
+    private final EventFeatureCache eventFeatures;
+    private final boolean enabled;
+    private final int candidateCount;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "event-embeddings");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean trainingQueued = new AtomicBoolean();
+    private final AtomicBoolean buildQueued = new AtomicBoolean();
+
+    // Model of the published graph; written only when a graph is swapped in
+    private volatile EmbeddingModel model;
+    private volatile Graph graph;
+    // Ids saved while a build runs, re-encoded into the new graph's delta; guarded by "this"
+    private Set<Long> savedDuringBuild;
+
+    // delta / stale: events saved since the graph was built, as fresh vectors in the graph's
+    // model, and the ids whose graph node is outdated
+    private record Graph(EmbeddingModel model, HnswIndex index, long[] eventIds,
+                         Map<Long, float[]> delta, Set<Long> stale) {}
+
+    public EventVectorIndex(EmbeddingTrainer trainer,
+                            RecommendationCandidates candidates,
+                            EventFeatureCache eventFeatures,
+                            @Value("${eventora.embeddings.enabled:true}") boolean enabled,
+                            @Value("${eventora.embeddings.candidates:500}") int candidateCount,
+                            @Value("${eventora.embeddings.hnsw-m:16}") int m,
+                            @Value("${eventora.embeddings.ef-construction:100}") int efConstruction,
+                            @Value("${eventora.embeddings.ef-search:600}") int efSearch) {
+        this.trainer = trainer;
+        this.candidates = candidates;
+        this.eventFeatures = eventFeatures;
+        this.enabled = enabled;
+        this.candidateCount = candidateCount;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+    }
+
+    /* =====================
+       BACKGROUND WORK
+       ===================== */
+
+    @Scheduled(
+            fixedDelayString = "${eventora.embeddings.train-interval-ms:21600000}",
+            initialDelayString = "${eventora.embeddings.initial-delay-ms:60000}"
+    )
+    public void scheduleTraining() {
+        if (!enabled || !trainingQueued.compareAndSet(false, true)) return;
+        worker.submit(() -> {
+            trainingQueued.set(false);
+            try {
+                EmbeddingModel trained = trainer.train();
+                if (trained == null) {
+                    log.info("Embedding training skipped: no interactions yet");
+                    return;
+                }
+                build(trained);
+            } catch (Exception e) {
+                log.error("Embedding training failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    @Scheduled(
+            fixedDelayString = "${eventora.catalog.refresh-interval-ms:300000}",
+            initialDelayString = "${eventora.catalog.refresh-interval-ms:300000}"
+    )
+    public void scheduleBuild() {
+        if (model == null || !buildQueued.compareAndSet(false, true)) return;
+        worker.submit(() -> {
+            buildQueued.set(false);
+            try {
+                build(model);
+            } catch (Exception e) {
+                log.error("Event vector index build failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void build(EmbeddingModel current) {
+        long started = System.nanoTime();
+        synchronized (this) {
+            savedDuringBuild = new HashSet<>();
+        }
+        try {
+            RecommendationCandidates.Matrix mx = candidates.matrix();
+
+            HnswIndex index = new HnswIndex(current.dimensions(), m, efConstruction, mx.size, 42L);
+            long[] ids = new long[mx.size];
+            for (int row = 0; row < mx.size; row++) {
+                float[] v = current.eventVector(mx.category[row], mx.cityId[row], mx.tagIds, mx.tagStart[row], mx.tagStart[row + 1]);
+                if (v == null) continue; // nothing embeddable; only the full scan can surface it
+                ids[index.add(v)] = mx.ids[row];
+            }
+
+            Map<Long, float[]> delta = new ConcurrentHashMap<>();
+            Set<Long> stale = ConcurrentHashMap.newKeySet();
+            synchronized (this) {
+                // The matrix may predate saves made during the build, and saves the candidates
+                // have not published yet; both stay in the delta, re-encoded with the new model
+                Graph previous = graph;
+                stale.addAll(savedDuringBuild);
+                if (previous != null) {
+                    for (Long eventId : previous.delta().keySet()) {
+                        if (!savedDuringBuild.contains(eventId) && mx.indexOf(eventId) >= 0) continue;
+                        stale.add(eventId);
+                        EventFeatureCache.EventFeatures f = eventFeatures.get(eventId);
+                        float[] v = f != null ? current.eventVector(f) : null;
+                        if (v != null) delta.put(eventId, v);
+                    }
+                }
+                graph = new Graph(current, index, Arrays.copyOf(ids, index.size()), delta, stale);
+                model = current;
+            }
+            log.info("Event vector index built: {} of {} events in {} ms", index.size(), mx.size,
+                    (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            synchronized (this) {
+                savedDuringBuild = null;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.shutdownNow();
+    }
+
+    /* =====================
+       WRITE PATH
+       ===================== */
+
+    // After commit, so a rolled-back save never enters the delta set
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        if (change.type() == EventChangedEvent.ChangeType.UPSERT) update(change.event());
+    }
+
+    public void update(Event event) {
+        if (graph == null || event == null || event.getId() == null) return;
+
+        boolean upcoming = event.getStartDate() != null && event.getStartDate().isAfter(LocalDateTime.now());
+        // Index first so the features reflect this save regardless of listener order
+        if (upcoming) eventFeatures.index(event);
+        synchronized (this) {
+            Graph g = graph;
+            if (savedDuringBuild != null) savedDuringBuild.add(event.getId());
+            g.stale().add(event.getId());
+            // The graph's own model, so delta scores compare with its nodes'
+            float[] v = upcoming ? g.model().eventVector(eventFeatures.get(event.getId())) : null;
+            if (v != null) g.delta().put(event.getId(), v);
+            else g.delta().remove(event.getId());
+        }
+    }
+
+    /* =====================
+       READ PATH
+       ===================== */
+
+    /**
+     * Ids of about {@code candidates} upcoming events closest to the user's embedding, best
+     * first; null when there is no model / graph yet or the profile has nothing embeddable.
+     */
+    public long[] retrieve(UserProfileCache.Profile profile) {
+        Graph g = graph;
+        if (g == null) return null;
+        float[] query = g.model().userVector(profile, eventFeatures::get, AffinityDecay.readScale());
+        if (query == null) return null;
+
+        // Over-fetch by the number of outdated nodes, which are dropped below
+        int[] nodes = g.index().search(query, candidateCount + g.stale().size(), Math.max(efSearch, candidateCount));
+        record Hit(long id, float score) {}
+        List<Hit> hits = new ArrayList<>(nodes.length + g.delta().size());
+        for (int node : nodes) {
+            long id = g.eventIds()[node];
+            if (!g.stale().contains(id)) hits.add(new Hit(id, g.index().similarity(query, node)));
+        }
+        g.delta().forEach((id, v) -> {
+            float dot = 0f;
+            for (int i = 0; i < v.length; i++) dot += query[i] * v[i];
+            hits.add(new Hit(id, dot));
+        });
+        hits.sort((a, b) -> Float.compare(b.score(), a.score()));
+
+        int n = Math.min(candidateCount, hits.size());
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) ids[i] = hits.get(i).id();
+        return ids;
+    }
+
+    public boolean isReady() {
+        return graph != null;
+    }
+}
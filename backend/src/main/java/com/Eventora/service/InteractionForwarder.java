@@ -0,0 +1,149 @@
+package com.Eventora.service;
+
+import com.Eventora.dto.UserInteractionEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends interactions of users owned by another node to that node, in small batches.
+ *
+ * If the owner cannot be reached (it just died, or the ring is mid-rebalance), the batch
+ * is processed locally instead; the profile writes stay correct, only the single-writer
+ * property is given up for that moment. Per-owner buffers are bounded and shed views and impressions first.
+ * Each owner is drained on its own sender thread, so a slow or dead owner holds up neither the
+ * other owners nor the shared scheduler thread.
+ */
+@Slf4j
+@Component
+public class InteractionForwarder {
+
+    public static final String PATH = "/internal/interactions";
+    public static final String TOKEN_HEADER = "X-Cluster-Token";
+
+    private static final int MAX_BATCH = 500;
+
+    private final InteractionPipeline pipeline;
+    private final RestTemplate restTemplate;
+    private final String token;
+    private final int maxBuffered;
+
+    private final Map<String, Buffer> buffers = new ConcurrentHashMap<>();
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder fellBack = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private static final class Buffer {
+        final ConcurrentLinkedQueue<UserInteractionEvent> events = new ConcurrentLinkedQueue<>();
+        final AtomicInteger size = new AtomicInteger();
+        // Set while a sender thread drains this buffer
+        final AtomicBoolean draining = new AtomicBoolean();
+    }
+
+    // One thread per owner at most (see Buffer.draining); owners are the few cluster members
+    private final ExecutorService senders = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "interaction-forwarder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public InteractionForwarder(InteractionPipeline pipeline,
+                                @Value("${eventora.cluster.token:}") String token,
+                                @Value("${eventora.cluster.forward-timeout-ms:2000}") int timeoutMs,
+                                @Value("${eventora.cluster.max-buffered-per-node:10000}") int maxBuffered) {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(timeoutMs);
+        factory.setReadTimeout(timeoutMs);
+        this.restTemplate = new RestTemplate(factory);
+        this.pipeline = pipeline;
+        this.token = token;
+        this.maxBuffered = maxBuffered;
+    }
+
+    public void forward(String ownerUrl, UserInteractionEvent event) {
+        Buffer buffer = buffers.computeIfAbsent(ownerUrl, k -> new Buffer());
+        if (buffer.size.get() >= maxBuffered) {
+            if (event.type().isSheddable()) {
+                dropped.increment();
+            } else {
+                // Owner is not keeping up; do not lose durable signals
+                fellBack.increment();
+                pipeline.submit(event);
+            }
+            return;
+        }
+        buffer.events.add(event);
+        buffer.size.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${eventora.cluster.forward-interval-ms:100}")
+    public void flush() {
+        buffers.forEach((ownerUrl, buffer) -> {
+            if (buffer.events.isEmpty() || !buffer.draining.compareAndSet(false, true)) return;
+            try {
+                senders.execute(() -> {
+                    try {
+                        drain(ownerUrl, buffer);
+                    } finally {
+                        buffer.draining.set(false);
+                    }
+                });
+            } catch (RuntimeException e) {
+                buffer.draining.set(false); // shutting down
+            }
+        });
+    }
+
+    private void drain(String ownerUrl, Buffer buffer) {
+        while (!buffer.events.isEmpty()) {
+            List<UserInteractionEvent> batch = new ArrayList<>(Math.min(MAX_BATCH, buffer.size.get()));
+            UserInteractionEvent event;
+            while (batch.size() < MAX_BATCH && (event = buffer.events.poll()) != null) batch.add(event);
+            buffer.size.addAndGet(-batch.size());
+            if (!send(ownerUrl, batch)) break;
+        }
+    }
+
+    private boolean send(String ownerUrl, List<UserInteractionEvent> batch) {
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set(TOKEN_HEADER, token);
+            restTemplate.postForEntity(ownerUrl + PATH, new HttpEntity<>(batch, headers), Void.class);
+            forwarded.add(batch.size());
+            return true;
+        } catch (Exception e) {
+            log.warn("Forwarding {} interactions to {} failed, processing locally: {}", batch.size(), ownerUrl, e.getMessage());
+            fellBack.add(batch.size());
+            batch.forEach(pipeline::submit);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        senders.shutdownNow();
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of("forwarded", forwarded.sum(), "fellBack", fellBack.sum(), "dropped", dropped.sum());
+    }
+}
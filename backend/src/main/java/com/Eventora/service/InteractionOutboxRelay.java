@@ -0,0 +1,167 @@
+package com.Eventora.service;
+
+import com.Eventora.entity.InteractionOutbox;
+import com.Eventora.entity.enums.InteractionType;
+import com.Eventora.projection.OutboxHeadProjection;
+import com.Eventora.repository.InteractionOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Drains the interaction outbox into the MongoDB user_interactions profiles.
+ *
+ * Each batch is claimed with FOR UPDATE SKIP LOCKED, so several nodes relay disjoint
+ * batches in parallel. Rows are merged per user in id order and written with one bulk;
+ * rows are deleted in the same transaction that claimed them, once their user's update
+ * is applied. A user whose older rows are held by another relay is left for a later
+ * batch, which keeps each user's interactions applied in commit order. Rows of users owned
+ * by another node (see InteractionOwnership) are left to that node's relay, so a profile
+ * keeps a single writer.
+ *
+ * Relaying pauses while a UserProfileBackfill run rewrites the profiles.
+ *
+ * Delivery is at-least-once: if the Postgres commit fails after the Mongo write, the
+ * batch is applied again.
+ */
+@Slf4j
+@Component
+public class InteractionOutboxRelay {
+
+    private final InteractionOutboxRepository outboxRepository;
+    private final UserInteractionService interactionService;
+    private final UserInteractionCoalescer interactionCoalescer;
+    private final EventFeatureCache eventFeatures;
+    private final UserProfileBackfill profileBackfill;
+    private final InteractionOwnership ownership;
+    private final TrendingLeaderboard trending;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public InteractionOutboxRelay(InteractionOutboxRepository outboxRepository,
+                                  UserInteractionService interactionService,
+                                  UserInteractionCoalescer interactionCoalescer,
+                                  EventFeatureCache eventFeatures,
+                                  UserProfileBackfill profileBackfill,
+                                  InteractionOwnership ownership,
+                                  TrendingLeaderboard trending,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${eventora.outbox.batch-size:500}") int batchSize,
+                                  @Value("${eventora.outbox.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.outboxRepository = outboxRepository;
+        this.interactionService = interactionService;
+        this.interactionCoalescer = interactionCoalescer;
+        this.eventFeatures = eventFeatures;
+        this.profileBackfill = profileBackfill;
+        this.ownership = ownership;
+        this.trending = trending;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${eventora.outbox.relay-interval-ms:500}")
+    public void scheduledRelay() {
+        try {
+            // Keep going while whole batches get through, up to a bound per run
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (profileBackfill.isRunningAnywhere() || relayBatch() < batchSize) break;
+            }
+        } catch (Exception e) {
+            log.error("Interaction outbox relay failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Claims, applies and deletes one batch; returns the number of rows removed from the outbox.
+     */
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> relayClaimed());
+        return relayed != null ? relayed : 0;
+    }
+
+    private int relayClaimed() {
+        // Lock only the rows of users this node owns; isLocal below still drops rows without a bucket
+        // and rows whose bucket moved since the ring was read
+        List<Integer> buckets = ownership.ownedBuckets();
+        if (buckets != null && buckets.isEmpty()) return 0;
+        List<InteractionOutbox> rows = buckets == null
+                ? outboxRepository.claimBatch(batchSize)
+                : outboxRepository.claimBatchInBuckets(buckets, batchSize);
+        if (rows.isEmpty()) return 0;
+
+        Map<Long, Long> firstClaimed = new HashMap<>();
+        for (InteractionOutbox row : rows) firstClaimed.merge(row.getUserId(), row.getId(), Math::min);
+
+        Set<Long> foreign = new HashSet<>();
+        for (Long userId : firstClaimed.keySet()) {
+            if (!ownership.isLocal(userId)) foreign.add(userId);
+        }
+        firstClaimed.keySet().removeAll(foreign);
+
+        Set<Long> blocked = new HashSet<>(foreign);
+        if (!firstClaimed.isEmpty()) {
+            for (OutboxHeadProjection head : outboxRepository.findHeads(firstClaimed.keySet())) {
+                if (head.getFirstId() < firstClaimed.get(head.getUserId())) blocked.add(head.getUserId());
+            }
+        }
+
+        Map<Long, UserInteractionCoalescer.Delta> deltas = new LinkedHashMap<>();
+        Map<Long, List<InteractionOutbox>> appliedByUser = new HashMap<>();
+        List<Long> done = new ArrayList<>();
+        for (InteractionOutbox row : rows) {
+            if (blocked.contains(row.getUserId())) continue;
+
+            EventFeatureCache.EventFeatures features = eventFeatures.get(row.getEventId());
+            if (features == null) features = eventFeatures.load(row.getEventId());
+            if (features == null) {
+                log.warn("Dropping outbox row {}: event {} no longer exists", row.getId(), row.getEventId());
+                done.add(row.getId());
+                continue;
+            }
+
+            UserInteractionCoalescer.Delta delta =
+                    deltas.computeIfAbsent(row.getUserId(), id -> new UserInteractionCoalescer.Delta());
+            long occurredAt = occurredAt(row);
+            if (row.getType() == InteractionType.UNREGISTER_EVENT) {
+                interactionService.removeFrom(delta, features, row.getType(), occurredAt);
+            } else {
+                interactionService.applyTo(delta, features, row.getType(), occurredAt);
+            }
+            appliedByUser.computeIfAbsent(row.getUserId(), id -> new ArrayList<>()).add(row);
+        }
+
+        Set<Long> failed = interactionCoalescer.writeNow(deltas);
+        appliedByUser.forEach((userId, applied) -> {
+            if (failed.contains(userId)) return;
+            for (InteractionOutbox row : applied) {
+                done.add(row.getId());
+                // Counted with the profile write, so a row retried after a failed write trends once
+                trending.onInteraction(row.getType(), row.getEventId(), occurredAt(row));
+            }
+        });
+        if (!done.isEmpty()) outboxRepository.deleteByIdIn(done);
+
+        if (!failed.isEmpty()) {
+            log.warn("Outbox batch of {} rows: profile update failed for {} users, retrying later", rows.size(), failed.size());
+        }
+        if (blocked.size() > foreign.size()) {
+            log.debug("Outbox batch deferred {} users with older rows claimed elsewhere", blocked.size() - foreign.size());
+        }
+        return done.size();
+    }
+
+    // Same epoch-second convention as UserProfileBackfill, so relayed and rebuilt scores agree
+    private static long occurredAt(InteractionOutbox row) {
+        LocalDateTime at = row.getOccurredAt() != null ? row.getOccurredAt() : row.getCreatedAt();
+        return (at != null ? at : LocalDateTime.now()).toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,42 @@
+package com.Eventora.service;
+
+import com.Eventora.entity.InteractionOutbox;
+import com.Eventora.entity.enums.InteractionType;
+import com.Eventora.repository.InteractionOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Request-side half of the interaction outbox: records an interaction in the caller's
+ * transaction, so it is committed or rolled back together with the write it describes.
+ * {@link InteractionOutboxRelay} applies the rows to MongoDB.
+ */
+@Service
+@RequiredArgsConstructor
+public class InteractionOutboxService {
+
+    private final InteractionOutboxRepository outboxRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long userId, Long eventId, InteractionType type) {
+        record(userId, eventId, type, LocalDateTime.now());
+    }
+
+    /**
+     * @param occurredAt when the interaction happened; for an undo, when the undone one happened
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long userId, Long eventId, InteractionType type, LocalDateTime occurredAt) {
+        outboxRepository.save(InteractionOutbox.builder()
+                .userId(userId)
+                .bucket(InteractionOwnership.bucketOf(userId))
+                .eventId(eventId)
+                .type(type)
+                .occurredAt(occurredAt != null ? occurredAt : LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,162 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.ConsistentHashRing;
+import com.Eventora.entity.ClusterNode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decides which backend node processes the interactions of a user.
+ *
+ * Nodes heartbeat into the cluster_nodes collection; every node builds the same
+ * consistent-hash ring from the live members. Users are grouped into BUCKETS fixed buckets
+ * and the ring assigns buckets, so each user id has exactly one owner and stored rows can be
+ * filtered by owner in SQL (see InteractionOutbox.bucket).
+ * When membership changes, the ring is rebuilt and this node flushes its pending profile
+ * updates, so the previous owner's writes land before the new owner starts.
+ * With clustering disabled (the default) this node owns every user.
+ */
+@Slf4j
+@Component
+public class InteractionOwnership {
+
+    private final MongoTemplate mongoTemplate;
+    private final UserInteractionCoalescer interactionCoalescer;
+    private final boolean enabled;
+    private final String nodeUrl;
+    private final long nodeTtlMs;
+    private final int virtualNodes;
+
+    // Number of user buckets; changing it moves every user, so it is fixed
+    public static final int BUCKETS = 1024;
+
+    private volatile ConsistentHashRing ring;
+    // Buckets the ring assigns to this node, null while it owns all of them
+    private volatile List<Integer> ownedBuckets;
+
+    public InteractionOwnership(MongoTemplate mongoTemplate,
+                                UserInteractionCoalescer interactionCoalescer,
+                                @Value("${eventora.cluster.enabled:false}") boolean enabled,
+                                @Value("${eventora.cluster.node-url:}") String nodeUrl,
+                                @Value("${eventora.cluster.node-ttl-ms:15000}") long nodeTtlMs,
+                                @Value("${eventora.cluster.virtual-nodes:128}") int virtualNodes) {
+        if (enabled && nodeUrl.isBlank()) {
+            throw new IllegalArgumentException("eventora.cluster.node-url is required when clustering is enabled");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.interactionCoalescer = interactionCoalescer;
+        this.enabled = enabled;
+        this.nodeUrl = nodeUrl;
+        this.nodeTtlMs = nodeTtlMs;
+        this.virtualNodes = virtualNodes;
+        this.ring = new ConsistentHashRing(List.of(selfId()), virtualNodes);
+        this.ownedBuckets = null;
+    }
+
+    public static int bucketOf(long userId) {
+        return (int) Math.floorMod(userId, (long) BUCKETS);
+    }
+
+    /**
+     * True if this node processes the user's interactions.
+     */
+    public boolean isLocal(Long userId) {
+        return !enabled || selfId().equals(ring.ownerOf(bucketOf(userId)));
+    }
+
+    /**
+     * Base URL of the owning node, or null if it is this node.
+     */
+    public String ownerOf(Long userId) {
+        if (!enabled) return null;
+        String owner = ring.ownerOf(bucketOf(userId));
+        return owner == null || owner.equals(selfId()) ? null : owner;
+    }
+
+    /**
+     * Buckets of the users this node owns, or null if it owns every user.
+     */
+    public List<Integer> ownedBuckets() {
+        return ownedBuckets;
+    }
+
+    public Set<String> members() {
+        return ring.nodes();
+    }
+
+    /* =====================
+       MEMBERSHIP
+       ===================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        heartbeat();
+    }
+
+    @Scheduled(fixedDelayString = "${eventora.cluster.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        if (!enabled) return;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(nodeUrl)),
+                    new Update().set("heartbeatAt", now), ClusterNode.class);
+
+            List<String> live = mongoTemplate.find(
+                            Query.query(Criteria.where("heartbeatAt").gte(now.minusNanos(nodeTtlMs * 1_000_000L))),
+                            ClusterNode.class)
+                    .stream().map(ClusterNode::getId).toList();
+            if (!ring.hasSameNodes(live)) rebalance(live);
+        } catch (Exception e) {
+            log.warn("Cluster heartbeat failed, keeping members {}: {}", ring.nodes(), e.getMessage());
+        }
+    }
+
+    private synchronized void rebalance(List<String> live) {
+        Set<String> before = ring.nodes();
+        List<String> members = new ArrayList<>(live);
+        if (!members.contains(nodeUrl)) members.add(nodeUrl);
+        ring = new ConsistentHashRing(members, virtualNodes);
+        ownedBuckets = bucketsOf(ring);
+        log.info("Interaction ownership rebalanced: {} -> {}", before, ring.nodes());
+        // Hand off: whatever this node buffered for users it may no longer own goes out now
+        interactionCoalescer.flush();
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (!enabled) return;
+        try {
+            // Lets the other nodes rebalance right away instead of after the TTL
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(nodeUrl)), ClusterNode.class);
+        } catch (Exception e) {
+            log.warn("Could not deregister node {}: {}", nodeUrl, e.getMessage());
+        }
+    }
+
+    private List<Integer> bucketsOf(ConsistentHashRing ring) {
+        List<Integer> owned = new ArrayList<>();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            if (selfId().equals(ring.ownerOf(bucket))) owned.add(bucket);
+        }
+        return owned.size() == BUCKETS ? null : Collections.unmodifiableList(owned);
+    }
+
+    private String selfId() {
+        return enabled ? nodeUrl : "local";
+    }
+}
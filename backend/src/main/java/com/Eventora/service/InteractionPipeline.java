@@ -0,0 +1,177 @@
+package com.Eventora.service;
+
+import com.Eventora.dto.UserInteractionEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded hand-off between request threads and the interaction writers (MongoDB).
+ *
+ * Request threads only enqueue. A fixed set of worker threads drains the queue in batches.
+ * When the queue is full, views and impressions are dropped (they are high-volume and only
+ * nudge affinities), while likes / registrations / check-ins wait briefly for space and
+ * are then processed on the caller's thread so they are never lost.
+ */
+@Slf4j
+@Component
+public class InteractionPipeline {
+
+    private static final int MAX_DRAIN = 256;
+
+    private final BlockingQueue<Envelope> queue;
+    private final int workerCount;
+    private final long offerTimeoutMs;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile Consumer<UserInteractionEvent> handler;
+    private volatile boolean running = false;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dequeued = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder lagNanosTotal = new LongAdder();
+    private final AtomicLong lagNanosMax = new AtomicLong();
+    private Stats lastReported = new Stats(0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    private record Envelope(UserInteractionEvent event, long enqueuedAt) {}
+
+    public record Stats(int queueDepth, long enqueued, long dequeued, long processed, long dropped,
+                        long callerRuns, long failed, long lagNanosTotal, long lagNanosMax) {}
+
+    public InteractionPipeline(@Value("${eventora.interactions.queue-capacity:10000}") int capacity,
+                               @Value("${eventora.interactions.workers:4}") int workerCount,
+                               @Value("${eventora.interactions.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.workerCount = workerCount;
+        this.offerTimeoutMs = offerTimeoutMs;
+    }
+
+    /**
+     * Starts the workers; called once by the component that owns the processing logic.
+     */
+    public synchronized void start(Consumer<UserInteractionEvent> handler) {
+        if (running) throw new IllegalStateException("Interaction pipeline already started");
+        this.handler = handler;
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::runWorker, "interaction-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Interaction pipeline started with {} workers, capacity {}", workerCount, queue.remainingCapacity());
+    }
+
+    public void submit(UserInteractionEvent event) {
+        Envelope envelope = new Envelope(event, System.nanoTime());
+        if (running && queue.offer(envelope)) {
+            enqueued.increment();
+            return;
+        }
+        if (event.type().isSheddable()) {
+            dropped.increment();
+            return;
+        }
+        try {
+            if (running && queue.offer(envelope, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                enqueued.increment();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Backpressure: the producer pays for the write instead of losing it
+        callerRuns.increment();
+        handle(envelope, false);
+    }
+
+    private void runWorker() {
+        List<Envelope> batch = new ArrayList<>(MAX_DRAIN);
+        while (running || !queue.isEmpty()) {
+            try {
+                Envelope first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, MAX_DRAIN - 1);
+                for (Envelope envelope : batch) handle(envelope, true);
+            } catch (InterruptedException e) {
+                if (!running) break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void handle(Envelope envelope, boolean queued) {
+        if (queued) {
+            dequeued.increment();
+            long lag = System.nanoTime() - envelope.enqueuedAt();
+            lagNanosTotal.add(lag);
+            lagNanosMax.accumulateAndGet(lag, Math::max);
+        }
+        try {
+            handler.accept(envelope.event());
+            processed.increment();
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Interaction {} for user {} on event {} failed: {}", envelope.event().type(),
+                    envelope.event().userId(), envelope.event().eventId(), e.getMessage());
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(queue.size(), enqueued.sum(), dequeued.sum(), processed.sum(), dropped.sum(),
+                callerRuns.sum(), failed.sum(), lagNanosTotal.sum(), lagNanosMax.get());
+    }
+
+    @Scheduled(fixedDelayString = "${eventora.interactions.report-interval-ms:60000}")
+    public void report() {
+        Stats now = stats();
+        Stats prev = lastReported;
+        lastReported = now;
+        lagNanosMax.set(0);
+
+        long processedInWindow = now.processed() - prev.processed();
+        long queuedInWindow = now.enqueued() - prev.enqueued();
+        if (processedInWindow == 0 && queuedInWindow == 0 && now.queueDepth() == 0
+                && now.dropped() == prev.dropped() && now.callerRuns() == prev.callerRuns()) return;
+
+        long lagCount = Math.max(1, now.dequeued() - prev.dequeued());
+        log.info("Interaction pipeline: depth {}, enqueued {}, processed {}, dropped {}, caller-runs {}, failed {}, "
+                        + "avg lag {} ms, max lag {} ms",
+                now.queueDepth(), queuedInWindow, processedInWindow,
+                now.dropped() - prev.dropped(), now.callerRuns() - prev.callerRuns(), now.failed() - prev.failed(),
+                TimeUnit.NANOSECONDS.toMillis((now.lagNanosTotal() - prev.lagNanosTotal()) / lagCount),
+                TimeUnit.NANOSECONDS.toMillis(now.lagNanosMax()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        // Workers finish what is already queued before exiting
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!queue.isEmpty()) log.warn("Interaction pipeline stopped with {} unprocessed events", queue.size());
+    }
+}
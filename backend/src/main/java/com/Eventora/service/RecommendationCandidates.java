@@ -0,0 +1,454 @@
+package com.Eventora.service;
+
+import com.Eventora.dto.EventChangedEvent;
+import com.Eventora.dto.EventTemplate;
+import com.Eventora.entity.Event;
+import com.Eventora.entity.enums.EventCategory;
+import com.Eventora.entity.enums.EventStatus;
+import com.Eventora.projection.RecommendationCandidateProjection;
+import com.Eventora.repository.EventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Column-oriented feature matrix of every upcoming event, for recommendation scoring.
+ *
+ * Holds exactly what the scorer reads (category, city / tag ids in the EventFeatureCache
+ * id space, price, popularity inputs, organizer inputs, start time, promotion spend) plus
+ * the few display values of an EventTemplate, so recommend never hydrates Event entities.
+ * Writers mutate the master row map under the instance lock; a fresh immutable {@link Matrix}
+ * is published shortly after, one rebuild per burst of writes. Events whose start has passed
+ * are skipped at scoring time until the next reload drops them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecommendationCandidates {
+
+    // Writes arriving within this window share one matrix rebuild
+    private static final long PUBLISH_DELAY_MS = 100;
+    // Re-reads of events written during a reload before it settles for the in-memory writes
+    private static final int MAX_RELOAD_PASSES = 3;
+
+    private final EventRepository eventRepository;
+    private final EventFeatureCache eventFeatures;
+
+    // Master copy, guarded by "this"
+    private final Map<Long, Row> rows = new HashMap<>();
+    private volatile Matrix matrix = Matrix.build(List.of());
+    private volatile boolean loaded = false;
+    // A matrix rebuild is scheduled; guarded by "this"
+    private boolean publishPending = false;
+
+    // Serializes reloads; never taken while holding "this"
+    private final Object loadLock = new Object();
+    // Ids written while a reload is in flight, re-read once its rows are in; guarded by "this"
+    private boolean loading = false;
+    private Set<Long> changedDuringLoad = new HashSet<>();
+
+    private final ScheduledExecutorService publisher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "recommendation-candidates-publish");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /* =====================
+       LOADING
+       ===================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Initial recommendation candidate load failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${eventora.catalog.refresh-interval-ms:300000}",
+            initialDelayString = "${eventora.catalog.refresh-interval-ms:300000}"
+    )
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Recommendation candidate refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the candidates with the upcoming events currently in Postgres.
+     *
+     * Writes applied while the query runs may or may not be in its result, so their events
+     * are re-read afterwards: an upsert is not lost and a participant delta is not counted twice.
+     */
+    public void reload() {
+        synchronized (loadLock) {
+            synchronized (this) {
+                loading = true;
+            }
+            try {
+                List<RecommendationCandidateProjection> projections = eventRepository.findRecommendationCandidateRows();
+                List<Row> loadedRows = new ArrayList<>(projections.size());
+                for (RecommendationCandidateProjection p : projections) {
+                    Row row = toRow(p);
+                    if (row != null) loadedRows.add(row);
+                }
+
+                Set<Long> changed;
+                synchronized (this) {
+                    rows.clear();
+                    for (Row row : loadedRows) rows.put(row.id(), row);
+                    publish();
+                    loaded = true;
+                    changed = drainChangedDuringLoad();
+                }
+
+                // Each pass re-reads what changed during the previous one; the last pass's own
+                // writes were applied to the new rows already
+                for (int pass = 0; pass < MAX_RELOAD_PASSES && !changed.isEmpty(); pass++) {
+                    Map<Long, Row> fetched = new HashMap<>();
+                    for (Long eventId : changed) {
+                        fetched.put(eventId, eventRepository.findRecommendationCandidateRowById(eventId)
+                                .map(this::toRow).orElse(null));
+                    }
+                    synchronized (this) {
+                        fetched.forEach((eventId, row) -> {
+                            if (row != null) rows.put(eventId, row);
+                            else rows.remove(eventId);
+                        });
+                        schedulePublish();
+                        changed = drainChangedDuringLoad();
+                    }
+                }
+                log.info("Recommendation candidates loaded: {} upcoming events", loadedRows.size());
+            } finally {
+                synchronized (this) {
+                    loading = false;
+                    changedDuringLoad = new HashSet<>();
+                }
+            }
+        }
+    }
+
+    private Row toRow(RecommendationCandidateProjection p) {
+        EventFeatureCache.EventFeatures features = eventFeatures.get(p.getId());
+        if (features == null) features = eventFeatures.load(p.getId());
+        return features != null ? Row.from(p, features) : null;
+    }
+
+    // Caller holds "this"
+    private Set<Long> drainChangedDuringLoad() {
+        Set<Long> changed = changedDuringLoad;
+        changedDuringLoad = new HashSet<>();
+        return changed;
+    }
+
+    // Caller holds "this"
+    private void noteChange(Long eventId) {
+        if (loading) changedDuringLoad.add(eventId);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (loadLock) {
+                if (!loaded) reload();
+            }
+        }
+    }
+
+    /* =====================
+       WRITE PATHS
+       ===================== */
+
+    // After commit: a rolled-back registration must not move the participant column
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        switch (change.type()) {
+            case UPSERT -> upsert(change.event());
+            case STATUS -> updateStatus(change.eventId(), change.status());
+            case PARTICIPANTS -> adjustParticipants(change.eventId(), change.participantDelta());
+        }
+    }
+
+    public synchronized void upsert(Event event) {
+        if (event == null || event.getId() == null) return;
+        noteChange(event.getId());
+
+        if (event.getStartDate() == null || !event.getStartDate().isAfter(LocalDateTime.now())) {
+            if (rows.remove(event.getId()) != null) schedulePublish();
+            return;
+        }
+        // Index first so the features reflect this save regardless of listener order
+        eventFeatures.index(event);
+        rows.put(event.getId(), Row.from(event, eventFeatures.get(event.getId())));
+        schedulePublish();
+    }
+
+    public synchronized void updateStatus(Long eventId, EventStatus status) {
+        noteChange(eventId);
+        Row current = rows.get(eventId);
+        if (current == null) return;
+        rows.put(eventId, current.withStatus(status));
+        schedulePublish();
+    }
+
+    /**
+     * Applies a participant delta in place, without rebuilding the matrix.
+     */
+    public synchronized void adjustParticipants(Long eventId, int delta) {
+        noteChange(eventId);
+        Row current = rows.get(eventId);
+        if (current == null) return;
+
+        rows.put(eventId, current.withParticipants(current.participants() + delta));
+        int index = matrix.indexOf(eventId);
+        if (index >= 0) matrix.participants.addAndGet(index, delta);
+    }
+
+    // Caller holds "this"
+    private void publish() {
+        publishPending = false;
+        matrix = Matrix.build(rows.values());
+    }
+
+    /**
+     * Building the matrix copies every row and sorts the id lookup, so a burst of writes is
+     * coalesced into one rebuild PUBLISH_DELAY_MS after the first of them. Caller holds "this".
+     */
+    private void schedulePublish() {
+        if (publishPending) return;
+        publishPending = true;
+        publisher.schedule(this::publishPending, PUBLISH_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void publishPending() {
+        if (!publishPending) return; // a reload published already
+        try {
+            publish();
+        } catch (Exception e) {
+            log.error("Recommendation candidate publish failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Publishes pending writes now (tests, shutdown hooks).
+     */
+    public synchronized void flush() {
+        if (publishPending) publish();
+    }
+
+    @PreDestroy
+    public void stop() {
+        publisher.shutdownNow();
+    }
+
+    /* =====================
+       READ PATH
+       ===================== */
+
+    public Matrix matrix() {
+        ensureLoaded();
+        return matrix;
+    }
+
+    /* =====================
+       STORAGE
+       ===================== */
+
+    record Row(
+            long id,
+            EventFeatureCache.EventFeatures features,
+            String title,
+            String organizerName,
+            EventStatus status,
+            String city,
+            LocalDateTime startDate,
+            double price,
+            double ctr,
+            int participants,
+            int maxParticipants,
+            double organizerReputation,
+            double pastAttendanceRate,
+            long promotionSpend
+    ) {
+        static Row from(RecommendationCandidateProjection p, EventFeatureCache.EventFeatures features) {
+            return new Row(
+                    p.getId(),
+                    features,
+                    p.getTitle(),
+                    p.getOrganizerName(),
+                    p.getEventStatus() != null ? EventStatus.valueOf(p.getEventStatus().toUpperCase()) : null,
+                    p.getCity(),
+                    p.getStartDate(),
+                    p.getPrice() != null ? p.getPrice().doubleValue() : Double.NaN,
+                    p.getCtr() != null ? p.getCtr() : 0.0,
+                    p.getCurrentParticipants() != null ? p.getCurrentParticipants() : 0,
+                    p.getMaxParticipants() != null ? p.getMaxParticipants() : 0,
+                    p.getOrganizerReputation() != null ? p.getOrganizerReputation() : 0.0,
+                    p.getAvgPastAttendanceRate() != null ? p.getAvgPastAttendanceRate() : 0.0,
+                    p.getPromotionSpend() != null ? p.getPromotionSpend() : 0L
+            );
+        }
+
+        static Row from(Event e, EventFeatureCache.EventFeatures features) {
+            return new Row(
+                    e.getId(),
+                    features,
+                    e.getTitle(),
+                    e.getOrganizerDisplayName(),
+                    e.getEventStatus(),
+                    e.getCity(),
+                    e.getStartDate(),
+                    e.getPrice() != null ? e.getPrice().doubleValue() : Double.NaN,
+                    e.getCtr() != null ? e.getCtr() : 0.0,
+                    e.getCurrentParticipants() != null ? e.getCurrentParticipants() : 0,
+                    e.getMaxParticipants() != null ? e.getMaxParticipants() : 0,
+                    e.getOrganizerReputation() != null ? e.getOrganizerReputation() : 0.0,
+                    e.getAvgPastAttendanceRate() != null ? e.getAvgPastAttendanceRate() : 0.0,
+                    e.getPromotionSpend() != null ? e.getPromotionSpend() : 0L
+            );
+        }
+
+        Row withStatus(EventStatus newStatus) {
+            return new Row(id, features, title, organizerName, newStatus, city, startDate, price, ctr,
+                    participants, maxParticipants, organizerReputation, pastAttendanceRate, promotionSpend);
+        }
+
+        Row withParticipants(int newParticipants) {
+            return new Row(id, features, title, organizerName, status, city, startDate, price, ctr,
+                    newParticipants, maxParticipants, organizerReputation, pastAttendanceRate, promotionSpend);
+        }
+    }
+
+    /**
+     * Immutable columnar view. Row i of every array describes the same event. Tag ids are
+     * stored flat: the tags of row i are tagIds[tagStart[i] .. tagStart[i + 1]).
+     */
+    static final class Matrix {
+        final int size;
+        final long[] ids;
+        final byte[] category;
+        final int[] cityId;
+        final int[] tagStart;
+        final int[] tagIds;
+        final double[] price; // NaN when the event has no price
+        final double[] ctr;
+        final AtomicIntegerArray participants;
+        final int[] maxParticipants;
+        final double[] organizerReputation;
+        final double[] pastAttendanceRate;
+        final long[] startEpoch;
+        final long[] promotionSpend;
+
+        // Display values for EventTemplate
+        final String[] title;
+        final String[] organizerName;
+        final String[] city;
+        final EventStatus[] status;
+        final LocalDateTime[] startDate;
+
+        // id -> row lookup via binary search
+        private final long[] sortedIds;
+        private final int[] rowOfSortedId;
+
+        private Matrix(int n, int tagCount) {
+            size = n;
+            ids = new long[n];
+            category = new byte[n];
+            cityId = new int[n];
+            tagStart = new int[n + 1];
+            tagIds = new int[tagCount];
+            price = new double[n];
+            ctr = new double[n];
+            participants = new AtomicIntegerArray(n);
+            maxParticipants = new int[n];
+            organizerReputation = new double[n];
+            pastAttendanceRate = new double[n];
+            startEpoch = new long[n];
+            promotionSpend = new long[n];
+            title = new String[n];
+            organizerName = new String[n];
+            city = new String[n];
+            status = new EventStatus[n];
+            startDate = new LocalDateTime[n];
+            sortedIds = new long[n];
+            rowOfSortedId = new int[n];
+        }
+
+        static Matrix build(Collection<Row> source) {
+            int tagCount = 0;
+            for (Row r : source) tagCount += r.features().tagIds().length;
+
+            Matrix m = new Matrix(source.size(), tagCount);
+            int i = 0;
+            int t = 0;
+            for (Row r : source) {
+                EventFeatureCache.EventFeatures f = r.features();
+                m.ids[i] = r.id();
+                m.category[i] = f.category();
+                m.cityId[i] = f.cityId();
+                m.tagStart[i] = t;
+                System.arraycopy(f.tagIds(), 0, m.tagIds, t, f.tagIds().length);
+                t += f.tagIds().length;
+                m.price[i] = r.price();
+                m.ctr[i] = r.ctr();
+                m.participants.set(i, r.participants());
+                m.maxParticipants[i] = r.maxParticipants();
+                m.organizerReputation[i] = r.organizerReputation();
+                m.pastAttendanceRate[i] = r.pastAttendanceRate();
+                m.startEpoch[i] = r.startDate().toEpochSecond(ZoneOffset.UTC);
+                m.promotionSpend[i] = r.promotionSpend();
+                m.title[i] = r.title();
+                m.organizerName[i] = r.organizerName();
+                m.city[i] = r.city();
+                m.status[i] = r.status();
+                m.startDate[i] = r.startDate();
+                i++;
+            }
+            m.tagStart[m.size] = t;
+
+            System.arraycopy(m.ids, 0, m.sortedIds, 0, m.size);
+            Arrays.sort(m.sortedIds);
+            for (int row = 0; row < m.size; row++) {
+                m.rowOfSortedId[Arrays.binarySearch(m.sortedIds, m.ids[row])] = row;
+            }
+            return m;
+        }
+
+        int indexOf(long eventId) {
+            int pos = Arrays.binarySearch(sortedIds, eventId);
+            return pos >= 0 ? rowOfSortedId[pos] : -1;
+        }
+
+        EventTemplate toTemplate(int row, boolean isLiked) {
+            return EventTemplate.builder()
+                    .id(ids[row])
+                    .title(title[row])
+                    .organizerName(organizerName[row])
+                    .eventCategory(category[row] == EventFeatureCache.NO_CATEGORY
+                            ? null : EventCategory.values()[category[row]])
+                    .city(city[row])
+                    .eventStatus(status[row])
+                    .startDate(startDate[row])
+                    .participantCount(participants.get(row))
+                    .isLiked(isLiked)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.Eventora.service;
+
+import com.Eventora.entity.UserInteraction;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Precomputed recommendation feeds of recently active users, per node.
+ *
+ * A feed is the user's top events by base score (everything except freshness and the
+ * shown-events penalty), stored as parallel id / score arrays. Serving only re-ranks the
+ * stored feed, so a traffic spike does not pay the full scoring cost. The refresh job
+ * recomputes every user active within active-window-ms in parallel partitions on its own
+ * threads; feeds older than max-age-ms are ignored and recomputed on demand.
+ */
+@Slf4j
+@Component
+public class RecommendationFeeds {
+
+    /**
+     * Event ids best first, with their base scores; computedAt in epoch millis. Complete
+     * when it holds every event that was eligible, i.e. a larger feed would not add any.
+     */
+    public record Feed(long[] eventIds, float[] scores, boolean complete, long computedAt) {}
+
+    private final MongoTemplate mongoTemplate;
+    private final UserProfileCache profileCache;
+    private final boolean enabled;
+    private final int size;
+    private final long activeWindowMs;
+    private final int maxUsers;
+    private final long maxAgeMs;
+    private final int partitionSize;
+    private final int parallelism;
+
+    private final Map<Long, Feed> feeds = new ConcurrentHashMap<>();
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "recommendation-feeds");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+
+    public RecommendationFeeds(MongoTemplate mongoTemplate,
+                               UserProfileCache profileCache,
+                               @Value("${eventora.feeds.enabled:true}") boolean enabled,
+                               @Value("${eventora.feeds.size:100}") int size,
+                               @Value("${eventora.feeds.active-window-ms:604800000}") long activeWindowMs,
+                               @Value("${eventora.feeds.max-users:50000}") int maxUsers,
+                               @Value("${eventora.feeds.max-age-ms:1800000}") long maxAgeMs,
+                               @Value("${eventora.feeds.partition-size:500}") int partitionSize,
+                               @Value("${eventora.feeds.parallelism:0}") int parallelism) {
+        this.mongoTemplate = mongoTemplate;
+        this.profileCache = profileCache;
+        this.enabled = enabled;
+        this.size = size;
+        this.activeWindowMs = activeWindowMs;
+        this.maxUsers = maxUsers;
+        this.maxAgeMs = maxAgeMs;
+        this.partitionSize = Math.max(1, partitionSize);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /* =====================
+       READ / WRITE
+       ===================== */
+
+    /**
+     * Stored feed of the user, or null if there is none or it is past the staleness bound.
+     */
+    public Feed get(Long userId) {
+        if (!enabled) return null;
+        Feed feed = feeds.get(userId);
+        if (feed == null || System.currentTimeMillis() - feed.computedAt() > maxAgeMs) return null;
+        return feed;
+    }
+
+    /**
+     * Keeps an on-demand feed; new users are only admitted while the store is under max-users.
+     */
+    public void put(Long userId, Feed feed) {
+        if (!enabled || feed == null) return;
+        if (feeds.size() < maxUsers || feeds.containsKey(userId)) feeds.put(userId, feed);
+    }
+
+    // Number of events kept per feed
+    public int feedSize() {
+        return size;
+    }
+
+    public int size() {
+        return feeds.size();
+    }
+
+    /* =====================
+       REFRESH JOB
+       ===================== */
+
+    /**
+     * Queues a refresh on the feed thread; a refresh already waiting absorbs this one.
+     *
+     * @param compute feed of a profile, null when nothing can be recommended
+     */
+    public void refreshAsync(Function<UserProfileCache.Profile, Feed> compute) {
+        if (!enabled || !refreshQueued.compareAndSet(false, true)) return;
+        worker.submit(() -> {
+            refreshQueued.set(false);
+            try {
+                refresh(compute);
+            } catch (Exception e) {
+                log.error("Recommendation feed refresh failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void refresh(Function<UserProfileCache.Profile, Feed> compute) {
+        long started = System.nanoTime();
+        long startedAt = System.currentTimeMillis();
+
+        // Most recently active first, so the cap drops the least active users
+        Query query = Query.query(Criteria.where("lastActive").gte(LocalDateTime.now().minusNanos(activeWindowMs * 1_000_000L)))
+                .with(Sort.by(Sort.Direction.DESC, "lastActive"))
+                .limit(maxUsers);
+        query.fields().include("userId", "categoryAffinity", "cityAffinity", "tagAffinity",
+                "likedEvents", "registeredEvents", "shownEvents", "minPreferredPrice", "maxPreferredPrice");
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        AtomicInteger computed = new AtomicInteger();
+        List<ForkJoinTask<?>> partitions = new ArrayList<>();
+        try {
+            try (Stream<UserInteraction> profiles = mongoTemplate.stream(query, UserInteraction.class)) {
+                List<UserInteraction> partition = new ArrayList<>(partitionSize);
+                for (UserInteraction ui : (Iterable<UserInteraction>) profiles::iterator) {
+                    if (ui.getUserId() == null) continue;
+                    partition.add(ui);
+                    if (partition.size() == partitionSize) {
+                        partitions.add(pool.submit(computeAll(partition, compute, computed)));
+                        partition = new ArrayList<>(partitionSize);
+                    }
+                }
+                if (!partition.isEmpty()) partitions.add(pool.submit(computeAll(partition, compute, computed)));
+            }
+            for (ForkJoinTask<?> task : partitions) task.join();
+        } finally {
+            pool.shutdown();
+        }
+
+        // Drop feeds that neither this run nor a request has renewed (users no longer active)
+        feeds.values().removeIf(feed -> startedAt - feed.computedAt() > maxAgeMs);
+        log.info("Recommendation feeds refreshed: {} users in {} partitions, {} ms, {} stored", computed.get(),
+                partitions.size(), (System.nanoTime() - started) / 1_000_000, feeds.size());
+    }
+
+    private Runnable computeAll(List<UserInteraction> partition, Function<UserProfileCache.Profile, Feed> compute,
+                                AtomicInteger computed) {
+        return () -> {
+            for (UserInteraction ui : partition) {
+                Feed feed = compute.apply(profileCache.profileOf(ui));
+                if (feed != null) {
+                    feeds.put(ui.getUserId(), feed);
+                    computed.incrementAndGet();
+                }
+            }
+        };
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.shutdownNow();
+    }
+}
@@ -1,47 +1,57 @@
 package com.Eventora.service;
 
+import com.Eventora.Utils.AffinityDecay;
 import com.Eventora.Utils.ApplicationContextUtils;
 import com.Eventora.Utils.EventUtils;
-import com.Eventora.dto.EventFilterRequest;
+import com.Eventora.Utils.PageCursor;
+import com.Eventora.Utils.TopK;
 import com.Eventora.dto.EventTemplate;
 import com.Eventora.entity.AppUser;
 import com.Eventora.entity.Event;
 import com.Eventora.entity.Registration;
-import com.Eventora.entity.UserInteraction;
-import com.Eventora.repository.AppUserRepository;
+import com.Eventora.entity.enums.EventCategory;
 import com.Eventora.repository.EventRepository;
 import com.Eventora.repository.RegistrationRepository;
-import com.Eventora.repository.UserInteractionRepository;
-import org.springframework.security.core.userdetails.User;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.stream.IntStream;
 @Service
 public class RecommendationService {
     private final ApplicationContextUtils applicationContextUtils;
     private final EventRepository eventRepository;
-    private final AppUserRepository appUserRepository;
     private final EventUtils eventUtils;
     private final RegistrationRepository registrationRepository;
     private final UserInteractionService userInteractionService;
-    private final UserInteractionRepository interactionRepository;
-    private final EventService eventService;
+    private final UserProfileCache profileCache;
+    private final RecommendationCandidates candidates;
+    private final EventNeighborIndex neighborIndex;
+    private final EventVectorIndex eventVectors;
+    private final RecommendationFeeds feeds;
+    private final TrendingLeaderboard trendingBoard;
+    private final EventFeatureCache eventFeatures;
     //Number of max similar Events to recommend
     private  int maxSize = 8;
 
-    public RecommendationService(EventService eventService,UserInteractionService userInteractionService,UserInteractionRepository interactionRepository,AppUserRepository appUserRepository,RegistrationRepository registrationRepository ,EventRepository eventRepository,ApplicationContextUtils applicationContextUtils,EventUtils eventUtils)
+    public RecommendationService(UserInteractionService userInteractionService,RegistrationRepository registrationRepository ,EventRepository eventRepository,ApplicationContextUtils applicationContextUtils,EventUtils eventUtils,UserProfileCache profileCache,RecommendationCandidates candidates,EventNeighborIndex neighborIndex,EventVectorIndex eventVectors,RecommendationFeeds feeds,TrendingLeaderboard trendingBoard,EventFeatureCache eventFeatures)
     {
-        this.eventService = eventService;
-        this.interactionRepository = interactionRepository;
         this.userInteractionService = userInteractionService;
-        this.appUserRepository = appUserRepository;
         this.registrationRepository = registrationRepository;
         this.eventRepository = eventRepository;
         this.applicationContextUtils = applicationContextUtils;
         this.eventUtils = eventUtils;
+        this.profileCache = profileCache;
+        this.candidates = candidates;
+        this.neighborIndex = neighborIndex;
+        this.eventVectors = eventVectors;
+        this.feeds = feeds;
+        this.trendingBoard = trendingBoard;
+        this.eventFeatures = eventFeatures;
     }
     public List<EventTemplate> getRecommendedEvents()
     {
@@ -57,37 +67,17 @@ public class RecommendationService {
     }
     public List<EventTemplate> getSimilarEvents(final Long eventId)
     {
-        List<Event> events = eventRepository.findAll();
-        Event temp = null;
-        for(Event e: events)
-        {
-            if(e.getId().equals(eventId)){
-                temp = e;
-            }
-        }
-        final Event currentEvent = temp;
-        List<Event> similarEvents = events.stream()
-                                    .filter(e -> ! e.getId().equals(eventId))
-                .sorted(Comparator.comparingDouble(e-> -similarity(currentEvent,e)))
-                                    .limit(maxSize)
-                                    .toList();
-        List<Long> likedEventIds =  userInteractionService.getLikedEventIds();
-        return eventUtils.extractEventTemplates(events, likedEventIds);
-    }
-    private double similarity(Event e1, Event e2)
-    {
-        Set<String> tags1 = new HashSet<>(e1.getTags());
-        Set<String> tags2 = new HashSet<>(e2.getTags());
-
-        Set<String> intersection = new HashSet<>(tags1);
-        intersection.retainAll(tags2);
-        return (double) intersection.size() / (Math.sqrt(tags1.size()) * Math.sqrt(tags2.size()));
+        Set<Long> likedEventIds = applicationContextUtils.getLoggedUser() != null
+                ? new HashSet<>(userInteractionService.getLikedEventIds())
+                : Set.of();
+        return similarEvents(eventId, maxSize, likedEventIds::contains);
     }
 
     /* =====================
        WEIGHTS
        ===================== */
     private static final double SHOWN_PENALTY = 0.30;
+    private static final EventCategory[] CATEGORIES = EventCategory.values();
 
     private static final double CATEGORY_W = 0.25;
     private static final double CITY_W = 0.10;
@@ -98,9 +88,15 @@ public class RecommendationService {
     private static final double FRESHNESS_W = 0.10;
     private static final double PROMOTION_W = 0.05;
 
-    public List<EventTemplate> recommend( int limit) {
-
+    // Candidate sets larger than this are scored in parallel chunks
+    private static final int PARALLEL_THRESHOLD = 16_384;
+    private static final int CHUNK_SIZE = 8_192;
+    // Up to this many candidates every event is scored exactly; above it, embedding retrieval narrows the set
+    private static final int FULL_SCAN_LIMIT = 4_096;
 
+    public List<EventTemplate> recommend( int limit) {
+        // Bounded before anything is sized from it; below 1 is rejected rather than served trending
+        limit = PageCursor.pageSize(limit);
 
         try{
              AppUser user = applicationContextUtils.getLoggedUser() ;
@@ -109,103 +105,224 @@ public class RecommendationService {
 
             Long userId = applicationContextUtils.getLoggedUser().getId();
 
-            UserInteraction interaction = interactionRepository
-                    .findByUserId(userId)
-                    .orElseThrow(() -> new RuntimeException("User interaction not found"));
+            UserProfileCache.Profile interaction = profileCache.get(userId);
+            if (interaction == null)
+                throw new RuntimeException("User interaction not found");
 
-        List<Long> likedEventIds = new ArrayList<>(interaction.getLikedEvents());
-        List<Event> candidates = eventRepository.findUpcomingEvents();
+        RecommendationCandidates.Matrix m = candidates.matrix();
+        long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
 
-        List<Event> rankedEvents =  candidates.stream()
-                .filter(e -> !interaction.hasRegistered(e.getId()))
-                .map(e -> {
-                    double score = calculateScore(e, interaction);
+        // Serve the precomputed feed; recompute on demand when missing, stale or too short
+        RecommendationFeeds.Feed feed = feeds.get(userId);
+        TopK top = feed != null ? rerank(m, feed, interaction, now, limit) : null;
+        if (top == null || (top.size() < limit && !feed.complete())) {
+            feed = computeFeed(interaction, Math.max(feeds.feedSize(), limit));
+            feeds.put(userId, feed);
+            top = rerank(m, feed, interaction, now, limit);
+        }
 
-                    if (interaction.getShownEvents().contains(e.getId())) {
-                        score *= SHOWN_PENALTY; // push down, not remove
-                    }
+        int[] rankedRows = top.rowsDescending();
+        List<EventTemplate> ranked = new ArrayList<>(rankedRows.length);
+        List<Long> rankedIds = new ArrayList<>(rankedRows.length);
+        for (int row : rankedRows) {
+            ranked.add(m.toTemplate(row, interaction.hasLiked(m.ids[row])));
+            rankedIds.add(m.ids[row]);
+        }
 
-                    return Map.entry(e, score);
-                }).sorted(Map.Entry.<Event, Double>comparingByValue().reversed())
-                .limit(limit)
-                .map(Map.Entry::getKey)
-                .toList();
+        // Targeted ring push instead of re-saving the whole profile
+        userInteractionService.recordShown(userId, rankedIds);
 
-        interaction.addShownEvents(
-                rankedEvents.stream().map(Event::getId).toList()
-        );
+        return ranked;
+        }catch(Exception ex){
+            // Anonymous or cold-start user: trending events, no listing side effects
+            return trending(limit, null, null);
+        }
+    }
 
-        interactionRepository.save(interaction);
+    /**
+     * Trending upcoming events, overall or narrowed to a city or category; topped up from the
+     * overall board when the narrower one is short.
+     */
+    public List<EventTemplate> trending(int limit, String city, EventCategory category) {
+        limit = PageCursor.pageSize(limit);
+        AppUser user = applicationContextUtils.getLoggedUser();
+        UserProfileCache.Profile interaction = user != null ? profileCache.get(user.getId()) : null;
+
+        RecommendationCandidates.Matrix m = candidates.matrix();
+        long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+
+        int cityId = city != null ? eventFeatures.findCityId(city) : -1;
+        List<EventTemplate> result = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        if (city != null && cityId < 0) return result; // no event has ever been in that city
+        addTrending(result, seen, trendingBoard.top(cityId, category), m, now, interaction, limit);
+        if (cityId >= 0 || category != null) {
+            addTrending(result, seen, trendingBoard.top(-1, null), m, now, interaction, limit);
+        }
+        return result;
+    }
 
-        return eventUtils.extractEventTemplates(rankedEvents, likedEventIds);
-        }catch(Exception ex){
-            EventFilterRequest eventFilterRequest = new EventFilterRequest();
-            return eventService.getFilteredEvents(eventFilterRequest);
+    private void addTrending(List<EventTemplate> result, Set<Long> seen, long[] eventIds,
+                             RecommendationCandidates.Matrix m, long now, UserProfileCache.Profile interaction,
+                             int limit) {
+        for (long eventId : eventIds) {
+            if (result.size() >= limit) return;
+            int row = m.indexOf(eventId);
+            if (row < 0 || m.startEpoch[row] <= now || !seen.add(eventId)) continue;
+            if (interaction != null && interaction.hasRegistered(eventId)) continue;
+            result.add(m.toTemplate(row, interaction != null && interaction.hasLiked(eventId)));
         }
     }
-    private double calculateScore(Event event, UserInteraction ui) {
+
+    /* =====================
+       FEEDS
+       ===================== */
+
+    @Scheduled(
+            fixedDelayString = "${eventora.feeds.refresh-interval-ms:900000}",
+            initialDelayString = "${eventora.feeds.initial-delay-ms:120000}"
+    )
+    public void precomputeFeeds() {
+        feeds.refreshAsync(profile -> computeFeed(profile, feeds.feedSize()));
+    }
+
+    // Top `size` upcoming events by base score; freshness and the shown penalty are applied at serve time
+    private RecommendationFeeds.Feed computeFeed(UserProfileCache.Profile interaction, int size) {
+        RecommendationCandidates.Matrix m = candidates.matrix();
+        double decay = AffinityDecay.readScale();
+        long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+
+        TopK top = null;
+        // Large catalogs: re-rank the events nearest to the user's embedding instead of all of them
+        long[] retrieved = m.size > FULL_SCAN_LIMIT ? eventVectors.retrieve(interaction) : null;
+        if (retrieved != null) {
+            top = scoreEvents(m, retrieved, interaction, decay, now, size);
+        }
+        if (top == null || top.size() < size) {
+            // No model yet, nothing embeddable in the profile, or too few usable candidates
+            top = scoreAll(m, interaction, decay, now, size);
+        }
+
+        int[] rows = top.rowsDescending();
+        double[] scores = top.scoresDescending();
+        long[] eventIds = new long[rows.length];
+        float[] baseScores = new float[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            eventIds[i] = m.ids[rows[i]];
+            baseScores[i] = (float) scores[i];
+        }
+        return new RecommendationFeeds.Feed(eventIds, baseScores, rows.length < size, System.currentTimeMillis());
+    }
+
+    // Cheap online pass over a stored feed: drops past / registered events, adds freshness, applies the shown penalty
+    private TopK rerank(RecommendationCandidates.Matrix m, RecommendationFeeds.Feed feed,
+                        UserProfileCache.Profile interaction, long now, int limit) {
+        TopK top = new TopK(limit);
+        long[] eventIds = feed.eventIds();
+        for (int i = 0; i < eventIds.length; i++) {
+            int row = m.indexOf(eventIds[i]);
+            if (row < 0 || m.startEpoch[row] <= now || interaction.hasRegistered(eventIds[i])) continue;
+
+            double score = feed.scores()[i] + freshnessScore(m.startEpoch[row], now) * FRESHNESS_W;
+            if (interaction.isShown(eventIds[i])) {
+                score *= SHOWN_PENALTY; // push down, not remove
+            }
+            top.offer(score, row);
+        }
+        return top;
+    }
+
+    private TopK scoreAll(RecommendationCandidates.Matrix m, UserProfileCache.Profile interaction,
+                          double decay, long now, int limit) {
+        if (m.size <= PARALLEL_THRESHOLD) {
+            return scoreRange(m, 0, m.size, interaction, decay, now, limit);
+        }
+        int chunks = (m.size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> scoreRange(m, c * CHUNK_SIZE, Math.min(m.size, (c + 1) * CHUNK_SIZE),
+                        interaction, decay, now, limit))
+                .reduce(TopK::merge)
+                .orElseGet(() -> new TopK(limit));
+    }
+
+    // Tight loop over matrix rows [from, to); keeps the best `limit` in a bounded heap
+    private TopK scoreRange(RecommendationCandidates.Matrix m, int from, int to,
+                            UserProfileCache.Profile interaction, double decay, long now, int limit) {
+        TopK top = new TopK(limit);
+        for (int row = from; row < to; row++) offerRow(top, m, row, interaction, decay, now);
+        return top;
+    }
+
+    // Same scoring over the rows of retrieved event ids
+    private TopK scoreEvents(RecommendationCandidates.Matrix m, long[] eventIds,
+                             UserProfileCache.Profile interaction, double decay, long now, int limit) {
+        TopK top = new TopK(limit);
+        for (long eventId : eventIds) {
+            int row = m.indexOf(eventId);
+            if (row >= 0) offerRow(top, m, row, interaction, decay, now);
+        }
+        return top;
+    }
+
+    private void offerRow(TopK top, RecommendationCandidates.Matrix m, int row,
+                          UserProfileCache.Profile interaction, double decay, long now) {
+        if (m.startEpoch[row] <= now || interaction.hasRegistered(m.ids[row])) return;
+
+        top.offer(baseScore(m, row, interaction, decay), row);
+    }
+
+    // Every weighted component except freshness, which moves with the clock and is added when serving
+    private double baseScore(RecommendationCandidates.Matrix m, int row, UserProfileCache.Profile ui, double decay) {
 
         double score = 0.0;
+        byte category = m.category[row];
 
-        score += normalize(ui.getCategoryScore(event.getEventCategory()))
+        score += normalize((category == EventFeatureCache.NO_CATEGORY ? 0.0 : ui.categoryScore(CATEGORIES[category])) * decay)
                 * CATEGORY_W;
 
-        score += normalize(ui.getCityScore(event.getCity()))
+        score += normalize(ui.cityScore(m.cityId[row]) * decay)
                 * CITY_W;
 
-        score += normalize(ui.getTagScore(event.getTags()))
+        score += normalize(ui.tagScore(m.tagIds, m.tagStart[row], m.tagStart[row + 1]) * decay)
                 * TAG_W;
 
-        score += priceScore(event, ui) * PRICE_W;
+        score += priceScore(m.price[row], ui) * PRICE_W;
 
-        score += popularityScore(event) * POPULARITY_W;
+        score += popularityScore(m.ctr[row], m.participants.get(row), m.maxParticipants[row]) * POPULARITY_W;
 
-        score += organizerScore(event) * ORGANIZER_W;
+        score += organizerScore(m.organizerReputation[row], m.pastAttendanceRate[row]) * ORGANIZER_W;
 
-        score += freshnessScore(event) * FRESHNESS_W;
-
-        score += promotionScore(event) * PROMOTION_W;
+        score += promotionScore(m.promotionSpend[row]) * PROMOTION_W;
 
         return score;
     }
-    private double normalize(int rawScore) {
+    private double normalize(double rawScore) {
         return Math.min(rawScore / 10.0, 1.0);
     }
 
-    private double priceScore(Event event, UserInteraction ui) {
-        if (event.getPrice() == null) return 0.5;
+    // NaN price means the event has none
+    private double priceScore(double price, UserProfileCache.Profile ui) {
+        if (Double.isNaN(price)) return 0.5;
 
-        double price = event.getPrice().doubleValue();
         return ui.isPriceMatch(price) ? 1.0 : 0.0;
     }
-    private double popularityScore(Event event) {
-
-        double ctrScore = event.getCtr() != null ? event.getCtr() : 0.0;
+    private double popularityScore(double ctr, int participants, int maxParticipants) {
 
         double attendanceRate =
-                event.getMaxParticipants() > 0
-                        ? (double) event.getCurrentParticipants() / event.getMaxParticipants()
+                maxParticipants > 0
+                        ? (double) participants / maxParticipants
                         : 0.0;
 
-        return clamp((ctrScore + attendanceRate) / 2);
+        return clamp((ctr + attendanceRate) / 2);
     }
 
-    private double organizerScore(Event event) {
-
-        double reputation = event.getOrganizerReputation() != null
-                ? event.getOrganizerReputation()
-                : 0.0;
-
-        double pastAttendance = event.getAvgPastAttendanceRate() != null
-                ? event.getAvgPastAttendanceRate()
-                : 0.0;
-
+    private double organizerScore(double reputation, double pastAttendance) {
         return clamp((reputation + pastAttendance) / 2);
     }
-    private double freshnessScore(Event event) {
+    private double freshnessScore(long startEpoch, long now) {
 
-        long daysUntilEvent =
-                ChronoUnit.DAYS.between(LocalDateTime.now(), event.getStartDate());
+        // Whole days, truncated like ChronoUnit.DAYS.between
+        long daysUntilEvent = (startEpoch - now) / 86_400L;
 
         if (daysUntilEvent <= 0) return 0.0;
         if (daysUntilEvent <= 3) return 1.0;
@@ -214,9 +331,8 @@ public class RecommendationService {
 
         return 0.2;
     }
-    private double promotionScore(Event event) {
-        if (event.getPromotionSpend() == null) return 0.0;
-        return clamp(event.getPromotionSpend() / 10_000.0);
+    private double promotionScore(long promotionSpend) {
+        return clamp(promotionSpend / 10_000.0);
     }
 
     private double clamp(double val) {
@@ -232,102 +348,30 @@ public class RecommendationService {
             throw new RuntimeException("No logged user found");
         Long userId = applicationContextUtils.getLoggedUser().getId();
 
-        Event source = eventRepository.findById(eventId)
-                .orElseThrow(() -> new RuntimeException("Event not found"));
-
-        UserInteraction interaction = interactionRepository
-                .findByUserId(userId)
-                .orElse(null);
-
-        List<Long> likedEventIds = interaction != null
-                ? new ArrayList<>(interaction.getLikedEvents())
-                : List.of();
-
-        List<Event> candidates = eventRepository.findUpcomingEvents();
-
-        List<Event> ranked = candidates.stream()
-                .filter(e -> !e.getId().equals(eventId))
-                .map(e -> Map.entry(e, similarityScore(source, e)))
-                .sorted(Map.Entry.<Event, Double>comparingByValue().reversed())
-                .limit(limit)
-                .map(Map.Entry::getKey)
-                .toList();
-
-        return eventUtils.extractEventTemplates(ranked, likedEventIds);
-    }
-    private double similarityScore(Event a, Event b) {
-
-        double score = 0.0;
-
-        score += categorySimilarity(a, b) * 0.30;
-        score += citySimilarity(a, b) * 0.15;
-        score += tagSimilarity(a, b) * 0.25;
-        score += priceSimilarity(a, b) * 0.10;
-        score += dateSimilarity(a, b) * 0.10;
-        score += popularitySimilarity(a, b) * 0.10;
-
-        return score;
-    }
-    private double categorySimilarity(Event a, Event b) {
-        return a.getEventCategory() == b.getEventCategory() ? 1.0 : 0.0;
-    }
-    private double citySimilarity(Event a, Event b) {
-        return Objects.equals(a.getCity(), b.getCity()) ? 1.0 : 0.0;
-    }
-    private double tagSimilarity(Event a, Event b) {
-
-        if (a.getTags() == null || b.getTags() == null) return 0.0;
-
-        Set<String> setA = new HashSet<>(a.getTags());
-        Set<String> setB = new HashSet<>(b.getTags());
-
-        Set<String> intersection = new HashSet<>(setA);
-        intersection.retainAll(setB);
-
-        Set<String> union = new HashSet<>(setA);
-        union.addAll(setB);
-
-        return union.isEmpty()
-                ? 0.0
-                : (double) intersection.size() / union.size();
-    }
-    private double priceSimilarity(Event a, Event b) {
-
-        if (a.getPrice() == null || b.getPrice() == null) return 0.5;
-
-        double diff = Math.abs(a.getPrice().doubleValue() - b.getPrice().doubleValue());
-        double max = Math.max(a.getPrice().doubleValue(), b.getPrice().doubleValue());
+        UserProfileCache.Profile interaction = profileCache.get(userId);
 
-        return clamp(1 - (diff / max));
+        return similarEvents(eventId, limit, interaction != null ? interaction::hasLiked : id -> false);
     }
-    private double dateSimilarity(Event a, Event b) {
 
-        long days = Math.abs(
-                ChronoUnit.DAYS.between(a.getStartDate(), b.getStartDate())
-        );
-
-        if (days <= 1) return 1.0;
-        if (days <= 3) return 0.8;
-        if (days <= 7) return 0.6;
-        if (days <= 30) return 0.3;
-
-        return 0.1;
-    }
-    private double popularitySimilarity(Event a, Event b) {
-
-        int diff = Math.abs(
-                a.getCurrentParticipants() - b.getCurrentParticipants()
-        );
-
-        int max = Math.max(
-                a.getCurrentParticipants(), b.getCurrentParticipants()
-        );
-
-        if (max == 0) return 0.5;
+    // Precomputed neighbor list; only events outside the index (e.g. past ones) are scored on demand
+    private List<EventTemplate> similarEvents(Long eventId, int limit, LongPredicate isLiked) {
+        EventNeighborIndex.Neighbors neighbors = neighborIndex.neighborsOf(eventId);
+        if (neighbors == null) {
+            Event source = eventRepository.findById(eventId)
+                    .orElseThrow(() -> new RuntimeException("Event not found"));
+            neighbors = neighborIndex.compute(source);
+        }
 
-        return clamp(1 - ((double) diff / max));
+        RecommendationCandidates.Matrix m = candidates.matrix();
+        long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+        List<EventTemplate> similar = new ArrayList<>(Math.min(limit, neighbors.ids().length));
+        for (long id : neighbors.ids()) {
+            if (similar.size() >= limit) break;
+            int row = m.indexOf(id);
+            if (row < 0 || m.startEpoch[row] <= now) continue;
+            similar.add(m.toTemplate(row, isLiked.test(id)));
+        }
+        return similar;
     }
 
-
-
 }
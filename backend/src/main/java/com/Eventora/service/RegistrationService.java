@@ -2,8 +2,10 @@ package com.Eventora.service;
 
 import com.Eventora.Utils.ApplicationContextUtils;
 import com.Eventora.Utils.EventUtils;
+import com.Eventora.Utils.PageCursor;
+import com.Eventora.dto.CursorSlice;
+import com.Eventora.dto.EventChangedEvent;
 import com.Eventora.dto.EventTemplate;
-import com.Eventora.dto.UserInteractionEvent;
 import com.Eventora.entity.*;
 import com.Eventora.entity.enums.EventStatus;
 import com.Eventora.entity.enums.InteractionType;
@@ -14,12 +16,13 @@ import com.Eventora.repository.RegistrationRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -32,6 +35,8 @@ public class RegistrationService {
     private final ApplicationContextUtils applicationContextUtils;
     private final EventUtils eventUtils;
     private final ApplicationEventPublisher publisher;
+    private final EventCounterService eventCounterService;
+    private final InteractionOutboxService interactionOutbox;
 
     //Done
     @Transactional
@@ -50,8 +55,9 @@ public class RegistrationService {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Event full or not open for registration");
         }
 
+        Registration registration;
         try{
-        registrationRepository.save(
+        registration = registrationRepository.save(
                 Registration.builder()
                         .event(Event.builder().id(eventId).build()) // lightweight reference
                         .user(appUser)
@@ -60,13 +66,9 @@ public class RegistrationService {
         } catch (DataIntegrityViolationException ex) {
             throw new ResponseStatusException(HttpStatus.CONFLICT,"User registered only once for the event");
         }
+        publisher.publishEvent(EventChangedEvent.participantsChanged(eventId, 1));
 
-        publisher.publishEvent(new UserInteractionEvent(
-                applicationContextUtils.getLoggedUser().getId(),
-                eventId,
-                InteractionType.REGISTER_EVENT,
-                Map.of()
-        ));
+        interactionOutbox.record(appUser.getId(), eventId, InteractionType.REGISTER_EVENT, registration.getRegisteredAt());
 
     }
 
@@ -79,6 +81,34 @@ public class RegistrationService {
         return registrationRepository.findRegisteredEventTemplates(user, RegistrationStatus.REGISTERED);
     }
 
+    public CursorSlice<EventTemplate> getRegisteredEvents(String cursor, int size) {
+        AppUser user = applicationContextUtils.getLoggedUser();
+        if (user == null)
+            throw new RuntimeException("No logged user found");
+
+        size = PageCursor.pageSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        Limit limit = Limit.of(size + 1);
+        List<EventTemplate> rows = after == null
+                ? registrationRepository.findRegisteredEventTemplatesFirst(user, RegistrationStatus.REGISTERED, limit)
+                : registrationRepository.findRegisteredEventTemplatesAfter(
+                        user, RegistrationStatus.REGISTERED, after.startDate(), after.id(), limit);
+
+        boolean hasNext = rows.size() > size;
+        List<EventTemplate> content = hasNext ? rows.subList(0, size) : rows;
+        String next = null;
+        if (hasNext) {
+            EventTemplate last = content.get(content.size() - 1);
+            next = PageCursor.of(last.getStartDate(), last.getId()).encode();
+        }
+        return CursorSlice.<EventTemplate>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(next)
+                .build();
+    }
+
     //Done
     @Transactional
     public void cancelRegistration(Long eventId) {
@@ -86,6 +116,8 @@ public class RegistrationService {
         if (user == null)
             throw new RuntimeException("No logged user found");
 
+        // The relay takes back the registration's points at the weight they were added with
+        LocalDateTime registeredAt = registrationRepository.findActiveRegisteredAt(eventId, user).orElse(null);
         int updatedRows = registrationRepository.updateRegistrationStatus(
                 eventId,
                 user,
@@ -97,12 +129,8 @@ public class RegistrationService {
         }
 
         eventRepository.updateParticipantCount(eventId, -1);
-        publisher.publishEvent(new UserInteractionEvent(
-                applicationContextUtils.getLoggedUser().getId(),
-                eventId,
-                InteractionType.UNREGISTER_EVENT,
-                Map.of()
-        ));
+        publisher.publishEvent(EventChangedEvent.participantsChanged(eventId, -1));
+        interactionOutbox.record(user.getId(), eventId, InteractionType.UNREGISTER_EVENT, registeredAt);
     }
 
     //Done
@@ -132,13 +160,8 @@ public class RegistrationService {
         }
 
         // Increase checked-in count
-        eventRepository.increaseCheckedInCnt(eventId);
-        publisher.publishEvent(new UserInteractionEvent(
-                applicationContextUtils.getLoggedUser().getId(),
-                eventId,
-                InteractionType.CHECK_IN,
-                Map.of()
-        ));
+        eventCounterService.recordCheckIn(eventId);
+        interactionOutbox.record(user.getId(), eventId, InteractionType.CHECK_IN);
     }
 
 
@@ -0,0 +1,57 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.RotatingBloomFilter;
+import com.Eventora.dto.UserInteractionEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Suppresses repeated views / impressions of the same event by the same user within a
+ * time window, before they are queued or forwarded. Durable signals (likes, registrations,
+ * check-ins) always pass.
+ *
+ * Backed by a rotating Bloom filter, so memory is fixed; a small fraction of first-time
+ * views is suppressed as a false positive, which only costs one affinity nudge.
+ */
+@Slf4j
+@Component
+public class RepeatSignalFilter {
+
+    private final RotatingBloomFilter seen;
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+
+    public RepeatSignalFilter(@Value("${eventora.interactions.repeat-window-ms:1800000}") long windowMs,
+                              @Value("${eventora.interactions.repeat-filter-expected:1000000}") int expected,
+                              @Value("${eventora.interactions.repeat-filter-fpp:0.01}") double fpp) {
+        this.seen = new RotatingBloomFilter(expected, fpp, windowMs);
+        log.info("Repeat signal filter: {} bits per generation, window {} ms", seen.bitsPerGeneration(), windowMs);
+    }
+
+    /**
+     * True if the event is a sheddable signal this user already sent for this event within the window.
+     */
+    public boolean isRepeat(UserInteractionEvent event) {
+        if (!event.type().isSheddable() || event.userId() == null || event.eventId() == null) return false;
+        long key = event.userId() * 0x9e3779b97f4a7c15L
+                ^ event.eventId() * 0xc2b2ae3d27d4eb4fL
+                ^ event.type().ordinal();
+        if (seen.checkAndAdd(key)) {
+            suppressed.increment();
+            return true;
+        }
+        passed.increment();
+        return false;
+    }
+
+    public long passed() {
+        return passed.sum();
+    }
+
+    public long suppressed() {
+        return suppressed.sum();
+    }
+}
@@ -0,0 +1,51 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.SingleFlight;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Owns the named {@link SingleFlight} groups and periodically logs how many calls
+ * each one collapsed since the previous report.
+ */
+@Slf4j
+@Component
+public class SingleFlightRegistry {
+
+    private final List<SingleFlight<?, ?>> groups = new CopyOnWriteArrayList<>();
+    private final Map<String, SingleFlight.Stats> lastReported = new ConcurrentHashMap<>();
+
+    public <K, V> SingleFlight<K, V> create(String name) {
+        SingleFlight<K, V> group = new SingleFlight<>(name);
+        groups.add(group);
+        return group;
+    }
+
+    public List<SingleFlight.Stats> stats() {
+        return groups.stream().<SingleFlight.Stats>map(SingleFlight::stats).toList();
+    }
+
+    @Scheduled(fixedDelayString = "${eventora.single-flight.report-interval-ms:60000}")
+    public void report() {
+        for (SingleFlight.Stats total : stats()) {
+            SingleFlight.Stats previous = lastReported.getOrDefault(total.name(),
+                    new SingleFlight.Stats(total.name(), 0, 0));
+            lastReported.put(total.name(), total);
+
+            SingleFlight.Stats window = new SingleFlight.Stats(total.name(),
+                    total.calls() - previous.calls(), total.executions() - previous.executions());
+            if (window.collapsed() == 0) continue;
+
+            log.info("Single-flight [{}]: {} calls, {} loads, collapse ratio {} (lifetime {})",
+                    window.name(), window.calls(), window.executions(),
+                    String.format("%.3f", window.collapseRatio()),
+                    String.format("%.3f", total.collapseRatio()));
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.Eventora.service;
+
+import com.Eventora.dto.UserInteractionEvent;
+import com.Eventora.entity.enums.EventCategory;
+import com.Eventora.entity.enums.InteractionType;
+import com.Eventora.projection.TrendingSignalProjection;
+import com.Eventora.repository.RegistrationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Time-decayed trending events for cold-start and anonymous feeds, per node.
+ *
+ * Registrations, clicks (detail views) and likes add forward-decayed points to the event's
+ * score (see AffinityDecay; here with a half-life of hours), so scores never need to be
+ * decayed in place. Views arrive from UserInteractionListener; registrations, unregistrations
+ * and likes from InteractionOutboxRelay, once applied. Every signal updates a bounded top-K board overall, for the event's
+ * city and for its category; the periodic sweep drops past events and faded scores and
+ * rebuilds the boards exactly. Seeded from recent registrations and likes on startup.
+ */
+@Slf4j
+@Component
+public class TrendingLeaderboard {
+
+    private static final EventCategory[] CATEGORIES = EventCategory.values();
+
+    private static final double REGISTER_POINTS = 5.0;
+    private static final double LIKE_POINTS = 3.0;
+    private static final double CLICK_POINTS = 1.0;
+
+    // Scores that have decayed below this are forgotten by the sweep
+    private static final double MIN_SCORE = 0.01;
+    // Move the landmark once stored scores have grown this many half-lives past it
+    private static final int RESCALE_HALF_LIVES = 32;
+
+    private final RecommendationCandidates candidates;
+    private final RegistrationRepository registrationRepository;
+    private final TransactionTemplate readTransaction;
+    private final long halfLifeSeconds;
+    private final int boardSize;
+
+    // All guarded by "this"
+    private final Map<Long, Double> scores = new HashMap<>();
+    private Board overall;
+    private final Map<Integer, Board> byCity = new HashMap<>();
+    private final Board[] byCategory = new Board[CATEGORIES.length];
+    private long landmarkSecond = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+
+    public TrendingLeaderboard(RecommendationCandidates candidates,
+                               RegistrationRepository registrationRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${eventora.trending.half-life-ms:21600000}") long halfLifeMs,
+                               @Value("${eventora.trending.board-size:100}") int boardSize) {
+        this.candidates = candidates;
+        this.registrationRepository = registrationRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.halfLifeSeconds = Math.max(1L, halfLifeMs / 1000);
+        this.boardSize = boardSize;
+        this.overall = new Board(boardSize);
+        for (int i = 0; i < byCategory.length; i++) byCategory[i] = new Board(boardSize);
+    }
+
+    /* =====================
+       LOADING
+       ===================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            seed();
+        } catch (Exception e) {
+            log.error("Trending leaderboard seed failed: {}", e.getMessage());
+        }
+    }
+
+    // Older signals would have decayed below 1/16 of their points
+    private void seed() {
+        LocalDateTime since = LocalDateTime.now().minusSeconds(4 * halfLifeSeconds);
+        long seedLandmark;
+        synchronized (this) {
+            seedLandmark = landmarkSecond;
+        }
+        Map<Long, Double> seeded = new HashMap<>();
+        readTransaction.executeWithoutResult(status -> {
+            try (Stream<TrendingSignalProjection> rows = registrationRepository.streamTrendingSignalsSince(since)) {
+                rows.forEach(row -> {
+                    if (row.getEventId() == null || row.getOccurredAt() == null) return;
+                    double points = "LIKED".equals(row.getKind()) ? LIKE_POINTS : REGISTER_POINTS;
+                    long at = row.getOccurredAt().toEpochSecond(ZoneOffset.UTC);
+                    seeded.merge(row.getEventId(), points * Math.pow(2.0, (double) (at - seedLandmark) / halfLifeSeconds), Double::sum);
+                });
+            }
+        });
+        synchronized (this) {
+            // Rebase in case a sweep moved the landmark meanwhile
+            double rebase = weightAt(seedLandmark);
+            seeded.forEach((eventId, boost) -> scores.merge(eventId, boost * rebase, Double::sum));
+        }
+        sweep();
+        log.info("Trending leaderboard seeded from {} events", seeded.size());
+    }
+
+    @Scheduled(
+            fixedDelayString = "${eventora.catalog.refresh-interval-ms:300000}",
+            initialDelayString = "${eventora.catalog.refresh-interval-ms:300000}"
+    )
+    public void scheduledSweep() {
+        try {
+            sweep();
+        } catch (Exception e) {
+            log.error("Trending leaderboard sweep failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drops events that are no longer upcoming and scores that have faded, then rebuilds
+     * every board from the remaining scores (which also repairs boards after decrements).
+     */
+    public void sweep() {
+        RecommendationCandidates.Matrix m = candidates.matrix();
+        long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+
+        synchronized (this) {
+            // Keep stored values far inside double range
+            if (now - landmarkSecond > RESCALE_HALF_LIVES * halfLifeSeconds) {
+                double factor = weightAt(now);
+                scores.replaceAll((id, score) -> score / factor);
+                landmarkSecond = now;
+            }
+
+            double floor = MIN_SCORE * weightAt(now);
+            scores.entrySet().removeIf(e -> {
+                int row = m.indexOf(e.getKey());
+                return row < 0 || m.startEpoch[row] <= now || e.getValue() < floor;
+            });
+
+            overall = new Board(boardSize);
+            byCity.clear();
+            for (int i = 0; i < byCategory.length; i++) byCategory[i] = new Board(boardSize);
+            scores.forEach((eventId, score) -> offer(m, m.indexOf(eventId), eventId, score));
+        }
+    }
+
+    /* =====================
+       WRITE PATH
+       ===================== */
+
+    /**
+     * Counts a signal that passed the repeat filter (called by UserInteractionListener).
+     */
+    public void onInteraction(UserInteractionEvent event) {
+        onInteraction(event.type(), event.eventId(), LocalDateTime.now().toEpochSecond(ZoneOffset.UTC));
+    }
+
+    /**
+     * Counts a signal that happened at the given epoch second; an unregistration carries the
+     * time of the registration it undoes, so it takes back exactly the points that added.
+     */
+    public void onInteraction(InteractionType type, Long eventId, long occurredAt) {
+        double points = switch (type) {
+            case REGISTER_EVENT -> REGISTER_POINTS;
+            case UNREGISTER_EVENT -> -REGISTER_POINTS;
+            case LIKE_EVENT -> LIKE_POINTS;
+            case VIEW_EVENT -> CLICK_POINTS;
+            default -> 0.0;
+        };
+        if (points != 0.0) record(eventId, points, occurredAt);
+    }
+
+    public void record(Long eventId, double points) {
+        record(eventId, points, LocalDateTime.now().toEpochSecond(ZoneOffset.UTC));
+    }
+
+    private void record(Long eventId, double points, long epochSecond) {
+        if (eventId == null) return;
+        RecommendationCandidates.Matrix m = candidates.matrix();
+        int row = m.indexOf(eventId);
+        if (row < 0) return; // not upcoming, cannot trend
+
+        synchronized (this) {
+            double score = scores.merge(eventId, points * weightAt(epochSecond), Double::sum);
+            if (score <= 0.0) scores.remove(eventId);
+            offer(m, row, eventId, score);
+        }
+    }
+
+    private void offer(RecommendationCandidates.Matrix m, int row, long eventId, double score) {
+        overall.offer(eventId, score);
+        if (m.cityId[row] >= 0) byCity.computeIfAbsent(m.cityId[row], k -> new Board(boardSize)).offer(eventId, score);
+        if (m.category[row] != EventFeatureCache.NO_CATEGORY) byCategory[m.category[row]].offer(eventId, score);
+    }
+
+    /* =====================
+       READ PATH
+       ===================== */
+
+    /**
+     * Trending event ids, best first: overall, or for a city id / category when given.
+     * May contain events that started since the last sweep; callers filter on start time.
+     */
+    public synchronized long[] top(int cityId, EventCategory category) {
+        if (cityId >= 0) {
+            Board board = byCity.get(cityId);
+            return board == null ? new long[0] : board.idsDescending();
+        }
+        if (category != null) return byCategory[category.ordinal()].idsDescending();
+        return overall.idsDescending();
+    }
+
+    public synchronized int size() {
+        return scores.size();
+    }
+
+    private double weightAt(long epochSecond) {
+        return Math.pow(2.0, (double) (epochSecond - landmarkSecond) / halfLifeSeconds);
+    }
+
+    /* =====================
+       BOARD
+       ===================== */
+
+    private record Entry(double score, long eventId) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byScore = Double.compare(score, other.score);
+            return byScore != 0 ? byScore : Long.compare(eventId, other.eventId);
+        }
+    }
+
+    // Bounded top-K: the lowest member is evicted once a better event arrives at capacity
+    private static final class Board {
+        private final int capacity;
+        private final Map<Long, Double> members = new HashMap<>();
+        private final TreeSet<Entry> order = new TreeSet<>();
+
+        Board(int capacity) {
+            this.capacity = Math.max(1, capacity);
+        }
+
+        void offer(long eventId, double score) {
+            Double previous = members.remove(eventId);
+            if (previous != null) order.remove(new Entry(previous, eventId));
+            if (score <= 0.0) return;
+            if (members.size() >= capacity) {
+                if (score <= order.first().score()) return;
+                members.remove(order.pollFirst().eventId());
+            }
+            members.put(eventId, score);
+            order.add(new Entry(score, eventId));
+        }
+
+        long[] idsDescending() {
+            long[] ids = new long[order.size()];
+            int i = 0;
+            for (Iterator<Entry> it = order.descendingIterator(); it.hasNext(); ) ids[i++] = it.next().eventId();
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.Eventora.service;
+
+import com.Eventora.entity.UserInteraction;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Merges interaction updates per user and writes them as unordered bulk upserts.
+ *
+ * Increments to the same path are summed, and set membership changes keep only the last
+ * add/remove per value. A flush therefore sends at most one upsert per user, plus one
+ * follow-up round for users that touch an array in both directions (Mongo rejects two
+ * operators on one path in a single update):
+ * - plain sets: $addToSet first, then $pullAll of the removed values;
+ * - capped rings: $pullAll of every touched value first, then $push of the added values
+ *   with $slice, which moves re-added values to the end and drops the oldest.
+ * Since each user appears at most once per bulk, the upserts cannot race each other into duplicates.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserInteractionCoalescer {
+
+    private static final int MAX_BULK_SIZE = 1000;
+
+    // Writes that touch nothing else keep the cached profile: shownEvents is written through
+    // by the recommender itself, listedEvents is not part of the scoring profile
+    private static final Set<String> UNCACHED_PATHS = Set.of("shownEvents", "listedEvents");
+
+    private final MongoTemplate mongoTemplate;
+    private final UserProfileCompactor profileCompactor;
+    private final UserProfileCache profileCache;
+
+    private final ConcurrentHashMap<Long, Delta> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Pending changes for one user. Only mutated inside {@link #merge}.
+     */
+    public static final class Delta {
+        private final Map<String, Double> increments = new HashMap<>();
+        // path -> value -> true for add, false for $pull (in the order the changes arrived)
+        private final Map<String, Map<Long, Boolean>> membership = new HashMap<>();
+        // ring path -> cap; paths not listed here are plain sets
+        private final Map<String, Integer> ringCaps = new HashMap<>();
+        private LocalDateTime lastActive;
+
+        public Delta inc(String path, double by) {
+            increments.merge(path, by, Double::sum);
+            return this;
+        }
+
+        public Delta addToSet(String path, Long value) {
+            membership.computeIfAbsent(path, k -> new LinkedHashMap<>()).put(value, true);
+            return this;
+        }
+
+        /**
+         * Appends to a capped ring (keeping at most the newest {@code cap} values).
+         */
+        public Delta pushCapped(String path, Long value, int cap) {
+            ringCaps.put(path, cap);
+            Map<Long, Boolean> values = membership.computeIfAbsent(path, k -> new LinkedHashMap<>());
+            values.remove(value); // re-insert so the newest touch decides the push order
+            values.put(value, true);
+            return this;
+        }
+
+        public Delta pull(String path, Long value) {
+            membership.computeIfAbsent(path, k -> new LinkedHashMap<>()).put(value, false);
+            return this;
+        }
+
+        // Pending $inc for the path (0 if none)
+        double increment(String path) {
+            return increments.getOrDefault(path, 0.0);
+        }
+
+        boolean onlyTouches(Set<String> paths) {
+            return increments.isEmpty() && paths.containsAll(membership.keySet());
+        }
+
+        boolean touchesAny(Collection<String> pathPrefixes) {
+            for (String path : increments.keySet()) {
+                for (String prefix : pathPrefixes) {
+                    if (path.startsWith(prefix)) return true;
+                }
+            }
+            return false;
+        }
+
+        private void mergeFrom(Delta other) {
+            other.increments.forEach(this::inc);
+            other.ringCaps.forEach(ringCaps::putIfAbsent);
+            // Changes already in `this` are newer than the restored ones and win
+            other.membership.forEach((path, values) -> {
+                Map<Long, Boolean> mine = membership.computeIfAbsent(path, k -> new LinkedHashMap<>());
+                values.forEach(mine::putIfAbsent);
+            });
+            if (lastActive == null || (other.lastActive != null && other.lastActive.isAfter(lastActive))) {
+                lastActive = other.lastActive;
+            }
+        }
+    }
+
+    // delta is what gets restored if this write fails
+    private record Write(Long userId, Delta delta, Update update) {}
+
+    public void merge(Long userId, Consumer<Delta> change) {
+        pending.compute(userId, (id, delta) -> {
+            Delta d = delta != null ? delta : new Delta();
+            change.accept(d);
+            d.lastActive = LocalDateTime.now();
+            return d;
+        });
+    }
+
+    public int pendingUsers() {
+        return pending.size();
+    }
+
+    /* =====================
+       FLUSHING
+       ===================== */
+
+    @Scheduled(fixedDelayString = "${eventora.interactions.flush-interval-ms:250}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Interaction flush failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        scheduledFlush();
+    }
+
+    public synchronized int flush() {
+        List<Write> first = new ArrayList<>();
+        List<Write> second = new ArrayList<>();
+        for (Long userId : pending.keySet()) {
+            Delta delta = pending.remove(userId);
+            if (delta == null) continue;
+            Delta followUp = splitFollowUp(delta);
+            first.add(new Write(userId, delta, toUpdate(userId, delta)));
+            if (followUp != null) second.add(new Write(userId, followUp, toFollowUpUpdate(followUp)));
+        }
+        if (first.isEmpty()) return 0;
+
+        Set<Long> failedUsers = write(first);
+        noteWritten(first, failedUsers);
+        // The follow-up of a user whose first round failed goes back with the rest of the delta.
+        // It is restored first: its ring pushes must win over the first round's pulls of the same values.
+        second.removeIf(w -> {
+            if (!failedUsers.contains(w.userId())) return false;
+            restore(w.userId(), w.delta());
+            return true;
+        });
+        restoreFailed(first, failedUsers);
+        restoreFailed(second, write(second));
+
+        log.debug("Flushed interaction updates for {} users", first.size());
+        return first.size();
+    }
+
+    /**
+     * Writes the given per-user deltas immediately, bypassing the pending buffer, and returns the
+     * users whose update was not applied. Used by callers that must know the outcome before
+     * acknowledging their source (the outbox relay). The follow-up round of users that did
+     * get written is retried through the buffer if it fails.
+     */
+    public Set<Long> writeNow(Map<Long, Delta> deltas) {
+        List<Write> first = new ArrayList<>(deltas.size());
+        List<Write> second = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((userId, delta) -> {
+            if (delta.lastActive == null) delta.lastActive = now;
+            Delta followUp = splitFollowUp(delta);
+            first.add(new Write(userId, delta, toUpdate(userId, delta)));
+            if (followUp != null) second.add(new Write(userId, followUp, toFollowUpUpdate(followUp)));
+        });
+        if (first.isEmpty()) return Set.of();
+
+        Set<Long> failedUsers = write(first);
+        noteWritten(first, failedUsers);
+        second.removeIf(w -> failedUsers.contains(w.userId()));
+        restoreFailed(second, write(second));
+        return failedUsers;
+    }
+
+    /**
+     * Moves the second-round changes out of the delta and returns them separately: pulls on
+     * plain sets that also have adds, and the pushes of capped rings (whose first round
+     * pulls every touched value).
+     */
+    private static Delta splitFollowUp(Delta delta) {
+        Delta followUp = null;
+        for (Map.Entry<String, Map<Long, Boolean>> entry : delta.membership.entrySet()) {
+            String path = entry.getKey();
+            Map<Long, Boolean> values = entry.getValue();
+            Integer cap = delta.ringCaps.get(path);
+            if (cap != null) {
+                if (!values.containsValue(true)) continue;
+                if (followUp == null) followUp = new Delta();
+                for (Map.Entry<Long, Boolean> value : values.entrySet()) {
+                    if (value.getValue()) followUp.pushCapped(path, value.getKey(), cap);
+                    // the first round pulls every touched value of the ring
+                    value.setValue(false);
+                }
+                continue;
+            }
+            if (!values.containsValue(true) || !values.containsValue(false)) continue;
+            if (followUp == null) followUp = new Delta();
+            Iterator<Map.Entry<Long, Boolean>> it = values.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Long, Boolean> value = it.next();
+                if (!value.getValue()) {
+                    followUp.pull(path, value.getKey());
+                    it.remove();
+                }
+            }
+        }
+        return followUp;
+    }
+
+    private static Update toUpdate(Long userId, Delta delta) {
+        Update update = new Update().setOnInsert("userId", userId);
+        if (delta.lastActive != null) update.set("lastActive", delta.lastActive);
+        delta.increments.forEach((path, by) -> {
+            if (by != 0.0) update.inc(path, by);
+        });
+        delta.membership.forEach((path, values) -> {
+            List<Long> adds = new ArrayList<>();
+            List<Long> pulls = new ArrayList<>();
+            values.forEach((value, add) -> (add ? adds : pulls).add(value));
+            if (!adds.isEmpty()) update.addToSet(path).each(adds.toArray());
+            if (!pulls.isEmpty()) update.pullAll(path, pulls.toArray());
+        });
+        return update;
+    }
+
+    private static Update toFollowUpUpdate(Delta followUp) {
+        Update update = new Update();
+        followUp.membership.forEach((path, values) -> {
+            Integer cap = followUp.ringCaps.get(path);
+            if (cap != null) {
+                update.push(path).slice(-cap).each(values.keySet().toArray());
+            } else {
+                update.pullAll(path, values.keySet().toArray());
+            }
+        });
+        return update;
+    }
+
+    /**
+     * Writes the batch as unordered bulk upserts; returns the users whose write failed.
+     */
+    private Set<Long> write(List<Write> writes) {
+        Set<Long> failedUsers = new HashSet<>();
+        for (int from = 0; from < writes.size(); from += MAX_BULK_SIZE) {
+            List<Write> chunk = writes.subList(from, Math.min(from + MAX_BULK_SIZE, writes.size()));
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserInteraction.class);
+            for (Write w : chunk) {
+                bulk.upsert(Query.query(Criteria.where("userId").is(w.userId())), w.update());
+            }
+            try {
+                bulk.execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError error : e.getErrors()) failedUsers.add(chunk.get(error.getIndex()).userId());
+            } catch (RuntimeException e) {
+                if (e.getCause() instanceof MongoBulkWriteException mbe) {
+                    for (BulkWriteError error : mbe.getWriteErrors()) failedUsers.add(chunk.get(error.getIndex()).userId());
+                } else {
+                    chunk.forEach(w -> failedUsers.add(w.userId()));
+                }
+                log.warn("Interaction bulk write failed: {}", e.getMessage());
+            }
+        }
+        return failedUsers;
+    }
+
+    // Cached profiles are dropped once the write is visible; users whose bounded
+    // affinity maps may have grown get trimmed by the compactor
+    private void noteWritten(List<Write> writes, Set<Long> failedUsers) {
+        for (Write w : writes) {
+            if (failedUsers.contains(w.userId())) continue;
+            if (!w.delta().onlyTouches(UNCACHED_PATHS)) profileCache.invalidate(w.userId());
+            if (w.delta().touchesAny(UserProfileCompactor.TRIMMED_PATH_PREFIXES)) {
+                profileCompactor.markDirty(w.userId());
+            }
+        }
+    }
+
+    // A failed upsert (e.g. duplicate key from another node's insert) is retried as an update next time
+    private void restoreFailed(List<Write> writes, Set<Long> failedUsers) {
+        if (failedUsers.isEmpty()) return;
+        for (Write w : writes) {
+            if (failedUsers.contains(w.userId())) restore(w.userId(), w.delta());
+        }
+    }
+
+    private void restore(Long userId, Delta delta) {
+        pending.compute(userId, (id, current) -> {
+            if (current == null) return delta;
+            current.mergeFrom(delta);
+            return current;
+        });
+    }
+}
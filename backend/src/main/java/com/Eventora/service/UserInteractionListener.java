@@ -1,37 +1,82 @@
 package com.Eventora.service;
 
-import com.Eventora.entity.Event;
-import com.Eventora.repository.EventRepository;
-import com.Eventora.entity.UserInteraction;
+import com.Eventora.Utils.SingleFlight;
+import com.Eventora.Utils.StripedLocks;
 import com.Eventora.entity.enums.InteractionType;
 import com.Eventora.dto.UserInteractionEvent;
-import com.Eventora.repository.UserInteractionRepository;
-import com.Eventora.service.UserInteractionService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.locks.ReentrantLock;
+
 @Component
 @RequiredArgsConstructor
 public class UserInteractionListener {
 
-    private final UserInteractionRepository interactionRepository;
-    private final EventRepository eventRepository;
+    private final EventFeatureCache eventFeatures;
     private final UserInteractionService interactionService;
+    private final SingleFlightRegistry singleFlights;
+    private final InteractionPipeline pipeline;
+    private final InteractionOwnership ownership;
+    private final InteractionForwarder forwarder;
+
+    private final RepeatSignalFilter repeats;
+    private final TrendingLeaderboard trending;
+
+    // Serializes one user's interactions between pipeline workers and caller-runs threads
+    private final StripedLocks userLocks = new StripedLocks(256);
+
+    // A burst of interactions on an event this node has not cached yet shares one fetch
+    private SingleFlight<Long, EventFeatureCache.EventFeatures> eventLoads;
 
-    @Async
+    @PostConstruct
+    void init() {
+        eventLoads = singleFlights.create("interaction-event");
+        pipeline.start(this::handleInteraction);
+    }
+
+    // Request threads only enqueue; the Mongo write happens on a pipeline worker of the owning node
     @EventListener
+    public void onInteraction(UserInteractionEvent event) {
+        // Re-views / re-listings within the window would only repeat the same increments
+        if (repeats.isRepeat(event)) return;
+        trending.onInteraction(event);
+
+        String owner = ownership.ownerOf(event.userId());
+        if (owner == null) {
+            pipeline.submit(event);
+        } else {
+            forwarder.forward(owner, event);
+        }
+    }
+
     public void handleInteraction(UserInteractionEvent event) {
+        ReentrantLock lock = userLocks.forKey(event.userId());
+        lock.lock();
+        try {
+            apply(event);
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        Event ev = eventRepository.findById(event.eventId())
-                .orElseThrow(() -> new RuntimeException("Event not found"));
+    private void apply(UserInteractionEvent event) {
+        if (event.type() == InteractionType.IMPRESSION) {
+            // Cheap path: one capped ring push, no event lookup, no affinity increments
+            interactionService.recordListed(event.userId(), event.eventId());
+            return;
+        }
 
-        if (event.type() == InteractionType.UNREGISTER_EVENT) {
-            interactionService.removeInteractionAtomic(event.userId(), ev, event.type());
-        } else {
-            interactionService.applyInteractionAtomic(event.userId(), ev, event.type());
+        EventFeatureCache.EventFeatures ev = eventFeatures.get(event.eventId());
+        if (ev == null) {
+            ev = eventLoads.execute(event.eventId(), () -> eventFeatures.load(event.eventId()));
         }
+        if (ev == null) throw new RuntimeException("Event not found");
+
+        // Undo signals only travel through the outbox, which knows when the undone interaction happened
+        interactionService.applyInteraction(event.userId(), ev, event.type());
     }
 
 }
@@ -1,63 +1,55 @@
 package com.Eventora.service;
 
+import com.Eventora.Utils.AffinityDecay;
 import com.Eventora.Utils.ApplicationContextUtils;
 import com.Eventora.Utils.EventUtils;
 import com.Eventora.dto.EventTemplate;
-import com.Eventora.dto.UserInteractionEvent;
 import com.Eventora.entity.AppUser;
 import com.Eventora.entity.Event;
 import com.Eventora.entity.EventWatchlist;
 import com.Eventora.entity.UserInteraction;
+import com.Eventora.entity.enums.EventCategory;
 import com.Eventora.entity.enums.InteractionType;
 import com.Eventora.repository.EventRepository;
 import com.Eventora.repository.EventWatchlistRepository;
-import com.Eventora.repository.UserInteractionRepository;
-import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.mongodb.core.FindAndModifyOptions;
-import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.query.Criteria;
-import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class UserInteractionService {
 
-    private final UserInteractionRepository userInteractionRepository;
     private final EventWatchlistRepository eventWatchlistRepository;
     private final EventRepository eventRepository;
     private final EventUtils eventUtils;
     private final ApplicationContextUtils applicationContextUtils;
-    private final ApplicationEventPublisher publisher;
-    private final MongoTemplate mongoTemplate;
 
-    // Per-userId lock objects.
-    // Ensures that concurrent @Async events for the SAME user are serialised
-    // before they hit MongoDB, preventing the upsert race that creates duplicates.
-    // Different users never contend with each other.
-    private final ConcurrentHashMap<Long, Object> userLocks = new ConcurrentHashMap<>();
+    // Merges per-user updates and writes them in unordered bulks; one upsert per user
+    // per flush also rules out the duplicate-insert race the old per-user locks guarded against.
+    private final UserInteractionCoalescer interactionCoalescer;
+    private final EventFeatureCache eventFeatures;
+    private final InteractionOutboxService interactionOutbox;
+    private final UserProfileCache profileCache;
 
     public UserInteractionService(
-            MongoTemplate mongoTemplate,
-            ApplicationEventPublisher publisher,
-            UserInteractionRepository userInteractionRepository,
+            UserInteractionCoalescer interactionCoalescer,
+            EventFeatureCache eventFeatures,
+            InteractionOutboxService interactionOutbox,
+            UserProfileCache profileCache,
             EventWatchlistRepository eventWatchlistRepository,
             EventRepository eventRepository,
             EventUtils eventUtils,
             ApplicationContextUtils applicationContextUtils
     ) {
-        this.userInteractionRepository = userInteractionRepository;
         this.eventWatchlistRepository = eventWatchlistRepository;
         this.applicationContextUtils = applicationContextUtils;
         this.eventRepository = eventRepository;
         this.eventUtils = eventUtils;
-        this.publisher = publisher;
-        this.mongoTemplate = mongoTemplate;
+        this.interactionCoalescer = interactionCoalescer;
+        this.eventFeatures = eventFeatures;
+        this.interactionOutbox = interactionOutbox;
+        this.profileCache = profileCache;
     }
 
     public List<EventTemplate> getLikedEvents() {
@@ -65,6 +57,7 @@ public class UserInteractionService {
         return events.stream().map(event -> eventUtils.mapToEventTemplate(event, true)).toList();
     }
 
+    @Transactional
     public void createLikedEvent(Long eventId) {
         AppUser appUser = applicationContextUtils.getLoggedUser();
 
@@ -72,13 +65,8 @@ public class UserInteractionService {
                 .event(Event.builder().id(eventId).build())
                 .user(appUser)
                 .build();
-        eventWatchlistRepository.save(eventWatchlist);
-        publisher.publishEvent(new UserInteractionEvent(
-                applicationContextUtils.getLoggedUser().getId(),
-                eventId,
-                InteractionType.LIKE_EVENT,
-                Map.of()
-        ));
+        eventWatchlist = eventWatchlistRepository.save(eventWatchlist);
+        interactionOutbox.record(appUser.getId(), eventId, InteractionType.LIKE_EVENT, eventWatchlist.getLikedAt());
     }
 
     public void deleteLikedEvent(Long eventId) {
@@ -91,95 +79,129 @@ public class UserInteractionService {
         return eventWatchlistRepository.getLikedEventsIdsByUser(appUser.getId());
     }
 
-    public void applyInteractionAtomic(
+    /**
+     * Queues the affinity / history changes of an interaction; they reach MongoDB
+     * with the next coalesced bulk flush.
+     */
+    public void applyInteraction(
             Long userId,
-            Event event,
+            EventFeatureCache.EventFeatures event,
             InteractionType type
     ) {
-        // Acquire a per-user lock so that two @Async threads for the same userId
-        // never both see "no document exists" and both attempt an upsert-insert.
-        Object lock = userLocks.computeIfAbsent(userId, k -> new Object());
-        synchronized (lock) {
-
-            Query query = Query.query(Criteria.where("userId").is(userId));
-
-            // Only setOnInsert the scalar userId.
-            // $inc on dotted paths (e.g. "categoryAffinity.EDUCATION") auto-creates
-            // the parent map and sub-key if missing — no explicit initialisation needed,
-            // and adding one would re-introduce the ConflictingUpdateOperators error.
-            Update update = new Update()
-                    .setOnInsert("userId", userId)
-                    .set("lastActive", LocalDateTime.now());
-
-            switch (type) {
-
-                case VIEW_EVENT -> {
-                    // viewedEvents is a Set<Long> in the entity, so $addToSet is correct.
-                    update.addToSet("viewedEvents", event.getId());
-                    update.inc("categoryAffinity." + event.getEventCategory(), 1);
-                    update.inc("cityAffinity." + event.getCity(), 1);
-
-                    for (String tag : event.getTags()) {
-                        update.inc("tagAffinity." + tag, 1);
-                    }
-                }
+        interactionCoalescer.merge(userId, delta -> applyTo(delta, event, type));
+    }
 
-                case LIKE_EVENT -> {
-                    update.addToSet("likedEvents", event.getId());
-                    update.inc("categoryAffinity." + event.getEventCategory(), 5);
-                }
+    /**
+     * Adds the changes of an interaction happening now to a pending per-user delta.
+     */
+    public void applyTo(
+            UserInteractionCoalescer.Delta delta,
+            EventFeatureCache.EventFeatures event,
+            InteractionType type
+    ) {
+        applyPoints(delta, event, type, AffinityDecay.boost(1));
+    }
 
-                case REGISTER_EVENT -> {
-                    update.addToSet("registeredEvents", event.getId());
-                    update.inc("categoryAffinity." + event.getEventCategory(), 8);
-                }
+    /**
+     * Adds the changes of an interaction that happened at the given epoch second (outbox rows).
+     */
+    public void applyTo(
+            UserInteractionCoalescer.Delta delta,
+            EventFeatureCache.EventFeatures event,
+            InteractionType type,
+            long occurredAt
+    ) {
+        applyPoints(delta, event, type, AffinityDecay.boostAt(1, occurredAt));
+    }
+
+    private void applyPoints(
+            UserInteractionCoalescer.Delta delta,
+            EventFeatureCache.EventFeatures event,
+            InteractionType type,
+            double point
+    ) {
+        String categoryPath = categoryPath(event);
+
+        // $inc on dotted paths (e.g. "categoryAffinity.EDUCATION") auto-creates
+        // the parent map and sub-key if missing, so no initialisation is needed.
+        switch (type) {
 
-                case CHECK_IN -> {
-                    update.inc("categoryAffinity." + event.getEventCategory(), 12);
+            case VIEW_EVENT -> {
+                delta.pushCapped("viewedEvents", event.eventId(), UserInteraction.MAX_VIEWED_EVENTS);
+                if (categoryPath != null) delta.inc(categoryPath, point);
+
+                String city = eventFeatures.city(event);
+                if (city != null) delta.inc("cityAffinity." + city, point);
+
+                for (int tagId : event.tagIds()) {
+                    delta.inc("tagAffinity." + eventFeatures.tag(tagId), point);
                 }
             }
 
-            mongoTemplate.findAndModify(
-                    query,
-                    update,
-                    FindAndModifyOptions.options().upsert(true),
-                    UserInteraction.class
-            );
+            case LIKE_EVENT -> {
+                delta.pushCapped("likedEvents", event.eventId(), UserInteraction.MAX_LIKED_EVENTS);
+                if (categoryPath != null) delta.inc(categoryPath, 5 * point);
+            }
+
+            case REGISTER_EVENT -> {
+                delta.pushCapped("registeredEvents", event.eventId(), UserInteraction.MAX_REGISTERED_EVENTS);
+                if (categoryPath != null) delta.inc(categoryPath, 8 * point);
+            }
+
+            case CHECK_IN -> {
+                if (categoryPath != null) delta.inc(categoryPath, 12 * point);
+            }
         }
     }
 
-    public void removeInteractionAtomic(
-            Long userId,
-            Event event,
-            InteractionType type
+    /**
+     * Takes back an interaction that happened at the given epoch second. Points are removed
+     * at the weight they were added with, so later credit in the category is left intact.
+     */
+    public void removeFrom(
+            UserInteractionCoalescer.Delta delta,
+            EventFeatureCache.EventFeatures event,
+            InteractionType type,
+            long occurredAt
     ) {
-        Object lock = userLocks.computeIfAbsent(userId, k -> new Object());
-        synchronized (lock) {
+        String categoryPath = categoryPath(event);
+        double point = AffinityDecay.boostAt(1, occurredAt);
 
-            Query query = Query.query(Criteria.where("userId").is(userId));
+        switch (type) {
 
-            Update update = new Update()
-                    .set("lastActive", LocalDateTime.now());
+            case LIKE_EVENT -> {
+                delta.pull("likedEvents", event.eventId());
+                if (categoryPath != null) delta.inc(categoryPath, -5 * point);
+            }
 
-            switch (type) {
+            case UNREGISTER_EVENT -> {
+                delta.pull("registeredEvents", event.eventId());
+                if (categoryPath != null) delta.inc(categoryPath, -8 * point);
+            }
+        }
+    }
 
-                case LIKE_EVENT -> {
-                    update.pull("likedEvents", event.getId());
-                    update.inc("categoryAffinity." + event.getEventCategory(), -5);
-                }
+    /**
+     * Records the events a recommendation response showed, in the capped shownEvents ring
+     * (written through to the cached profile).
+     */
+    public void recordShown(Long userId, List<Long> eventIds) {
+        if (eventIds.isEmpty()) return;
+        profileCache.recordShown(userId, eventIds);
+        interactionCoalescer.merge(userId, delta ->
+                eventIds.forEach(id -> delta.pushCapped("shownEvents", id, UserInteraction.MAX_SHOWN_EVENTS)));
+    }
 
-                case UNREGISTER_EVENT -> {
-                    update.pull("registeredEvents", event.getId());
-                    update.inc("categoryAffinity." + event.getEventCategory(), -8);
-                }
-            }
+    /**
+     * Records an event the user saw in a listing, in the capped listedEvents ring.
+     */
+    public void recordListed(Long userId, Long eventId) {
+        interactionCoalescer.merge(userId, delta ->
+                delta.pushCapped("listedEvents", eventId, UserInteraction.MAX_LISTED_EVENTS));
+    }
 
-            mongoTemplate.findAndModify(
-                    query,
-                    update,
-                    FindAndModifyOptions.options().upsert(true),
-                    UserInteraction.class
-            );
-        }
+    private String categoryPath(EventFeatureCache.EventFeatures event) {
+        EventCategory category = eventFeatures.category(event);
+        return category == null ? null : "categoryAffinity." + category;
     }
-}
\ No newline at end of file
+}
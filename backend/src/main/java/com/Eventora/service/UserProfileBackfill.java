@@ -0,0 +1,419 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.AffinityDecay;
+import com.Eventora.entity.InteractionOutbox;
+import com.Eventora.entity.ProfileBackfillCheckpoint;
+import com.Eventora.entity.UserInteraction;
+import com.Eventora.entity.enums.EventCategory;
+import com.Eventora.projection.ProfileSourceProjection;
+import com.Eventora.repository.InteractionOutboxRepository;
+import com.Eventora.repository.RegistrationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds the durable part of the user_interactions profiles from Postgres: category
+ * affinities, likedEvents and registeredEvents, from event_registrations (including
+ * check-ins) and event_watchlist.
+ *
+ * One reader streams both tables merged in user-id order through a server-side cursor and
+ * cuts the stream into chunks of whole users. Each chunk is computed on a fork-join pool
+ * (split by user range) and written with parallel unordered bulk upserts, while the
+ * reader moves on. The checkpoint only advances past a chunk once it and every earlier
+ * chunk are written, so a resumed run never skips users.
+ *
+ * View-derived data (viewedEvents, listedEvents, tag / city affinities, shownEvents) cannot be recomputed
+ * and is left as is; categoryAffinity is replaced, so view contributions to it are dropped.
+ *
+ * The interaction outbox is read in the same snapshot as the sources. While a run holds a
+ * fresh RUNNING checkpoint the relays on every node pause, so no profile is updated behind
+ * the rebuild; before the checkpoint leaves RUNNING, the snapshot's outbox rows of the
+ * users that were rewritten are deleted, as the rebuild already counted them.
+ */
+@Slf4j
+@Component
+public class UserProfileBackfill {
+
+    static final String JOB_ID = "user-profiles";
+
+    private static final int SPLIT_THRESHOLD = 256;
+    private static final int MAX_BULK_SIZE = 1000;
+    private static final EventCategory[] CATEGORIES = EventCategory.values();
+
+    private final RegistrationRepository registrationRepository;
+    private final InteractionOutboxRepository outboxRepository;
+    private final MongoTemplate mongoTemplate;
+    private final EventFeatureCache eventFeatures;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final long leaseMs;
+    private final boolean runOnStartup;
+    private final int chunkUsers;
+    private final int parallelism;
+    private final int writers;
+    private final int maxInFlight;
+
+    private volatile boolean running = false;
+    private volatile boolean cancelled = false;
+
+    // Signal kinds, decoded once from the row's kind string
+    private static final byte LIKED = 0, REGISTERED = 1, CHECKED_IN = 2, IGNORED = 3;
+
+    private record Signal(long eventId, byte kind, long occurredAt, long checkedInAt) {}
+
+    private record UserSignals(long userId, List<Signal> signals) {}
+
+    private record Chunk(long lastUserId, long rows, Future<Integer> written) {}
+
+    public UserProfileBackfill(RegistrationRepository registrationRepository,
+                               InteractionOutboxRepository outboxRepository,
+                               MongoTemplate mongoTemplate,
+                               EventFeatureCache eventFeatures,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${eventora.profiles.backfill.run-on-startup:false}") boolean runOnStartup,
+                               @Value("${eventora.profiles.backfill.chunk-users:5000}") int chunkUsers,
+                               @Value("${eventora.profiles.backfill.parallelism:0}") int parallelism,
+                               @Value("${eventora.profiles.backfill.writers:8}") int writers,
+                               @Value("${eventora.profiles.backfill.max-in-flight-chunks:4}") int maxInFlight,
+                               @Value("${eventora.profiles.backfill.lease-ms:600000}") long leaseMs) {
+        this.registrationRepository = registrationRepository;
+        this.outboxRepository = outboxRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.eventFeatures = eventFeatures;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        // One snapshot for the outbox and the sources
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.leaseMs = leaseMs;
+        this.runOnStartup = runOnStartup;
+        this.chunkUsers = chunkUsers;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.writers = writers;
+        this.maxInFlight = maxInFlight;
+    }
+
+    // Maintenance runs: start one node with eventora.profiles.backfill.run-on-startup=true
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (runOnStartup) start(true);
+    }
+
+    /**
+     * Starts a rebuild in the background; false if one is already running on this node.
+     *
+     * @param resume continue after the last checkpoint instead of starting from the first user
+     */
+    public synchronized boolean start(boolean resume) {
+        if (running) return false;
+        running = true;
+        cancelled = false;
+        Thread runner = new Thread(() -> {
+            try {
+                run(resume);
+            } finally {
+                running = false;
+            }
+        }, "profile-backfill");
+        runner.setDaemon(true);
+        runner.start();
+        return true;
+    }
+
+    @PreDestroy
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Whether a run on this or another node holds the profiles; its checkpoint is saved at
+     * least once per chunk, so a RUNNING checkpoint older than the lease is a dead run.
+     */
+    public boolean isRunningAnywhere() {
+        if (running) return true;
+        ProfileBackfillCheckpoint cp = checkpoint();
+        return cp != null && "RUNNING".equals(cp.getState()) && cp.getUpdatedAt() != null
+                && cp.getUpdatedAt().isAfter(LocalDateTime.now().minusNanos(leaseMs * 1_000_000L));
+    }
+
+    public ProfileBackfillCheckpoint checkpoint() {
+        return mongoTemplate.findById(JOB_ID, ProfileBackfillCheckpoint.class);
+    }
+
+    /* =====================
+       RUN
+       ===================== */
+
+    private void run(boolean resume) {
+        ProfileBackfillCheckpoint previous = resume ? checkpoint() : null;
+        boolean continuing = previous != null && !"COMPLETED".equals(previous.getState()) && previous.getLastUserId() != null;
+        ProfileBackfillCheckpoint cp = ProfileBackfillCheckpoint.builder()
+                .id(JOB_ID)
+                .state("RUNNING")
+                .lastUserId(continuing ? previous.getLastUserId() : 0L)
+                .usersWritten(continuing ? previous.getUsersWritten() : 0)
+                .rowsRead(continuing ? previous.getRowsRead() : 0)
+                .startedAt(continuing ? previous.getStartedAt() : LocalDateTime.now())
+                .build();
+        saveCheckpoint(cp);
+        log.info("Profile backfill starting after user {} ({} users already written)", cp.getLastUserId(), cp.getUsersWritten());
+
+        ForkJoinPool computePool = new ForkJoinPool(parallelism);
+        ExecutorService writePool = Executors.newFixedThreadPool(writers);
+        ExecutorService chunkPool = Executors.newFixedThreadPool(maxInFlight);
+        long startNanos = System.nanoTime();
+        long usersAtStart = cp.getUsersWritten();
+        long startAfterUserId = cp.getLastUserId();
+        List<InteractionOutbox> counted = new ArrayList<>();
+        try {
+            readTransaction.executeWithoutResult(status -> {
+                counted.addAll(outboxRepository.findAll());
+                try (Stream<ProfileSourceProjection> rows = registrationRepository.streamProfileSourcesAfter(cp.getLastUserId())) {
+                    Deque<Chunk> inFlight = new ArrayDeque<>();
+                    List<UserSignals> users = new ArrayList<>(chunkUsers);
+                    UserSignals current = null;
+                    long chunkRows = 0;
+
+                    Iterator<ProfileSourceProjection> it = rows.iterator();
+                    while (it.hasNext() && !cancelled) {
+                        ProfileSourceProjection row = it.next();
+                        if (current == null || current.userId() != row.getUserId()) {
+                            if (current != null) users.add(current);
+                            if (users.size() >= chunkUsers) {
+                                dispatch(users, chunkRows, inFlight, computePool, writePool, chunkPool, cp, startNanos, usersAtStart);
+                                users = new ArrayList<>(chunkUsers);
+                                chunkRows = 0;
+                            }
+                            current = new UserSignals(row.getUserId(), new ArrayList<>(4));
+                        }
+                        current.signals().add(toSignal(row));
+                        chunkRows++;
+                    }
+                    if (cancelled) throw new CancellationException("Profile backfill cancelled");
+                    if (current != null) users.add(current);
+                    if (!users.isEmpty()) {
+                        dispatch(users, chunkRows, inFlight, computePool, writePool, chunkPool, cp, startNanos, usersAtStart);
+                    }
+                    while (!inFlight.isEmpty()) complete(inFlight.poll(), cp, startNanos, usersAtStart);
+                }
+            });
+            discardCounted(counted, startAfterUserId, cp.getLastUserId());
+            cp.setState("COMPLETED");
+            saveCheckpoint(cp);
+            log.info("Profile backfill completed: {} users, {} rows in {} s", cp.getUsersWritten(), cp.getRowsRead(),
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos));
+        } catch (Exception e) {
+            discardCounted(counted, startAfterUserId, cp.getLastUserId());
+            cp.setState("FAILED");
+            cp.setError(e.getMessage());
+            saveCheckpoint(cp);
+            log.error("Profile backfill stopped at user {}: {}", cp.getLastUserId(), e.getMessage());
+        } finally {
+            chunkPool.shutdownNow();
+            writePool.shutdownNow();
+            computePool.shutdownNow();
+        }
+    }
+
+    private void dispatch(List<UserSignals> users, long rows, Deque<Chunk> inFlight,
+                          ForkJoinPool computePool, ExecutorService writePool, ExecutorService chunkPool,
+                          ProfileBackfillCheckpoint cp, long startNanos, long usersAtStart) {
+        // Bound memory: wait for the oldest chunk before reading further ahead
+        while (inFlight.size() >= maxInFlight) complete(inFlight.poll(), cp, startNanos, usersAtStart);
+
+        long lastUserId = users.get(users.size() - 1).userId();
+        Future<Integer> written = chunkPool.submit(() -> {
+            Update[] updates = new Update[users.size()];
+            computePool.invoke(new BuildTask(users, updates, 0, users.size()));
+            return write(users, updates, writePool);
+        });
+        inFlight.add(new Chunk(lastUserId, rows, written));
+    }
+
+    // Chunks complete in order, so the checkpoint never passes an unwritten user
+    private void complete(Chunk chunk, ProfileBackfillCheckpoint cp, long startNanos, long usersAtStart) {
+        int users;
+        try {
+            users = chunk.written().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Profile backfill interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Chunk ending at user " + chunk.lastUserId() + " failed: "
+                    + e.getCause().getMessage(), e.getCause());
+        }
+        cp.setLastUserId(chunk.lastUserId());
+        cp.setUsersWritten(cp.getUsersWritten() + users);
+        cp.setRowsRead(cp.getRowsRead() + chunk.rows());
+        saveCheckpoint(cp);
+
+        double seconds = Math.max(1e-3, (System.nanoTime() - startNanos) / 1e9);
+        log.info("Profile backfill: {} users ({} rows) written, {} users/s, checkpoint user {}",
+                cp.getUsersWritten(), cp.getRowsRead(),
+                Math.round((cp.getUsersWritten() - usersAtStart) / seconds), cp.getLastUserId());
+    }
+
+    // Outbox rows of the rewritten users (after fromUserId, up to toUserId) are in their new profiles
+    private void discardCounted(List<InteractionOutbox> counted, long fromUserId, long toUserId) {
+        List<Long> ids = new ArrayList<>();
+        for (InteractionOutbox row : counted) {
+            if (row.getUserId() > fromUserId && row.getUserId() <= toUserId) ids.add(row.getId());
+        }
+        if (ids.isEmpty()) return;
+        try {
+            writeTransaction.executeWithoutResult(status -> outboxRepository.deleteByIdIn(ids));
+            log.info("Profile backfill discarded {} outbox rows it already counted", ids.size());
+        } catch (Exception e) {
+            log.error("Profile backfill could not discard {} counted outbox rows: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    private void saveCheckpoint(ProfileBackfillCheckpoint cp) {
+        cp.setUpdatedAt(LocalDateTime.now());
+        mongoTemplate.save(cp);
+    }
+
+    /* =====================
+       COMPUTE
+       ===================== */
+
+    // Splits a chunk by user range down to SPLIT_THRESHOLD users per leaf
+    // Serializable only through RecursiveAction; never actually serialized
+    private final class BuildTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<UserSignals> users;
+        private final transient Update[] updates;
+        private final int from;
+        private final int to;
+
+        BuildTask(List<UserSignals> users, Update[] updates, int from, int to) {
+            this.users = users;
+            this.updates = updates;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) updates[i] = toUpdate(users.get(i));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BuildTask(users, updates, from, mid), new BuildTask(users, updates, mid, to));
+        }
+    }
+
+    // Same weights as UserInteractionService.applyTo, decayed from when each signal happened
+    private Update toUpdate(UserSignals user) {
+        List<Signal> signals = user.signals();
+        signals.sort(Comparator.comparingLong(Signal::occurredAt));
+
+        double[] categories = new double[CATEGORIES.length];
+        LinkedHashSet<Long> liked = new LinkedHashSet<>();
+        LinkedHashSet<Long> registered = new LinkedHashSet<>();
+        long lastActive = Long.MIN_VALUE;
+
+        for (Signal s : signals) {
+            if (s.kind() == IGNORED) continue;
+            EventFeatureCache.EventFeatures features = eventFeatures.get(s.eventId());
+            if (features == null) continue; // event deleted
+            EventCategory category = eventFeatures.category(features);
+            int c = category == null ? -1 : category.ordinal();
+
+            switch (s.kind()) {
+                case LIKED -> {
+                    liked.add(s.eventId());
+                    if (c >= 0) categories[c] += AffinityDecay.boostAt(5, s.occurredAt());
+                }
+                case REGISTERED, CHECKED_IN -> {
+                    registered.add(s.eventId());
+                    if (c >= 0) categories[c] += AffinityDecay.boostAt(8, s.occurredAt());
+                    if (s.kind() == CHECKED_IN && c >= 0) categories[c] += AffinityDecay.boostAt(12, s.checkedInAt());
+                }
+            }
+            lastActive = Math.max(lastActive, Math.max(s.occurredAt(), s.checkedInAt()));
+        }
+
+        Map<String, Double> categoryAffinity = new LinkedHashMap<>();
+        for (int c = 0; c < categories.length; c++) {
+            if (categories[c] != 0.0) categoryAffinity.put(CATEGORIES[c].name(), categories[c]);
+        }
+        Update update = new Update()
+                .setOnInsert("userId", user.userId())
+                .set("categoryAffinity", categoryAffinity)
+                .set("likedEvents", newest(liked, UserInteraction.MAX_LIKED_EVENTS))
+                .set("registeredEvents", newest(registered, UserInteraction.MAX_REGISTERED_EVENTS));
+        if (lastActive != Long.MIN_VALUE) {
+            update.max("lastActive", LocalDateTime.ofEpochSecond(lastActive, 0, ZoneOffset.UTC));
+        }
+        return update;
+    }
+
+    private static List<Long> newest(LinkedHashSet<Long> ids, int cap) {
+        List<Long> all = new ArrayList<>(ids);
+        return all.size() <= cap ? all : new ArrayList<>(all.subList(all.size() - cap, all.size()));
+    }
+
+    private static Signal toSignal(ProfileSourceProjection row) {
+        byte kind = switch (row.getKind()) {
+            case "LIKED" -> LIKED;
+            case "REGISTERED", "MISSED" -> REGISTERED;
+            case "CHECKED_IN" -> CHECKED_IN;
+            default -> IGNORED; // CANCELLED, WAITLISTED, NONE
+        };
+        long occurredAt = row.getOccurredAt() == null ? 0 : row.getOccurredAt().toEpochSecond(ZoneOffset.UTC);
+        long checkedInAt = row.getCheckedInAt() == null ? occurredAt : row.getCheckedInAt().toEpochSecond(ZoneOffset.UTC);
+        return new Signal(row.getEventId(), kind, occurredAt, checkedInAt);
+    }
+
+    /* =====================
+       WRITE
+       ===================== */
+
+    private int write(List<UserSignals> users, Update[] updates, ExecutorService writePool) throws Exception {
+        List<Future<?>> bulks = new ArrayList<>();
+        for (int from = 0; from < users.size(); from += MAX_BULK_SIZE) {
+            int start = from;
+            int end = Math.min(from + MAX_BULK_SIZE, users.size());
+            bulks.add(writePool.submit(() -> {
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserInteraction.class);
+                for (int i = start; i < end; i++) {
+                    bulk.upsert(Query.query(Criteria.where("userId").is(users.get(i).userId())), updates[i]);
+                }
+                bulk.execute();
+            }));
+        }
+        for (Future<?> bulk : bulks) {
+            try {
+                bulk.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+        return users.size();
+    }
+}
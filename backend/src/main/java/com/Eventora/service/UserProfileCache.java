@@ -0,0 +1,332 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.SingleFlight;
+import com.Eventora.entity.UserInteraction;
+import com.Eventora.entity.enums.EventCategory;
+import com.Eventora.repository.UserInteractionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Per-node read-through cache of the recommendation profile of recently active users.
+ *
+ * Profiles are held in a primitive form: category scores in a double[] indexed by
+ * ordinal, event-id sets as sorted long[] (binary search), and tag / city scores as
+ * sorted int keys (the {@link EventFeatureCache} dictionary ids) with parallel values.
+ * Entries are invalidated once an interaction for the user has been written to MongoDB;
+ * the TTL bounds staleness for writes made on other nodes. Shown events are written
+ * through, so feed refreshes do not invalidate their own profile.
+ *
+ * Hits take no lock: they only stamp the entry's last use. Eviction is approximate LRU,
+ * run in batches once the map overshoots max-entries by a sixteenth.
+ */
+@Component
+public class UserProfileCache {
+
+    private static final EventCategory[] CATEGORIES = EventCategory.values();
+
+    // Cached marker for users without a profile document
+    private static final Profile MISSING = new Profile(new double[CATEGORIES.length], ScoreTable.EMPTY, ScoreTable.EMPTY,
+            new long[0], new long[0], new long[0], new long[0], null, null);
+
+    private final UserInteractionRepository interactionRepository;
+    private final EventFeatureCache eventFeatures;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final SingleFlight<Long, Profile> loads;
+
+    private final int evictAbove;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>(256);
+
+    // Users with a load in flight, and whether an invalidation raced it (then it is not cached); guarded by "this"
+    private final Map<Long, Boolean> inFlightLoads = new HashMap<>();
+
+    // Affinity kinds passed to an AffinityVisitor
+    public static final int CATEGORY = 0, CITY = 1, TAG = 2;
+
+    public interface AffinityVisitor {
+        void accept(int kind, int id, double score);
+    }
+
+    private static final class Entry {
+        final Profile profile;
+        final long loadedAt;
+        // Approximate: concurrent hits may stamp out of order
+        volatile long lastUsed;
+
+        Entry(Profile profile, long loadedAt) {
+            this.profile = profile;
+            this.loadedAt = loadedAt;
+            this.lastUsed = loadedAt;
+        }
+    }
+
+    // Sorted int keys with parallel scores
+    private record ScoreTable(int[] keys, double[] scores) {
+        static final ScoreTable EMPTY = new ScoreTable(new int[0], new double[0]);
+
+        double get(int key) {
+            int i = Arrays.binarySearch(keys, key);
+            return i >= 0 ? scores[i] : 0.0;
+        }
+    }
+
+    public UserProfileCache(UserInteractionRepository interactionRepository,
+                            EventFeatureCache eventFeatures,
+                            SingleFlightRegistry singleFlights,
+                            @Value("${eventora.profile-cache.max-entries:50000}") int maxEntries,
+                            @Value("${eventora.profile-cache.ttl-ms:60000}") long ttlMs) {
+        this.interactionRepository = interactionRepository;
+        this.eventFeatures = eventFeatures;
+        this.maxEntries = maxEntries;
+        this.evictAbove = maxEntries + Math.max(1, maxEntries / 16);
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.loads = singleFlights.create("user-profile");
+    }
+
+    /**
+     * Immutable compact profile. Scores are stored (forward-decayed) values, clamped at 0.
+     */
+    public static final class Profile {
+        private final double[] categoryScores;
+        private final ScoreTable cities;
+        private final ScoreTable tags;
+        private final long[] liked;
+        private final long[] registered;
+        private final long[] shownSorted;
+        private final long[] shownOrdered; // oldest first, for the ring cap
+        private final Double minPreferredPrice;
+        private final Double maxPreferredPrice;
+
+        private Profile(double[] categoryScores, ScoreTable cities, ScoreTable tags,
+                        long[] liked, long[] registered, long[] shownSorted, long[] shownOrdered,
+                        Double minPreferredPrice, Double maxPreferredPrice) {
+            this.categoryScores = categoryScores;
+            this.cities = cities;
+            this.tags = tags;
+            this.liked = liked;
+            this.registered = registered;
+            this.shownSorted = shownSorted;
+            this.shownOrdered = shownOrdered;
+            this.minPreferredPrice = minPreferredPrice;
+            this.maxPreferredPrice = maxPreferredPrice;
+        }
+
+        public double categoryScore(EventCategory category) {
+            return category == null ? 0.0 : categoryScores[category.ordinal()];
+        }
+
+        public double cityScore(int cityId) {
+            return cities.get(cityId);
+        }
+
+        public double tagScore(int[] eventTagIds) {
+            return tagScore(eventTagIds, 0, eventTagIds.length);
+        }
+
+        public double tagScore(int[] tagIds, int from, int to) {
+            double sum = 0.0;
+            for (int i = from; i < to; i++) sum += tags.get(tagIds[i]);
+            return sum;
+        }
+
+        public boolean hasLiked(long eventId) {
+            return Arrays.binarySearch(liked, eventId) >= 0;
+        }
+
+        public boolean hasRegistered(long eventId) {
+            return Arrays.binarySearch(registered, eventId) >= 0;
+        }
+
+        public boolean isShown(long eventId) {
+            return Arrays.binarySearch(shownSorted, eventId) >= 0;
+        }
+
+        /**
+         * Visits every positive affinity (stored, forward-decayed value) by kind:
+         * {@link #CATEGORY} with the ordinal, {@link #CITY} / {@link #TAG} with the dictionary id.
+         */
+        public void forEachAffinity(AffinityVisitor visitor) {
+            for (int i = 0; i < categoryScores.length; i++) {
+                if (categoryScores[i] > 0.0) visitor.accept(CATEGORY, i, categoryScores[i]);
+            }
+            for (int i = 0; i < cities.keys().length; i++) visitor.accept(CITY, cities.keys()[i], cities.scores()[i]);
+            for (int i = 0; i < tags.keys().length; i++) visitor.accept(TAG, tags.keys()[i], tags.scores()[i]);
+        }
+
+        public long[] likedIds() {
+            return liked.clone();
+        }
+
+        public long[] registeredIds() {
+            return registered.clone();
+        }
+
+        public boolean isPriceMatch(double eventPrice) {
+            if (minPreferredPrice == null || maxPreferredPrice == null) return true;
+            return eventPrice >= minPreferredPrice && eventPrice <= maxPreferredPrice;
+        }
+
+        private Profile withShown(List<Long> eventIds) {
+            LinkedHashSet<Long> ring = new LinkedHashSet<>();
+            for (long id : shownOrdered) ring.add(id);
+            for (Long id : eventIds) {
+                ring.remove(id);
+                ring.add(id);
+            }
+            long[] ordered = ring.stream().mapToLong(Long::longValue).toArray();
+            if (ordered.length > UserInteraction.MAX_SHOWN_EVENTS) {
+                ordered = Arrays.copyOfRange(ordered, ordered.length - UserInteraction.MAX_SHOWN_EVENTS, ordered.length);
+            }
+            long[] sorted = ordered.clone();
+            Arrays.sort(sorted);
+            return new Profile(categoryScores, cities, tags, liked, registered,
+                    sorted, ordered, minPreferredPrice, maxPreferredPrice);
+        }
+    }
+
+    /* =====================
+       READ PATH
+       ===================== */
+
+    /**
+     * Cached profile of the user, loading it on a miss; null if the user has no profile yet.
+     */
+    public Profile get(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry != null) {
+            long now = System.nanoTime();
+            if (now - entry.loadedAt < ttlNanos) {
+                entry.lastUsed = now;
+                return entry.profile == MISSING ? null : entry.profile;
+            }
+            entries.remove(userId, entry);
+        }
+        Profile profile = loads.execute(userId, () -> load(userId));
+        return profile == MISSING ? null : profile;
+    }
+
+    private Profile load(Long userId) {
+        synchronized (this) {
+            inFlightLoads.put(userId, false);
+        }
+
+        Profile profile = null;
+        try {
+            profile = interactionRepository.findScoringProfileByUserId(userId)
+                    .map(this::compact)
+                    .orElse(MISSING);
+        } finally {
+            synchronized (this) {
+                Boolean raced = inFlightLoads.remove(userId);
+                if (profile != null && Boolean.FALSE.equals(raced)) put(userId, profile);
+            }
+        }
+        return profile;
+    }
+
+    /* =====================
+       WRITE PATH
+       ===================== */
+
+    /**
+     * Dropped once an interaction of the user has reached MongoDB.
+     */
+    public synchronized void invalidate(Long userId) {
+        inFlightLoads.replace(userId, true);
+        entries.remove(userId);
+    }
+
+    /**
+     * Applies a shownEvents push to the cached copy (the caller writes it to MongoDB).
+     */
+    public void recordShown(Long userId, List<Long> eventIds) {
+        entries.computeIfPresent(userId, (id, entry) -> entry.profile == MISSING ? entry
+                : new Entry(entry.profile.withShown(eventIds), entry.loadedAt));
+    }
+
+    /**
+     * Compact profile of an already-loaded document, bypassing the cache (batch jobs).
+     */
+    public Profile profileOf(UserInteraction ui) {
+        return compact(ui);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Caller holds "this"
+    private void put(Long userId, Profile profile) {
+        entries.put(userId, new Entry(profile, System.nanoTime()));
+        if (entries.size() > evictAbove) evictLeastRecentlyUsed();
+    }
+
+    // Back down to maxEntries; the sort is paid once per maxEntries / 16 inserts. Caller holds "this".
+    private void evictLeastRecentlyUsed() {
+        List<Map.Entry<Long, Entry>> byLastUse = new ArrayList<>(entries.entrySet());
+        byLastUse.sort(Comparator.comparingLong(e -> e.getValue().lastUsed));
+        for (int i = 0; i < byLastUse.size() - maxEntries; i++) {
+            Map.Entry<Long, Entry> eldest = byLastUse.get(i);
+            entries.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /* =====================
+       ENCODING
+       ===================== */
+
+    private Profile compact(UserInteraction ui) {
+        double[] categories = new double[CATEGORIES.length];
+        if (ui.getCategoryAffinity() != null) {
+            ui.getCategoryAffinity().forEach((category, score) -> {
+                if (category != null && score != null) categories[category.ordinal()] = Math.max(0.0, score);
+            });
+        }
+
+        long[] shownOrdered = toLongs(ui.getShownEvents());
+        long[] shownSorted = shownOrdered.clone();
+        Arrays.sort(shownSorted);
+        return new Profile(categories,
+                encodeScores(ui.getCityAffinity(), eventFeatures::cityId),
+                encodeScores(ui.getTagAffinity(), eventFeatures::tagId),
+                sorted(ui.getLikedEvents()), sorted(ui.getRegisteredEvents()), shownSorted, shownOrdered,
+                ui.getMinPreferredPrice(), ui.getMaxPreferredPrice());
+    }
+
+    // Only positive scores are kept
+    private static ScoreTable encodeScores(Map<String, Double> scores, ToIntFunction<String> idOf) {
+        TreeMap<Integer, Double> byId = new TreeMap<>();
+        if (scores != null) {
+            scores.forEach((key, score) -> {
+                if (score == null || score <= 0.0) return;
+                int id = idOf.applyAsInt(key);
+                if (id >= 0) byId.merge(id, score, Double::sum);
+            });
+        }
+        int[] keys = new int[byId.size()];
+        double[] values = new double[byId.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Double> e : byId.entrySet()) {
+            keys[i] = e.getKey();
+            values[i++] = e.getValue();
+        }
+        return new ScoreTable(keys, values);
+    }
+
+    private static long[] toLongs(Collection<Long> ids) {
+        if (ids == null) return new long[0];
+        return ids.stream().filter(Objects::nonNull).mapToLong(Long::longValue).toArray();
+    }
+
+    private static long[] sorted(Collection<Long> ids) {
+        long[] values = toLongs(ids);
+        Arrays.sort(values);
+        return values;
+    }
+}
@@ -0,0 +1,89 @@
+package com.Eventora.service;
+
+import com.Eventora.entity.UserInteraction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the open-ended affinity maps (tags, cities) of user profiles bounded to their
+ * heavy hitters.
+ *
+ * Writes stay blind $inc's; users whose maps were incremented are marked dirty, and a
+ * periodic pass reads only those maps and $unset's everything below the top K. Like a
+ * space-saving sketch, a new key only survives if it out-scores the current minimum,
+ * but eviction is batched instead of costing a read on every increment. Scores are
+ * forward-decayed, so keys that stop being touched sink and get evicted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserProfileCompactor {
+
+    static final List<String> TRIMMED_PATH_PREFIXES = List.of("tagAffinity.", "cityAffinity.");
+
+    private static final int READ_BATCH = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public void markDirty(Long userId) {
+        dirty.add(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${eventora.profiles.compact-interval-ms:300000}")
+    public void scheduledCompact() {
+        try {
+            compact();
+        } catch (Exception e) {
+            log.error("Profile compaction failed: {}", e.getMessage());
+        }
+    }
+
+    public int compact() {
+        List<Long> users = new ArrayList<>(dirty);
+        dirty.removeAll(users);
+        if (users.isEmpty()) return 0;
+
+        int trimmed = 0;
+        for (int from = 0; from < users.size(); from += READ_BATCH) {
+            List<Long> chunk = users.subList(from, Math.min(from + READ_BATCH, users.size()));
+            Query query = Query.query(Criteria.where("userId").in(chunk));
+            query.fields().include("userId", "tagAffinity", "cityAffinity");
+
+            BulkOperations bulk = null;
+            for (UserInteraction profile : mongoTemplate.find(query, UserInteraction.class)) {
+                Update update = new Update();
+                int evicted = evictBelowTopK(update, "tagAffinity", profile.getTagAffinity(), UserInteraction.MAX_TAG_AFFINITIES)
+                        + evictBelowTopK(update, "cityAffinity", profile.getCityAffinity(), UserInteraction.MAX_CITY_AFFINITIES);
+                if (evicted == 0) continue;
+                if (bulk == null) bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserInteraction.class);
+                bulk.updateOne(Query.query(Criteria.where("userId").is(profile.getUserId())), update);
+                trimmed++;
+            }
+            if (bulk != null) bulk.execute();
+        }
+        if (trimmed > 0) log.info("Trimmed affinity maps of {} of {} active profiles", trimmed, users.size());
+        return trimmed;
+    }
+
+    private static int evictBelowTopK(Update update, String field, Map<String, Double> scores, int k) {
+        if (scores == null || scores.size() <= k) return 0;
+        List<Map.Entry<String, Double>> entries = new ArrayList<>(scores.entrySet());
+        entries.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        for (Map.Entry<String, Double> entry : entries.subList(k, entries.size())) {
+            update.unset(field + "." + entry.getKey());
+        }
+        return entries.size() - k;
+    }
+}
@@ -0,0 +1,60 @@
+package com.Eventora.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    void emptyRingHasNoOwner() {
+        assertThat(new ConsistentHashRing(List.of(), 64).ownerOf(1L)).isNull();
+    }
+
+    @Test
+    void ownershipIsIndependentOfNodeOrder() {
+        ConsistentHashRing a = new ConsistentHashRing(List.of("node-a", "node-b", "node-c"), 64);
+        ConsistentHashRing b = new ConsistentHashRing(List.of("node-c", "node-a", "node-b"), 64);
+
+        for (long key = 0; key < 1_000; key++) assertThat(a.ownerOf(key)).isEqualTo(b.ownerOf(key));
+        assertThat(a.hasSameNodes(List.of("node-b", "node-c", "node-a"))).isTrue();
+        assertThat(a.hasSameNodes(List.of("node-a", "node-b"))).isFalse();
+    }
+
+    @Test
+    void keysAreSpreadEvenlyAcrossNodes() {
+        List<String> nodes = List.of("node-1", "node-2", "node-3", "node-4");
+        ConsistentHashRing ring = new ConsistentHashRing(nodes, 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (long key = 0; key < KEYS; key++) counts.merge(ring.ownerOf(key), 1, Integer::sum);
+
+        assertThat(counts).containsOnlyKeys(nodes);
+        int fair = KEYS / nodes.size();
+        counts.values().forEach(count -> assertThat(count).isBetween(fair * 7 / 10, fair * 13 / 10));
+    }
+
+    @Test
+    void addingANodeOnlyMovesKeysToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("node-1", "node-2", "node-3", "node-4"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("node-1", "node-2", "node-3", "node-4", "node-5"), 128);
+
+        int moved = 0;
+        for (long key = 0; key < KEYS; key++) {
+            String was = before.ownerOf(key);
+            String now = after.ownerOf(key);
+            if (!was.equals(now)) {
+                assertThat(now).isEqualTo("node-5");
+                moved++;
+            }
+        }
+        // About 1/5 of the keys
+        assertThat(moved).isBetween(KEYS / 10, KEYS * 3 / 10);
+    }
+}
@@ -0,0 +1,85 @@
+package com.Eventora.Utils;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HnswIndexTest {
+
+    private static final int DIM = 16;
+
+    @Test
+    void emptyIndexAndNonPositiveKReturnNothing() {
+        HnswIndex index = new HnswIndex(DIM, 8, 50, 0, 1L);
+        assertThat(index.search(unit(new Random(1)), 5, 50)).isEmpty();
+
+        index.add(unit(new Random(2)));
+        assertThat(index.search(unit(new Random(3)), 0, 50)).isEmpty();
+    }
+
+    @Test
+    void exactVectorIsItsOwnNearestNeighbor() {
+        Random random = new Random(11);
+        HnswIndex index = new HnswIndex(DIM, 8, 100, 500, 1L);
+        float[][] vectors = new float[500][];
+        for (int i = 0; i < vectors.length; i++) assertThat(index.add(vectors[i] = unit(random))).isEqualTo(i);
+
+        for (int i = 0; i < vectors.length; i += 25) {
+            int[] found = index.search(vectors[i], 1, 50);
+            assertThat(found).containsExactly(i);
+            assertThat(index.similarity(vectors[i], i)).isCloseTo(1f, Offset.offset(1e-5f));
+        }
+    }
+
+    @Test
+    void recallAgainstBruteForceIsHigh() {
+        Random random = new Random(42);
+        int n = 2_000;
+        int k = 10;
+        // Grows past the expected size to exercise the array resize
+        HnswIndex index = new HnswIndex(DIM, 12, 100, 100, 7L);
+        float[][] vectors = new float[n][];
+        for (int i = 0; i < n; i++) index.add(vectors[i] = unit(random));
+
+        int hits = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = unit(random);
+            int[] found = index.search(query, k, 64);
+            assertThat(found).hasSize(k).doesNotHaveDuplicates();
+            for (int i = 1; i < k; i++) {
+                assertThat(index.similarity(query, found[i - 1])).isGreaterThanOrEqualTo(index.similarity(query, found[i]));
+            }
+            int[] exact = IntStream.range(0, n).boxed()
+                    .sorted(Comparator.comparingDouble(i -> -dot(query, vectors[i])))
+                    .limit(k).mapToInt(Integer::intValue).toArray();
+            for (int id : found) if (Arrays.stream(exact).anyMatch(e -> e == id)) hits++;
+        }
+
+        assertThat((double) hits / (queries * k)).isGreaterThan(0.9);
+    }
+
+    private static float[] unit(Random random) {
+        float[] v = new float[DIM];
+        double norm = 0;
+        for (int i = 0; i < DIM; i++) {
+            v[i] = (float) random.nextGaussian();
+            norm += v[i] * v[i];
+        }
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < DIM; i++) v[i] *= inv;
+        return v;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double dot = 0;
+        for (int i = 0; i < DIM; i++) dot += a[i] * b[i];
+        return dot;
+    }
+}
@@ -0,0 +1,61 @@
+package com.Eventora.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MinHashTest {
+
+    @Test
+    void signatureIgnoresTokenOrder() {
+        int[] a = MinHash.signature(new int[]{3, 1, 2, 99}, 4);
+        int[] b = MinHash.signature(new int[]{99, 2, 3, 1, -5}, 4);
+
+        assertThat(a).containsExactly(b);
+    }
+
+    @Test
+    void matchingRowsTrackJaccardSimilarity() {
+        // 100 shared tokens out of 150 distinct: Jaccard 2/3
+        int[] left = new int[125];
+        int[] right = new int[125];
+        for (int i = 0; i < 125; i++) {
+            left[i] = i;
+            right[i] = i + 25;
+        }
+        int agreeing = 0;
+        int trials = 0;
+        for (int shift = 0; shift < 50; shift++) {
+            int[] l = left.clone();
+            int[] r = right.clone();
+            for (int i = 0; i < 125; i++) {
+                l[i] += shift * 1_000;
+                r[i] += shift * 1_000;
+            }
+            int[] sl = MinHash.signature(l, l.length);
+            int[] sr = MinHash.signature(r, r.length);
+            for (int i = 0; i < MinHash.SIZE; i++) if (sl[i] == sr[i]) agreeing++;
+            trials += MinHash.SIZE;
+        }
+
+        assertThat((double) agreeing / trials).isBetween(0.6, 0.73);
+    }
+
+    @Test
+    void identicalSetsShareEveryBandAndDisjointSetsShareNone() {
+        int[] sig = MinHash.signature(new int[]{10, 20, 30}, 3);
+        int[] same = MinHash.signature(new int[]{30, 20, 10}, 3);
+        int[] other = MinHash.signature(new int[]{40, 50, 60}, 3);
+
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            assertThat(MinHash.bandKey(same, band)).isEqualTo(MinHash.bandKey(sig, band));
+            assertThat(MinHash.bandKey(other, band)).isNotEqualTo(MinHash.bandKey(sig, band));
+        }
+    }
+
+    @Test
+    void emptySetIsDetected() {
+        assertThat(MinHash.isEmpty(MinHash.signature(new int[]{1, 2}, 0))).isTrue();
+        assertThat(MinHash.isEmpty(MinHash.signature(new int[]{1, 2}, 2))).isFalse();
+    }
+}
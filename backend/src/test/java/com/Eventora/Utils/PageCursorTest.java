@@ -0,0 +1,50 @@
+package com.Eventora.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void encodedCursorDecodesToTheSamePosition() {
+        PageCursor cursor = new PageCursor(LocalDateTime.of(2026, 11, 1, 18, 30, 5, 123_456_789), 42L, 2.75);
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(PageCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void missingStartDateAndExactScoresSurviveTheRoundTrip() {
+        PageCursor cursor = new PageCursor(null, 7L, 0.1 + 0.2);
+
+        assertThat(PageCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void blankTokenMeansFirstPage() {
+        assertThat(PageCursor.decode(null)).isNull();
+        assertThat(PageCursor.decode(" ")).isNull();
+    }
+
+    @Test
+    void foreignTokensAreRejected() {
+        assertThatThrownBy(() -> PageCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode("%%%"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pageSizeIsClampedAndMustBePositive() {
+        assertThat(PageCursor.pageSize(10)).isEqualTo(10);
+        assertThat(PageCursor.pageSize(10_000)).isEqualTo(PageCursor.MAX_PAGE_SIZE);
+        assertThatThrownBy(() -> PageCursor.pageSize(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.pageSize(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.Eventora.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RotatingBloomFilterTest {
+
+    @Test
+    void keysAreRememberedWithinTheWindowAtExpectedLoad() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(10_000, 0.01, 60_000);
+
+        // First inserts may be false positives, so only the repeats are asserted
+        for (long key = 0; key < 9_000; key++) filter.checkAndAdd(key);
+        for (long key = 0; key < 9_000; key++) assertThat(filter.checkAndAdd(key)).isTrue();
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRate() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(10_000, 0.01, 60_000);
+        for (long key = 0; key < 9_000; key++) filter.checkAndAdd(key);
+
+        int falsePositives = 0;
+        for (long key = 1_000_000; key < 1_010_000; key++) {
+            if (filter.checkAndAdd(key)) falsePositives++;
+        }
+        // Inserting the probes fills the generation too, so allow some slack over 1%
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void overloadRotatesEarlyAndForgetsOldKeys() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(1_000, 0.01, 60_000);
+        filter.checkAndAdd(-1L);
+
+        // Two full generations of other keys push the first one out well before the window ends
+        for (long key = 0; key < 2_100; key++) filter.checkAndAdd(key);
+
+        assertThat(filter.checkAndAdd(-1L)).isFalse();
+    }
+
+    @Test
+    void keysAreForgottenAfterTwoWindows() throws InterruptedException {
+        RotatingBloomFilter filter = new RotatingBloomFilter(1_000, 0.01, 50);
+        filter.checkAndAdd(42L);
+
+        Thread.sleep(60);
+        filter.checkAndAdd(7L); // rotates: 42 now lives in the previous generation
+        assertThat(filter.checkAndAdd(42L)).isTrue(); // and is re-added to the current one
+
+        Thread.sleep(60);
+        filter.checkAndAdd(7L);
+        Thread.sleep(60);
+        filter.checkAndAdd(7L);
+
+        assertThat(filter.checkAndAdd(42L)).isFalse();
+    }
+
+    @Test
+    void generationSizeIsAPowerOfTwo() {
+        int bits = new RotatingBloomFilter(10_000, 0.01, 60_000).bitsPerGeneration();
+
+        assertThat(Integer.bitCount(bits)).isEqualTo(1);
+        assertThat(bits).isGreaterThanOrEqualTo(95_851); // -n ln p / (ln 2)^2
+    }
+}
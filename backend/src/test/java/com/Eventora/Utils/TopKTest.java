@@ -0,0 +1,64 @@
+package com.Eventora.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKTest {
+
+    @Test
+    void keepsTheHighestScoresInDescendingOrder() {
+        TopK top = new TopK(3);
+        double[] scores = {0.5, 2.0, -1.0, 3.5, 1.0, 2.5};
+        for (int row = 0; row < scores.length; row++) top.offer(scores[row], row);
+
+        assertThat(top.size()).isEqualTo(3);
+        assertThat(top.rowsDescending()).containsExactly(3, 5, 1);
+        assertThat(top.scoresDescending()).containsExactly(3.5, 2.5, 2.0);
+    }
+
+    @Test
+    void equalScoresAreOrderedByRow() {
+        TopK top = new TopK(4);
+        top.offer(1.0, 9);
+        top.offer(2.0, 4);
+        top.offer(1.0, 2);
+        top.offer(1.0, 5);
+
+        assertThat(top.rowsDescending()).containsExactly(4, 2, 5, 9);
+    }
+
+    @Test
+    void mergedChunksMatchASingleHeap() {
+        Random random = new Random(7);
+        double[] scores = new double[10_000];
+        for (int i = 0; i < scores.length; i++) scores[i] = random.nextDouble();
+
+        TopK single = new TopK(50);
+        for (int row = 0; row < scores.length; row++) single.offer(scores[row], row);
+
+        TopK merged = new TopK(50);
+        for (int start = 0; start < scores.length; start += 1_000) {
+            TopK chunk = new TopK(50);
+            for (int row = start; row < start + 1_000; row++) chunk.offer(scores[row], row);
+            merged.merge(chunk);
+        }
+
+        assertThat(merged.rowsDescending()).containsExactly(single.rowsDescending());
+    }
+
+    @Test
+    void fewerCandidatesThanKAndZeroKAreHandled() {
+        TopK top = new TopK(10);
+        top.offer(1.0, 1);
+        top.offer(2.0, 2);
+        assertThat(top.rowsDescending()).containsExactly(2, 1);
+
+        TopK empty = new TopK(0);
+        empty.offer(5.0, 1);
+        assertThat(empty.size()).isZero();
+        assertThat(empty.rowsDescending()).isEmpty();
+    }
+}
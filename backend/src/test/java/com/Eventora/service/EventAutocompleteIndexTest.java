@@ -0,0 +1,139 @@
+package com.Eventora.service;
+
+import com.Eventora.dto.AutocompleteSuggestion;
+import com.Eventora.dto.AutocompleteSuggestion.Kind;
+import com.Eventora.dto.EventChangedEvent;
+import com.Eventora.entity.Event;
+import com.Eventora.entity.enums.EventStatus;
+import com.Eventora.projection.EventCatalogProjection;
+import com.Eventora.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class EventAutocompleteIndexTest {
+
+    private EventRepository eventRepository;
+    private EventAutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        index = new EventAutocompleteIndex(eventRepository);
+        index.rebuild(); // empty
+        index.index(event(1L, "Jazz Night", "Blue Note", "Pune", List.of("music"), 40));
+        index.index(event(2L, "Evening Jazz Quartet", "Blue Note", "Mumbai", List.of("music"), 5));
+        index.index(event(3L, "Java Workshop", "Code Club", "Pune", List.of("tech"), 10));
+    }
+
+    @Test
+    void prefixMatchesValuesAndLaterWordsHeaviestFirst() {
+        assertThat(texts(index.complete("ja", 10)))
+                .containsExactly("Jazz Night", "Java Workshop", "Evening Jazz Quartet");
+        assertThat(texts(index.complete("JAZZ", 10)))
+                .containsExactly("Jazz Night", "Evening Jazz Quartet");
+    }
+
+    @Test
+    void sharedValuesAreOneSuggestionWithSummedWeight() {
+        List<AutocompleteSuggestion> blue = index.complete("blue", 10);
+
+        assertThat(blue).hasSize(1);
+        assertThat(blue.get(0).getKind()).isEqualTo(Kind.ORGANIZER);
+        assertThat(blue.get(0).getWeight()).isEqualTo(41 + 6);
+    }
+
+    @Test
+    void participantChangesAreReRankedByTheScheduledPass() {
+        index.onEventChanged(EventChangedEvent.participantsChanged(2L, 100));
+
+        // Weight is current, order still the old one
+        List<AutocompleteSuggestion> before = index.complete("jazz", 10);
+        assertThat(texts(before)).containsExactly("Jazz Night", "Evening Jazz Quartet");
+        assertThat(before.get(1).getWeight()).isEqualTo(106);
+
+        index.scheduledRerank();
+
+        assertThat(texts(index.complete("jazz", 10))).containsExactly("Evening Jazz Quartet", "Jazz Night");
+    }
+
+    @Test
+    void unlistedEventsAreWithdrawn() {
+        index.onEventChanged(EventChangedEvent.statusChanged(3L, EventStatus.CANCELLED));
+
+        assertThat(index.complete("java", 10)).isEmpty();
+        assertThat(texts(index.complete("pune", 10))).containsExactly("Pune");
+        assertThat(index.complete("pune", 10).get(0).getWeight()).isEqualTo(41);
+    }
+
+    @Test
+    void newlyListedEventIsLoadedThroughItsCatalogRow() {
+        EventCatalogProjection row = mock(EventCatalogProjection.class);
+        when(row.getTitle()).thenReturn("Salsa Social");
+        when(row.getOrganizerName()).thenReturn("Dance Hub");
+        when(row.getCity()).thenReturn("Goa");
+        when(row.getCurrentParticipants()).thenReturn(0);
+        when(eventRepository.findCatalogRowById(9L)).thenReturn(Optional.of(row));
+
+        index.onEventChanged(EventChangedEvent.statusChanged(9L, EventStatus.SCHEDULED));
+
+        assertThat(texts(index.complete("sal", 10))).containsExactly("Salsa Social");
+        verify(eventRepository, never()).findById(any());
+    }
+
+    @Test
+    void participantDeltaAppliedDuringRebuildIsNotCountedTwice() {
+        EventCatalogProjection beforeCommit = catalogRow(1L, "Jazz Night", 40);
+        EventCatalogProjection afterCommit = catalogRow(1L, "Jazz Night", 41);
+        // The query ran before the registration committed; its delta lands on the old trie
+        when(eventRepository.findCatalogRowsByStatusIn(anyList())).thenAnswer(inv -> {
+            index.onEventChanged(EventChangedEvent.participantsChanged(1L, 1));
+            return List.of(beforeCommit);
+        });
+        when(eventRepository.findCatalogRowById(1L)).thenReturn(Optional.of(afterCommit));
+
+        index.rebuild();
+
+        List<AutocompleteSuggestion> jazz = index.complete("jazz", 10);
+        assertThat(texts(jazz)).containsExactly("Jazz Night");
+        assertThat(jazz.get(0).getWeight()).isEqualTo(42);
+    }
+
+    @Test
+    void limitCapsTheSuggestions() {
+        assertThat(index.complete("j", 1)).hasSize(1);
+        assertThat(index.complete("", 10)).isEmpty();
+        assertThat(index.complete("zzz", 10)).isEmpty();
+    }
+
+    private static EventCatalogProjection catalogRow(long id, String title, int participants) {
+        EventCatalogProjection row = mock(EventCatalogProjection.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getTitle()).thenReturn(title);
+        when(row.getEventStatus()).thenReturn(EventStatus.UPCOMING.name());
+        when(row.getCurrentParticipants()).thenReturn(participants);
+        return row;
+    }
+
+    private static List<String> texts(List<AutocompleteSuggestion> suggestions) {
+        return suggestions.stream().map(AutocompleteSuggestion::getText).toList();
+    }
+
+    private static Event event(long id, String title, String organizer, String city, List<String> tags, int participants) {
+        return Event.builder()
+                .id(id)
+                .title(title)
+                .organizerDisplayName(organizer)
+                .city(city)
+                .tags(new ArrayList<>(tags))
+                .eventStatus(EventStatus.UPCOMING)
+                .currentParticipants(participants)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.Eventora.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static com.Eventora.service.EventCalendarIndex.SECONDS_PER_DAY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventCalendarIndexTest {
+
+    private static final long DAY0 = 20_000 * SECONDS_PER_DAY;
+
+    @Test
+    void overlapQueriesMatchALinearScan() {
+        Random random = new Random(11);
+        int n = 3_000;
+        long[] start = new long[n];
+        long[] end = new long[n];
+        for (int row = 0; row < n; row++) {
+            start[row] = DAY0 + random.nextInt(120 * 86_400);
+            switch (row % 10) {
+                case 0 -> end[row] = Long.MAX_VALUE;                                   // no end date
+                case 1 -> end[row] = start[row] - 3_600;                               // inverted
+                case 2 -> end[row] = start[row] + (40 + random.nextInt(60)) * SECONDS_PER_DAY; // long-running
+                case 3 -> start[row] = Long.MAX_VALUE;                                 // no start date
+                default -> end[row] = start[row] + random.nextInt(3 * 86_400);
+            }
+        }
+        EventCalendarIndex index = EventCalendarIndex.build(start, end, n);
+
+        for (int q = 0; q < 200; q++) {
+            long from = DAY0 - 10 * SECONDS_PER_DAY + random.nextInt(150 * 86_400);
+            long to = from + random.nextInt(10 * 86_400);
+            assertThat(index.overlapping(from, to)).containsExactly(linear(start, end, from, to));
+        }
+    }
+
+    @Test
+    void multiDayEventIsListedOnEveryDayItRuns() {
+        long[] start = {DAY0 + 20 * 3_600};
+        long[] end = {DAY0 + 2 * SECONDS_PER_DAY + 3_600};
+        EventCalendarIndex index = EventCalendarIndex.build(start, end, 1);
+
+        for (int day = 0; day <= 2; day++) {
+            long from = DAY0 + day * SECONDS_PER_DAY;
+            assertThat(index.overlapping(from, from + SECONDS_PER_DAY)).containsExactly(0);
+        }
+        assertThat(index.overlapping(DAY0 + 3 * SECONDS_PER_DAY, DAY0 + 4 * SECONDS_PER_DAY)).isEmpty();
+        assertThat(index.overlapping(DAY0 - SECONDS_PER_DAY, DAY0)).isEmpty();
+    }
+
+    @Test
+    void onlyLongRunningRowsStillMatch() {
+        long[] start = {DAY0, Long.MAX_VALUE};
+        long[] end = {DAY0 + 90 * SECONDS_PER_DAY, Long.MAX_VALUE};
+        EventCalendarIndex index = EventCalendarIndex.build(start, end, 2);
+
+        assertThat(index.overlapping(DAY0 + 45 * SECONDS_PER_DAY, DAY0 + 46 * SECONDS_PER_DAY)).containsExactly(0);
+        assertThat(index.overlapping(DAY0 + 5, DAY0 + 5)).isEmpty();
+    }
+
+    private static int[] linear(long[] start, long[] end, long from, long to) {
+        return IntStream.range(0, start.length)
+                .filter(row -> start[row] != Long.MAX_VALUE)
+                .filter(row -> {
+                    long e = end[row] == Long.MAX_VALUE || end[row] < start[row] ? start[row] : end[row];
+                    return start[row] < to && e >= from;
+                })
+                .toArray();
+    }
+}
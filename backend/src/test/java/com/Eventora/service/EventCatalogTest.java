@@ -0,0 +1,172 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.PageCursor;
+import com.Eventora.dto.EventFilterRequest;
+import com.Eventora.dto.EventTemplate;
+import com.Eventora.entity.Event;
+import com.Eventora.entity.enums.EventCategory;
+import com.Eventora.entity.enums.EventStatus;
+import com.Eventora.projection.EventCatalogProjection;
+import com.Eventora.repository.EventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventCatalogTest {
+
+    private EventRepository repository;
+    private EventCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EventRepository.class);
+        catalog = new EventCatalog(repository, mock(EventTagIndex.class));
+        catalog.reload(); // empty catalog
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalog.stop();
+    }
+
+    @Test
+    void burstOfWritesIsPublishedWithoutFlush() throws InterruptedException {
+        catalog.upsert(event(1L, 3));
+        catalog.upsert(event(2L, 1));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (catalog.size() < 2 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+
+        assertThat(catalog.size()).isEqualTo(2);
+        assertThat(catalog.contains(1L)).isTrue();
+    }
+
+    @Test
+    void statusLeavingListedSetDropsEvent() {
+        catalog.upsert(event(1L, 0));
+        catalog.flush();
+
+        catalog.updateStatus(1L, EventStatus.CANCELLED);
+        catalog.flush();
+
+        assertThat(catalog.contains(1L)).isFalse();
+    }
+
+    @Test
+    void participantDeltaIsVisibleWithoutRebuild() {
+        catalog.upsert(event(1L, 3));
+        catalog.flush();
+
+        catalog.adjustParticipants(1L, 2);
+
+        assertThat(catalog.participantsOf(1L)).hasValue(5);
+    }
+
+    @Test
+    void filterReturnsEventsInStartOrder() {
+        catalog.upsert(event(2L, 0, LocalDateTime.now().plusDays(5)));
+        catalog.upsert(event(1L, 0, LocalDateTime.now().plusDays(1)));
+        catalog.flush();
+
+        List<EventTemplate> page = catalog.filter(new EventFilterRequest(), List.of());
+
+        assertThat(page).extracting(EventTemplate::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void pageSizeIsCappedAndValidatedLikeEveryPagedEndpoint() {
+        for (long id = 1; id <= 150; id++) catalog.upsert(event(id, 0));
+        catalog.flush();
+
+        EventFilterRequest huge = new EventFilterRequest();
+        huge.setSize(1_000_000);
+        assertThat(catalog.filter(huge, List.of())).hasSize(PageCursor.MAX_PAGE_SIZE);
+
+        EventFilterRequest zero = new EventFilterRequest();
+        zero.setSize(0);
+        assertThatThrownBy(() -> catalog.filter(zero, List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> catalog.filterAfter(zero, null, List.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void upsertAppliedDuringReloadIsNotLost() {
+        EventCatalogProjection committed = projection(1L, 3);
+        // The query ran before the insert committed, so its result misses the event
+        when(repository.findCatalogRowsByStatusIn(anyList())).thenAnswer(inv -> {
+            catalog.upsert(event(1L, 3));
+            return List.of();
+        });
+        when(repository.findCatalogRowById(1L)).thenReturn(Optional.of(committed));
+
+        catalog.reload();
+        catalog.flush();
+
+        assertThat(catalog.contains(1L)).isTrue();
+        assertThat(catalog.participantsOf(1L)).hasValue(3);
+    }
+
+    @Test
+    void participantDeltaAppliedDuringReloadIsNotLost() {
+        catalog.upsert(event(1L, 3));
+        catalog.flush();
+        EventCatalogProjection beforeCommit = projection(1L, 3);
+        EventCatalogProjection afterCommit = projection(1L, 4);
+        // The query ran before the registration committed; its delta lands on the old rows
+        when(repository.findCatalogRowsByStatusIn(anyList())).thenAnswer(inv -> {
+            catalog.adjustParticipants(1L, 1);
+            return List.of(beforeCommit);
+        });
+        when(repository.findCatalogRowById(1L)).thenReturn(Optional.of(afterCommit));
+
+        catalog.reload();
+        catalog.flush();
+
+        assertThat(catalog.participantsOf(1L)).hasValue(4);
+    }
+
+    private static EventCatalogProjection projection(long id, int participants) {
+        LocalDateTime start = LocalDateTime.now().plusDays(id);
+        EventCatalogProjection p = mock(EventCatalogProjection.class);
+        when(p.getId()).thenReturn(id);
+        when(p.getTitle()).thenReturn("Event " + id);
+        when(p.getEventCategory()).thenReturn(EventCategory.values()[0].name());
+        when(p.getEventStatus()).thenReturn(EventStatus.UPCOMING.name());
+        when(p.getCity()).thenReturn("Pune");
+        when(p.getStartDate()).thenReturn(start);
+        when(p.getEndDate()).thenReturn(start.plusHours(2));
+        when(p.getPrice()).thenReturn(BigDecimal.TEN);
+        when(p.getCurrentParticipants()).thenReturn(participants);
+        when(p.getMaxParticipants()).thenReturn(100);
+        return p;
+    }
+
+    private static Event event(long id, int participants) {
+        return event(id, participants, LocalDateTime.now().plusDays(id));
+    }
+
+    private static Event event(long id, int participants, LocalDateTime start) {
+        return Event.builder()
+                .id(id)
+                .title("Event " + id)
+                .eventCategory(EventCategory.values()[0])
+                .eventStatus(EventStatus.UPCOMING)
+                .city("Pune")
+                .startDate(start)
+                .endDate(start.plusHours(2))
+                .price(BigDecimal.TEN)
+                .currentParticipants(participants)
+                .maxParticipants(100)
+                .build();
+    }
+}
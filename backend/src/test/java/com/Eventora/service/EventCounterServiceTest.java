@@ -0,0 +1,123 @@
+package com.Eventora.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class EventCounterServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private EventCounterService service;
+
+    // Flushed totals per event id, by column: impressions, clicks, check-ins
+    private final ConcurrentHashMap<Long, long[]> written = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            Object[] args = (Object[]) invocation.getRawArguments()[1];
+            for (int i = 0; i < args.length; i += 4) {
+                long[] totals = written.computeIfAbsent((Long) args[i], k -> new long[3]);
+                totals[0] += (Long) args[i + 1];
+                totals[1] += (Long) args[i + 2];
+                totals[2] += (Long) args[i + 3];
+            }
+            return args.length / 4;
+        });
+        service = new EventCounterService(jdbcTemplate);
+    }
+
+    @Test
+    void flushWritesAccumulatedDeltasOnce() {
+        service.recordImpressions(List.of(1L, 2L, 1L));
+        service.recordClick(1L);
+        service.recordCheckIn(2L);
+
+        assertThat(service.flush()).isEqualTo(2);
+        assertThat(written.get(1L)).containsExactly(2, 1, 0);
+        assertThat(written.get(2L)).containsExactly(1, 0, 1);
+
+        // Nothing new: no statement at all
+        assertThat(service.flush()).isZero();
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void restoredDeltasAreWrittenByNextFlush() {
+        AtomicBoolean fail = new AtomicBoolean(true);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            if (fail.getAndSet(false)) throw new RuntimeException("db down");
+            Object[] args = (Object[]) invocation.getRawArguments()[1];
+            written.computeIfAbsent((Long) args[0], k -> new long[3])[1] += (Long) args[2];
+            return 1;
+        });
+        service.recordClick(7L);
+        service.recordClick(7L);
+
+        assertThatThrownBy(service::flush).hasMessage("db down");
+        service.recordClick(7L);
+        service.flush();
+
+        assertThat(written.get(7L)[1]).isEqualTo(3);
+    }
+
+    @Test
+    void idleCountersAreDroppedAfterAQuietFlush() {
+        service.recordClick(1L);
+        service.flush();
+        assertThat(service.trackedEvents()).isEqualTo(1);
+
+        service.flush();
+        assertThat(service.trackedEvents()).isZero();
+    }
+
+    @Test
+    void incrementsRacingWithDrainsAreNeverLost() throws Exception {
+        int writers = 4;
+        int perWriter = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicLong issued = new AtomicLong();
+
+        Thread[] threads = new Thread[writers];
+        for (int t = 0; t < writers; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perWriter; i++) {
+                    // Few ids and many drains, so instances keep being retired under the writers
+                    service.recordClick((long) (i % 3));
+                    issued.incrementAndGet();
+                }
+            });
+            threads[t].start();
+        }
+        Thread drainer = new Thread(() -> {
+            while (!done.get()) service.flush();
+        });
+        drainer.start();
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+        done.set(true);
+        drainer.join();
+        service.flush();
+
+        long clicks = written.values().stream().mapToLong(totals -> totals[1]).sum();
+        assertThat(clicks).isEqualTo(issued.get()).isEqualTo((long) writers * perWriter);
+    }
+}
@@ -0,0 +1,87 @@
+package com.Eventora.service;
+
+import com.Eventora.dto.EventChangedEvent;
+import com.Eventora.dto.EventDetailDto;
+import com.Eventora.entity.enums.RegistrationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventDetailCacheTest {
+
+    private final EventDetailCache cache = new EventDetailCache(1 << 20, 60_000, new SingleFlightRegistry());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void hitServesACopyWithoutTheCallersStatus() {
+        cache.get(1L, () -> load(1L, 3));
+
+        EventDetailDto first = cache.get(1L, () -> load(1L, 3));
+        first.setTitle("changed by caller");
+        EventDetailDto second = cache.get(1L, () -> load(1L, 3));
+
+        assertThat(loads).hasValue(1);
+        assertThat(second.getTitle()).isEqualTo("Event 1");
+        assertThat(second.getUserRegistrationStatus()).isNull();
+    }
+
+    @Test
+    void writeToAnotherEventDuringALoadDoesNotBlockCaching() {
+        cache.get(1L, () -> {
+            cache.invalidate(2L);
+            cache.onEventChanged(EventChangedEvent.participantsChanged(3L, 1));
+            return load(1L, 3);
+        });
+
+        cache.get(1L, () -> load(1L, 3));
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void writeToTheSameEventDuringItsLoadIsNotCached() {
+        cache.get(1L, () -> {
+            EventDetailDto stale = load(1L, 3);
+            cache.onEventChanged(EventChangedEvent.participantsChanged(1L, 1));
+            return stale;
+        });
+
+        EventDetailDto fresh = cache.get(1L, () -> load(1L, 4));
+
+        assertThat(loads).hasValue(2);
+        assertThat(fresh.getCurrentParticipants()).isEqualTo(4);
+    }
+
+    @Test
+    void participantDeltaPatchesTheCachedEntry() {
+        cache.get(1L, () -> load(1L, 3));
+
+        cache.onEventChanged(EventChangedEvent.participantsChanged(1L, 2));
+
+        assertThat(cache.get(1L, () -> load(1L, 0)).getCurrentParticipants()).isEqualTo(5);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void clearDuringALoadDropsIt() {
+        cache.get(1L, () -> {
+            cache.clear();
+            return load(1L, 3);
+        });
+
+        assertThat(cache.size()).isZero();
+    }
+
+    private EventDetailDto load(long id, int participants) {
+        loads.incrementAndGet();
+        return EventDetailDto.builder()
+                .id(id)
+                .title("Event " + id)
+                .currentParticipants(participants)
+                .userRegistrationStatus(RegistrationStatus.NONE)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.Eventora.service;
+
+import com.Eventora.entity.Event;
+import com.Eventora.entity.enums.EventCategory;
+import com.Eventora.projection.EventFeatureProjection;
+import com.Eventora.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventFeatureCacheTest {
+
+    private EventRepository repository;
+    private EventFeatureCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EventRepository.class);
+        cache = new EventFeatureCache(repository);
+        cache.reload(); // empty
+    }
+
+    @Test
+    void eventSavedDuringReloadKeepsItsNewFeatures() {
+        EventFeatureProjection stale = row(1L, "Pune");
+        EventFeatureProjection committed = row(1L, "Mumbai");
+        // The query ran before the city change committed; its save lands on the old map
+        when(repository.findAllFeatureRows()).thenAnswer(inv -> {
+            cache.index(event(1L, "Mumbai"));
+            return List.of(stale);
+        });
+        when(repository.findFeatureRowById(1L)).thenReturn(Optional.of(committed));
+
+        cache.reload();
+
+        assertThat(cache.city(cache.get(1L))).isEqualTo("Mumbai");
+    }
+
+    @Test
+    void eventSavedDuringReloadIsNotLost() {
+        EventFeatureProjection committed = row(2L, "Pune");
+        // The query ran before the insert committed, so its result misses the event
+        when(repository.findAllFeatureRows()).thenAnswer(inv -> {
+            cache.index(event(2L, "Pune"));
+            return List.of();
+        });
+        when(repository.findFeatureRowById(2L)).thenReturn(Optional.of(committed));
+
+        cache.reload();
+
+        assertThat(cache.get(2L)).isNotNull();
+    }
+
+    private static EventFeatureProjection row(long id, String city) {
+        EventFeatureProjection p = mock(EventFeatureProjection.class);
+        when(p.getId()).thenReturn(id);
+        when(p.getEventCategory()).thenReturn(EventCategory.values()[0].name());
+        when(p.getCity()).thenReturn(city);
+        return p;
+    }
+
+    private static Event event(long id, String city) {
+        return Event.builder()
+                .id(id)
+                .eventCategory(EventCategory.values()[0])
+                .city(city)
+                .tags(new ArrayList<>())
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.Eventora.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventGeoIndexTest {
+
+    @Test
+    void radiusSearchMatchesALinearScan() {
+        Random random = new Random(42);
+        int n = 5_000;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            // Clustered around Pune, with a few rows without coordinates
+            lat[i] = i % 97 == 0 ? Double.NaN : 18.52 + random.nextGaussian() * 0.5;
+            lon[i] = 73.85 + random.nextGaussian() * 0.5;
+        }
+        EventGeoIndex index = EventGeoIndex.build(lat, lon, n);
+
+        for (double radiusKm : new double[]{0.5, 5, 25, 120}) {
+            assertThat(index.withinRadius(18.52, 73.85, radiusKm))
+                    .containsExactly(linearRadius(lat, lon, 18.52, 73.85, radiusKm));
+        }
+    }
+
+    @Test
+    void radiusSearchWrapsAroundTheAntimeridian() {
+        double[] lat = {0.0, 0.0, 0.0};
+        double[] lon = {179.95, -179.95, 170.0};
+        EventGeoIndex index = EventGeoIndex.build(lat, lon, 3);
+
+        assertThat(index.withinRadius(0.0, 179.99, 20)).containsExactly(0, 1);
+    }
+
+    @Test
+    void nearestExpandsRingsUntilNothingCloserRemains() {
+        Random random = new Random(7);
+        int n = 2_000;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 40 + random.nextDouble() * 4;
+            lon[i] = -75 + random.nextDouble() * 4;
+        }
+        EventGeoIndex index = EventGeoIndex.build(lat, lon, n);
+
+        int[] hits = index.nearest(42.0, -73.0, 10, row -> row % 2 == 0);
+
+        int[] expected = IntStream.range(0, n)
+                .filter(row -> row % 2 == 0)
+                .boxed()
+                .sorted((a, b) -> Double.compare(
+                        EventGeoIndex.distanceKm(42.0, -73.0, lat[a], lon[a]),
+                        EventGeoIndex.distanceKm(42.0, -73.0, lat[b], lon[b])))
+                .limit(10)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        assertThat(hits).containsExactly(expected);
+    }
+
+    @Test
+    void nearestFallsBackToAScanForFarAwayRows() {
+        double[] lat = {-33.87, 51.51};
+        double[] lon = {151.21, -0.13};
+        EventGeoIndex index = EventGeoIndex.build(lat, lon, 2);
+
+        // Far beyond the ring limit from both rows
+        assertThat(index.nearest(18.52, 73.85, 1, row -> true)).containsExactly(1);
+        assertThat(index.nearest(18.52, 73.85, 5, row -> true)).containsExactly(1, 0);
+    }
+
+    private static int[] linearRadius(double[] lat, double[] lon, double qLat, double qLon, double radiusKm) {
+        return IntStream.range(0, lat.length)
+                .filter(row -> !Double.isNaN(lat[row]))
+                .filter(row -> EventGeoIndex.distanceKm(qLat, qLon, lat[row], lon[row]) <= radiusKm)
+                .sorted()
+                .toArray();
+    }
+}
@@ -0,0 +1,198 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.PageCursor;
+import com.Eventora.dto.CursorSlice;
+import com.Eventora.dto.EventChangedEvent;
+import com.Eventora.dto.EventTemplate;
+import com.Eventora.entity.AppUser;
+import com.Eventora.entity.Event;
+import com.Eventora.entity.enums.EventCategory;
+import com.Eventora.entity.enums.EventStatus;
+import com.Eventora.projection.EventSearchProjection;
+import com.Eventora.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventSearchIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 11, 1, 18, 0);
+
+    private EventRepository repository;
+    private EventSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EventRepository.class);
+        index = new EventSearchIndex(repository);
+        index.rebuild(); // empty
+        index.index(event(1L, "Jazz Festival", "Blue Note", 10L, List.of("music"), 1));
+        index.index(event(2L, "Rock Concert", "Stadium Live", 11L, List.of("music", "rock"), 2));
+        index.index(event(3L, "Concert of Jazz Standards", "Blue Note", 10L, List.of(), 3));
+        index.index(event(4L, "Cooking Class", "Chef Table", 12L, List.of("food"), 4));
+        index.index(event(5L, "Jazz Night", "Blue Note", 10L, List.of(), 5));
+    }
+
+    @Test
+    void prefixAndSubstringHitsOutrankFuzzyOnes() {
+        List<Long> ids = ids(index.search("jazz", null, null, null, 0, 10, List.of()).getContent());
+
+        // Title prefix matches first (newest start first among equal scores), then the mid-title hit
+        assertThat(ids).containsExactly(5L, 1L, 3L);
+    }
+
+    @Test
+    void smallTyposStillMatch() {
+        assertThat(ids(index.search("jaz festval", null, null, null, 0, 10, List.of()).getContent()))
+                .containsExactly(1L);
+    }
+
+    @Test
+    void tagsAreSearchedWithTheTitle() {
+        assertThat(ids(index.search("food", null, null, null, 0, 10, List.of()).getContent()))
+                .containsExactly(4L);
+    }
+
+    @Test
+    void titleAndOrganizerMustBothMatch() {
+        assertThat(ids(index.search("concert", "blue note", null, null, 0, 10, List.of()).getContent()))
+                .containsExactly(3L);
+    }
+
+    @Test
+    void organizerAndScopeFiltersApplyToCandidates() {
+        assertThat(ids(index.search("jazz", null, 10L, List.of(1L, 2L, 3L), 0, 10, List.of()).getContent()))
+                .containsExactly(1L, 3L);
+        // No text: the organizer's events, newest first
+        assertThat(ids(index.search(null, null, 10L, null, 0, 10, List.of()).getContent()))
+                .containsExactly(5L, 3L, 1L);
+    }
+
+    @Test
+    void reindexedEventReplacesItsOldEntry() {
+        index.index(event(4L, "Jazz Brunch", "Chef Table", 12L, List.of(), 4));
+
+        assertThat(ids(index.search("cooking", null, null, null, 0, 10, List.of()).getContent())).isEmpty();
+        assertThat(ids(index.search("jazz", null, null, null, 0, 10, List.of()).getContent())).contains(4L);
+    }
+
+    @Test
+    void cursorPagesWalkTheRankingWithoutGapsOrRepeats() {
+        List<Long> expected = ids(index.search("concert jazz", null, null, null, 0, 10, List.of()).getContent());
+        assertThat(expected).isNotEmpty();
+
+        List<Long> walked = new ArrayList<>();
+        PageCursor cursor = null;
+        for (int guard = 0; guard < 10; guard++) {
+            CursorSlice<EventTemplate> slice = index.searchAfter("concert jazz", null, null, null, cursor, 1, List.of());
+            walked.addAll(ids(slice.getContent()));
+            if (!slice.isHasNext()) break;
+            cursor = PageCursor.decode(slice.getNextCursor());
+        }
+
+        assertThat(walked).isEqualTo(expected);
+    }
+
+    @Test
+    void cursorAfterTheLastResultYieldsAnEmptyFinalPage() {
+        CursorSlice<EventTemplate> all = index.searchAfter("jazz", null, null, null, null, 10, List.of());
+        EventTemplate last = all.getContent().get(all.getContent().size() - 1);
+        assertThat(all.isHasNext()).isFalse();
+
+        // The last hit is the mid-title one: full trigram ratio + substring bonus
+        PageCursor afterLast = new PageCursor(last.getStartDate(), last.getId(), 2.0);
+        CursorSlice<EventTemplate> rest = index.searchAfter("jazz", null, null, null, afterLast, 10, List.of());
+
+        assertThat(rest.getContent()).isEmpty();
+        assertThat(rest.isHasNext()).isFalse();
+    }
+
+    @Test
+    void blankQueryListsEveryEventNewestFirstAfterReindexing() {
+        // Moves event 2 from the second-oldest start to the newest
+        index.index(event(2L, "Rock Concert", "Stadium Live", 11L, List.of("music", "rock"), 9));
+
+        assertThat(ids(index.search(null, null, null, null, 0, 10, List.of()).getContent()))
+                .containsExactly(2L, 5L, 4L, 3L, 1L);
+
+        List<Long> walked = new ArrayList<>();
+        PageCursor cursor = null;
+        for (int guard = 0; guard < 10; guard++) {
+            CursorSlice<EventTemplate> slice = index.searchAfter(null, null, null, null, cursor, 2, List.of());
+            walked.addAll(ids(slice.getContent()));
+            if (!slice.isHasNext()) break;
+            cursor = PageCursor.decode(slice.getNextCursor());
+        }
+        assertThat(walked).containsExactly(2L, 5L, 4L, 3L, 1L);
+    }
+
+    @Test
+    void eventIndexedDuringRebuildIsNotLost() {
+        EventSearchProjection committed = searchRow(6L, "Salsa Workshop", 0);
+        // The query ran before the insert committed, so its result misses the event
+        when(repository.findAllSearchRows()).thenAnswer(inv -> {
+            index.index(event(6L, "Salsa Workshop", "Dance Hall", 13L, List.of(), 6));
+            return List.of();
+        });
+        when(repository.findSearchRowById(6L)).thenReturn(Optional.of(committed));
+
+        index.rebuild();
+
+        assertThat(ids(index.search("salsa", null, null, null, 0, 10, List.of()).getContent())).containsExactly(6L);
+    }
+
+    @Test
+    void participantDeltaAppliedDuringRebuildIsNotCountedTwice() {
+        EventSearchProjection beforeCommit = searchRow(1L, "Jazz Festival", 0);
+        EventSearchProjection afterCommit = searchRow(1L, "Jazz Festival", 1);
+        // The query ran before the registration committed; its delta lands on the old docs
+        when(repository.findAllSearchRows()).thenAnswer(inv -> {
+            index.onEventChanged(EventChangedEvent.participantsChanged(1L, 1));
+            return List.of(beforeCommit);
+        });
+        when(repository.findSearchRowById(1L)).thenReturn(Optional.of(afterCommit));
+
+        index.rebuild();
+
+        List<EventTemplate> hits = index.search("jazz festival", null, null, null, 0, 10, List.of()).getContent();
+        assertThat(hits).extracting(EventTemplate::getParticipantCount).containsExactly(1);
+    }
+
+    private static List<Long> ids(List<EventTemplate> templates) {
+        return templates.stream().map(EventTemplate::getId).toList();
+    }
+
+    private static EventSearchProjection searchRow(long id, String title, int participants) {
+        EventSearchProjection p = mock(EventSearchProjection.class);
+        when(p.getId()).thenReturn(id);
+        when(p.getTitle()).thenReturn(title);
+        when(p.getEventCategory()).thenReturn(EventCategory.values()[0].name());
+        when(p.getEventStatus()).thenReturn(EventStatus.UPCOMING.name());
+        when(p.getStartDate()).thenReturn(BASE.plusDays(id));
+        when(p.getParticipantCount()).thenReturn(participants);
+        return p;
+    }
+
+    private static Event event(long id, String title, String organizerName, long organizerId,
+                               List<String> tags, int startOffsetDays) {
+        return Event.builder()
+                .id(id)
+                .title(title)
+                .organizerDisplayName(organizerName)
+                .organizer(AppUser.builder().id(organizerId).build())
+                .tags(new ArrayList<>(tags))
+                .eventCategory(EventCategory.values()[0])
+                .eventStatus(EventStatus.UPCOMING)
+                .startDate(BASE.plusDays(startOffsetDays))
+                .currentParticipants(0)
+                .build();
+    }
+}
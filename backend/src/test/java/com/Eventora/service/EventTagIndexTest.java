@@ -0,0 +1,54 @@
+package com.Eventora.service;
+
+import com.Eventora.entity.Event;
+import com.Eventora.projection.EventTagProjection;
+import com.Eventora.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventTagIndexTest {
+
+    private EventRepository repository;
+    private EventTagIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EventRepository.class);
+        index = new EventTagIndex(repository);
+        index.reload(); // empty
+    }
+
+    @Test
+    void tagsSavedDuringReloadAreNotOverwrittenByTheOlderRows() {
+        List<EventTagProjection> stale = List.of(tag(1L, "jazz"));
+        List<EventTagProjection> committed = List.of(tag(1L, "rock"));
+        // The query ran before the tag change committed; its save lands on the old map
+        when(repository.findAllTags()).thenAnswer(inv -> {
+            index.index(event(1L, "rock"));
+            return stale;
+        });
+        when(repository.findTagsByEventId(1L)).thenReturn(committed);
+
+        index.reload();
+
+        assertThat(index.tagIdsOf(1L)).containsExactly(index.lookup(List.of("rock")));
+    }
+
+    private static EventTagProjection tag(long eventId, String tag) {
+        EventTagProjection p = mock(EventTagProjection.class);
+        when(p.getEventId()).thenReturn(eventId);
+        when(p.getTag()).thenReturn(tag);
+        return p;
+    }
+
+    private static Event event(long id, String... tags) {
+        return Event.builder().id(id).tags(new ArrayList<>(List.of(tags))).build();
+    }
+}
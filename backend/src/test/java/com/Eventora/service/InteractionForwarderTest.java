@@ -0,0 +1,53 @@
+package com.Eventora.service;
+
+import com.Eventora.dto.UserInteractionEvent;
+import com.Eventora.entity.enums.InteractionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class InteractionForwarderTest {
+
+    private final InteractionPipeline pipeline = mock(InteractionPipeline.class);
+    private final InteractionForwarder forwarder = new InteractionForwarder(pipeline, "token", 300, 100);
+
+    @AfterEach
+    void tearDown() {
+        forwarder.stop();
+    }
+
+    @Test
+    void ownerThatNeverAnswersDoesNotHoldUpTheSchedulerThread() throws IOException {
+        // Accepts connections but never responds, so every send runs into the read timeout
+        try (ServerSocket owner = new ServerSocket(0)) {
+            Thread acceptor = new Thread(() -> {
+                try (Socket ignored = owner.accept()) {
+                    Thread.sleep(5_000);
+                } catch (Exception ignored) {
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            UserInteractionEvent event = new UserInteractionEvent(1L, 10L, InteractionType.LIKE_EVENT, Map.of());
+            forwarder.forward("http://localhost:" + owner.getLocalPort(), event);
+
+            long started = System.nanoTime();
+            forwarder.flush();
+            forwarder.flush();
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(200);
+
+            // The sender falls back to local processing once the owner times out
+            verify(pipeline, timeout(5_000)).submit(event);
+            assertThat(forwarder.stats().get("fellBack")).isEqualTo(1L);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.Eventora.service;
+
+import com.Eventora.entity.InteractionOutbox;
+import com.Eventora.entity.enums.InteractionType;
+import com.Eventora.projection.OutboxHeadProjection;
+import com.Eventora.repository.InteractionOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class InteractionOutboxRelayTest {
+
+    private InteractionOutboxRepository outboxRepository;
+    private UserInteractionService interactionService;
+    private UserInteractionCoalescer coalescer;
+    private EventFeatureCache eventFeatures;
+    private UserProfileBackfill profileBackfill;
+    private InteractionOwnership ownership;
+    private TrendingLeaderboard trending;
+    private InteractionOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(InteractionOutboxRepository.class);
+        interactionService = mock(UserInteractionService.class);
+        coalescer = mock(UserInteractionCoalescer.class);
+        eventFeatures = mock(EventFeatureCache.class);
+        profileBackfill = mock(UserProfileBackfill.class);
+        ownership = mock(InteractionOwnership.class);
+        when(ownership.isLocal(anyLong())).thenReturn(true);
+        when(ownership.ownedBuckets()).thenReturn(null);
+        trending = mock(TrendingLeaderboard.class);
+        when(eventFeatures.get(anyLong())).thenAnswer(invocation ->
+                new EventFeatureCache.EventFeatures(invocation.getArgument(0), (byte) 0, 0, new int[0]));
+        when(coalescer.writeNow(any())).thenReturn(Set.of());
+        relay = new InteractionOutboxRelay(outboxRepository, interactionService, coalescer, eventFeatures,
+                profileBackfill, ownership, trending,
+                mock(PlatformTransactionManager.class), 100, 1);
+    }
+
+    @Test
+    void userWithOlderRowsClaimedElsewhereIsDeferred() {
+        when(outboxRepository.claimBatch(anyInt())).thenReturn(List.of(
+                row(10L, 1L, 100L, InteractionType.REGISTER_EVENT),
+                row(11L, 2L, 100L, InteractionType.LIKE_EVENT),
+                row(12L, 1L, 101L, InteractionType.LIKE_EVENT)));
+        // User 2 still has row 5 outstanding, held by another relay
+        when(outboxRepository.findHeads(any())).thenReturn(List.of(head(1L, 10L), head(2L, 5L)));
+
+        assertThat(relay.relayBatch()).isEqualTo(2);
+
+        assertThat(writtenUsers()).containsExactly(1L);
+        assertThat(deletedIds()).containsExactlyInAnyOrder(10L, 12L);
+        verify(interactionService, times(2)).applyTo(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void rowsOfUsersOwnedByAnotherNodeAreLeftForItsRelay() {
+        when(ownership.isLocal(2L)).thenReturn(false);
+        when(outboxRepository.claimBatch(anyInt())).thenReturn(List.of(
+                row(50L, 1L, 100L, InteractionType.REGISTER_EVENT),
+                row(51L, 2L, 100L, InteractionType.REGISTER_EVENT)));
+        when(outboxRepository.findHeads(any())).thenReturn(List.of(head(1L, 50L)));
+
+        assertThat(relay.relayBatch()).isEqualTo(1);
+
+        assertThat(writtenUsers()).containsExactly(1L);
+        assertThat(deletedIds()).containsExactly(50L);
+        verify(outboxRepository).findHeads(Set.of(1L));
+    }
+
+    @Test
+    void clusteredRelayClaimsOnlyTheBucketsItOwns() {
+        when(ownership.ownedBuckets()).thenReturn(List.of(1, 5));
+        when(outboxRepository.claimBatchInBuckets(any(), anyInt())).thenReturn(List.of(
+                row(70L, 1L, 100L, InteractionType.REGISTER_EVENT)));
+        when(outboxRepository.findHeads(any())).thenReturn(List.of(head(1L, 70L)));
+
+        assertThat(relay.relayBatch()).isEqualTo(1);
+
+        verify(outboxRepository).claimBatchInBuckets(List.of(1, 5), 100);
+        verify(outboxRepository, never()).claimBatch(anyInt());
+    }
+
+    @Test
+    void relayOwningNoBucketsClaimsNothing() {
+        when(ownership.ownedBuckets()).thenReturn(List.of());
+
+        assertThat(relay.relayBatch()).isZero();
+
+        verifyNoInteractions(outboxRepository);
+    }
+
+    @Test
+    void appliedRowsReachTheTrendingBoardButFailedOnesWaitForTheirRetry() {
+        when(outboxRepository.claimBatch(anyInt())).thenReturn(List.of(
+                row(60L, 1L, 100L, InteractionType.REGISTER_EVENT),
+                row(61L, 2L, 101L, InteractionType.LIKE_EVENT)));
+        when(outboxRepository.findHeads(any())).thenReturn(List.of(head(1L, 60L), head(2L, 61L)));
+        when(coalescer.writeNow(any())).thenReturn(Set.of(2L));
+
+        relay.relayBatch();
+
+        verify(trending).onInteraction(eq(InteractionType.REGISTER_EVENT), eq(100L), anyLong());
+        verify(trending, never()).onInteraction(eq(InteractionType.LIKE_EVENT), any(), anyLong());
+    }
+
+    @Test
+    void relayPausesWhileAProfileBackfillRuns() {
+        when(profileBackfill.isRunningAnywhere()).thenReturn(true);
+
+        relay.scheduledRelay();
+
+        verify(outboxRepository, never()).claimBatch(anyInt());
+    }
+
+    @Test
+    void rowsOfAUserAreAppliedInIdOrderIntoOneDelta() {
+        when(outboxRepository.claimBatch(anyInt())).thenReturn(List.of(
+                row(20L, 3L, 100L, InteractionType.REGISTER_EVENT),
+                row(21L, 3L, 100L, InteractionType.UNREGISTER_EVENT)));
+        when(outboxRepository.findHeads(any())).thenReturn(List.of(head(3L, 20L)));
+
+        relay.relayBatch();
+
+        var order = inOrder(interactionService);
+        order.verify(interactionService).applyTo(any(), any(), eq(InteractionType.REGISTER_EVENT), anyLong());
+        order.verify(interactionService).removeFrom(any(), any(), eq(InteractionType.UNREGISTER_EVENT), anyLong());
+        assertThat(writtenUsers()).containsExactly(3L);
+    }
+
+    @Test
+    void failedUsersKeepTheirRowsAndMissingEventsAreDropped() {
+        when(outboxRepository.claimBatch(anyInt())).thenReturn(List.of(
+                row(30L, 4L, 100L, InteractionType.LIKE_EVENT),
+                row(31L, 5L, 100L, InteractionType.LIKE_EVENT),
+                row(32L, 5L, 999L, InteractionType.LIKE_EVENT)));
+        when(outboxRepository.findHeads(any())).thenReturn(List.of(head(4L, 30L), head(5L, 31L)));
+        when(eventFeatures.get(999L)).thenReturn(null);
+        when(coalescer.writeNow(any())).thenReturn(Set.of(5L));
+
+        assertThat(relay.relayBatch()).isEqualTo(2);
+
+        assertThat(deletedIds()).containsExactlyInAnyOrder(30L, 32L);
+    }
+
+    @Test
+    void removalIsWeightedByWhenTheUndoneInteractionHappened() {
+        LocalDateTime registeredAt = LocalDateTime.of(2026, 8, 1, 10, 0);
+        InteractionOutbox unregister = row(40L, 6L, 100L, InteractionType.UNREGISTER_EVENT);
+        unregister.setOccurredAt(registeredAt);
+        unregister.setCreatedAt(registeredAt.plusDays(60));
+        when(outboxRepository.claimBatch(anyInt())).thenReturn(List.of(unregister));
+        when(outboxRepository.findHeads(any())).thenReturn(List.of(head(6L, 40L)));
+
+        relay.relayBatch();
+
+        verify(interactionService).removeFrom(any(), any(), eq(InteractionType.UNREGISTER_EVENT),
+                eq(registeredAt.toEpochSecond(ZoneOffset.UTC)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> writtenUsers() {
+        ArgumentCaptor<Map<Long, UserInteractionCoalescer.Delta>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(coalescer).writeNow(deltas.capture());
+        return List.copyOf(deltas.getValue().keySet());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<Long> deletedIds() {
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxRepository).deleteByIdIn(ids.capture());
+        return ids.getValue();
+    }
+
+    private static InteractionOutbox row(long id, long userId, long eventId, InteractionType type) {
+        return InteractionOutbox.builder().id(id).userId(userId).eventId(eventId).type(type).build();
+    }
+
+    private static OutboxHeadProjection head(long userId, long firstId) {
+        return new OutboxHeadProjection() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getFirstId() {
+                return firstId;
+            }
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package com.Eventora.service;
+
+import com.Eventora.entity.Event;
+import com.Eventora.entity.enums.EventCategory;
+import com.Eventora.entity.enums.EventStatus;
+import com.Eventora.projection.RecommendationCandidateProjection;
+import com.Eventora.repository.EventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecommendationCandidatesTest {
+
+    private EventRepository repository;
+    private EventFeatureCache eventFeatures;
+    private RecommendationCandidates candidates;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EventRepository.class);
+        eventFeatures = mock(EventFeatureCache.class);
+        when(eventFeatures.get(anyLong())).thenAnswer(invocation ->
+                new EventFeatureCache.EventFeatures(invocation.getArgument(0), (byte) 0, 0, new int[0]));
+        candidates = new RecommendationCandidates(repository, eventFeatures);
+        candidates.reload(); // empty matrix
+    }
+
+    @AfterEach
+    void tearDown() {
+        candidates.stop();
+    }
+
+    @Test
+    void burstOfWritesIsPublishedWithoutFlush() throws InterruptedException {
+        candidates.upsert(event(1L, 3));
+        candidates.upsert(event(2L, 1));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (candidates.matrix().size < 2 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+
+        assertThat(candidates.matrix().size).isEqualTo(2);
+    }
+
+    @Test
+    void writesShareOneMatrixUntilThePendingRebuild() {
+        candidates.upsert(event(1L, 3));
+        candidates.flush();
+        RecommendationCandidates.Matrix published = candidates.matrix();
+
+        candidates.upsert(event(2L, 1));
+        candidates.updateStatus(1L, EventStatus.SCHEDULED);
+
+        assertThat(candidates.matrix()).isSameAs(published);
+
+        candidates.flush();
+
+        RecommendationCandidates.Matrix m = candidates.matrix();
+        assertThat(m.size).isEqualTo(2);
+        assertThat(m.status[m.indexOf(1L)]).isEqualTo(EventStatus.SCHEDULED);
+    }
+
+    @Test
+    void participantDeltaIsVisibleWithoutRebuild() {
+        candidates.upsert(event(1L, 3));
+        candidates.flush();
+
+        candidates.adjustParticipants(1L, 2);
+
+        RecommendationCandidates.Matrix m = candidates.matrix();
+        assertThat(m.participants.get(m.indexOf(1L))).isEqualTo(5);
+    }
+
+    @Test
+    void upsertAppliedDuringReloadIsNotLost() {
+        RecommendationCandidateProjection committed = projection(1L, 3);
+        // The query ran before the insert committed, so its result misses the event
+        when(repository.findRecommendationCandidateRows()).thenAnswer(inv -> {
+            candidates.upsert(event(1L, 3));
+            return List.of();
+        });
+        when(repository.findRecommendationCandidateRowById(1L)).thenReturn(Optional.of(committed));
+
+        candidates.reload();
+        candidates.flush();
+
+        assertThat(candidates.matrix().indexOf(1L)).isNotNegative();
+    }
+
+    @Test
+    void participantDeltaAppliedDuringReloadIsNotLost() {
+        candidates.upsert(event(1L, 3));
+        candidates.flush();
+        RecommendationCandidateProjection beforeCommit = projection(1L, 3);
+        RecommendationCandidateProjection afterCommit = projection(1L, 4);
+        // The query ran before the registration committed; its delta lands on the old rows
+        when(repository.findRecommendationCandidateRows()).thenAnswer(inv -> {
+            candidates.adjustParticipants(1L, 1);
+            return List.of(beforeCommit);
+        });
+        when(repository.findRecommendationCandidateRowById(1L)).thenReturn(Optional.of(afterCommit));
+
+        candidates.reload();
+        candidates.flush();
+
+        RecommendationCandidates.Matrix m = candidates.matrix();
+        assertThat(m.participants.get(m.indexOf(1L))).isEqualTo(4);
+    }
+
+    private static RecommendationCandidateProjection projection(long id, int participants) {
+        RecommendationCandidateProjection p = mock(RecommendationCandidateProjection.class);
+        when(p.getId()).thenReturn(id);
+        when(p.getTitle()).thenReturn("Event " + id);
+        when(p.getEventStatus()).thenReturn(EventStatus.UPCOMING.name());
+        when(p.getCity()).thenReturn("Pune");
+        when(p.getStartDate()).thenReturn(LocalDateTime.now().plusDays(id));
+        when(p.getPrice()).thenReturn(BigDecimal.TEN);
+        when(p.getCurrentParticipants()).thenReturn(participants);
+        when(p.getMaxParticipants()).thenReturn(100);
+        return p;
+    }
+
+    private static Event event(long id, int participants) {
+        LocalDateTime start = LocalDateTime.now().plusDays(id);
+        return Event.builder()
+                .id(id)
+                .title("Event " + id)
+                .eventCategory(EventCategory.values()[0])
+                .eventStatus(EventStatus.UPCOMING)
+                .city("Pune")
+                .startDate(start)
+                .endDate(start.plusHours(2))
+                .price(BigDecimal.TEN)
+                .currentParticipants(participants)
+                .maxParticipants(100)
+                .build();
+    }
+}
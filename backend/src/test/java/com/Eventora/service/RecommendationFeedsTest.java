@@ -0,0 +1,64 @@
+package com.Eventora.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RecommendationFeedsTest {
+
+    private static final long MAX_AGE_MS = 60_000;
+
+    private final RecommendationFeeds feeds = new RecommendationFeeds(mock(MongoTemplate.class),
+            mock(UserProfileCache.class), true, 100, 604_800_000L, 2, MAX_AGE_MS, 500, 1);
+
+    @AfterEach
+    void tearDown() {
+        feeds.stop();
+    }
+
+    @Test
+    void feedIsServedUntilItPassesTheStalenessBound() {
+        long now = System.currentTimeMillis();
+        feeds.put(1L, feed(now - MAX_AGE_MS + 5_000));
+        feeds.put(2L, feed(now - MAX_AGE_MS - 5_000));
+
+        assertThat(feeds.get(1L)).isNotNull();
+        assertThat(feeds.get(2L)).isNull();
+        assertThat(feeds.get(3L)).isNull();
+    }
+
+    @Test
+    void newUsersAreOnlyAdmittedUnderMaxUsersButStoredOnesAreRenewed() {
+        long now = System.currentTimeMillis();
+        feeds.put(1L, feed(now - 1_000));
+        feeds.put(2L, feed(now));
+        feeds.put(3L, feed(now));
+        RecommendationFeeds.Feed renewed = feed(now);
+        feeds.put(1L, renewed);
+
+        assertThat(feeds.size()).isEqualTo(2);
+        assertThat(feeds.get(3L)).isNull();
+        assertThat(feeds.get(1L)).isSameAs(renewed);
+    }
+
+    @Test
+    void disabledFeedsStoreAndServeNothing() {
+        RecommendationFeeds disabled = new RecommendationFeeds(mock(MongoTemplate.class),
+                mock(UserProfileCache.class), false, 100, 604_800_000L, 2, MAX_AGE_MS, 500, 1);
+        try {
+            disabled.put(1L, feed(System.currentTimeMillis()));
+
+            assertThat(disabled.size()).isZero();
+            assertThat(disabled.get(1L)).isNull();
+        } finally {
+            disabled.stop();
+        }
+    }
+
+    private static RecommendationFeeds.Feed feed(long computedAt) {
+        return new RecommendationFeeds.Feed(new long[]{10L}, new float[]{0.5f}, true, computedAt);
+    }
+}
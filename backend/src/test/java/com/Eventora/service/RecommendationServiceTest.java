@@ -0,0 +1,135 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.ApplicationContextUtils;
+import com.Eventora.Utils.EventUtils;
+import com.Eventora.dto.EventTemplate;
+import com.Eventora.entity.AppUser;
+import com.Eventora.entity.UserInteraction;
+import com.Eventora.entity.enums.EventStatus;
+import com.Eventora.repository.EventRepository;
+import com.Eventora.repository.RegistrationRepository;
+import com.Eventora.repository.UserInteractionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RecommendationServiceTest {
+
+    private static final long USER_ID = 7L;
+
+    private final EventFeatureCache eventFeatures = mock(EventFeatureCache.class);
+    private final UserProfileCache profileCache = mock(UserProfileCache.class);
+    private final RecommendationCandidates candidates = mock(RecommendationCandidates.class);
+    private final RecommendationFeeds feeds = mock(RecommendationFeeds.class);
+    private final ApplicationContextUtils applicationContextUtils = mock(ApplicationContextUtils.class);
+
+    private final RecommendationService service = new RecommendationService(mock(UserInteractionService.class),
+            mock(RegistrationRepository.class), mock(EventRepository.class), applicationContextUtils,
+            mock(EventUtils.class), profileCache, candidates, mock(EventNeighborIndex.class),
+            mock(EventVectorIndex.class), feeds, mock(TrendingLeaderboard.class), eventFeatures);
+
+    @BeforeEach
+    void setUp() {
+        when(applicationContextUtils.getLoggedUser()).thenReturn(AppUser.builder().id(USER_ID).build());
+    }
+
+    @Test
+    void shownEventIsPushedDownButNotDropped() {
+        givenProfileThatWasShown(2L);
+        givenCandidates(1L, 2L);
+        when(feeds.get(USER_ID)).thenReturn(feed(true, new long[]{2L, 1L}, 0.6f, 0.5f));
+
+        List<EventTemplate> ranked = service.recommend(2);
+
+        assertThat(ranked).extracting(EventTemplate::getId).containsExactly(1L, 2L);
+        verify(feeds, never()).put(any(), any());
+    }
+
+    @Test
+    void completeFeedShorterThanTheLimitIsServedAsIs() {
+        givenProfileThatWasShown();
+        givenCandidates(1L);
+        when(feeds.get(USER_ID)).thenReturn(feed(true, new long[]{1L}, 0.5f));
+
+        List<EventTemplate> ranked = service.recommend(5);
+
+        assertThat(ranked).extracting(EventTemplate::getId).containsExactly(1L);
+        verify(feeds, never()).put(any(), any());
+    }
+
+    @Test
+    void incompleteFeedShorterThanTheLimitIsRecomputed() {
+        givenProfileThatWasShown();
+        givenCandidates(1L, 2L);
+        when(feeds.get(USER_ID)).thenReturn(feed(false, new long[]{1L}, 0.5f));
+
+        List<EventTemplate> ranked = service.recommend(5);
+
+        assertThat(ranked).extracting(EventTemplate::getId).containsExactlyInAnyOrder(1L, 2L);
+        verify(feeds).put(eq(USER_ID), any());
+    }
+
+    @Test
+    void missingOrStaleFeedIsRecomputedAndStored() {
+        givenProfileThatWasShown();
+        givenCandidates(1L);
+
+        List<EventTemplate> ranked = service.recommend(5);
+
+        assertThat(ranked).extracting(EventTemplate::getId).containsExactly(1L);
+        verify(feeds).put(eq(USER_ID), argThat(RecommendationFeeds.Feed::complete));
+    }
+
+    @Test
+    void likedEventsAreFlaggedInTheRanking() {
+        givenProfile(List.of(2L));
+        givenCandidates(1L, 2L);
+        when(feeds.get(USER_ID)).thenReturn(feed(true, new long[]{1L, 2L}, 0.6f, 0.5f));
+
+        List<EventTemplate> ranked = service.recommend(2);
+
+        assertThat(ranked).extracting(EventTemplate::getId).containsExactly(1L, 2L);
+        assertThat(ranked).extracting(EventTemplate::getIsLiked).containsExactly(false, true);
+    }
+
+    private void givenProfileThatWasShown(Long... shown) {
+        givenProfile(List.of(), shown);
+    }
+
+    private void givenProfile(List<Long> liked, Long... shown) {
+        UserInteraction ui = UserInteraction.builder()
+                .userId(USER_ID)
+                .likedEvents(new LinkedHashSet<>(liked))
+                .shownEvents(new LinkedHashSet<>(Arrays.asList(shown)))
+                .build();
+        UserProfileCache.Profile profile = new UserProfileCache(mock(UserInteractionRepository.class), eventFeatures,
+                new SingleFlightRegistry(), 10, 60_000).profileOf(ui);
+        when(profileCache.get(USER_ID)).thenReturn(profile);
+    }
+
+    // Identical upcoming events, so only the feed scores and the shown penalty decide the order
+    private void givenCandidates(long... eventIds) {
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+        List<RecommendationCandidates.Row> rows = Arrays.stream(eventIds)
+                .mapToObj(id -> new RecommendationCandidates.Row(id,
+                        new EventFeatureCache.EventFeatures(id, EventFeatureCache.NO_CATEGORY, -1, new int[0]),
+                        "Event " + id, "Organizer", EventStatus.values()[0], "Pune", start,
+                        Double.NaN, 0.0, 0, 0, 0.0, 0.0, 0L))
+                .toList();
+        RecommendationCandidates.Matrix m = RecommendationCandidates.Matrix.build(rows);
+        when(candidates.matrix()).thenReturn(m);
+    }
+
+    private static RecommendationFeeds.Feed feed(boolean complete, long[] eventIds, float... scores) {
+        return new RecommendationFeeds.Feed(eventIds, scores, complete, System.currentTimeMillis());
+    }
+}
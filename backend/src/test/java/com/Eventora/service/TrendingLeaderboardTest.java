@@ -0,0 +1,86 @@
+package com.Eventora.service;
+
+import com.Eventora.entity.enums.EventCategory;
+import com.Eventora.entity.enums.EventStatus;
+import com.Eventora.entity.enums.InteractionType;
+import com.Eventora.repository.RegistrationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrendingLeaderboardTest {
+
+    private static final long HALF_LIFE_MS = 6 * 3_600_000L;
+    private static final EventCategory CATEGORY = EventCategory.values()[0];
+    private static final int CITY = 3;
+
+    private final RecommendationCandidates candidates = mock(RecommendationCandidates.class);
+    private final TrendingLeaderboard board = new TrendingLeaderboard(candidates, mock(RegistrationRepository.class),
+            mock(PlatformTransactionManager.class), HALF_LIFE_MS, 10);
+
+    private final long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+        List<RecommendationCandidates.Row> rows = List.of(row(1L, start), row(2L, start));
+        RecommendationCandidates.Matrix m = RecommendationCandidates.Matrix.build(rows);
+        when(candidates.matrix()).thenReturn(m);
+    }
+
+    @Test
+    void relayedRegistrationMovesTheBoard() {
+        board.onInteraction(InteractionType.LIKE_EVENT, 1L, now);
+        assertThat(board.top(-1, null)).containsExactly(1L);
+
+        board.onInteraction(InteractionType.REGISTER_EVENT, 2L, now);
+
+        assertThat(board.top(-1, null)).containsExactly(2L, 1L);
+        assertThat(board.top(CITY, null)).containsExactly(2L, 1L);
+        assertThat(board.top(-1, CATEGORY)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void unregistrationTakesBackThePointsOfTheRegistrationItUndoes() {
+        long registeredAt = now - 3 * 3_600L;
+        board.onInteraction(InteractionType.REGISTER_EVENT, 1L, registeredAt);
+        board.onInteraction(InteractionType.LIKE_EVENT, 2L, now);
+
+        board.onInteraction(InteractionType.UNREGISTER_EVENT, 1L, registeredAt);
+
+        assertThat(board.top(-1, null)).containsExactly(2L);
+        assertThat(board.size()).isEqualTo(1);
+    }
+
+    @Test
+    void olderSignalsWeighLessThanFreshOnes() {
+        board.onInteraction(InteractionType.REGISTER_EVENT, 1L, now - 24 * 3_600L);
+        board.onInteraction(InteractionType.LIKE_EVENT, 2L, now);
+
+        assertThat(board.top(-1, null)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void eventsOutsideTheCandidatesAndImpressionsDoNotTrend() {
+        board.onInteraction(InteractionType.REGISTER_EVENT, 99L, now);
+        board.onInteraction(InteractionType.IMPRESSION, 1L, now);
+
+        assertThat(board.size()).isZero();
+        assertThat(board.top(-1, null)).isEmpty();
+    }
+
+    private static RecommendationCandidates.Row row(long id, LocalDateTime start) {
+        return new RecommendationCandidates.Row(id,
+                new EventFeatureCache.EventFeatures(id, (byte) CATEGORY.ordinal(), CITY, new int[0]),
+                "Event " + id, "Organizer", EventStatus.values()[0], "Pune", start,
+                Double.NaN, 0.0, 0, 0, 0.0, 0.0, 0L);
+    }
+}
@@ -0,0 +1,150 @@
+package com.Eventora.service;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserInteractionCoalescerTest {
+
+    private BulkOperations bulk;
+    private UserProfileCache profileCache;
+    private UserInteractionCoalescer coalescer;
+
+    // One entry per bulk.execute(): the update documents sent in that bulk
+    private final List<List<Document>> executed = new ArrayList<>();
+    private final List<Document> current = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class))).thenReturn(bulk);
+        when(bulk.upsert(any(Query.class), any(Update.class))).thenAnswer(invocation -> {
+            current.add(invocation.<Update>getArgument(1).getUpdateObject());
+            return bulk;
+        });
+        when(bulk.execute()).thenAnswer(invocation -> {
+            executed.add(new ArrayList<>(current));
+            current.clear();
+            return null;
+        });
+        profileCache = mock(UserProfileCache.class);
+        coalescer = new UserInteractionCoalescer(mongoTemplate, mock(UserProfileCompactor.class), profileCache);
+    }
+
+    @Test
+    void changesOfOneUserBecomeOneUpsert() {
+        coalescer.merge(1L, d -> d.inc("categoryScores.MUSIC", 2.0).addToSet("likedEvents", 10L));
+        coalescer.merge(1L, d -> d.inc("categoryScores.MUSIC", 1.5).addToSet("likedEvents", 11L));
+
+        assertThat(coalescer.flush()).isEqualTo(1);
+
+        assertThat(executed).hasSize(1);
+        Document update = executed.get(0).get(0);
+        assertThat(update.get("$inc", Document.class).get("categoryScores.MUSIC")).isEqualTo(3.5);
+        assertThat(update.get("$setOnInsert", Document.class).get("userId")).isEqualTo(1L);
+        assertThat(update.get("$set", Document.class)).containsKey("lastActive");
+        assertThat(coalescer.pendingUsers()).isZero();
+    }
+
+    @Test
+    void lastChangePerValueWinsAndMixedSetsSplitIntoASecondRound() {
+        coalescer.merge(1L, d -> d.addToSet("likedEvents", 10L).addToSet("likedEvents", 11L));
+        coalescer.merge(1L, d -> d.pull("likedEvents", 11L).pull("likedEvents", 12L));
+
+        coalescer.flush();
+
+        assertThat(executed).hasSize(2);
+        Document first = executed.get(0).get(0);
+        assertThat(first).doesNotContainKey("$pullAll");
+        assertThat(modifiers(first.get("$addToSet", Document.class).get("likedEvents")).get("$each"))
+                .isEqualTo(new Object[]{10L});
+        Document second = executed.get(1).get(0);
+        assertThat(second.get("$pullAll", Document.class).getList("likedEvents", Long.class))
+                .containsExactly(11L, 12L);
+    }
+
+    @Test
+    void cappedRingPullsTouchedValuesThenPushesTheNewestLast() {
+        coalescer.merge(1L, d -> d.pushCapped("recentViews", 5L, 3).pushCapped("recentViews", 6L, 3));
+        coalescer.merge(1L, d -> d.pushCapped("recentViews", 5L, 3));
+
+        coalescer.flush();
+
+        assertThat(executed).hasSize(2);
+        assertThat(executed.get(0).get(0).get("$pullAll", Document.class).getList("recentViews", Long.class))
+                .containsExactly(6L, 5L);
+        Map<String, Object> push = modifiers(executed.get(1).get(0).get("$push", Document.class).get("recentViews"));
+        assertThat(push.get("$each")).isEqualTo(new Object[]{6L, 5L});
+        assertThat(push.get("$slice")).isEqualTo(-3);
+    }
+
+    @Test
+    void failedWriteIsRestoredAndMergedWithNewerChanges() {
+        doThrow(new RuntimeException("mongo down")).doAnswer(invocation -> {
+            executed.add(new ArrayList<>(current));
+            current.clear();
+            return null;
+        }).when(bulk).execute();
+        coalescer.merge(1L, d -> d.inc("cityScores.Pune", 1.0).addToSet("likedEvents", 10L));
+
+        coalescer.flush();
+        assertThat(coalescer.pendingUsers()).isEqualTo(1);
+        current.clear();
+
+        // Newer change to the same value wins over the restored one
+        coalescer.merge(1L, d -> d.inc("cityScores.Pune", 2.0).pull("likedEvents", 10L));
+        coalescer.flush();
+
+        Document update = executed.get(0).get(0);
+        assertThat(update.get("$inc", Document.class).get("cityScores.Pune")).isEqualTo(3.0);
+        assertThat(update).doesNotContainKey("$addToSet");
+        assertThat(update.get("$pullAll", Document.class).getList("likedEvents", Long.class)).containsExactly(10L);
+        assertThat(coalescer.pendingUsers()).isZero();
+    }
+
+    @Test
+    void listingImpressionsAndShownEventsKeepTheCachedProfile() {
+        coalescer.merge(1L, d -> d.pushCapped("listedEvents", 5L, 200).pushCapped("shownEvents", 6L, 100));
+        coalescer.merge(2L, d -> d.pushCapped("listedEvents", 5L, 200).inc("categoryScores.MUSIC", 1.0));
+
+        coalescer.flush();
+
+        verify(profileCache, never()).invalidate(1L);
+        verify(profileCache).invalidate(2L);
+    }
+
+    @Test
+    void writeNowReportsFailedUsersWithoutBufferingThem() {
+        doThrow(new RuntimeException("mongo down")).when(bulk).execute();
+
+        var failed = coalescer.writeNow(Map.of(7L, new UserInteractionCoalescer.Delta().inc("categoryScores.FOOD", 1.0)));
+
+        assertThat(failed).containsExactly(7L);
+        assertThat(coalescer.pendingUsers()).isZero();
+    }
+
+    // $each / $slice of an $addToSet or $push value, before Mongo conversion
+    private static Map<String, Object> modifiers(Object value) {
+        Map<String, Object> byKey = new HashMap<>();
+        if (value instanceof Update.Modifier modifier) {
+            byKey.put(modifier.getKey(), modifier.getValue());
+        } else if (value instanceof Update.Modifiers modifiers) {
+            modifiers.getModifiers().forEach(m -> byKey.put(m.getKey(), m.getValue()));
+        }
+        return byKey;
+    }
+}
@@ -0,0 +1,60 @@
+package com.Eventora.service;
+
+import com.Eventora.Utils.AffinityDecay;
+import com.Eventora.Utils.ApplicationContextUtils;
+import com.Eventora.Utils.EventUtils;
+import com.Eventora.entity.enums.EventCategory;
+import com.Eventora.entity.enums.InteractionType;
+import com.Eventora.repository.EventRepository;
+import com.Eventora.repository.EventWatchlistRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserInteractionServiceTest {
+
+    private static final EventCategory CATEGORY = EventCategory.values()[0];
+    private static final String PATH = "categoryAffinity." + CATEGORY;
+    private static final long DAY = 86_400L;
+
+    private final EventFeatureCache eventFeatures = mock(EventFeatureCache.class);
+    private final UserInteractionService service = new UserInteractionService(
+            mock(UserInteractionCoalescer.class), eventFeatures, mock(InteractionOutboxService.class),
+            mock(UserProfileCache.class), mock(EventWatchlistRepository.class), mock(EventRepository.class),
+            mock(EventUtils.class), mock(ApplicationContextUtils.class));
+
+    private final EventFeatureCache.EventFeatures event =
+            new EventFeatureCache.EventFeatures(100L, (byte) CATEGORY.ordinal(), -1, new int[0]);
+
+    @Test
+    void unregisteringMonthsLaterTakesBackOnlyTheRegistrationPoints() {
+        when(eventFeatures.category(any())).thenReturn(CATEGORY);
+        long registeredAt = 1_790_812_800L;
+        long twoMonthsLater = registeredAt + 60 * DAY;
+
+        UserInteractionCoalescer.Delta delta = new UserInteractionCoalescer.Delta();
+        service.applyTo(delta, event, InteractionType.REGISTER_EVENT, registeredAt);
+        service.applyTo(delta, event, InteractionType.CHECK_IN, twoMonthsLater);
+        service.removeFrom(delta, event, InteractionType.UNREGISTER_EVENT, registeredAt);
+
+        // Only the later check-in is left; none of its credit pays for the removal
+        double expected = AffinityDecay.boostAt(12, twoMonthsLater);
+        assertThat(delta.increment(PATH)).isCloseTo(expected, within(expected * 1e-9));
+    }
+
+    @Test
+    void removalAtTheOriginalTimeCancelsTheAddExactly() {
+        when(eventFeatures.category(any())).thenReturn(CATEGORY);
+        long registeredAt = 1_790_812_800L + 45 * DAY;
+
+        UserInteractionCoalescer.Delta delta = new UserInteractionCoalescer.Delta();
+        service.applyTo(delta, event, InteractionType.REGISTER_EVENT, registeredAt);
+        service.removeFrom(delta, event, InteractionType.UNREGISTER_EVENT, registeredAt);
+
+        assertThat(delta.increment(PATH)).isZero();
+    }
+}
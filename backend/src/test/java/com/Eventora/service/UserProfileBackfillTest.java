@@ -0,0 +1,132 @@
+package com.Eventora.service;
+
+import com.Eventora.entity.InteractionOutbox;
+import com.Eventora.entity.ProfileBackfillCheckpoint;
+import com.Eventora.entity.UserInteraction;
+import com.Eventora.entity.enums.InteractionType;
+import com.Eventora.projection.ProfileSourceProjection;
+import com.Eventora.repository.InteractionOutboxRepository;
+import com.Eventora.repository.RegistrationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserProfileBackfillTest {
+
+    private record Row(Long getUserId, Long getEventId, String getKind,
+                       LocalDateTime getOccurredAt, LocalDateTime getCheckedInAt) implements ProfileSourceProjection {}
+
+    private record Saved(String state, long lastUserId, Set<Long> writtenSoFar) {}
+
+    private final RegistrationRepository registrationRepository = mock(RegistrationRepository.class);
+    private final InteractionOutboxRepository outboxRepository = mock(InteractionOutboxRepository.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+
+    private final Set<Long> written = ConcurrentHashMap.newKeySet();
+    private final List<Saved> saved = new CopyOnWriteArrayList<>();
+    private final List<String> steps = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Long> bulkUser = new ThreadLocal<>();
+    // User 1's write only finishes once user 3 is written, so chunks complete out of order
+    private final CountDownLatch lastUserWritten = new CountDownLatch(1);
+
+    private UserProfileBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(UserInteraction.class))).thenReturn(bulk);
+        when(bulk.upsert(any(Query.class), any(Update.class)))
+                .thenAnswer(invocation -> {
+                    Query query = invocation.getArgument(0);
+                    bulkUser.set((Long) query.getQueryObject().get("userId"));
+                    return bulk;
+                });
+        when(bulk.execute()).thenAnswer(invocation -> {
+            long userId = bulkUser.get();
+            if (userId == 1L) lastUserWritten.await(5, TimeUnit.SECONDS);
+            written.add(userId);
+            if (userId == 3L) lastUserWritten.countDown();
+            return null;
+        });
+        when(mongoTemplate.save(any(ProfileBackfillCheckpoint.class))).thenAnswer(invocation -> {
+            ProfileBackfillCheckpoint cp = invocation.getArgument(0);
+            saved.add(new Saved(cp.getState(), cp.getLastUserId(), Set.copyOf(written)));
+            steps.add(cp.getState());
+            return cp;
+        });
+        when(outboxRepository.deleteByIdIn(any())).thenAnswer(invocation -> {
+            steps.add("DISCARD");
+            return 0;
+        });
+        when(registrationRepository.streamProfileSourcesAfter(anyLong())).thenAnswer(invocation -> Stream.of(
+                source(1L, 100L), source(2L, 101L), source(3L, 102L)));
+
+        backfill = new UserProfileBackfill(registrationRepository, outboxRepository, mongoTemplate,
+                mock(EventFeatureCache.class), mock(PlatformTransactionManager.class),
+                false, 1, 2, 3, 3, 600_000);
+    }
+
+    @Test
+    void checkpointOnlyPassesUsersWhoseChunksAndAllEarlierChunksAreWritten() throws InterruptedException {
+        runToEnd();
+
+        assertThat(saved).extracting(Saved::lastUserId).containsExactly(0L, 1L, 2L, 3L, 3L);
+        assertThat(saved.get(saved.size() - 1).state()).isEqualTo("COMPLETED");
+        for (Saved cp : saved) {
+            for (long user = 1; user <= cp.lastUserId(); user++) assertThat(cp.writtenSoFar()).contains(user);
+        }
+    }
+
+    @Test
+    void outboxRowsCountedByTheRebuildAreDiscardedBeforeTheRelayResumes() throws InterruptedException {
+        when(outboxRepository.findAll()).thenReturn(List.of(outboxRow(7L, 1L), outboxRow(8L, 3L)));
+
+        runToEnd();
+
+        verify(outboxRepository).deleteByIdIn(List.of(7L, 8L));
+        assertThat(steps).endsWith("DISCARD", "COMPLETED");
+    }
+
+    @Test
+    void runningCheckpointOlderThanTheLeaseIsIgnored() {
+        ProfileBackfillCheckpoint cp = ProfileBackfillCheckpoint.builder()
+                .id(UserProfileBackfill.JOB_ID).state("RUNNING").updatedAt(LocalDateTime.now()).build();
+        when(mongoTemplate.findById(UserProfileBackfill.JOB_ID, ProfileBackfillCheckpoint.class)).thenReturn(cp);
+
+        assertThat(backfill.isRunningAnywhere()).isTrue();
+
+        cp.setUpdatedAt(LocalDateTime.now().minusHours(1));
+        assertThat(backfill.isRunningAnywhere()).isFalse();
+    }
+
+    private void runToEnd() throws InterruptedException {
+        assertThat(backfill.start(false)).isTrue();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (backfill.isRunning() && System.nanoTime() < deadline) Thread.sleep(10);
+        assertThat(backfill.isRunning()).isFalse();
+    }
+
+    private static Row source(long userId, long eventId) {
+        return new Row(userId, eventId, "REGISTERED", LocalDateTime.now(), null);
+    }
+
+    private static InteractionOutbox outboxRow(long id, long userId) {
+        return InteractionOutbox.builder().id(id).userId(userId).eventId(100L).type(InteractionType.REGISTER_EVENT).build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.Eventora.service;
+
+import com.Eventora.entity.UserInteraction;
+import com.Eventora.entity.enums.EventCategory;
+import com.Eventora.repository.UserInteractionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserProfileCacheTest {
+
+    private static final EventCategory CATEGORY = EventCategory.values()[0];
+
+    private final UserInteractionRepository repository = mock(UserInteractionRepository.class);
+    private final UserProfileCache cache = new UserProfileCache(repository, mock(EventFeatureCache.class),
+            new SingleFlightRegistry(), 1_000, 60_000);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void hitIsServedWithoutAnotherLoad() {
+        stubLoad(1L, () -> profile(1L, 2.0));
+
+        cache.get(1L);
+        UserProfileCache.Profile profile = cache.get(1L);
+
+        assertThat(loads).hasValue(1);
+        assertThat(profile.categoryScore(CATEGORY)).isEqualTo(2.0);
+    }
+
+    @Test
+    void invalidatingAnotherUserDuringALoadDoesNotBlockCaching() {
+        stubLoad(1L, () -> {
+            cache.invalidate(2L);
+            return profile(1L, 2.0);
+        });
+
+        cache.get(1L);
+        cache.get(1L);
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidatingTheSameUserDuringItsLoadIsNotCached() {
+        stubLoad(1L, () -> {
+            UserInteraction stale = profile(1L, 2.0);
+            cache.invalidate(1L);
+            return stale;
+        });
+
+        cache.get(1L);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void userWithoutAProfileIsCachedAsMissing() {
+        stubLoad(1L, () -> null);
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(1L)).isNull();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void shownEventsAreWrittenThroughToTheCachedProfile() {
+        stubLoad(1L, () -> profile(1L, 2.0));
+        cache.get(1L);
+
+        cache.recordShown(1L, List.of(7L, 9L));
+
+        assertThat(cache.get(1L).isShown(9L)).isTrue();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void overshootEvictsTheLeastRecentlyUsedDownToMaxEntries() {
+        UserProfileCache small = new UserProfileCache(repository, mock(EventFeatureCache.class),
+                new SingleFlightRegistry(), 16, 60_000);
+        for (long userId = 1; userId <= 18; userId++) {
+            long id = userId;
+            stubLoad(id, () -> profile(id, 1.0));
+        }
+        for (long userId = 1; userId <= 17; userId++) small.get(userId);
+        small.get(1L);
+
+        small.get(18L);
+
+        assertThat(small.size()).isEqualTo(16);
+        int loadsBefore = loads.get();
+        small.get(1L);
+        small.get(18L);
+        assertThat(loads).hasValue(loadsBefore);
+        small.get(2L);
+        assertThat(loads).hasValue(loadsBefore + 1);
+    }
+
+    private void stubLoad(long userId, Supplier<UserInteraction> load) {
+        when(repository.findScoringProfileByUserId(userId)).thenAnswer(invocation -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(load.get());
+        });
+    }
+
+    private static UserInteraction profile(long userId, double categoryScore) {
+        UserInteraction ui = UserInteraction.builder().userId(userId).build();
+        ui.getCategoryAffinity().put(CATEGORY, categoryScore);
+        return ui;
+    }
+}